@@ -1,5 +1,6 @@
 package org.microfuse.file.sharer.node.commons;
 
+import org.microfuse.file.sharer.node.commons.communication.network.InboundQueueOverflowPolicy;
 import org.microfuse.file.sharer.node.commons.communication.network.NetworkHandlerType;
 import org.microfuse.file.sharer.node.commons.communication.routing.strategy.RoutingStrategyType;
 import org.microfuse.file.sharer.node.commons.peer.Node;
@@ -26,10 +27,40 @@ public class Configuration {
     private int bootstrapServerReplyWaitTimeout;
     private int serSuperPeerTimeout;
     private int automatedGarbageCollectionInterval;
+    private int routingStrategyCacheMaxSize;
+    private int serOkPageMaxLength;
+    private int queryTimeout;
+    private int queryMaxResults;
+    private int queryResultsRetentionTime;
+    private int queryResultCacheTimeToLive;
+    private int queryResultCacheMaxSize;
+    private int resourceSummaryBitCount;
+    private int resourceSummaryHashFunctionCount;
+    private int resourceSummaryTimeToLive;
+    private int resourceListJournalSize;
+    private int resourceListSyncDelay;
     private int udpNetworkHandlerRetryInterval;
     private int udpNetworkHandlerRetryCount;
+    private int udpNetworkHandlerWindowSize;
+    private int udpNetworkHandlerAckDelay;
+    private int udpNetworkHandlerMaxRetransmissionTimeout;
+    private boolean udpNetworkHandlerCoalescingEnabled;
+    private int udpNetworkHandlerCoalescingWindow;
+    private int udpNetworkHandlerSessionIdleTimeout;
+    private boolean tcpNetworkHandlerConnectionPoolingEnabled;
+    private int tcpNetworkHandlerConnectionIdleTimeout;
+    private boolean networkHandlerBinaryCodecEnabled;
+    private int networkHandlerQueryQueueCapacity;
+    private InboundQueueOverflowPolicy networkHandlerQueryQueueOverflowPolicy;
     private String tracerIP;
     private int tracerPort;
+    private int tracerStubRefreshInterval;
+    private int tracerLookupRetryInterval;
+    private int tracerEventQueueSize;
+    private int tracerEventBatchSize;
+    private boolean taskSchedulerVirtualThreadsEnabled;
+    private int taskSchedulerWorkerThreadCount;
+    private int timeoutServiceTickDuration;
     private NetworkHandlerType networkHandlerType;
     private RoutingStrategyType routingStrategyType;
 
@@ -54,10 +85,42 @@ public class Configuration {
         bootstrapServerReplyWaitTimeout = NodeConstants.DEFAULT_NETWORK_HANDLER_REPLY_TIMEOUT;
         serSuperPeerTimeout = NodeConstants.DEFAULT_SER_SUPER_PEER_TIMEOUT;
         automatedGarbageCollectionInterval = NodeConstants.DEFAULT_AUTOMATED_GARBAGE_COLLECTION_INTERVAL;
+        routingStrategyCacheMaxSize = NodeConstants.DEFAULT_ROUTING_STRATEGY_CACHE_MAX_SIZE;
+        serOkPageMaxLength = NodeConstants.DEFAULT_SER_OK_PAGE_MAX_LENGTH;
+        queryTimeout = NodeConstants.DEFAULT_QUERY_TIMEOUT;
+        queryMaxResults = NodeConstants.DEFAULT_QUERY_MAX_RESULTS;
+        queryResultsRetentionTime = NodeConstants.DEFAULT_QUERY_RESULTS_RETENTION_TIME;
+        queryResultCacheTimeToLive = NodeConstants.DEFAULT_QUERY_RESULT_CACHE_TIME_TO_LIVE;
+        queryResultCacheMaxSize = NodeConstants.DEFAULT_QUERY_RESULT_CACHE_MAX_SIZE;
+        resourceSummaryBitCount = NodeConstants.DEFAULT_RESOURCE_SUMMARY_BIT_COUNT;
+        resourceSummaryHashFunctionCount = NodeConstants.DEFAULT_RESOURCE_SUMMARY_HASH_FUNCTION_COUNT;
+        resourceSummaryTimeToLive = NodeConstants.DEFAULT_RESOURCE_SUMMARY_TIME_TO_LIVE;
+        resourceListJournalSize = NodeConstants.DEFAULT_RESOURCE_LIST_JOURNAL_SIZE;
+        resourceListSyncDelay = NodeConstants.DEFAULT_RESOURCE_LIST_SYNC_DELAY;
         udpNetworkHandlerRetryInterval = NodeConstants.DEFAULT_UDP_NETWORK_HANDLER_RETRY_INTERVAL;
         udpNetworkHandlerRetryCount = NodeConstants.DEFAULT_UDP_NETWORK_HANDLER_RETRY_COUNT;
+        udpNetworkHandlerWindowSize = NodeConstants.DEFAULT_UDP_NETWORK_HANDLER_WINDOW_SIZE;
+        udpNetworkHandlerAckDelay = NodeConstants.DEFAULT_UDP_NETWORK_HANDLER_ACK_DELAY;
+        udpNetworkHandlerMaxRetransmissionTimeout =
+                NodeConstants.DEFAULT_UDP_NETWORK_HANDLER_MAX_RETRANSMISSION_TIMEOUT;
+        udpNetworkHandlerCoalescingEnabled = NodeConstants.DEFAULT_UDP_NETWORK_HANDLER_COALESCING_ENABLED;
+        udpNetworkHandlerCoalescingWindow = NodeConstants.DEFAULT_UDP_NETWORK_HANDLER_COALESCING_WINDOW;
+        udpNetworkHandlerSessionIdleTimeout = NodeConstants.DEFAULT_UDP_NETWORK_HANDLER_SESSION_IDLE_TIMEOUT;
+        tcpNetworkHandlerConnectionPoolingEnabled =
+                NodeConstants.DEFAULT_TCP_NETWORK_HANDLER_CONNECTION_POOLING_ENABLED;
+        tcpNetworkHandlerConnectionIdleTimeout = NodeConstants.DEFAULT_TCP_NETWORK_HANDLER_CONNECTION_IDLE_TIMEOUT;
+        networkHandlerBinaryCodecEnabled = NodeConstants.DEFAULT_NETWORK_HANDLER_BINARY_CODEC_ENABLED;
+        networkHandlerQueryQueueCapacity = NodeConstants.DEFAULT_NETWORK_HANDLER_QUERY_QUEUE_CAPACITY;
+        networkHandlerQueryQueueOverflowPolicy = NodeConstants.DEFAULT_NETWORK_HANDLER_QUERY_QUEUE_OVERFLOW_POLICY;
         tracerIP = NodeConstants.DEFAULT_TRACER_IP;
         tracerPort = NodeConstants.DEFAULT_TRACER_PORT;
+        tracerStubRefreshInterval = NodeConstants.DEFAULT_TRACER_STUB_REFRESH_INTERVAL;
+        tracerLookupRetryInterval = NodeConstants.DEFAULT_TRACER_LOOKUP_RETRY_INTERVAL;
+        tracerEventQueueSize = NodeConstants.DEFAULT_TRACER_EVENT_QUEUE_SIZE;
+        tracerEventBatchSize = NodeConstants.DEFAULT_TRACER_EVENT_BATCH_SIZE;
+        taskSchedulerVirtualThreadsEnabled = NodeConstants.DEFAULT_TASK_SCHEDULER_VIRTUAL_THREADS_ENABLED;
+        taskSchedulerWorkerThreadCount = NodeConstants.DEFAULT_TASK_SCHEDULER_WORKER_THREAD_COUNT;
+        timeoutServiceTickDuration = NodeConstants.DEFAULT_TIMEOUT_SERVICE_TICK_DURATION;
         networkHandlerType = NodeConstants.DEFAULT_NETWORK_HANDLER;
         routingStrategyType = NodeConstants.DEFAULT_ROUTING_STRATEGY;
     }
@@ -198,6 +261,102 @@ public class Configuration {
         this.automatedGarbageCollectionInterval = automatedGarbageCollectionInterval;
     }
 
+    public int getRoutingStrategyCacheMaxSize() {
+        return routingStrategyCacheMaxSize;
+    }
+
+    public void setRoutingStrategyCacheMaxSize(int routingStrategyCacheMaxSize) {
+        this.routingStrategyCacheMaxSize = routingStrategyCacheMaxSize;
+    }
+
+    public int getSerOkPageMaxLength() {
+        return serOkPageMaxLength;
+    }
+
+    public void setSerOkPageMaxLength(int serOkPageMaxLength) {
+        this.serOkPageMaxLength = serOkPageMaxLength;
+    }
+
+    public int getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    public void setQueryTimeout(int queryTimeout) {
+        this.queryTimeout = queryTimeout;
+    }
+
+    public int getQueryMaxResults() {
+        return queryMaxResults;
+    }
+
+    public void setQueryMaxResults(int queryMaxResults) {
+        this.queryMaxResults = queryMaxResults;
+    }
+
+    public int getQueryResultsRetentionTime() {
+        return queryResultsRetentionTime;
+    }
+
+    public void setQueryResultsRetentionTime(int queryResultsRetentionTime) {
+        this.queryResultsRetentionTime = queryResultsRetentionTime;
+    }
+
+    public int getQueryResultCacheTimeToLive() {
+        return queryResultCacheTimeToLive;
+    }
+
+    public void setQueryResultCacheTimeToLive(int queryResultCacheTimeToLive) {
+        this.queryResultCacheTimeToLive = queryResultCacheTimeToLive;
+    }
+
+    public int getQueryResultCacheMaxSize() {
+        return queryResultCacheMaxSize;
+    }
+
+    public void setQueryResultCacheMaxSize(int queryResultCacheMaxSize) {
+        this.queryResultCacheMaxSize = queryResultCacheMaxSize;
+    }
+
+    public int getResourceSummaryBitCount() {
+        return resourceSummaryBitCount;
+    }
+
+    public void setResourceSummaryBitCount(int resourceSummaryBitCount) {
+        this.resourceSummaryBitCount = resourceSummaryBitCount;
+    }
+
+    public int getResourceSummaryHashFunctionCount() {
+        return resourceSummaryHashFunctionCount;
+    }
+
+    public void setResourceSummaryHashFunctionCount(int resourceSummaryHashFunctionCount) {
+        this.resourceSummaryHashFunctionCount = resourceSummaryHashFunctionCount;
+    }
+
+    public int getResourceSummaryTimeToLive() {
+        return resourceSummaryTimeToLive;
+    }
+
+    public void setResourceSummaryTimeToLive(int resourceSummaryTimeToLive) {
+        this.resourceSummaryTimeToLive = resourceSummaryTimeToLive;
+    }
+
+    public int getResourceListJournalSize() {
+        return resourceListJournalSize;
+    }
+
+    public void setResourceListJournalSize(int resourceListJournalSize) {
+        this.resourceListJournalSize = resourceListJournalSize;
+    }
+
+    public int getResourceListSyncDelay() {
+        return resourceListSyncDelay;
+    }
+
+    public void setResourceListSyncDelay(int resourceListSyncDelay) {
+        this.resourceListSyncDelay = resourceListSyncDelay;
+    }
+
     public int getUdpNetworkHandlerRetryInterval() {
         return udpNetworkHandlerRetryInterval;
     }
@@ -214,6 +373,95 @@ public class Configuration {
         this.udpNetworkHandlerRetryCount = udpNetworkHandlerRetryCount;
     }
 
+    public int getUdpNetworkHandlerWindowSize() {
+        return udpNetworkHandlerWindowSize;
+    }
+
+    public void setUdpNetworkHandlerWindowSize(int udpNetworkHandlerWindowSize) {
+        this.udpNetworkHandlerWindowSize = udpNetworkHandlerWindowSize;
+    }
+
+    public int getUdpNetworkHandlerAckDelay() {
+        return udpNetworkHandlerAckDelay;
+    }
+
+    public void setUdpNetworkHandlerAckDelay(int udpNetworkHandlerAckDelay) {
+        this.udpNetworkHandlerAckDelay = udpNetworkHandlerAckDelay;
+    }
+
+    public int getUdpNetworkHandlerMaxRetransmissionTimeout() {
+        return udpNetworkHandlerMaxRetransmissionTimeout;
+    }
+
+    public void setUdpNetworkHandlerMaxRetransmissionTimeout(int udpNetworkHandlerMaxRetransmissionTimeout) {
+        this.udpNetworkHandlerMaxRetransmissionTimeout = udpNetworkHandlerMaxRetransmissionTimeout;
+    }
+
+    public boolean isUdpNetworkHandlerCoalescingEnabled() {
+        return udpNetworkHandlerCoalescingEnabled;
+    }
+
+    public void setUdpNetworkHandlerCoalescingEnabled(boolean udpNetworkHandlerCoalescingEnabled) {
+        this.udpNetworkHandlerCoalescingEnabled = udpNetworkHandlerCoalescingEnabled;
+    }
+
+    public int getUdpNetworkHandlerCoalescingWindow() {
+        return udpNetworkHandlerCoalescingWindow;
+    }
+
+    public void setUdpNetworkHandlerCoalescingWindow(int udpNetworkHandlerCoalescingWindow) {
+        this.udpNetworkHandlerCoalescingWindow = udpNetworkHandlerCoalescingWindow;
+    }
+
+    public int getUdpNetworkHandlerSessionIdleTimeout() {
+        return udpNetworkHandlerSessionIdleTimeout;
+    }
+
+    public void setUdpNetworkHandlerSessionIdleTimeout(int udpNetworkHandlerSessionIdleTimeout) {
+        this.udpNetworkHandlerSessionIdleTimeout = udpNetworkHandlerSessionIdleTimeout;
+    }
+
+    public boolean isTcpNetworkHandlerConnectionPoolingEnabled() {
+        return tcpNetworkHandlerConnectionPoolingEnabled;
+    }
+
+    public void setTcpNetworkHandlerConnectionPoolingEnabled(boolean tcpNetworkHandlerConnectionPoolingEnabled) {
+        this.tcpNetworkHandlerConnectionPoolingEnabled = tcpNetworkHandlerConnectionPoolingEnabled;
+    }
+
+    public int getTcpNetworkHandlerConnectionIdleTimeout() {
+        return tcpNetworkHandlerConnectionIdleTimeout;
+    }
+
+    public void setTcpNetworkHandlerConnectionIdleTimeout(int tcpNetworkHandlerConnectionIdleTimeout) {
+        this.tcpNetworkHandlerConnectionIdleTimeout = tcpNetworkHandlerConnectionIdleTimeout;
+    }
+
+    public boolean isNetworkHandlerBinaryCodecEnabled() {
+        return networkHandlerBinaryCodecEnabled;
+    }
+
+    public void setNetworkHandlerBinaryCodecEnabled(boolean networkHandlerBinaryCodecEnabled) {
+        this.networkHandlerBinaryCodecEnabled = networkHandlerBinaryCodecEnabled;
+    }
+
+    public int getNetworkHandlerQueryQueueCapacity() {
+        return networkHandlerQueryQueueCapacity;
+    }
+
+    public void setNetworkHandlerQueryQueueCapacity(int networkHandlerQueryQueueCapacity) {
+        this.networkHandlerQueryQueueCapacity = networkHandlerQueryQueueCapacity;
+    }
+
+    public InboundQueueOverflowPolicy getNetworkHandlerQueryQueueOverflowPolicy() {
+        return networkHandlerQueryQueueOverflowPolicy;
+    }
+
+    public void setNetworkHandlerQueryQueueOverflowPolicy(
+            InboundQueueOverflowPolicy networkHandlerQueryQueueOverflowPolicy) {
+        this.networkHandlerQueryQueueOverflowPolicy = networkHandlerQueryQueueOverflowPolicy;
+    }
+
     public String getTracerIP() {
         return tracerIP;
     }
@@ -230,6 +478,62 @@ public class Configuration {
         this.tracerPort = tracerPort;
     }
 
+    public int getTracerStubRefreshInterval() {
+        return tracerStubRefreshInterval;
+    }
+
+    public void setTracerStubRefreshInterval(int tracerStubRefreshInterval) {
+        this.tracerStubRefreshInterval = tracerStubRefreshInterval;
+    }
+
+    public int getTracerLookupRetryInterval() {
+        return tracerLookupRetryInterval;
+    }
+
+    public void setTracerLookupRetryInterval(int tracerLookupRetryInterval) {
+        this.tracerLookupRetryInterval = tracerLookupRetryInterval;
+    }
+
+    public int getTracerEventQueueSize() {
+        return tracerEventQueueSize;
+    }
+
+    public void setTracerEventQueueSize(int tracerEventQueueSize) {
+        this.tracerEventQueueSize = tracerEventQueueSize;
+    }
+
+    public int getTracerEventBatchSize() {
+        return tracerEventBatchSize;
+    }
+
+    public void setTracerEventBatchSize(int tracerEventBatchSize) {
+        this.tracerEventBatchSize = tracerEventBatchSize;
+    }
+
+    public boolean isTaskSchedulerVirtualThreadsEnabled() {
+        return taskSchedulerVirtualThreadsEnabled;
+    }
+
+    public void setTaskSchedulerVirtualThreadsEnabled(boolean taskSchedulerVirtualThreadsEnabled) {
+        this.taskSchedulerVirtualThreadsEnabled = taskSchedulerVirtualThreadsEnabled;
+    }
+
+    public int getTaskSchedulerWorkerThreadCount() {
+        return taskSchedulerWorkerThreadCount;
+    }
+
+    public void setTaskSchedulerWorkerThreadCount(int taskSchedulerWorkerThreadCount) {
+        this.taskSchedulerWorkerThreadCount = taskSchedulerWorkerThreadCount;
+    }
+
+    public int getTimeoutServiceTickDuration() {
+        return timeoutServiceTickDuration;
+    }
+
+    public void setTimeoutServiceTickDuration(int timeoutServiceTickDuration) {
+        this.timeoutServiceTickDuration = timeoutServiceTickDuration;
+    }
+
     public NetworkHandlerType getNetworkHandlerType() {
         return networkHandlerType;
     }
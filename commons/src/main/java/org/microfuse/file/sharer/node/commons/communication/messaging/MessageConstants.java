@@ -4,6 +4,8 @@ package org.microfuse.file.sharer.node.commons.communication.messaging;
  * Message related constants.
  */
 public class MessageConstants {
+    public static final int MESSAGE_MAX_LENGTH = 9999;
+
     public static final String ECHO_OK_VALUE_SUCCESS = "0";
 
     public static final String JOIN_OK_VALUE_SUCCESS = "0";
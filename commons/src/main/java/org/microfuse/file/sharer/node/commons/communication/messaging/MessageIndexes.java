@@ -60,7 +60,9 @@ public class MessageIndexes {
     public static final int SER_OK_FILE_COUNT = 3;
     public static final int SER_OK_IP = 4;
     public static final int SER_OK_PORT = 5;
-    public static final int SER_OK_FILE_NAME_START = 6;
+    public static final int SER_OK_PAGE_INDEX = 6;
+    public static final int SER_OK_PAGE_COUNT = 7;
+    public static final int SER_OK_FILE_NAME_START = 8;
 
     // SER_SUPER_PEER message
     public static final int SER_SUPER_PEER_SEQUENCE_NUMBER = 0;
@@ -105,6 +107,7 @@ public class MessageIndexes {
     public static final int LIST_RESOURCES_OK_PORT = 1;
     public static final int LIST_RESOURCES_OK_RESOURCE_COUNT = 2;
     public static final int LIST_RESOURCES_OK_RESOURCE_START_INDEX = 3;
+    // The version of the resource list follows the resource names
 
     // LIST_UNSTRUCTURED_CONNECTIONS message
     public static final int LIST_UNSTRUCTURED_CONNECTIONS_IP = 0;
@@ -126,6 +129,23 @@ public class MessageIndexes {
     public static final int LIST_SUPER_PEER_CONNECTIONS_OK_CONNECTIONS_COUNT = 2;
     public static final int LIST_SUPER_PEER_CONNECTIONS_OK_CONNECTIONS_START_INDEX = 3;
 
+    // RESOURCE_SUMMARY message
+    public static final int RESOURCE_SUMMARY_IP = 0;
+    public static final int RESOURCE_SUMMARY_PORT = 1;
+    public static final int RESOURCE_SUMMARY_BIT_COUNT = 2;
+    public static final int RESOURCE_SUMMARY_HASH_FUNCTION_COUNT = 3;
+    public static final int RESOURCE_SUMMARY_BITS = 4;
+
+    // RESOURCES_DELTA message
+    public static final int RESOURCES_DELTA_IP = 0;
+    public static final int RESOURCES_DELTA_PORT = 1;
+    public static final int RESOURCES_DELTA_BASE_VERSION = 2;
+    public static final int RESOURCES_DELTA_VERSION = 3;
+    public static final int RESOURCES_DELTA_ADDED_COUNT = 4;
+    public static final int RESOURCES_DELTA_REMOVED_COUNT = 5;
+    // The added resource names are followed by the removed resource names
+    public static final int RESOURCES_DELTA_RESOURCE_START_INDEX = 6;
+
     private MessageIndexes() {   // Preventing from being initiated
     }
 }
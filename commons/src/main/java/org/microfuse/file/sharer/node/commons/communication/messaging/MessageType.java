@@ -35,7 +35,9 @@ public enum MessageType {
     LIST_UNSTRUCTURED_CONNECTIONS("LISTUNSTRUCTUREDCONNECTIONS"),
     LIST_UNSTRUCTURED_CONNECTIONS_OK("LISTUNSTRUCTUREDCONNECTIONSOK"),
     LIST_SUPER_PEER_CONNECTIONS("LISTSUPERPEERCONNECTIONS"),
-    LIST_SUPER_PEER_CONNECTIONS_OK("LISTSUPERPEERCONNECTIONSOK");
+    LIST_SUPER_PEER_CONNECTIONS_OK("LISTSUPERPEERCONNECTIONSOK"),
+    RESOURCE_SUMMARY("RESOURCESUMMARY"),
+    RESOURCES_DELTA("RESOURCESDELTA");
 
     /**
      * Constructor setting the message identifier.
@@ -0,0 +1,27 @@
+package org.microfuse.file.sharer.node.commons.communication.network;
+
+/**
+ * The load shedding policies used when the droppable lane of the network handler inbound queue is full.
+ */
+public enum InboundQueueOverflowPolicy {
+    DROP_NEWEST("Drop Newest"),
+    DROP_OLDEST("Drop Oldest");
+
+    /**
+     * Contains the value to be displayed.
+     */
+    private String value;
+
+    InboundQueueOverflowPolicy(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Get the value to be displayed.
+     *
+     * @return The value to be displayed
+     */
+    public String getValue() {
+        return value;
+    }
+}
@@ -6,7 +6,9 @@ package org.microfuse.file.sharer.node.commons.communication.network;
 public enum NetworkHandlerType {
     RMI("Remote Method Invocation"),
     TCP_SOCKET("TCP Socket"),
-    UDP_SOCKET("UDP Socket");
+    UDP_SOCKET("UDP Socket"),
+    UDP_CHANNEL("UDP Channel"),
+    IN_MEMORY("In Memory");
 
     /**
      * Contains the value to be displayed.
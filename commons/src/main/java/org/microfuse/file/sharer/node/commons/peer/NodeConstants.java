@@ -1,5 +1,6 @@
 package org.microfuse.file.sharer.node.commons.peer;
 
+import org.microfuse.file.sharer.node.commons.communication.network.InboundQueueOverflowPolicy;
 import org.microfuse.file.sharer.node.commons.communication.network.NetworkHandlerType;
 import org.microfuse.file.sharer.node.commons.communication.routing.strategy.RoutingStrategyType;
 
@@ -23,10 +24,41 @@ public class NodeConstants {
     public static final int DEFAULT_NETWORK_HANDLER_REPLY_TIMEOUT = 6000;
     public static final int DEFAULT_SER_SUPER_PEER_TIMEOUT = 5000;
     public static final int DEFAULT_AUTOMATED_GARBAGE_COLLECTION_INTERVAL = 120000;
+    public static final int DEFAULT_ROUTING_STRATEGY_CACHE_MAX_SIZE = 10000;
+    public static final int DEFAULT_SER_OK_PAGE_MAX_LENGTH = 1000;
+    public static final int DEFAULT_QUERY_TIMEOUT = 30000;
+    public static final int DEFAULT_QUERY_MAX_RESULTS = 1000;
+    public static final int DEFAULT_QUERY_RESULTS_RETENTION_TIME = 300000;
+    public static final int DEFAULT_QUERY_RESULT_CACHE_TIME_TO_LIVE = 60000;
+    public static final int DEFAULT_QUERY_RESULT_CACHE_MAX_SIZE = 1000;
+    public static final int DEFAULT_RESOURCE_SUMMARY_BIT_COUNT = 8192;
+    public static final int DEFAULT_RESOURCE_SUMMARY_HASH_FUNCTION_COUNT = 3;
+    public static final int DEFAULT_RESOURCE_SUMMARY_TIME_TO_LIVE = 90000;
+    public static final int DEFAULT_RESOURCE_LIST_JOURNAL_SIZE = 1000;
+    public static final int DEFAULT_RESOURCE_LIST_SYNC_DELAY = 1000;
     public static final int DEFAULT_UDP_NETWORK_HANDLER_RETRY_INTERVAL = 200;
     public static final int DEFAULT_UDP_NETWORK_HANDLER_RETRY_COUNT = 5;
+    public static final int DEFAULT_UDP_NETWORK_HANDLER_WINDOW_SIZE = 32;
+    public static final int DEFAULT_UDP_NETWORK_HANDLER_ACK_DELAY = 50;
+    public static final int DEFAULT_UDP_NETWORK_HANDLER_MAX_RETRANSMISSION_TIMEOUT = 3000;
+    public static final boolean DEFAULT_UDP_NETWORK_HANDLER_COALESCING_ENABLED = false;
+    public static final int DEFAULT_UDP_NETWORK_HANDLER_COALESCING_WINDOW = 5;
+    public static final int DEFAULT_UDP_NETWORK_HANDLER_SESSION_IDLE_TIMEOUT = 60000;
+    public static final boolean DEFAULT_TCP_NETWORK_HANDLER_CONNECTION_POOLING_ENABLED = false;
+    public static final int DEFAULT_TCP_NETWORK_HANDLER_CONNECTION_IDLE_TIMEOUT = 60000;
+    public static final boolean DEFAULT_NETWORK_HANDLER_BINARY_CODEC_ENABLED = false;
+    public static final int DEFAULT_NETWORK_HANDLER_QUERY_QUEUE_CAPACITY = 1000;
     public static final int DEFAULT_TRACER_PORT = 54000;
+    public static final int DEFAULT_TRACER_STUB_REFRESH_INTERVAL = 60000;
+    public static final int DEFAULT_TRACER_LOOKUP_RETRY_INTERVAL = 5000;
+    public static final int DEFAULT_TRACER_EVENT_QUEUE_SIZE = 10000;
+    public static final int DEFAULT_TRACER_EVENT_BATCH_SIZE = 100;
+    public static final boolean DEFAULT_TASK_SCHEDULER_VIRTUAL_THREADS_ENABLED = false;
+    public static final int DEFAULT_TASK_SCHEDULER_WORKER_THREAD_COUNT = 64;
+    public static final int DEFAULT_TIMEOUT_SERVICE_TICK_DURATION = 100;
     public static final NetworkHandlerType DEFAULT_NETWORK_HANDLER = NetworkHandlerType.RMI;
+    public static final InboundQueueOverflowPolicy DEFAULT_NETWORK_HANDLER_QUERY_QUEUE_OVERFLOW_POLICY =
+            InboundQueueOverflowPolicy.DROP_OLDEST;
     public static final RoutingStrategyType DEFAULT_ROUTING_STRATEGY = RoutingStrategyType.SUPER_PEER_FLOODING;
 
     public static final String CONFIG_FILE = "config.json";
@@ -0,0 +1,51 @@
+package org.microfuse.file.sharer.node.core;
+
+import org.microfuse.file.sharer.node.commons.communication.network.NetworkHandlerType;
+import org.microfuse.file.sharer.node.commons.peer.NodeConstants;
+import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * The base benchmark class which needs to be extended by all benchmarks.
+ * <p>
+ * The TCP socket network handler is used since it does not open any sockets until it starts listening.
+ */
+@State(Scope.Benchmark)
+public abstract class BaseBenchmark {
+    protected ServiceHolder serviceHolder;
+
+    @Setup(Level.Trial)
+    public void baseSetup() throws IOException {
+        Files.deleteIfExists(Paths.get(NodeConstants.CONFIG_FILE));
+
+        serviceHolder = new ServiceHolder();
+        serviceHolder.getConfiguration().setNetworkHandlerType(NetworkHandlerType.TCP_SOCKET);
+    }
+
+    @TearDown(Level.Trial)
+    public void baseTearDown() throws IOException {
+        serviceHolder.clear();
+        Files.deleteIfExists(Paths.get(NodeConstants.CONFIG_FILE));
+    }
+
+    /**
+     * Generate a resource name made of two tokens out of a vocabulary of the specified size.
+     * The first token of the i th resource is "token" + (i % vocabularySize) so that a query for a single token
+     * matches one out of every vocabularySize resources.
+     *
+     * @param i              The index of the resource
+     * @param vocabularySize The number of distinct tokens used in each position of the name
+     * @return The resource name
+     */
+    protected static String generateResourceName(int i, int vocabularySize) {
+        return "token" + (i % vocabularySize) + " word" + ((i / vocabularySize) % vocabularySize) + " " + i;
+    }
+}
@@ -0,0 +1,84 @@
+package org.microfuse.file.sharer.node.core.communication.messaging;
+
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageIndexes;
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.core.BaseBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for org.microfuse.file.sharer.node.core.communication.messaging.Message class.
+ * <p>
+ * Uses SER_OK messages since they are the largest messages sent in the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageBenchmark extends BaseBenchmark {
+    @Param({"1", "10", "100"})
+    private int fileCount;
+
+    private Message message;
+    private Message equalMessage;
+    private String messageString;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        message = createSerOkMessage(fileCount);
+        equalMessage = createSerOkMessage(fileCount);
+        messageString = message.toString();
+    }
+
+    @Benchmark
+    public Message parse() {
+        return Message.parse(messageString);
+    }
+
+    @Benchmark
+    public String toMessageString() {
+        return message.toString();
+    }
+
+    @Benchmark
+    public boolean equalsMessage() {
+        return message.equals(equalMessage);
+    }
+
+    /**
+     * Create a SER_OK message with the specified number of file names.
+     *
+     * @param fileCount The number of file names in the message
+     * @return The SER_OK message
+     */
+    static Message createSerOkMessage(int fileCount) {
+        Message message = new Message();
+        message.setType(MessageType.SER_OK);
+        message.setData(MessageIndexes.SER_OK_QUERY_STRING, "Lord of the Rings");
+        message.setData(MessageIndexes.SER_OK_SEQUENCE_NUMBER, "1024");
+        message.setData(MessageIndexes.SER_OK_HOP_COUNT, "3");
+        message.setData(MessageIndexes.SER_OK_FILE_COUNT, Integer.toString(fileCount));
+        message.setData(MessageIndexes.SER_OK_IP, "192.168.1.1");
+        message.setData(MessageIndexes.SER_OK_PORT, "4532");
+        message.setData(MessageIndexes.SER_OK_PAGE_INDEX, "0");
+        message.setData(MessageIndexes.SER_OK_PAGE_COUNT, "1");
+        for (int i = 0; i < fileCount; i++) {
+            message.setData(MessageIndexes.SER_OK_FILE_NAME_START + i, generateResourceName(i, 100));
+        }
+        return message;
+    }
+}
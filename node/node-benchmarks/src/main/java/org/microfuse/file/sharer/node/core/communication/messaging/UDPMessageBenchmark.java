@@ -0,0 +1,60 @@
+package org.microfuse.file.sharer.node.core.communication.messaging;
+
+import org.microfuse.file.sharer.node.commons.communication.messaging.UDPMessageType;
+import org.microfuse.file.sharer.node.core.BaseBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for org.microfuse.file.sharer.node.core.communication.messaging.UDPMessage class.
+ * <p>
+ * The UDP message carries a piggybacked acknowledgement and a SER_OK message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UDPMessageBenchmark extends BaseBenchmark {
+    @Param({"1", "10", "100"})
+    private int fileCount;
+
+    private UDPMessage udpMessage;
+    private String udpMessageString;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        udpMessage = new UDPMessage();
+        udpMessage.setType(UDPMessageType.DATA);
+        udpMessage.setSourceIP("192.168.1.1");
+        udpMessage.setSourcePort(4532);
+        udpMessage.setSequenceNumber(1024);
+        udpMessage.setAckSequenceNumber(512);
+        udpMessage.setSelectiveAckBitmap(0x5L);
+        udpMessage.setMessage(MessageBenchmark.createSerOkMessage(fileCount));
+        udpMessageString = udpMessage.toString();
+    }
+
+    @Benchmark
+    public UDPMessage parse() {
+        return UDPMessage.parse(udpMessageString);
+    }
+
+    @Benchmark
+    public String toMessageString() {
+        return udpMessage.toString();
+    }
+}
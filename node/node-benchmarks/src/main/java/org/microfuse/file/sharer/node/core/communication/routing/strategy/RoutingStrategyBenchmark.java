@@ -0,0 +1,95 @@
+package org.microfuse.file.sharer.node.core.communication.routing.strategy;
+
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageIndexes;
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.commons.peer.Node;
+import org.microfuse.file.sharer.node.commons.peer.NodeConstants;
+import org.microfuse.file.sharer.node.core.BaseBenchmark;
+import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the query cache lookups done by
+ * org.microfuse.file.sharer.node.core.communication.routing.strategy.RoutingStrategy class.
+ * <p>
+ * A new query adds a new entry to the query cache while a repeated query hits an existing entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingStrategyBenchmark extends BaseBenchmark {
+    private static final String NODE_IP = "192.168.1.1";
+    private static final int NODE_START_PORT = 6000;
+
+    @Param({"10", "100", "1000"})
+    private int nodeCount;
+
+    private RoutingStrategy routingStrategy;
+    private Set<Node> forwardingNodes;
+    private Node fromNode;
+    private Message newQueryMessage;
+    private Message repeatedQueryMessage;
+    private long sequenceNumber;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        routingStrategy = new UnstructuredFloodingRoutingStrategy(serviceHolder);
+
+        forwardingNodes = new HashSet<>();
+        for (int i = 0; i < nodeCount; i++) {
+            forwardingNodes.add(new Node(NODE_IP, NODE_START_PORT + i));
+        }
+        fromNode = new Node(NODE_IP, NODE_START_PORT - 1);
+
+        newQueryMessage = createSerMessage(0);
+        repeatedQueryMessage = createSerMessage(-1);
+        sequenceNumber = 0;
+    }
+
+    @Benchmark
+    public Set<Node> filterUnCachedNodesForNewQuery() {
+        newQueryMessage.setData(MessageIndexes.SER_SEQUENCE_NUMBER, Long.toString(sequenceNumber++));
+        return routingStrategy.filterUnCachedNodes(newQueryMessage, fromNode, new HashSet<>(forwardingNodes));
+    }
+
+    @Benchmark
+    public Set<Node> filterUnCachedNodesForRepeatedQuery() {
+        return routingStrategy.filterUnCachedNodes(repeatedQueryMessage, fromNode,
+                new HashSet<>(forwardingNodes));
+    }
+
+    /**
+     * Create a SER message with the specified sequence number.
+     *
+     * @param sequenceNumber The sequence number of the message
+     * @return The SER message
+     */
+    private static Message createSerMessage(long sequenceNumber) {
+        Message message = new Message();
+        message.setType(MessageType.SER);
+        message.setData(MessageIndexes.SER_SOURCE_IP, "192.168.1.2");
+        message.setData(MessageIndexes.SER_SOURCE_PORT, "4532");
+        message.setData(MessageIndexes.SER_SEQUENCE_NUMBER, Long.toString(sequenceNumber));
+        message.setData(MessageIndexes.SER_HOP_COUNT, Integer.toString(NodeConstants.INITIAL_HOP_COUNT));
+        message.setData(MessageIndexes.SER_QUERY, "Lord of the Rings");
+        return message;
+    }
+}
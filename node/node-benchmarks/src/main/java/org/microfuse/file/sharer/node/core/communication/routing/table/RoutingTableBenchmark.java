@@ -0,0 +1,68 @@
+package org.microfuse.file.sharer.node.core.communication.routing.table;
+
+import org.microfuse.file.sharer.node.commons.peer.Node;
+import org.microfuse.file.sharer.node.commons.peer.PeerType;
+import org.microfuse.file.sharer.node.core.BaseBenchmark;
+import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the node lookups done by
+ * org.microfuse.file.sharer.node.core.communication.routing.table.RoutingTable classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingTableBenchmark extends BaseBenchmark {
+    private static final String NODE_IP = "192.168.1.1";
+    private static final int NODE_START_PORT = 6000;
+
+    @Param({"ORDINARY_PEER", "SUPER_PEER"})
+    private PeerType peerType;
+
+    @Param({"10", "100", "1000"})
+    private int nodeCount;
+
+    private RoutingTable routingTable;
+    private int hitPort;
+    private int missPort;
+
+    @Setup(Level.Trial)
+    public void setup() throws ReflectiveOperationException {
+        serviceHolder.getConfiguration().setMaxUnstructuredPeerCount(nodeCount);
+        routingTable = RoutingTable.getRoutingTableClass(peerType)
+                .getConstructor(ServiceHolder.class)
+                .newInstance(serviceHolder);
+        for (int i = 0; i < nodeCount; i++) {
+            routingTable.addUnstructuredNetworkRoutingTableEntry(NODE_IP, NODE_START_PORT + i);
+        }
+        hitPort = NODE_START_PORT + nodeCount / 2;
+        missPort = NODE_START_PORT + nodeCount;
+    }
+
+    @Benchmark
+    public Node getHit() {
+        return routingTable.get(NODE_IP, hitPort);
+    }
+
+    @Benchmark
+    public Node getMiss() {
+        return routingTable.get(NODE_IP, missPort);
+    }
+}
@@ -0,0 +1,69 @@
+package org.microfuse.file.sharer.node.core.resource.index;
+
+import org.microfuse.file.sharer.node.core.BaseBenchmark;
+import org.microfuse.file.sharer.node.core.resource.OwnedResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for org.microfuse.file.sharer.node.core.resource.index.ResourceIndex class.
+ * <p>
+ * The resource names are made of tokens out of a vocabulary of 1000 tokens.
+ * A single token query matches one out of every 1000 resources
+ * while a two token query matches at most one resource out of every 1000000 resources.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ResourceIndexBenchmark extends BaseBenchmark {
+    private static final int VOCABULARY_SIZE = 1000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int resourceCount;
+
+    private ResourceIndex resourceIndex;
+
+    /**
+     * Populate the index.
+     * The owned resources are added directly since the public method looks for an existing resource with the
+     * same name by scanning all the owned resources which makes populating large indexes quadratic.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        resourceIndex = new ResourceIndex(serviceHolder);
+        for (int i = 0; i < resourceCount; i++) {
+            resourceIndex.addOwnedResource(new OwnedResource(generateResourceName(i, VOCABULARY_SIZE)));
+        }
+    }
+
+    @Benchmark
+    public Set<OwnedResource> findOwnedResourcesWithSingleToken() {
+        return resourceIndex.findOwnedResources("Token7");
+    }
+
+    @Benchmark
+    public Set<OwnedResource> findOwnedResourcesWithTwoTokens() {
+        return resourceIndex.findOwnedResources("Token7 Word0");
+    }
+
+    @Benchmark
+    public Set<OwnedResource> findOwnedResourcesWithNoMatches() {
+        return resourceIndex.findOwnedResources("Spider Man");
+    }
+}
@@ -0,0 +1,93 @@
+package org.microfuse.file.sharer.node.core.resource.index;
+
+import org.microfuse.file.sharer.node.core.BaseBenchmark;
+import org.microfuse.file.sharer.node.core.communication.routing.table.RoutingTable;
+import org.microfuse.file.sharer.node.core.resource.AggregatedResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for org.microfuse.file.sharer.node.core.resource.index.SuperPeerResourceIndex class.
+ * <p>
+ * The aggregated resources are spread evenly among the assigned ordinary peers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SuperPeerResourceIndexBenchmark extends BaseBenchmark {
+    private static final int VOCABULARY_SIZE = 1000;
+    private static final int NODE_COUNT = 1000;
+    private static final String NODE_IP = "192.168.1.1";
+    private static final int NODE_START_PORT = 6000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int resourceCount;
+
+    private SuperPeerResourceIndex superPeerResourceIndex;
+    private List<String> firstNodeResourceNames;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        serviceHolder.getConfiguration().setMaxUnstructuredPeerCount(NODE_COUNT);
+        RoutingTable routingTable = serviceHolder.getRouter().getRoutingTable();
+        for (int i = 0; i < NODE_COUNT; i++) {
+            routingTable.addUnstructuredNetworkRoutingTableEntry(NODE_IP, NODE_START_PORT + i);
+        }
+
+        superPeerResourceIndex = new SuperPeerResourceIndex(serviceHolder);
+        List<List<String>> nodeResourceNames = new ArrayList<>();
+        for (int i = 0; i < NODE_COUNT; i++) {
+            nodeResourceNames.add(new ArrayList<>());
+        }
+        for (int i = 0; i < resourceCount; i++) {
+            nodeResourceNames.get(i % NODE_COUNT).add(generateResourceName(i, VOCABULARY_SIZE));
+        }
+        for (int i = 0; i < NODE_COUNT; i++) {
+            superPeerResourceIndex.addAllAggregatedResources(nodeResourceNames.get(i), NODE_IP,
+                    NODE_START_PORT + i);
+        }
+        firstNodeResourceNames = nodeResourceNames.get(0);
+    }
+
+    @Benchmark
+    public Set<AggregatedResource> findAggregatedResourcesWithSingleToken() {
+        return superPeerResourceIndex.findAggregatedResources("Token7");
+    }
+
+    @Benchmark
+    public Set<AggregatedResource> findAggregatedResourcesWithTwoTokens() {
+        return superPeerResourceIndex.findAggregatedResources("Token7 Word0");
+    }
+
+    @Benchmark
+    public Set<AggregatedResource> findAggregatedResourcesWithNoMatches() {
+        return superPeerResourceIndex.findAggregatedResources("Spider Man");
+    }
+
+    /**
+     * Replace the resource list of a single node as done when a full resource list is received.
+     */
+    @Benchmark
+    public void replaceAllAggregatedResources() {
+        superPeerResourceIndex.replaceAllAggregatedResources(firstNodeResourceNames, NODE_IP, NODE_START_PORT,
+                null);
+    }
+}
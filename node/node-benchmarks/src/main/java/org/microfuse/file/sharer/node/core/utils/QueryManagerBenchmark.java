@@ -0,0 +1,104 @@
+package org.microfuse.file.sharer.node.core.utils;
+
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageIndexes;
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.commons.peer.Node;
+import org.microfuse.file.sharer.node.core.BaseBenchmark;
+import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the SER_OK message handling done by
+ * org.microfuse.file.sharer.node.core.utils.QueryManager class.
+ * <p>
+ * Each invocation starts a new query and merges one SER_OK page from each of a batch of nodes into its results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryManagerBenchmark extends BaseBenchmark {
+    private static final int SER_OK_MESSAGE_COUNT = 100;
+    private static final String QUERY_STRING = "Lord of the Rings";
+    private static final String NODE_IP = "192.168.1.1";
+    private static final int NODE_START_PORT = 6000;
+
+    @Param({"1", "10"})
+    private int fileCount;
+
+    private QueryManager queryManager;
+    private Node fromNode;
+    private List<Message> serOkMessages;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        queryManager = serviceHolder.getQueryManager();
+        fromNode = new Node(NODE_IP, NODE_START_PORT - 1);
+
+        serOkMessages = new ArrayList<>();
+        for (int i = 0; i < SER_OK_MESSAGE_COUNT; i++) {
+            Message message = new Message();
+            message.setType(MessageType.SER_OK);
+            message.setData(MessageIndexes.SER_OK_QUERY_STRING, QUERY_STRING);
+            message.setData(MessageIndexes.SER_OK_SEQUENCE_NUMBER, "0");
+            message.setData(MessageIndexes.SER_OK_HOP_COUNT, "3");
+            message.setData(MessageIndexes.SER_OK_FILE_COUNT, Integer.toString(fileCount));
+            message.setData(MessageIndexes.SER_OK_IP, NODE_IP);
+            message.setData(MessageIndexes.SER_OK_PORT, Integer.toString(NODE_START_PORT + i));
+            message.setData(MessageIndexes.SER_OK_PAGE_INDEX, "0");
+            message.setData(MessageIndexes.SER_OK_PAGE_COUNT, "1");
+            for (int j = 0; j < fileCount; j++) {
+                message.setData(MessageIndexes.SER_OK_FILE_NAME_START + j, QUERY_STRING + " " + j);
+            }
+            serOkMessages.add(message);
+        }
+    }
+
+    /**
+     * Start a new query to which the SER_OK messages are addressed.
+     * The previous query for the same query string is stopped by the query manager.
+     */
+    @Setup(Level.Invocation)
+    public void startQuery() {
+        Query query = queryManager.query(QUERY_STRING, TimeUnit.HOURS.toMillis(1), Integer.MAX_VALUE);
+        String sequenceNumber = Long.toString(query.getId());
+        for (Message message : serOkMessages) {
+            message.setData(MessageIndexes.SER_OK_SEQUENCE_NUMBER, sequenceNumber);
+        }
+    }
+
+    /**
+     * Evict the stopped queries so that their results do not accumulate across iterations.
+     */
+    @TearDown(Level.Iteration)
+    public void clearQueryResults() {
+        queryManager.clearQueryResults();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SER_OK_MESSAGE_COUNT)
+    public void handleSerOkMessages() {
+        for (Message message : serOkMessages) {
+            queryManager.onMessageReceived(fromNode, message);
+        }
+    }
+}
@@ -9,10 +9,13 @@ import org.microfuse.file.sharer.node.core.communication.routing.table.OrdinaryP
 import org.microfuse.file.sharer.node.core.communication.routing.table.RoutingTable;
 import org.microfuse.file.sharer.node.core.communication.routing.table.SuperPeerRoutingTable;
 import org.microfuse.file.sharer.node.core.tracing.Network;
+import org.microfuse.file.sharer.node.core.tracing.TraceEvent;
 import org.microfuse.file.sharer.node.core.tracing.Traceable;
 import org.microfuse.file.sharer.node.core.tracing.Tracer;
 import org.microfuse.file.sharer.node.core.tracing.stats.History;
+import org.microfuse.file.sharer.node.core.utils.ScheduledTask;
 import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
+import org.microfuse.file.sharer.node.core.utils.TaskSubsystem;
 import org.microfuse.file.sharer.node.core.utils.TraceManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +27,7 @@ import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -40,7 +44,7 @@ public class FileSharerTracer implements Tracer {
     private Registry registry;
 
     private final Lock heartBeatLock;
-    private Thread heartBeatThread;
+    private ScheduledTask heartBeatTask;
     private boolean heartBeatingEnabled;
 
     public FileSharerTracer() {
@@ -78,34 +82,10 @@ public class FileSharerTracer implements Tracer {
         try {
             if (!heartBeatingEnabled) {
                 heartBeatingEnabled = true;
-                heartBeatThread = new Thread(() -> {
-                    while (heartBeatingEnabled) {
-                        try {
-                            Thread.sleep(serviceHolder.getConfiguration().getHeartbeatInterval());
-                        } catch (InterruptedException ignored) {
-                        }
-                        network.getNodes().forEach(traceableNode -> {
-                            boolean active = false;
-                            try {
-                                Traceable traceable = getTraceable(traceableNode.getIp(), traceableNode.getPort());
-                                if (traceable != null) {
-                                    active = traceable.heartbeat();
-                                }
-                            } catch (RemoteException e) {
-                                logger.warn("Failed to connect to traceable node " + traceableNode.toString());
-                            }
-                            if (active) {
-                                traceableNode.setState(NodeState.ACTIVE);
-                            } else {
-                                traceableNode.setState(NodeState.INACTIVE);
-                            }
-                        });
-                    }
-                    logger.info("Stopped Heart beating");
-                });
-                heartBeatThread.setPriority(Thread.NORM_PRIORITY);
-                heartBeatThread.setDaemon(true);
-                heartBeatThread.start();
+                heartBeatTask = serviceHolder.getTaskScheduler().schedulePeriodically(
+                        TaskSubsystem.HEART_BEAT, this::heartBeat,
+                        () -> serviceHolder.getConfiguration().getHeartbeatInterval()
+                );
                 logger.info("Started Heart beating");
             }
         } finally {
@@ -121,15 +101,39 @@ public class FileSharerTracer implements Tracer {
         try {
             if (heartBeatingEnabled) {
                 heartBeatingEnabled = false;
-                if (heartBeatThread != null) {
-                    heartBeatThread.interrupt();
+                if (heartBeatTask != null) {
+                    serviceHolder.getTaskScheduler().cancel(heartBeatTask);
+                    heartBeatTask = null;
                 }
+                logger.info("Stopped Heart beating");
             }
         } finally {
             heartBeatLock.unlock();
         }
     }
 
+    /**
+     * Heartbeat to all the traced nodes and update their states.
+     */
+    private void heartBeat() {
+        network.getNodes().forEach(traceableNode -> {
+            boolean active = false;
+            try {
+                Traceable traceable = getTraceable(traceableNode.getIp(), traceableNode.getPort());
+                if (traceable != null) {
+                    active = traceable.heartbeat();
+                }
+            } catch (RemoteException e) {
+                logger.warn("Failed to connect to traceable node " + traceableNode.toString());
+            }
+            if (active) {
+                traceableNode.setState(NodeState.ACTIVE);
+            } else {
+                traceableNode.setState(NodeState.INACTIVE);
+            }
+        });
+    }
+
     /**
      * Get the network that is being traced.
      *
@@ -293,4 +297,11 @@ public class FileSharerTracer implements Tracer {
         history.notifyMessageReceived(timeStamp, ip, port, receiverIP, receiverPort, message);
 
     }
+
+    @Override
+    public void notifyEvents(List<TraceEvent> traceEvents) throws RemoteException {
+        for (TraceEvent traceEvent : traceEvents) {
+            traceEvent.applyTo(this);
+        }
+    }
 }
@@ -147,13 +147,13 @@ public class Message implements Cloneable, Serializable {
     public boolean equals(Object object) {
         if (object != null && object instanceof Message) {
             Message messageObject = (Message) object;
-            return Objects.equals(messageObject.toString(), toString());
+            return messageObject.getType() == type && Objects.equals(messageObject.getData(), data);
         }
         return false;
     }
 
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        return Objects.hash(type, data);
     }
 }
@@ -0,0 +1,423 @@
+package org.microfuse.file.sharer.node.core.communication.messaging;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import org.microfuse.file.sharer.node.commons.Constants;
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.commons.communication.messaging.UDPMessageType;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Wire codec for the messages sent by the socket based network handlers.
+ * <p>
+ * Messages can be encoded in the space delimited text format or in a compact binary format.
+ * Binary payloads start with the binary marker which can never start a text payload.
+ * Therefore decoding detects the format and nodes using different formats can communicate.
+ * <p>
+ * In the binary format enums are written as a single ordinal byte, numbers as variable length integers
+ * and strings as a variable length integer byte count followed by the UTF-8 bytes.
+ * The source IPs of decoded messages are interned since the same few IPs are received repeatedly.
+ * <p>
+ * Multiple encoded UDP messages can be coalesced into a single batch payload which starts with the batch marker.
+ * Each message in the batch is prefixed by its length and can be in either format.
+ */
+public class MessageCodec {
+    /**
+     * The first byte of binary payloads.
+     */
+    public static final byte BINARY_MARKER = 1;
+
+    /**
+     * The first byte of batch payloads.
+     */
+    public static final byte BATCH_MARKER = 2;
+
+    private static final MessageType[] MESSAGE_TYPES = MessageType.values();
+    private static final UDPMessageType[] UDP_MESSAGE_TYPES = UDPMessageType.values();
+    private static final Interner<String> IP_INTERNER = Interners.newWeakInterner();
+
+    private static final int VARINT_MAX_SIZE = 10;
+    private static final int VARINT_DATA_BITS_MASK = 0x7F;
+    private static final int VARINT_CONTINUATION_BIT = 0x80;
+    private static final int VARINT_DATA_BITS_COUNT = 7;
+
+    /**
+     * Check whether a payload is in the binary format.
+     *
+     * @param bytes  The bytes containing the payload
+     * @param offset The offset of the payload in the bytes
+     * @param length The length of the payload
+     * @return True if the payload is in the binary format
+     */
+    public static boolean isBinary(byte[] bytes, int offset, int length) {
+        return length > 0 && bytes[offset] == BINARY_MARKER;
+    }
+
+    /**
+     * Encode a TCP message.
+     *
+     * @param tcpMessage The TCP message to be encoded
+     * @param isBinary   True if the binary format should be used instead of the text format
+     * @return The encoded TCP message
+     */
+    public static byte[] encode(TCPMessage tcpMessage, boolean isBinary) {
+        byte[] bytes;
+        if (isBinary) {
+            byte[] sourceIPBytes = tcpMessage.getSourceIP().getBytes(Constants.DEFAULT_CHARSET);
+            byte[][] messageDataBytes = getDataBytes(tcpMessage.getMessage());
+
+            ByteBuffer buffer = ByteBuffer.allocate(1 + getSize(sourceIPBytes)
+                    + getVarLongSize(tcpMessage.getSourcePort()) + getSize(tcpMessage.getMessage(), messageDataBytes));
+            buffer.put(BINARY_MARKER);
+            putBytes(buffer, sourceIPBytes);
+            putVarLong(buffer, tcpMessage.getSourcePort());
+            putMessage(buffer, tcpMessage.getMessage(), messageDataBytes);
+            bytes = buffer.array();
+        } else {
+            bytes = tcpMessage.toString().getBytes(Constants.DEFAULT_CHARSET);
+        }
+        return bytes;
+    }
+
+    /**
+     * Decode a TCP message in either format.
+     *
+     * @param bytes  The bytes containing the encoded TCP message
+     * @param offset The offset of the encoded TCP message in the bytes
+     * @param length The length of the encoded TCP message
+     * @return The decoded TCP message
+     * @throws IllegalArgumentException If the binary payload is malformed
+     */
+    public static TCPMessage decodeTCPMessage(byte[] bytes, int offset, int length) {
+        TCPMessage tcpMessage;
+        if (isBinary(bytes, offset, length)) {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, offset + 1, length - 1);
+                tcpMessage = new TCPMessage();
+                tcpMessage.setSourceIP(IP_INTERNER.intern(getString(buffer)));
+                tcpMessage.setSourcePort((int) getVarLong(buffer));
+                tcpMessage.setMessage(getMessage(buffer));
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Malformed binary TCP message", e);
+            }
+        } else {
+            tcpMessage = TCPMessage.parse(new String(bytes, offset, length, Constants.DEFAULT_CHARSET));
+        }
+        return tcpMessage;
+    }
+
+    /**
+     * Encode a UDP message.
+     *
+     * @param udpMessage The UDP message to be encoded
+     * @param isBinary   True if the binary format should be used instead of the text format
+     * @return The encoded UDP message
+     */
+    public static byte[] encode(UDPMessage udpMessage, boolean isBinary) {
+        byte[] bytes;
+        if (isBinary) {
+            byte[] sourceIPBytes = udpMessage.getSourceIP().getBytes(Constants.DEFAULT_CHARSET);
+            byte[][] messageDataBytes = getDataBytes(udpMessage.getMessage());
+
+            ByteBuffer buffer = ByteBuffer.allocate(2 + getSize(sourceIPBytes)
+                    + getVarLongSize(udpMessage.getSourcePort()) + getVarLongSize(udpMessage.getSequenceNumber() + 1)
+                    + getVarLongSize(udpMessage.getAckSequenceNumber() + 1)
+                    + (udpMessage.hasAck() ? getVarLongSize(udpMessage.getSelectiveAckBitmap()) : 0)
+                    + getSize(udpMessage.getMessage(), messageDataBytes));
+            buffer.put(BINARY_MARKER);
+            buffer.put((byte) udpMessage.getType().ordinal());
+            putBytes(buffer, sourceIPBytes);
+            putVarLong(buffer, udpMessage.getSourcePort());
+            // Sequence numbers are shifted since they start from -1
+            putVarLong(buffer, udpMessage.getSequenceNumber() + 1);
+            putVarLong(buffer, udpMessage.getAckSequenceNumber() + 1);
+            if (udpMessage.hasAck()) {
+                putVarLong(buffer, udpMessage.getSelectiveAckBitmap());
+            }
+            putMessage(buffer, udpMessage.getMessage(), messageDataBytes);
+            bytes = buffer.array();
+        } else {
+            bytes = udpMessage.toString().getBytes(Constants.DEFAULT_CHARSET);
+        }
+        return bytes;
+    }
+
+    /**
+     * Decode a UDP message in either format.
+     *
+     * @param bytes  The bytes containing the encoded UDP message
+     * @param offset The offset of the encoded UDP message in the bytes
+     * @param length The length of the encoded UDP message
+     * @return The decoded UDP message
+     * @throws IllegalArgumentException If the binary payload is malformed
+     */
+    public static UDPMessage decodeUDPMessage(byte[] bytes, int offset, int length) {
+        UDPMessage udpMessage;
+        if (isBinary(bytes, offset, length)) {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, offset + 1, length - 1);
+                udpMessage = new UDPMessage();
+                udpMessage.setType(UDP_MESSAGE_TYPES[buffer.get()]);
+                udpMessage.setSourceIP(IP_INTERNER.intern(getString(buffer)));
+                udpMessage.setSourcePort((int) getVarLong(buffer));
+                udpMessage.setSequenceNumber(getVarLong(buffer) - 1);
+                udpMessage.setAckSequenceNumber(getVarLong(buffer) - 1);
+                if (udpMessage.hasAck()) {
+                    udpMessage.setSelectiveAckBitmap(getVarLong(buffer));
+                }
+                udpMessage.setMessage(getMessage(buffer));
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Malformed binary UDP message", e);
+            }
+        } else {
+            udpMessage = UDPMessage.parse(new String(bytes, offset, length, Constants.DEFAULT_CHARSET));
+        }
+        return udpMessage;
+    }
+
+    /**
+     * Coalesce encoded UDP messages into a single batch payload.
+     *
+     * @param encodedUDPMessages The encoded UDP messages
+     * @return The batch payload
+     */
+    public static byte[] encodeBatch(List<byte[]> encodedUDPMessages) {
+        ByteBuffer buffer = ByteBuffer.allocate(getBatchSize(encodedUDPMessages));
+        buffer.put(BATCH_MARKER);
+        putVarLong(buffer, encodedUDPMessages.size());
+        for (byte[] encodedUDPMessage : encodedUDPMessages) {
+            putBytes(buffer, encodedUDPMessage);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Get the size of the batch payload of encoded UDP messages.
+     *
+     * @param encodedUDPMessages The encoded UDP messages
+     * @return The size of the batch payload
+     */
+    public static int getBatchSize(List<byte[]> encodedUDPMessages) {
+        int size = 1 + getVarLongSize(encodedUDPMessages.size());
+        for (byte[] encodedUDPMessage : encodedUDPMessages) {
+            size += getSize(encodedUDPMessage);
+        }
+        return size;
+    }
+
+    /**
+     * Decode the UDP messages in a payload which can be either a batch or a single UDP message.
+     *
+     * @param bytes  The bytes containing the payload
+     * @param offset The offset of the payload in the bytes
+     * @param length The length of the payload
+     * @return The decoded UDP messages
+     * @throws IllegalArgumentException If the payload is malformed
+     */
+    public static List<UDPMessage> decodeUDPMessages(byte[] bytes, int offset, int length) {
+        List<UDPMessage> udpMessages;
+        if (length > 0 && bytes[offset] == BATCH_MARKER) {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, offset + 1, length - 1);
+                int udpMessageCount = (int) getVarLong(buffer);
+                if (udpMessageCount < 0 || udpMessageCount > buffer.remaining()) {
+                    throw new BufferUnderflowException();
+                }
+                udpMessages = new ArrayList<>(udpMessageCount);
+                for (int i = 0; i < udpMessageCount; i++) {
+                    int udpMessageLength = (int) getVarLong(buffer);
+                    if (udpMessageLength < 0 || udpMessageLength > buffer.remaining()) {
+                        throw new BufferUnderflowException();
+                    }
+                    udpMessages.add(decodeUDPMessage(bytes, buffer.position(), udpMessageLength));
+                    buffer.position(buffer.position() + udpMessageLength);
+                }
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Malformed UDP message batch", e);
+            }
+        } else {
+            udpMessages = Collections.singletonList(decodeUDPMessage(bytes, offset, length));
+        }
+        return udpMessages;
+    }
+
+    /**
+     * Get the UTF-8 bytes of each data item in a message.
+     *
+     * @param message The message
+     * @return The bytes of the data items or null if the message is null
+     */
+    private static byte[][] getDataBytes(Message message) {
+        byte[][] dataBytes = null;
+        if (message != null) {
+            List<String> data = message.getData();
+            dataBytes = new byte[data.size()][];
+            for (int i = 0; i < dataBytes.length; i++) {
+                dataBytes[i] = data.get(i).getBytes(Constants.DEFAULT_CHARSET);
+            }
+        }
+        return dataBytes;
+    }
+
+    /**
+     * Get the size of an encoded message.
+     *
+     * @param message   The message
+     * @param dataBytes The bytes of the data items in the message
+     * @return The size of the encoded message
+     */
+    private static int getSize(Message message, byte[][] dataBytes) {
+        int size = 1;
+        if (message != null) {
+            size += 1 + getVarLongSize(dataBytes.length);
+            for (byte[] dataItemBytes : dataBytes) {
+                size += getSize(dataItemBytes);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Get the size of an encoded byte array.
+     *
+     * @param bytes The byte array
+     * @return The size of the encoded byte array
+     */
+    private static int getSize(byte[] bytes) {
+        return getVarLongSize(bytes.length) + bytes.length;
+    }
+
+    /**
+     * Get the size of a non negative number encoded as a variable length integer.
+     *
+     * @param value The value
+     * @return The size of the encoded value
+     */
+    private static int getVarLongSize(long value) {
+        int size = 1;
+        long remainingValue = value >>> VARINT_DATA_BITS_COUNT;
+        while (remainingValue != 0) {
+            size++;
+            remainingValue >>>= VARINT_DATA_BITS_COUNT;
+        }
+        return size;
+    }
+
+    /**
+     * Write a message into a buffer.
+     * A presence byte is written first since the message of a UDP or TCP message can be null.
+     *
+     * @param buffer    The buffer to write into
+     * @param message   The message to be written
+     * @param dataBytes The bytes of the data items in the message
+     */
+    private static void putMessage(ByteBuffer buffer, Message message, byte[][] dataBytes) {
+        if (message != null) {
+            buffer.put((byte) 1);
+            buffer.put((byte) message.getType().ordinal());
+            putVarLong(buffer, dataBytes.length);
+            for (byte[] dataItemBytes : dataBytes) {
+                putBytes(buffer, dataItemBytes);
+            }
+        } else {
+            buffer.put((byte) 0);
+        }
+    }
+
+    /**
+     * Read a message from a buffer.
+     *
+     * @param buffer The buffer to read from
+     * @return The message read or null if the message was not present
+     */
+    private static Message getMessage(ByteBuffer buffer) {
+        Message message = null;
+        if (buffer.get() != 0) {
+            message = new Message();
+            message.setType(MESSAGE_TYPES[buffer.get()]);
+            long dataCount = getVarLong(buffer);
+            if (dataCount < 0 || dataCount > buffer.remaining()) {
+                // Each data item takes at least one byte
+                throw new BufferUnderflowException();
+            }
+            List<String> data = new ArrayList<>((int) dataCount);
+            for (int i = 0; i < dataCount; i++) {
+                data.add(getString(buffer));
+            }
+            message.setData(data);
+        }
+        return message;
+    }
+
+    /**
+     * Write a byte array prefixed by its length into a buffer.
+     *
+     * @param buffer The buffer to write into
+     * @param bytes  The bytes to be written
+     */
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        putVarLong(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Read a string prefixed by its length from a buffer.
+     *
+     * @param buffer The buffer to read from
+     * @return The string read
+     */
+    private static String getString(ByteBuffer buffer) {
+        int length = (int) getVarLong(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String string = new String(
+                buffer.array(), buffer.arrayOffset() + buffer.position(), length, Constants.DEFAULT_CHARSET);
+        buffer.position(buffer.position() + length);
+        return string;
+    }
+
+    /**
+     * Write a non negative number as a variable length integer into a buffer.
+     *
+     * @param buffer The buffer to write into
+     * @param value  The value to be written
+     */
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        long remainingValue = value;
+        while ((remainingValue & ~VARINT_DATA_BITS_MASK) != 0) {
+            buffer.put((byte) ((remainingValue & VARINT_DATA_BITS_MASK) | VARINT_CONTINUATION_BIT));
+            remainingValue >>>= VARINT_DATA_BITS_COUNT;
+        }
+        buffer.put((byte) remainingValue);
+    }
+
+    /**
+     * Read a variable length integer from a buffer.
+     *
+     * @param buffer The buffer to read from
+     * @return The value read
+     */
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte currentByte;
+        do {
+            if (shift >= VARINT_MAX_SIZE * VARINT_DATA_BITS_COUNT) {
+                throw new BufferUnderflowException();
+            }
+            currentByte = buffer.get();
+            value |= (long) (currentByte & VARINT_DATA_BITS_MASK) << shift;
+            shift += VARINT_DATA_BITS_COUNT;
+        } while ((currentByte & VARINT_CONTINUATION_BIT) != 0);
+        return value;
+    }
+
+    private MessageCodec() {   // Preventing from being initiated
+    }
+}
@@ -7,6 +7,10 @@ import java.util.Objects;
 /**
  * UDP message class.
  * Used by the UDP Network Handler
+ * <p>
+ * A UDP message can carry an acknowledgement of the messages received from the node it is sent to.
+ * The acknowledgement contains the next sequence number expected from the node
+ * and a bitmap of the messages received after the expected one.
  */
 public class UDPMessage implements Cloneable {
     private UDPMessageType type;
@@ -14,14 +18,21 @@ public class UDPMessage implements Cloneable {
     private int sourcePort;
     private long sequenceNumber;
     private Message message;
+    private long ackSequenceNumber;
+    private long selectiveAckBitmap;
     private int usedRetriesCount;
+    private long sentTimeStamp;
 
     private static final Character MESSAGE_DATA_SEPARATOR = ' ';
+    private static final Character ACK_SEPARATOR = '/';
+    private static final int SELECTIVE_ACK_BITMAP_RADIX = 16;
 
     public UDPMessage() {
         type = UDPMessageType.ERROR;
         sequenceNumber = -1;
+        ackSequenceNumber = -1;
         usedRetriesCount = -1;
+        sentTimeStamp = -1;
     }
 
     public UDPMessageType getType() {
@@ -64,6 +75,31 @@ public class UDPMessage implements Cloneable {
         this.message = message;
     }
 
+    public long getAckSequenceNumber() {
+        return ackSequenceNumber;
+    }
+
+    public void setAckSequenceNumber(long ackSequenceNumber) {
+        this.ackSequenceNumber = ackSequenceNumber;
+    }
+
+    public long getSelectiveAckBitmap() {
+        return selectiveAckBitmap;
+    }
+
+    public void setSelectiveAckBitmap(long selectiveAckBitmap) {
+        this.selectiveAckBitmap = selectiveAckBitmap;
+    }
+
+    /**
+     * Check whether the message carries an acknowledgement.
+     *
+     * @return True if the message carries an acknowledgement
+     */
+    public boolean hasAck() {
+        return ackSequenceNumber >= 0;
+    }
+
     public int getUsedRetriesCount() {
         return usedRetriesCount;
     }
@@ -72,6 +108,14 @@ public class UDPMessage implements Cloneable {
         this.usedRetriesCount = usedRetriesCount;
     }
 
+    public long getSentTimeStamp() {
+        return sentTimeStamp;
+    }
+
+    public void setSentTimeStamp(long sentTimeStamp) {
+        this.sentTimeStamp = sentTimeStamp;
+    }
+
     @Override
     public UDPMessage clone() {
         UDPMessage clone;
@@ -85,7 +129,10 @@ public class UDPMessage implements Cloneable {
         clone.setSourcePort(sourcePort);
         clone.setSequenceNumber(sequenceNumber);
         clone.setMessage((message != null ? message.clone() : null));
+        clone.setAckSequenceNumber(ackSequenceNumber);
+        clone.setSelectiveAckBitmap(selectiveAckBitmap);
         clone.setUsedRetriesCount(usedRetriesCount);
+        clone.setSentTimeStamp(sentTimeStamp);
         return clone;
     }
 
@@ -111,13 +158,19 @@ public class UDPMessage implements Cloneable {
         udpMessage.setSourcePort(
                 Integer.parseInt(messageString.substring(secondSeparatorIndex + 1, thirdSeparatorIndex)));
 
-        // Getting the sequence number
+        // Getting the sequence number and the acknowledgement if present
         int forthSeparatorIndex = messageString.indexOf(MESSAGE_DATA_SEPARATOR, thirdSeparatorIndex + 1);
         if (forthSeparatorIndex < 0) {
             forthSeparatorIndex = messageString.length();
         }
-        udpMessage.setSequenceNumber(
-                Long.parseLong(messageString.substring(thirdSeparatorIndex + 1, forthSeparatorIndex)));
+        String[] sequenceNumbers = messageString.substring(thirdSeparatorIndex + 1, forthSeparatorIndex)
+                .split(ACK_SEPARATOR.toString());
+        udpMessage.setSequenceNumber(Long.parseLong(sequenceNumbers[0]));
+        if (sequenceNumbers.length == 3) {
+            udpMessage.setAckSequenceNumber(Long.parseLong(sequenceNumbers[1]));
+            udpMessage.setSelectiveAckBitmap(
+                    Long.parseUnsignedLong(sequenceNumbers[2], SELECTIVE_ACK_BITMAP_RADIX));
+        }
 
         // Getting the message delivered by the UDP layer
         if (forthSeparatorIndex < messageString.length()) {
@@ -131,6 +184,8 @@ public class UDPMessage implements Cloneable {
     public String toString() {
         return type.toString() + MESSAGE_DATA_SEPARATOR + sourceIP + MESSAGE_DATA_SEPARATOR + sourcePort
                 + MESSAGE_DATA_SEPARATOR + sequenceNumber
+                + (hasAck() ? ACK_SEPARATOR + Long.toString(ackSequenceNumber) + ACK_SEPARATOR
+                        + Long.toUnsignedString(selectiveAckBitmap, SELECTIVE_ACK_BITMAP_RADIX) : "")
                 + (message != null ? MESSAGE_DATA_SEPARATOR + message.toString() : "");
     }
 
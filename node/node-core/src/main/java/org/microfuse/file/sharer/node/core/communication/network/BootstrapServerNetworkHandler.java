@@ -4,6 +4,7 @@ import com.google.common.io.Closeables;
 import org.microfuse.file.sharer.node.commons.Constants;
 import org.microfuse.file.sharer.node.core.communication.messaging.Message;
 import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
+import org.microfuse.file.sharer.node.core.utils.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,19 +12,23 @@ import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A UDP Socket based network handler used for communicating with the bootstrap server
  * <p>
  * Uses UDP sockets to communicate with the server. Waits for a reply with a timeout after sending a message.
+ * The timeout registered in the timeout service closes the socket to stop waiting for the reply.
  */
 public class BootstrapServerNetworkHandler extends NetworkHandler {
     private static final Logger logger = LoggerFactory.getLogger(BootstrapServerNetworkHandler.class);
 
-    private Thread networkHandlerSendTimeoutThread;
+    private final Set<DatagramSocket> waitingSockets;
 
     public BootstrapServerNetworkHandler(ServiceHolder serviceHolder) {
         super(serviceHolder);
+        waitingSockets = ConcurrentHashMap.newKeySet();
     }
 
     @Override
@@ -34,6 +39,7 @@ public class BootstrapServerNetworkHandler extends NetworkHandler {
     @Override
     public void sendMessage(String ip, int port, Message message) {
         DatagramSocket socket = null;
+        Timeout replyTimeout = null;
         try {
             socket = new DatagramSocket();
             String messageString = message.toString();
@@ -47,21 +53,9 @@ public class BootstrapServerNetworkHandler extends NetworkHandler {
 
             // Starting a timeout to mark as failed
             DatagramSocket finalSocket = socket;
-            networkHandlerSendTimeoutThread = new Thread(() -> {
-                try {
-                    Thread.sleep(serviceHolder.getConfiguration().getBootstrapServerReplyWaitTimeout());
-                } catch (InterruptedException ignored) {
-                }
-                if (networkHandlerSendTimeoutThread != null) {
-                    try {
-                        Closeables.close(finalSocket, true);
-                    } catch (IOException ignored) {
-                    }
-                    networkHandlerSendTimeoutThread = null;
-                }
-            });
-            networkHandlerSendTimeoutThread.setDaemon(true);
-            networkHandlerSendTimeoutThread.start();
+            waitingSockets.add(finalSocket);
+            replyTimeout = serviceHolder.getTimeoutService().schedule(() -> closeSocket(finalSocket),
+                    serviceHolder.getConfiguration().getBootstrapServerReplyWaitTimeout());
 
             logger.info("Waiting for reply from node " + ip + ":" + port);
             byte[] buffer = new byte[65536];
@@ -78,10 +72,10 @@ public class BootstrapServerNetworkHandler extends NetworkHandler {
             logger.error("Failed to send message " + message.toString() + " to " + ip + ":" + port, e);
             runTasksOnMessageSendFailed(ip, port, message);
         } finally {
-            try {
-                Closeables.close(socket, true);
-            } catch (IOException ignored) {
+            if (replyTimeout != null) {
+                replyTimeout.cancel();
             }
+            closeSocket(socket);
         }
     }
 
@@ -100,10 +94,21 @@ public class BootstrapServerNetworkHandler extends NetworkHandler {
     @Override
     public void shutdown() {
         logger.info("Cancelling waits for replies");
-        if (networkHandlerSendTimeoutThread != null) {
-            Thread thread = networkHandlerSendTimeoutThread;
-            networkHandlerSendTimeoutThread = null;
-            thread.start();
+        waitingSockets.forEach(this::closeSocket);
+    }
+
+    /**
+     * Close a socket used for sending a message and stop waiting for the reply.
+     *
+     * @param socket The socket to be closed
+     */
+    private void closeSocket(DatagramSocket socket) {
+        if (socket != null) {
+            waitingSockets.remove(socket);
+            try {
+                Closeables.close(socket, true);
+            } catch (IOException ignored) {
+            }
         }
     }
 }
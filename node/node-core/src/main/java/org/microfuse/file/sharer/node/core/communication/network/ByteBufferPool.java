@@ -0,0 +1,66 @@
+package org.microfuse.file.sharer.node.core.communication.network;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of direct byte buffers.
+ * <p>
+ * Used by the NIO based network handlers to avoid allocating a new buffer for each packet.
+ * Buffers are allocated on demand and at most the maximum pooled buffers count is retained after release.
+ */
+public class ByteBufferPool {
+    private final int bufferSize;
+    private final int maxPooledBuffersCount;
+    private final Queue<ByteBuffer> pooledBuffers;
+    private final AtomicInteger pooledBuffersCount;
+
+    public ByteBufferPool(int bufferSize, int maxPooledBuffersCount) {
+        this.bufferSize = bufferSize;
+        this.maxPooledBuffersCount = maxPooledBuffersCount;
+        pooledBuffers = new ConcurrentLinkedQueue<>();
+        pooledBuffersCount = new AtomicInteger(0);
+    }
+
+    /**
+     * Acquire a cleared buffer from the pool.
+     * A new direct buffer is allocated if the pool is empty.
+     *
+     * @return The buffer
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = pooledBuffers.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+        } else {
+            pooledBuffersCount.decrementAndGet();
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    /**
+     * Release a buffer back to the pool.
+     * The buffer is discarded if the pool is already full.
+     *
+     * @param buffer The buffer to be released
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer != null && buffer.capacity() == bufferSize) {
+            if (pooledBuffersCount.incrementAndGet() > maxPooledBuffersCount || !pooledBuffers.offer(buffer)) {
+                pooledBuffersCount.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Get the size of the buffers in this pool.
+     *
+     * @return The size of the buffers
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+}
@@ -0,0 +1,180 @@
+package org.microfuse.file.sharer.node.core.communication.network;
+
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.commons.communication.network.InboundQueueOverflowPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The queue of the received messages waiting to be handed over to the network handler listeners.
+ * <p>
+ * The messages are queued in two lanes.
+ * Control messages which keep the overlay alive such as HEARTBEAT, JOIN, LEAVE and LIST are queued
+ * in the control lane which is never dropped.
+ * Search messages are queued in the bounded query lane and are shed according to the overflow policy
+ * when the lane is full.
+ * One delivery task is submitted to the executor for each queued message
+ * and each task takes the next message from the control lane before looking at the query lane.
+ * Therefore control messages overtake the search messages waiting in the queue during a query storm.
+ */
+public class InboundMessageQueue {
+    private static final Logger logger = LoggerFactory.getLogger(InboundMessageQueue.class);
+
+    private final Executor executor;
+    private final Queue<Runnable> controlLane;
+    private final Deque<Runnable> queryLane;
+    private volatile int queryLaneCapacity;
+    private volatile InboundQueueOverflowPolicy overflowPolicy;
+
+    private final AtomicLong controlMessageCount;
+    private final AtomicLong queryMessageCount;
+    private final AtomicLong droppedQueryMessageCount;
+
+    public InboundMessageQueue(Executor executor, int queryLaneCapacity, InboundQueueOverflowPolicy overflowPolicy) {
+        this.executor = executor;
+        this.queryLaneCapacity = Math.max(queryLaneCapacity, 1);
+        this.overflowPolicy = overflowPolicy;
+        controlLane = new ConcurrentLinkedQueue<>();
+        queryLane = new ArrayDeque<>();
+        controlMessageCount = new AtomicLong(0);
+        queryMessageCount = new AtomicLong(0);
+        droppedQueryMessageCount = new AtomicLong(0);
+    }
+
+    /**
+     * Check whether messages of a type are queued in the droppable query lane.
+     *
+     * @param messageType The type of the message
+     * @return True if messages of the type can be dropped
+     */
+    public static boolean isDroppable(MessageType messageType) {
+        return messageType == MessageType.SER || messageType == MessageType.SER_OK
+                || messageType == MessageType.SER_SUPER_PEER || messageType == MessageType.SER_SUPER_PEER_OK;
+    }
+
+    /**
+     * Queue the delivery of a received message to the listeners.
+     *
+     * @param messageType The type of the received message
+     * @param delivery    The task which hands over the message to the listeners
+     * @return True if the message was queued and false if it was dropped
+     */
+    public boolean offer(MessageType messageType, Runnable delivery) {
+        if (isDroppable(messageType)) {
+            queryMessageCount.incrementAndGet();
+            Runnable droppedDelivery = null;
+            synchronized (queryLane) {
+                if (queryLane.size() >= queryLaneCapacity) {
+                    if (overflowPolicy == InboundQueueOverflowPolicy.DROP_OLDEST) {
+                        droppedDelivery = queryLane.poll();
+                        queryLane.add(delivery);
+                    } else {
+                        droppedDelivery = delivery;
+                    }
+                } else {
+                    queryLane.add(delivery);
+                }
+            }
+            if (droppedDelivery != null) {
+                droppedQueryMessageCount.incrementAndGet();
+                logger.debug("Dropped " + messageType.getValue() + " message since the query lane is full");
+                // No delivery task is submitted since the number of queued messages did not change
+                return droppedDelivery != delivery;
+            }
+        } else {
+            controlMessageCount.incrementAndGet();
+            controlLane.add(delivery);
+        }
+        executor.execute(this::deliverNext);
+        return true;
+    }
+
+    /**
+     * Change the capacity and the overflow policy of the query lane.
+     * If the lane holds more messages than the new capacity the excess messages are kept until delivered.
+     *
+     * @param queryLaneCapacity The new capacity of the query lane
+     * @param overflowPolicy    The new overflow policy of the query lane
+     */
+    public void update(int queryLaneCapacity, InboundQueueOverflowPolicy overflowPolicy) {
+        this.queryLaneCapacity = Math.max(queryLaneCapacity, 1);
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public int getQueryLaneCapacity() {
+        return queryLaneCapacity;
+    }
+
+    public InboundQueueOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Get the number of control messages waiting to be delivered.
+     *
+     * @return The number of queued control messages
+     */
+    public int getQueuedControlMessageCount() {
+        return controlLane.size();
+    }
+
+    /**
+     * Get the number of search messages waiting to be delivered.
+     *
+     * @return The number of queued search messages
+     */
+    public int getQueuedQueryMessageCount() {
+        synchronized (queryLane) {
+            return queryLane.size();
+        }
+    }
+
+    /**
+     * Get the number of control messages offered to the queue.
+     *
+     * @return The number of control messages received
+     */
+    public long getControlMessageCount() {
+        return controlMessageCount.get();
+    }
+
+    /**
+     * Get the number of search messages offered to the queue including the dropped messages.
+     *
+     * @return The number of search messages received
+     */
+    public long getQueryMessageCount() {
+        return queryMessageCount.get();
+    }
+
+    /**
+     * Get the number of search messages dropped since the query lane was full.
+     *
+     * @return The number of dropped search messages
+     */
+    public long getDroppedQueryMessageCount() {
+        return droppedQueryMessageCount.get();
+    }
+
+    /**
+     * Deliver the next queued message giving priority to the control lane.
+     */
+    private void deliverNext() {
+        Runnable delivery = controlLane.poll();
+        if (delivery == null) {
+            synchronized (queryLane) {
+                delivery = queryLane.poll();
+            }
+        }
+        if (delivery != null) {
+            delivery.run();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.microfuse.file.sharer.node.core.communication.network;
+
+import com.google.common.io.Closeables;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.function.Consumer;
+
+/**
+ * A TCP connection accepted by the TCP socket network handler listener.
+ * <p>
+ * Bytes are read from the non-blocking channel as they arrive and messages are parsed incrementally.
+ * Framed streams opened by pooled connections carry length prefixed frames.
+ * Other connections carry a single message which ends when the peer closes the connection.
+ */
+public class InboundTCPConnection {
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    private static final int FRAME_LENGTH_PREFIX_SIZE = 4;
+    private static final int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+    private final SocketChannel channel;
+    private ByteBuffer buffer;
+    private boolean isStreamTypeKnown;
+    private boolean isFramedStream;
+
+    public InboundTCPConnection(SocketChannel channel) {
+        this.channel = channel;
+        buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        isStreamTypeKnown = false;
+        isFramedStream = false;
+    }
+
+    /**
+     * Read the bytes currently available in the channel.
+     * Each message completed by the bytes read is passed to the message consumer.
+     *
+     * @param messageConsumer The consumer to which the completed encoded messages are passed
+     * @return False if the connection had reached the end of the stream
+     * @throws IOException If reading from the channel failed or if the stream is malformed
+     */
+    public boolean read(Consumer<byte[]> messageConsumer) throws IOException {
+        int readBytesCount;
+        do {
+            if (!buffer.hasRemaining()) {
+                expandBuffer();
+            }
+            readBytesCount = channel.read(buffer);
+        } while (readBytesCount > 0 && !buffer.hasRemaining());
+
+        buffer.flip();
+        try {
+            if (!isStreamTypeKnown && buffer.hasRemaining()) {
+                isStreamTypeKnown = true;
+                isFramedStream = buffer.get(buffer.position()) == PooledTCPConnection.FRAMED_STREAM_MARKER;
+                if (isFramedStream) {
+                    buffer.get();
+                }
+            }
+            if (isFramedStream) {
+                readFrames(messageConsumer);
+            } else if (readBytesCount < 0 && buffer.hasRemaining()) {
+                messageConsumer.accept(getBytes(buffer.remaining()));
+            }
+        } finally {
+            buffer.compact();
+        }
+        return readBytesCount >= 0;
+    }
+
+    /**
+     * Pass all the completed frames in the buffer to the message consumer.
+     * The buffer should be in read mode.
+     *
+     * @param messageConsumer The consumer to which the completed encoded messages are passed
+     * @throws IOException If a frame length is invalid
+     */
+    private void readFrames(Consumer<byte[]> messageConsumer) throws IOException {
+        while (buffer.remaining() >= FRAME_LENGTH_PREFIX_SIZE) {
+            int frameLength = buffer.getInt(buffer.position());
+            if (frameLength < 0 || frameLength > MAX_FRAME_SIZE) {
+                throw new IOException("Invalid frame length " + frameLength);
+            }
+            if (buffer.remaining() < FRAME_LENGTH_PREFIX_SIZE + frameLength) {
+                if (buffer.capacity() < FRAME_LENGTH_PREFIX_SIZE + frameLength) {
+                    // Making sure the buffer can hold the whole frame when the rest of it arrives
+                    ByteBuffer newBuffer = ByteBuffer.allocate(FRAME_LENGTH_PREFIX_SIZE + frameLength);
+                    newBuffer.put(buffer);
+                    newBuffer.flip();
+                    buffer = newBuffer;
+                }
+                break;
+            }
+            buffer.getInt();
+            messageConsumer.accept(getBytes(frameLength));
+        }
+    }
+
+    /**
+     * Get the specified number of bytes from the buffer.
+     *
+     * @param length The number of bytes to get
+     * @return The bytes
+     */
+    private byte[] getBytes(int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Double the capacity of the buffer.
+     * The buffer should be in write mode.
+     *
+     * @throws IOException If the buffer would exceed the maximum frame size
+     */
+    private void expandBuffer() throws IOException {
+        if (buffer.capacity() > MAX_FRAME_SIZE) {
+            throw new IOException("Message exceeds the maximum size of " + MAX_FRAME_SIZE + " bytes");
+        }
+        ByteBuffer newBuffer = ByteBuffer.allocate(buffer.capacity() * 2);
+        buffer.flip();
+        newBuffer.put(buffer);
+        buffer = newBuffer;
+    }
+
+    /**
+     * Close the connection.
+     */
+    public void close() {
+        try {
+            Closeables.close(channel, true);
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -2,8 +2,12 @@ package org.microfuse.file.sharer.node.core.communication.network;
 
 import org.microfuse.file.sharer.node.commons.communication.network.NetworkHandlerType;
 import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+import org.microfuse.file.sharer.node.core.communication.network.inmemory.InMemoryBootstrapServerNetworkHandler;
+import org.microfuse.file.sharer.node.core.communication.network.inmemory.InMemoryNetworkHandler;
 import org.microfuse.file.sharer.node.core.communication.network.rmi.RMINetworkHandler;
 import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
+import org.microfuse.file.sharer.node.core.utils.SubsystemExecutor;
+import org.microfuse.file.sharer.node.core.utils.TaskSubsystem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,8 +15,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -20,6 +22,9 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * The Network Handler SuperClass.
  * <p>
  * All types of network handlers should extend this abstract class.
+ * The listeners are notified by the network handler listener executor of the task scheduler.
+ * Received messages wait in the inbound message queue which prioritizes control messages
+ * and sheds search messages when overloaded.
  */
 public abstract class NetworkHandler {
     private static final Logger logger = LoggerFactory.getLogger(NetworkHandler.class);
@@ -27,11 +32,11 @@ public abstract class NetworkHandler {
     protected ServiceHolder serviceHolder;
 
     private static Map<NetworkHandlerType, Class<? extends NetworkHandler>> networkHandlerClassMap;
+    private static Map<NetworkHandlerType, Class<? extends NetworkHandler>> bootstrapServerNetworkHandlerClassMap;
 
     private final ReadWriteLock listenersListLock;
-    private final ReadWriteLock listenerHandlerExecutorServiceLock;
     private List<NetworkHandlerListener> listenersList;
-    private ExecutorService listenerHandlerExecutorService;
+    private InboundMessageQueue inboundMessageQueue;
 
     protected boolean restartRequired;
     protected boolean running;
@@ -42,15 +47,27 @@ public abstract class NetworkHandler {
         networkHandlerClassMap.put(NetworkHandlerType.RMI, RMINetworkHandler.class);
         networkHandlerClassMap.put(NetworkHandlerType.TCP_SOCKET, TCPSocketNetworkHandler.class);
         networkHandlerClassMap.put(NetworkHandlerType.UDP_SOCKET, UDPSocketNetworkHandler.class);
+        networkHandlerClassMap.put(NetworkHandlerType.UDP_CHANNEL, UDPChannelNetworkHandler.class);
+        networkHandlerClassMap.put(NetworkHandlerType.IN_MEMORY, InMemoryNetworkHandler.class);
+
+        // Populating the bootstrap server network handler class map
+        bootstrapServerNetworkHandlerClassMap = new HashMap<>();
+        bootstrapServerNetworkHandlerClassMap.put(NetworkHandlerType.RMI, BootstrapServerNetworkHandler.class);
+        bootstrapServerNetworkHandlerClassMap.put(NetworkHandlerType.TCP_SOCKET, BootstrapServerNetworkHandler.class);
+        bootstrapServerNetworkHandlerClassMap.put(NetworkHandlerType.UDP_SOCKET, BootstrapServerNetworkHandler.class);
+        bootstrapServerNetworkHandlerClassMap.put(NetworkHandlerType.UDP_CHANNEL, BootstrapServerNetworkHandler.class);
+        bootstrapServerNetworkHandlerClassMap.put(NetworkHandlerType.IN_MEMORY,
+                InMemoryBootstrapServerNetworkHandler.class);
     }
 
     public NetworkHandler(ServiceHolder serviceHolder) {
         this.serviceHolder = serviceHolder;
         listenersListLock = new ReentrantReadWriteLock();
-        listenerHandlerExecutorServiceLock = new ReentrantReadWriteLock();
         listenersList = new ArrayList<>();
-        listenerHandlerExecutorService =
-                Executors.newFixedThreadPool(this.serviceHolder.getConfiguration().getNetworkHandlerThreadCount());
+        inboundMessageQueue = new InboundMessageQueue(task -> getListenerHandlerExecutor().execute(task),
+                serviceHolder.getConfiguration().getNetworkHandlerQueryQueueCapacity(),
+                serviceHolder.getConfiguration().getNetworkHandlerQueryQueueOverflowPolicy());
+        updateListenerHandlerConcurrency();
         restartRequired = false;
         running = false;
     }
@@ -65,6 +82,18 @@ public abstract class NetworkHandler {
         return networkHandlerClassMap.get(networkHandlerType);
     }
 
+    /**
+     * Get the class of the network handler used for communicating with the bootstrap server
+     * based on the network handler type.
+     *
+     * @param networkHandlerType The network handler type
+     * @return The bootstrap server network handler class
+     */
+    public static Class<? extends NetworkHandler> getBootstrapServerNetworkHandlerClass(
+            NetworkHandlerType networkHandlerType) {
+        return bootstrapServerNetworkHandlerClassMap.get(networkHandlerType);
+    }
+
     /**
      * Get the name of the network handler.
      *
@@ -93,13 +122,11 @@ public abstract class NetworkHandler {
      */
     public void restart() {
         restartRequired = true;
-        listenerHandlerExecutorServiceLock.writeLock().lock();
         try {
-            listenerHandlerExecutorService.shutdown();
-            listenerHandlerExecutorService =
-                    Executors.newFixedThreadPool(serviceHolder.getConfiguration().getNetworkHandlerThreadCount());
+            updateListenerHandlerConcurrency();
+            inboundMessageQueue.update(serviceHolder.getConfiguration().getNetworkHandlerQueryQueueCapacity(),
+                    serviceHolder.getConfiguration().getNetworkHandlerQueryQueueOverflowPolicy());
         } finally {
-            listenerHandlerExecutorServiceLock.writeLock().unlock();
             restartRequired = false;
         }
     }
@@ -111,6 +138,7 @@ public abstract class NetworkHandler {
 
     /**
      * Run tasks to be run when a message is received.
+     * The message is queued in the inbound message queue and may be dropped if it is a search message.
      *
      * @param fromAddress The address from which the message was received
      * @param fromPort    The port from which the message was received
@@ -118,21 +146,39 @@ public abstract class NetworkHandler {
      */
     protected void runTasksOnMessageReceived(String fromAddress, int fromPort, Message message) {
         logger.info("Message " + message.toString() + " received from node " + fromAddress + ":" + fromPort);
-        listenersListLock.readLock().lock();
-        try {
-            listenerHandlerExecutorServiceLock.readLock().lock();
+        boolean isQueued = inboundMessageQueue.offer(message.getType(), () -> {
+            List<NetworkHandlerListener> listeners;
+            listenersListLock.readLock().lock();
             try {
-                listenersList.forEach(listener -> listenerHandlerExecutorService.execute(() ->
-                        listener.onMessageReceived(fromAddress, fromPort, message)
-                ));
+                listeners = new ArrayList<>(listenersList);
             } finally {
-                listenerHandlerExecutorServiceLock.readLock().unlock();
+                listenersListLock.readLock().unlock();
             }
-        } finally {
-            listenersListLock.readLock().unlock();
+            for (NetworkHandlerListener listener : listeners) {
+                // A failing listener should not prevent the other listeners from receiving the message
+                try {
+                    listener.onMessageReceived(fromAddress, fromPort, message);
+                } catch (RuntimeException e) {
+                    logger.error("Listener failed to handle message " + message.toString() + " received from node "
+                            + fromAddress + ":" + fromPort, e);
+                }
+            }
+        });
+        if (!isQueued) {
+            logger.info("Dropped message " + message.toString() + " received from node " + fromAddress + ":"
+                    + fromPort + " since the inbound message queue is full");
         }
     }
 
+    /**
+     * Get the queue of the received messages waiting to be handed over to the listeners.
+     *
+     * @return The inbound message queue
+     */
+    public InboundMessageQueue getInboundMessageQueue() {
+        return inboundMessageQueue;
+    }
+
     /**
      * Runs tasks to be run when an error occurs in sending a message.
      *
@@ -144,19 +190,31 @@ public abstract class NetworkHandler {
         logger.info("Failed to send message " + message + " to " + toAddress + ":" + toPort);
         listenersListLock.readLock().lock();
         try {
-            listenerHandlerExecutorServiceLock.readLock().lock();
-            try {
-                listenersList.forEach(listener -> listenerHandlerExecutorService.execute(() ->
-                        listener.onMessageSendFailed(toAddress, toPort, message)
-                ));
-            } finally {
-                listenerHandlerExecutorServiceLock.readLock().unlock();
-            }
+            SubsystemExecutor listenerHandlerExecutor = getListenerHandlerExecutor();
+            listenersList.forEach(listener -> listenerHandlerExecutor.execute(() ->
+                    listener.onMessageSendFailed(toAddress, toPort, message)
+            ));
         } finally {
             listenersListLock.readLock().unlock();
         }
     }
 
+    /**
+     * Get the executor which notifies the listeners.
+     *
+     * @return The network handler listener executor
+     */
+    private SubsystemExecutor getListenerHandlerExecutor() {
+        return serviceHolder.getTaskScheduler().getExecutor(TaskSubsystem.NETWORK_HANDLER_LISTENER);
+    }
+
+    /**
+     * Update the number of listener tasks which can run at the same time based on the configuration.
+     */
+    private void updateListenerHandlerConcurrency() {
+        getListenerHandlerExecutor().setMaxConcurrency(serviceHolder.getConfiguration().getNetworkHandlerThreadCount());
+    }
+
     /**
      * Register a new listener.
      *
@@ -0,0 +1,114 @@
+package org.microfuse.file.sharer.node.core.communication.network;
+
+import com.google.common.io.Closeables;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * A long lived TCP connection to a peer node.
+ * <p>
+ * Used by the TCP socket network handler in connection pooling mode.
+ * The stream starts with the framed stream marker and each message is written as a length prefixed frame.
+ */
+public class PooledTCPConnection {
+    /**
+     * The first byte written to a pooled connection.
+     * Used by the listener to distinguish framed streams from single message connections.
+     */
+    public static final byte FRAMED_STREAM_MARKER = 0;
+
+    private static final int FRAME_LENGTH_PREFIX_SIZE = 4;
+
+    private final SocketChannel channel;
+    private final ByteBuffer probeBuffer;
+    private volatile long lastUsedTimeStamp;
+
+    private PooledTCPConnection(SocketChannel channel) {
+        this.channel = channel;
+        probeBuffer = ByteBuffer.allocate(1);
+        lastUsedTimeStamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Open a new pooled connection to a node.
+     *
+     * @param ip   The ip of the node
+     * @param port The port of the node
+     * @return The pooled connection
+     * @throws IOException If opening the connection failed
+     */
+    public static PooledTCPConnection open(String ip, int port) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.socket().setTcpNoDelay(true);
+            channel.connect(new InetSocketAddress(ip, port));
+            channel.write(ByteBuffer.wrap(new byte[]{FRAMED_STREAM_MARKER}));
+        } catch (IOException e) {
+            Closeables.close(channel, true);
+            throw e;
+        }
+        return new PooledTCPConnection(channel);
+    }
+
+    /**
+     * Write an encoded TCP message as a length prefixed frame.
+     *
+     * @param messageBytes The encoded TCP message to be written
+     * @throws IOException If writing to the connection failed
+     */
+    public synchronized void write(byte[] messageBytes) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_LENGTH_PREFIX_SIZE + messageBytes.length);
+        frame.putInt(messageBytes.length);
+        frame.put(messageBytes);
+        frame.flip();
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+        lastUsedTimeStamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Check whether the connection is still usable.
+     * <p>
+     * Peers never write to pooled connections, so a readable end of stream means the peer closed the connection.
+     *
+     * @return True if the connection is open and was not closed by the peer
+     */
+    public synchronized boolean isAlive() {
+        if (!channel.isOpen() || !channel.isConnected()) {
+            return false;
+        }
+        try {
+            channel.configureBlocking(false);
+            probeBuffer.clear();
+            boolean isAlive = channel.read(probeBuffer) >= 0;
+            channel.configureBlocking(true);
+            return isAlive;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Check whether the connection had not been used for the specified time.
+     *
+     * @param idleTimeout The idle timeout in milliseconds
+     * @return True if the connection is idle
+     */
+    public boolean isIdle(long idleTimeout) {
+        return System.currentTimeMillis() - lastUsedTimeStamp > idleTimeout;
+    }
+
+    /**
+     * Close the connection.
+     */
+    public void close() {
+        try {
+            Closeables.close(channel, true);
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -1,35 +1,53 @@
 package org.microfuse.file.sharer.node.core.communication.network;
 
 import com.google.common.io.Closeables;
-import org.microfuse.file.sharer.node.commons.Constants;
 import org.microfuse.file.sharer.node.commons.communication.network.NetworkHandlerType;
+import org.microfuse.file.sharer.node.commons.peer.Node;
 import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+import org.microfuse.file.sharer.node.core.communication.messaging.MessageCodec;
 import org.microfuse.file.sharer.node.core.communication.messaging.TCPMessage;
+import org.microfuse.file.sharer.node.core.utils.ScheduledTask;
 import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
+import org.microfuse.file.sharer.node.core.utils.TaskSubsystem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
-import java.net.ServerSocket;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A TCP Socket based network handler.
  * <p>
  * Uses TCP sockets to communicate with other nodes.
+ * Accepted connections are read by a single selector without blocking, so a slow sender does not delay others.
+ * By default a new connection is opened for each message.
+ * If connection pooling is enabled a long lived framed connection is kept for each peer node instead.
  */
 public class TCPSocketNetworkHandler extends NetworkHandler {
     private static final Logger logger = LoggerFactory.getLogger(TCPSocketNetworkHandler.class);
 
-    private ServerSocket serverSocket;
+    private static final int SELECT_TIMEOUT = 1000;
+
+    private volatile ServerSocketChannel serverSocketChannel;
+    private volatile Selector selector;
+    private ScheduledTask idleConnectionEvictionTask;
+
+    private final ConcurrentMap<Node, PooledTCPConnection> pooledConnections;
 
     public TCPSocketNetworkHandler(ServiceHolder serviceHolder) {
         super(serviceHolder);
+        pooledConnections = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -41,41 +59,38 @@ public class TCPSocketNetworkHandler extends NetworkHandler {
     public void startListening() {
         if (!running) {
             super.startListening();
+            startIdleConnectionEviction();
             Thread thread = new Thread(() -> {
                 while (running) {
                     int port = serviceHolder.getConfiguration().getPeerListeningPort();
-                    Socket clientSocket = null;
-                    BufferedReader in = null;
                     try {
-                        serverSocket = new ServerSocket(port);
-                        serverSocket.setReuseAddress(false);
+                        selector = Selector.open();
+                        serverSocketChannel = ServerSocketChannel.open();
+                        serverSocketChannel.bind(new InetSocketAddress(port));
+                        serverSocketChannel.socket().setReuseAddress(false);
+                        serverSocketChannel.configureBlocking(false);
+                        serverSocketChannel.register(selector, SelectionKey.OP_ACCEPT);
 
                         logger.info("Started listening at " + port + ".");
-                        while (running && !restartRequired) {
-                            clientSocket = serverSocket.accept();
-                            in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream(),
-                                    Constants.DEFAULT_CHARSET));
-
-                            StringBuilder message = new StringBuilder();
-                            String inputLine;
-                            while ((inputLine = in.readLine()) != null) {
-                                message.append(inputLine);
+                        while (running && !restartRequired && serverSocketChannel.isOpen()) {
+                            if (selector.select(SELECT_TIMEOUT) > 0) {
+                                Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                                while (selectedKeys.hasNext()) {
+                                    SelectionKey key = selectedKeys.next();
+                                    selectedKeys.remove();
+                                    if (key.isValid() && key.isAcceptable()) {
+                                        acceptConnections();
+                                    } else if (key.isValid() && key.isReadable()) {
+                                        readConnection(key);
+                                    }
+                                }
                             }
-
-                            TCPMessage tcpMessage = TCPMessage.parse(message.toString());
-                            runTasksOnMessageReceived(
-                                    tcpMessage.getSourceIP(), tcpMessage.getSourcePort(), tcpMessage.getMessage()
-                            );
                         }
-                    } catch (IOException e) {
+                    } catch (IOException | ClosedSelectorException e) {
                         logger.info("Listening stopped", e);
                     } finally {
-                        Closeables.closeQuietly(in);
-                        try {
-                            Closeables.close(clientSocket, true);
-                        } catch (IOException ignored) {
-                        }
                         closeSocket();
+                        closeSelector();
                     }
                 }
             });
@@ -107,6 +122,8 @@ public class TCPSocketNetworkHandler extends NetworkHandler {
         logger.info("Shutting down TCP network handler");
         running = false;
         closeSocket();
+        stopIdleConnectionEviction();
+        closePooledConnections();
     }
 
     @Override
@@ -116,36 +133,221 @@ public class TCPSocketNetworkHandler extends NetworkHandler {
         tcpMessage.setSourcePort(serviceHolder.getConfiguration().getPeerListeningPort());
         tcpMessage.setMessage(message);
 
-        try (
-                Socket sendSocket = new Socket(ip, port);
-                PrintWriter out = new PrintWriter(new OutputStreamWriter(sendSocket.getOutputStream(),
-                        Constants.DEFAULT_CHARSET), true)
+        byte[] messageBytes = MessageCodec.encode(tcpMessage,
+                serviceHolder.getConfiguration().isNetworkHandlerBinaryCodecEnabled());
+        if (serviceHolder.getConfiguration().isTcpNetworkHandlerConnectionPoolingEnabled()) {
+            sendPooledMessage(ip, port, tcpMessage, messageBytes);
+        } else {
+            try (
+                    Socket sendSocket = new Socket(ip, port);
+                    OutputStream out = sendSocket.getOutputStream()
+            ) {
+                out.write(messageBytes);
+                logger.info("Message " + tcpMessage.toString() + " sent to node " + ip + ":" + port);
+            } catch (IOException e) {
+                logger.info("Failed to send message " + tcpMessage.toString() + " to " + ip + ":" + port, e);
+                runTasksOnMessageSendFailed(ip, port, tcpMessage.getMessage());
+            }
+        }
+    }
 
-        ) {
-            out.write(tcpMessage.toString());
-            logger.info("Message " + tcpMessage.toString() + " sent to node " + ip + ":" + port);
-        } catch (IOException e) {
-            logger.info("Failed to send message " + tcpMessage.toString() + " to " + ip + ":" + port, e);
+    /**
+     * Send a TCP message over the pooled connection to the node.
+     * <p>
+     * A broken pooled connection is replaced by a new connection once before the message is marked as failed.
+     *
+     * @param ip           The ip address to which the message should be sent
+     * @param port         The port to which the message should be sent
+     * @param tcpMessage   The TCP message to be sent
+     * @param messageBytes The encoded TCP message
+     */
+    private void sendPooledMessage(String ip, int port, TCPMessage tcpMessage, byte[] messageBytes) {
+        Node node = new Node(ip, port);
+        boolean isSent = false;
+        boolean isReconnectAllowed = true;
+        while (!isSent && isReconnectAllowed) {
+            PooledTCPConnection connection = pooledConnections.get(node);
+            if (connection != null && !connection.isAlive()) {
+                evictPooledConnection(node, connection);
+                connection = null;
+            }
+            try {
+                if (connection == null) {
+                    isReconnectAllowed = false;
+                    connection = openPooledConnection(node);
+                }
+                connection.write(messageBytes);
+                isSent = true;
+                logger.info("Message " + tcpMessage.toString() + " sent to node " + ip + ":" + port
+                        + " over pooled connection");
+            } catch (IOException e) {
+                logger.info("Failed to send message " + tcpMessage.toString() + " to " + ip + ":" + port
+                        + " over pooled connection", e);
+                if (connection != null) {
+                    evictPooledConnection(node, connection);
+                }
+            }
+        }
+        if (!isSent) {
             runTasksOnMessageSendFailed(ip, port, tcpMessage.getMessage());
         }
     }
 
     /**
-     * Close the TCP socket.
+     * Open a new pooled connection to a node and add it to the pool.
+     * If another connection was added to the pool concurrently that connection is used instead.
+     *
+     * @param node The node to connect to
+     * @return The pooled connection to the node
+     * @throws IOException If opening the connection failed
+     */
+    private PooledTCPConnection openPooledConnection(Node node) throws IOException {
+        PooledTCPConnection newConnection = PooledTCPConnection.open(node.getIp(), node.getPort());
+        PooledTCPConnection existingConnection = pooledConnections.putIfAbsent(node, newConnection);
+        if (existingConnection != null) {
+            newConnection.close();
+            return existingConnection;
+        }
+        logger.info("Opened pooled connection to node " + node.toString());
+        return newConnection;
+    }
+
+    /**
+     * Remove a pooled connection from the pool and close it.
+     *
+     * @param node       The node to which the connection belongs
+     * @param connection The connection to be evicted
+     */
+    private void evictPooledConnection(Node node, PooledTCPConnection connection) {
+        pooledConnections.remove(node, connection);
+        connection.close();
+        logger.info("Evicted pooled connection to node " + node.toString());
+    }
+
+    /**
+     * Close all the pooled connections.
+     */
+    private void closePooledConnections() {
+        pooledConnections.forEach(this::evictPooledConnection);
+    }
+
+    /**
+     * Accept all the pending connections and register them with the selector for reading.
+     *
+     * @throws IOException If accepting connections failed
+     */
+    private void acceptConnections() throws IOException {
+        SocketChannel clientChannel;
+        while ((clientChannel = serverSocketChannel.accept()) != null) {
+            try {
+                // Set reusable since lingering pooled connections would otherwise prevent binding to the port again
+                clientChannel.socket().setReuseAddress(true);
+                clientChannel.configureBlocking(false);
+                clientChannel.register(selector, SelectionKey.OP_READ, new InboundTCPConnection(clientChannel));
+            } catch (IOException e) {
+                logger.warn("Failed to accept connection from " + clientChannel.socket().getRemoteSocketAddress(), e);
+                Closeables.close(clientChannel, true);
+            }
+        }
+    }
+
+    /**
+     * Read the bytes available in an accepted connection.
+     * Completed messages are handed over to the listeners and the connection is closed at the end of the stream.
+     *
+     * @param key The selection key of the connection
+     */
+    private void readConnection(SelectionKey key) {
+        InboundTCPConnection connection = (InboundTCPConnection) key.attachment();
+        boolean isOpen;
+        try {
+            isOpen = connection.read(messageBytes -> {
+                TCPMessage tcpMessage = MessageCodec.decodeTCPMessage(messageBytes, 0, messageBytes.length);
+                runTasksOnMessageReceived(
+                        tcpMessage.getSourceIP(), tcpMessage.getSourcePort(), tcpMessage.getMessage()
+                );
+            });
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to read message from " + key.channel(), e);
+            isOpen = false;
+        }
+        if (!isOpen) {
+            key.cancel();
+            connection.close();
+        }
+    }
+
+    /**
+     * Start closing pooled connections which had been idle for longer than the idle timeout.
+     */
+    private void startIdleConnectionEviction() {
+        idleConnectionEvictionTask = serviceHolder.getTaskScheduler().schedulePeriodically(
+                TaskSubsystem.NETWORK_HANDLER_MAINTENANCE, () -> {
+                    int idleTimeout = serviceHolder.getConfiguration().getTcpNetworkHandlerConnectionIdleTimeout();
+                    pooledConnections.forEach((node, connection) -> {
+                        if (connection.isIdle(idleTimeout)) {
+                            evictPooledConnection(node, connection);
+                        }
+                    });
+                },
+                () -> serviceHolder.getConfiguration().getTcpNetworkHandlerConnectionIdleTimeout()
+        );
+    }
+
+    /**
+     * Stop closing idle pooled connections.
+     */
+    private void stopIdleConnectionEviction() {
+        if (idleConnectionEvictionTask != null) {
+            serviceHolder.getTaskScheduler().cancel(idleConnectionEvictionTask);
+            idleConnectionEvictionTask = null;
+        }
+    }
+
+    /**
+     * Close the TCP server socket channel and wake up the selector so that the selector thread stops listening.
+     * The connections accepted through the server socket channel are closed by the selector thread.
      */
     private void closeSocket() {
         // Set reusable to enable a new network handler to use the same port
-        if (serverSocket != null) {
+        if (serverSocketChannel != null && serverSocketChannel.isOpen()) {
             try {
-                serverSocket.setReuseAddress(true);
+                serverSocketChannel.socket().setReuseAddress(true);
             } catch (SocketException e) {
                 logger.warn("Failed to set socket to reusable", e);
             }
         }
 
         try {
-            Closeables.close(serverSocket, true);
+            Closeables.close(serverSocketChannel, true);
         } catch (IOException ignored) {
         }
+
+        Selector currentSelector = selector;
+        if (currentSelector != null) {
+            currentSelector.wakeup();
+        }
+    }
+
+    /**
+     * Close the selector and the connections accepted through it.
+     * This should only be called by the selector thread since the key set of the selector is not thread safe.
+     */
+    private void closeSelector() {
+        Selector currentSelector = selector;
+        if (currentSelector != null) {
+            try {
+                for (SelectionKey key : currentSelector.keys()) {
+                    if (key.attachment() instanceof InboundTCPConnection) {
+                        ((InboundTCPConnection) key.attachment()).close();
+                    }
+                }
+            } catch (ClosedSelectorException ignored) {
+            }
+            try {
+                Closeables.close(currentSelector, true);
+            } catch (IOException ignored) {
+            }
+        }
     }
 }
@@ -0,0 +1,147 @@
+package org.microfuse.file.sharer.node.core.communication.network;
+
+import com.google.common.io.Closeables;
+import org.microfuse.file.sharer.node.commons.communication.network.NetworkHandlerType;
+import org.microfuse.file.sharer.node.commons.peer.Node;
+import org.microfuse.file.sharer.node.core.communication.messaging.MessageCodec;
+import org.microfuse.file.sharer.node.core.communication.messaging.UDPMessage;
+import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.List;
+
+/**
+ * A UDP Channel based network handler.
+ * <p>
+ * Uses a single bound non-blocking datagram channel and a selector to communicate with other nodes.
+ * The same channel is used for sending messages and pooled direct buffers are used for the datagrams.
+ * The reliability layer is the same as the UDP socket network handler.
+ */
+public class UDPChannelNetworkHandler extends UDPSocketNetworkHandler {
+    private static final Logger logger = LoggerFactory.getLogger(UDPChannelNetworkHandler.class);
+
+    private static final int DATAGRAM_BUFFER_SIZE = 65536;
+    private static final int SELECT_TIMEOUT = 1000;
+
+    private final ByteBufferPool bufferPool;
+    private volatile DatagramChannel channel;
+    private volatile Selector selector;
+
+    public UDPChannelNetworkHandler(ServiceHolder serviceHolder) {
+        super(serviceHolder);
+        bufferPool = new ByteBufferPool(DATAGRAM_BUFFER_SIZE,
+                serviceHolder.getConfiguration().getNetworkHandlerThreadCount() * 2);
+    }
+
+    @Override
+    public String getName() {
+        return NetworkHandlerType.UDP_CHANNEL.getValue();
+    }
+
+    @Override
+    public void startListening() {
+        if (!running) {
+            running = true;
+            startIdleSessionEviction();
+            Thread thread = new Thread(() -> {
+                ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(DATAGRAM_BUFFER_SIZE);
+                byte[] receivedBytes = new byte[DATAGRAM_BUFFER_SIZE];
+                while (running) {
+                    int port = serviceHolder.getConfiguration().getPeerListeningPort();
+                    try {
+                        selector = Selector.open();
+                        channel = DatagramChannel.open();
+                        channel.configureBlocking(false);
+                        channel.bind(new InetSocketAddress(port));
+                        channel.register(selector, SelectionKey.OP_READ);
+                        logger.info("Starting listening at " + port + ".");
+
+                        while (running && !restartRequired && channel.isOpen()) {
+                            if (selector.select(SELECT_TIMEOUT) > 0) {
+                                selector.selectedKeys().clear();
+                                SocketAddress fromAddress;
+                                while ((fromAddress = channel.receive(receiveBuffer)) != null) {
+                                    receiveBuffer.flip();
+                                    int receivedBytesCount = receiveBuffer.remaining();
+                                    receiveBuffer.get(receivedBytes, 0, receivedBytesCount);
+                                    receiveBuffer.clear();
+                                    InetSocketAddress fromSocketAddress = (InetSocketAddress) fromAddress;
+                                    Node fromNode = new Node(fromSocketAddress.getAddress().getHostAddress(),
+                                            fromSocketAddress.getPort());
+                                    try {
+                                        List<UDPMessage> udpMessages = MessageCodec.decodeUDPMessages(
+                                                receivedBytes, 0, receivedBytesCount);
+                                        for (UDPMessage udpMessage : udpMessages) {
+                                            logger.info("Message received from " + fromAddress + " : "
+                                                    + udpMessage.toString());
+
+                                            handleUDPMessage(fromNode, udpMessage);
+                                        }
+                                    } catch (IllegalArgumentException e) {
+                                        logger.warn("Dropped malformed message from " + fromAddress, e);
+                                    }
+                                }
+                            }
+                        }
+                    } catch (IOException | ClosedSelectorException e) {
+                        logger.info("Listening stopped", e);
+                    } finally {
+                        closeSocket();
+                    }
+                }
+            });
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MAX_PRIORITY);
+            thread.start();
+        } else {
+            logger.warn("The UDP channel network handler is already listening. Ignored request to start again.");
+        }
+    }
+
+    @Override
+    protected void sendDatagram(String ip, int port, byte[] datagram, String messageString) {
+        DatagramChannel sendingChannel = channel;
+        if (sendingChannel == null || !sendingChannel.isOpen()) {
+            logger.warn("Dropped message " + messageString + " to " + ip + ":" + port
+                    + " since the channel is not open");
+            return;
+        }
+
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            buffer.put(datagram);
+            buffer.flip();
+            if (sendingChannel.send(buffer, new InetSocketAddress(ip, port)) > 0) {
+                logger.info("Message " + messageString + " sent to node " + ip + ":" + port);
+            } else {
+                logger.warn("Dropped message " + messageString + " to " + ip + ":" + port
+                        + " since the channel send buffer is full");
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to send message " + messageString + " to " + ip + ":" + port, e);
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    @Override
+    protected void closeSocket() {
+        try {
+            Closeables.close(channel, true);
+        } catch (IOException ignored) {
+        }
+        try {
+            Closeables.close(selector, true);
+        } catch (IOException ignored) {
+        }
+    }
+}
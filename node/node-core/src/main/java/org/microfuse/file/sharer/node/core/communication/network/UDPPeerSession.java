@@ -0,0 +1,452 @@
+package org.microfuse.file.sharer.node.core.communication.network;
+
+import org.microfuse.file.sharer.node.core.communication.messaging.MessageCodec;
+import org.microfuse.file.sharer.node.core.communication.messaging.UDPMessage;
+import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
+import org.microfuse.file.sharer.node.core.utils.Timeout;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * The reliability state of the UDP network handler for a single peer.
+ * <p>
+ * Messages sent to the peer are numbered with a sequence of their own and at most a window of them
+ * are pending acknowledgement at a time. The rest wait in a queue until the window slides.
+ * Messages received from the peer are acknowledged cumulatively with the next expected sequence number
+ * and a selective acknowledgement bitmap of the messages received after it.
+ * Bit i of the bitmap represents the message with the sequence number next expected sequence number + 1 + i.
+ * <p>
+ * The retransmission timeout is estimated from the round trip times of acknowledged messages.
+ * Messages which had been retried are not sampled since their acknowledgements are ambiguous.
+ * <p>
+ * If coalescing is enabled the encoded messages to the peer are buffered until they are flushed as a batch.
+ * <p>
+ * A session which had not been used for a while without any pending work can be closed and discarded.
+ * Since the peer may still remember the sequence numbers of a discarded session, a new session can start
+ * from a later initial sequence number aligned to the maximum window size. The first message received
+ * in a session is expected to be within the first window after such an initial sequence number.
+ * The session is not thread safe and should be used while holding its monitor.
+ */
+public class UDPPeerSession {
+    /**
+     * The maximum size of the window which can be covered by the selective acknowledgement bitmap.
+     */
+    public static final int MAX_WINDOW_SIZE = Long.SIZE;
+
+    private static final int MIN_RETRANSMISSION_TIMEOUT = 100;
+    private static final double ROUND_TRIP_TIME_GAIN = 0.125;
+    private static final double ROUND_TRIP_TIME_VARIANCE_GAIN = 0.25;
+    private static final int ROUND_TRIP_TIME_VARIANCE_MULTIPLIER = 4;
+
+    private final ServiceHolder serviceHolder;
+
+    private long nextSequenceNumber;
+    private Queue<UDPMessage> queuedMessages;
+    private SortedMap<Long, UDPMessage> messagesPendingAck;
+    private double smoothedRoundTripTime;
+    private double roundTripTimeVariance;
+    private long retransmissionTimeout;
+    private Timeout retransmissionTimer;
+
+    private long nextExpectedSequenceNumber;
+    private long receivedSequenceNumbersBitmap;
+    private boolean ackPending;
+    private Timeout ackTimer;
+
+    private List<byte[]> coalescedMessages;
+    private ScheduledFuture<?> coalescingFlush;
+
+    private long lastUsedTimeStamp;
+    private boolean closed;
+
+    public UDPPeerSession(ServiceHolder serviceHolder) {
+        this(serviceHolder, 0);
+    }
+
+    public UDPPeerSession(ServiceHolder serviceHolder, long initialSequenceNumber) {
+        this.serviceHolder = serviceHolder;
+        nextSequenceNumber = initialSequenceNumber;
+        queuedMessages = new ArrayDeque<>();
+        messagesPendingAck = new TreeMap<>();
+        smoothedRoundTripTime = -1;
+        roundTripTimeVariance = 0;
+        retransmissionTimeout = serviceHolder.getConfiguration().getUdpNetworkHandlerRetryInterval();
+        nextExpectedSequenceNumber = 0;
+        receivedSequenceNumbersBitmap = 0;
+        ackPending = false;
+        coalescedMessages = new ArrayList<>();
+        lastUsedTimeStamp = System.currentTimeMillis();
+        closed = false;
+    }
+
+    /**
+     * Mark the session as used.
+     */
+    public void markUsed() {
+        lastUsedTimeStamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Check whether the session had not been used for the specified time and does not have any pending work.
+     *
+     * @param idleTimeout The idle timeout in milliseconds
+     * @return True if the session is idle
+     */
+    public boolean isIdle(long idleTimeout) {
+        return System.currentTimeMillis() - lastUsedTimeStamp > idleTimeout && queuedMessages.isEmpty()
+                && messagesPendingAck.isEmpty() && !ackPending && coalescedMessages.isEmpty();
+    }
+
+    /**
+     * Close the session cancelling its timers.
+     * A closed session should not be used any more.
+     */
+    public void close() {
+        closed = true;
+        cancelTimers();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Queue a message to be sent when the window allows.
+     *
+     * @param udpMessage The UDP message to be sent
+     */
+    public void queueMessage(UDPMessage udpMessage) {
+        queuedMessages.add(udpMessage);
+    }
+
+    /**
+     * Move the queued messages which fit in the window to the messages pending acknowledgement.
+     * Sequence numbers are assigned to the messages when they enter the window.
+     *
+     * @return The messages which entered the window and should be sent
+     */
+    public List<UDPMessage> admitQueuedMessages() {
+        int windowSize = Math.min(Math.max(serviceHolder.getConfiguration().getUdpNetworkHandlerWindowSize(), 1),
+                MAX_WINDOW_SIZE);
+        long windowStartSequenceNumber = messagesPendingAck.isEmpty()
+                ? nextSequenceNumber : messagesPendingAck.firstKey();
+
+        List<UDPMessage> admittedMessages = new ArrayList<>();
+        while (!queuedMessages.isEmpty() && nextSequenceNumber < windowStartSequenceNumber + windowSize) {
+            UDPMessage udpMessage = queuedMessages.poll();
+            udpMessage.setSequenceNumber(nextSequenceNumber++);
+            udpMessage.setUsedRetriesCount(0);
+            messagesPendingAck.put(udpMessage.getSequenceNumber(), udpMessage);
+            admittedMessages.add(udpMessage);
+        }
+        return admittedMessages;
+    }
+
+    /**
+     * Remove the messages acknowledged by the peer and update the round trip time estimate.
+     *
+     * @param ackSequenceNumber  The next sequence number expected by the peer
+     * @param selectiveAckBitmap The bitmap of the messages received by the peer after the expected one
+     * @param currentTimeStamp   The current time stamp
+     */
+    public void acknowledge(long ackSequenceNumber, long selectiveAckBitmap, long currentTimeStamp) {
+        long latestSentTimeStamp = -1;
+        Iterator<UDPMessage> iterator = messagesPendingAck.headMap(ackSequenceNumber).values().iterator();
+        while (iterator.hasNext()) {
+            latestSentTimeStamp = getSampleSentTimeStamp(iterator.next(), latestSentTimeStamp);
+            iterator.remove();
+        }
+        long remainingBitmap = selectiveAckBitmap;
+        while (remainingBitmap != 0) {
+            int bitIndex = Long.numberOfTrailingZeros(remainingBitmap);
+            UDPMessage udpMessage = messagesPendingAck.remove(ackSequenceNumber + 1 + bitIndex);
+            if (udpMessage != null) {
+                latestSentTimeStamp = getSampleSentTimeStamp(udpMessage, latestSentTimeStamp);
+            }
+            remainingBitmap &= remainingBitmap - 1;
+        }
+        if (latestSentTimeStamp >= 0) {
+            updateRetransmissionTimeout(currentTimeStamp - latestSentTimeStamp);
+        }
+    }
+
+    /**
+     * Remove a message which failed to be delivered from the messages pending acknowledgement.
+     *
+     * @param udpMessage The UDP message which failed
+     */
+    public void removeMessagePendingAck(UDPMessage udpMessage) {
+        messagesPendingAck.remove(udpMessage.getSequenceNumber());
+    }
+
+    /**
+     * Get the messages pending acknowledgement in the order of their sequence numbers.
+     *
+     * @return The messages pending acknowledgement
+     */
+    public List<UDPMessage> getMessagesPendingAck() {
+        return new ArrayList<>(messagesPendingAck.values());
+    }
+
+    /**
+     * Check whether there are sent messages which had not been acknowledged.
+     *
+     * @return True if there are unacknowledged messages
+     */
+    public boolean hasMessagesPendingAck() {
+        return !messagesPendingAck.isEmpty();
+    }
+
+    /**
+     * Get the time stamp at which the earliest retransmission is due.
+     *
+     * @return The time stamp of the earliest retransmission or -1 if there are no messages pending acknowledgement
+     */
+    public long getNextRetransmissionTimeStamp() {
+        long nextRetransmissionTimeStamp = -1;
+        for (Map.Entry<Long, UDPMessage> entry : messagesPendingAck.entrySet()) {
+            long retransmissionTimeStamp = entry.getValue().getSentTimeStamp() + retransmissionTimeout;
+            if (nextRetransmissionTimeStamp < 0 || retransmissionTimeStamp < nextRetransmissionTimeStamp) {
+                nextRetransmissionTimeStamp = retransmissionTimeStamp;
+            }
+        }
+        return nextRetransmissionTimeStamp;
+    }
+
+    /**
+     * Double the retransmission timeout after a timeout.
+     * Since retried messages are not sampled this keeps the timeout growing when the round trip time increases.
+     */
+    public void backOffRetransmissionTimeout() {
+        retransmissionTimeout = Math.min(retransmissionTimeout * 2, getMaxRetransmissionTimeout());
+    }
+
+    public long getRetransmissionTimeout() {
+        return retransmissionTimeout;
+    }
+
+    public Timeout getRetransmissionTimer() {
+        return retransmissionTimer;
+    }
+
+    public void setRetransmissionTimer(Timeout retransmissionTimer) {
+        this.retransmissionTimer = retransmissionTimer;
+    }
+
+    /**
+     * Record a message received from the peer.
+     * <p>
+     * A message further ahead than the window means that the peer had given up on the messages
+     * before its window. Therefore the expected sequence number is moved forward to include it in the bitmap.
+     * The first message received in the session starts the expected sequence numbers
+     * from the initial sequence number of the window the message belongs to.
+     *
+     * @param sequenceNumber The sequence number of the received message
+     * @return True if the message had not been received before
+     */
+    public boolean markReceived(long sequenceNumber) {
+        boolean isNew;
+        if (!hasReceivedMessages()) {
+            nextExpectedSequenceNumber = sequenceNumber - sequenceNumber % MAX_WINDOW_SIZE;
+        }
+        if (sequenceNumber < nextExpectedSequenceNumber) {
+            isNew = false;
+        } else {
+            if (sequenceNumber - nextExpectedSequenceNumber > MAX_WINDOW_SIZE) {
+                slideReceiveWindow(sequenceNumber - MAX_WINDOW_SIZE);
+            }
+            if (sequenceNumber == nextExpectedSequenceNumber) {
+                advanceNextExpectedSequenceNumber();
+                isNew = true;
+            } else {
+                long bit = 1L << (sequenceNumber - nextExpectedSequenceNumber - 1);
+                isNew = (receivedSequenceNumbersBitmap & bit) == 0;
+                receivedSequenceNumbersBitmap |= bit;
+            }
+        }
+        return isNew;
+    }
+
+    /**
+     * Check whether any message had been received from the peer.
+     *
+     * @return True if a message had been received
+     */
+    public boolean hasReceivedMessages() {
+        return nextExpectedSequenceNumber > 0 || receivedSequenceNumbersBitmap != 0;
+    }
+
+    /**
+     * Check whether messages after a missing message had been received.
+     *
+     * @return True if there is a gap in the received messages
+     */
+    public boolean hasReceiveGap() {
+        return receivedSequenceNumbersBitmap != 0;
+    }
+
+    public long getAckSequenceNumber() {
+        return nextExpectedSequenceNumber;
+    }
+
+    public long getSelectiveAckBitmap() {
+        return receivedSequenceNumbersBitmap;
+    }
+
+    public boolean isAckPending() {
+        return ackPending;
+    }
+
+    public void setAckPending(boolean ackPending) {
+        this.ackPending = ackPending;
+    }
+
+    public Timeout getAckTimer() {
+        return ackTimer;
+    }
+
+    public void setAckTimer(Timeout ackTimer) {
+        this.ackTimer = ackTimer;
+    }
+
+    /**
+     * Buffer an encoded message to be coalesced with the other messages to the peer.
+     *
+     * @param encodedUDPMessage The encoded UDP message
+     */
+    public void addCoalescedMessage(byte[] encodedUDPMessage) {
+        coalescedMessages.add(encodedUDPMessage);
+    }
+
+    /**
+     * Get the size of the batch payload if an encoded message is added to the buffered messages.
+     *
+     * @param encodedUDPMessage The encoded UDP message to be added
+     * @return The size of the batch payload including the message
+     */
+    public int getCoalescedBatchSize(byte[] encodedUDPMessage) {
+        List<byte[]> batch = new ArrayList<>(coalescedMessages);
+        batch.add(encodedUDPMessage);
+        return MessageCodec.getBatchSize(batch);
+    }
+
+    /**
+     * Remove all the buffered messages.
+     *
+     * @return The buffered messages
+     */
+    public List<byte[]> drainCoalescedMessages() {
+        List<byte[]> drainedMessages = coalescedMessages;
+        coalescedMessages = new ArrayList<>();
+        return drainedMessages;
+    }
+
+    public boolean hasCoalescedMessages() {
+        return !coalescedMessages.isEmpty();
+    }
+
+    public ScheduledFuture<?> getCoalescingFlush() {
+        return coalescingFlush;
+    }
+
+    public void setCoalescingFlush(ScheduledFuture<?> coalescingFlush) {
+        this.coalescingFlush = coalescingFlush;
+    }
+
+    /**
+     * Cancel the retransmission and acknowledgement timers of the session.
+     */
+    public void cancelTimers() {
+        if (retransmissionTimer != null) {
+            retransmissionTimer.cancel();
+            retransmissionTimer = null;
+        }
+        if (ackTimer != null) {
+            ackTimer.cancel();
+            ackTimer = null;
+        }
+    }
+
+    /**
+     * Get the sent time stamp to be used as the round trip time sample.
+     *
+     * @param udpMessage          The acknowledged UDP message
+     * @param latestSentTimeStamp The latest sent time stamp among the previously acknowledged messages
+     * @return The latest sent time stamp including the message if it can be sampled
+     */
+    private long getSampleSentTimeStamp(UDPMessage udpMessage, long latestSentTimeStamp) {
+        long sentTimeStamp = latestSentTimeStamp;
+        if (udpMessage.getUsedRetriesCount() == 0 && udpMessage.getSentTimeStamp() > latestSentTimeStamp) {
+            sentTimeStamp = udpMessage.getSentTimeStamp();
+        }
+        return sentTimeStamp;
+    }
+
+    /**
+     * Update the smoothed round trip time, its variance and the retransmission timeout with a sample.
+     *
+     * @param roundTripTime The round trip time sample
+     */
+    private void updateRetransmissionTimeout(long roundTripTime) {
+        if (smoothedRoundTripTime < 0) {
+            smoothedRoundTripTime = roundTripTime;
+            roundTripTimeVariance = roundTripTime / 2.0;
+        } else {
+            roundTripTimeVariance = (1 - ROUND_TRIP_TIME_VARIANCE_GAIN) * roundTripTimeVariance
+                    + ROUND_TRIP_TIME_VARIANCE_GAIN * Math.abs(smoothedRoundTripTime - roundTripTime);
+            smoothedRoundTripTime = (1 - ROUND_TRIP_TIME_GAIN) * smoothedRoundTripTime
+                    + ROUND_TRIP_TIME_GAIN * roundTripTime;
+        }
+        long estimatedTimeout = (long) Math.ceil(smoothedRoundTripTime
+                + ROUND_TRIP_TIME_VARIANCE_MULTIPLIER * roundTripTimeVariance);
+        retransmissionTimeout = Math.min(Math.max(estimatedTimeout, MIN_RETRANSMISSION_TIMEOUT),
+                getMaxRetransmissionTimeout());
+    }
+
+    /**
+     * Get the upper bound of the retransmission timeout.
+     *
+     * @return The maximum retransmission timeout
+     */
+    private long getMaxRetransmissionTimeout() {
+        return Math.max(serviceHolder.getConfiguration().getUdpNetworkHandlerMaxRetransmissionTimeout(),
+                MIN_RETRANSMISSION_TIMEOUT);
+    }
+
+    /**
+     * Move the next expected sequence number forward giving up on the missing messages before it.
+     *
+     * @param sequenceNumber The new next expected sequence number
+     */
+    private void slideReceiveWindow(long sequenceNumber) {
+        long shift = sequenceNumber - nextExpectedSequenceNumber;
+        boolean isReceived = shift <= MAX_WINDOW_SIZE
+                && (receivedSequenceNumbersBitmap & (1L << (shift - 1))) != 0;
+        receivedSequenceNumbersBitmap = shift >= MAX_WINDOW_SIZE ? 0 : receivedSequenceNumbersBitmap >>> shift;
+        nextExpectedSequenceNumber = sequenceNumber;
+        if (isReceived) {
+            advanceNextExpectedSequenceNumber();
+        }
+    }
+
+    /**
+     * Move past the next expected sequence number after it had been received
+     * and past the messages already received after it.
+     */
+    private void advanceNextExpectedSequenceNumber() {
+        nextExpectedSequenceNumber++;
+        while ((receivedSequenceNumbersBitmap & 1L) != 0) {
+            receivedSequenceNumbersBitmap >>>= 1;
+            nextExpectedSequenceNumber++;
+        }
+        receivedSequenceNumbersBitmap >>>= 1;
+    }
+}
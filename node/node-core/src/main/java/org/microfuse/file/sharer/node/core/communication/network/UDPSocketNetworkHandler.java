@@ -1,13 +1,15 @@
 package org.microfuse.file.sharer.node.core.communication.network;
 
 import com.google.common.io.Closeables;
-import org.microfuse.file.sharer.node.commons.Constants;
 import org.microfuse.file.sharer.node.commons.communication.messaging.UDPMessageType;
 import org.microfuse.file.sharer.node.commons.communication.network.NetworkHandlerType;
 import org.microfuse.file.sharer.node.commons.peer.Node;
 import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+import org.microfuse.file.sharer.node.core.communication.messaging.MessageCodec;
 import org.microfuse.file.sharer.node.core.communication.messaging.UDPMessage;
+import org.microfuse.file.sharer.node.core.utils.ScheduledTask;
 import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
+import org.microfuse.file.sharer.node.core.utils.TaskSubsystem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,45 +17,56 @@ import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A UDP Socket based network handler.
  * <p>
- * Uses TCP sockets to communicate with other nodes.
+ * Uses UDP sockets to communicate with other nodes.
+ * <p>
+ * Reliability is provided per node by a sliding window of DATA messages with their own sequence numbers.
+ * Received DATA messages are acknowledged cumulatively with selective acknowledgement bitmaps
+ * and the acknowledgements are piggybacked on DATA messages sent to the same node when possible.
+ * Messages not acknowledged within the retransmission timeout estimated from the round trip times are retried.
+ * <p>
+ * If coalescing is enabled the messages sent to the same node within the coalescing window
+ * are sent together in a single batch datagram.
+ * <p>
+ * Sessions are kept per socket address from which datagrams are received and to which they are sent
+ * since the source claimed in a message cannot be trusted. Datagrams are sent through the listening socket
+ * so that the peers see the listening port as the source. Sessions which had been idle are discarded.
  */
 public class UDPSocketNetworkHandler extends NetworkHandler {
     private static final Logger logger = LoggerFactory.getLogger(UDPSocketNetworkHandler.class);
 
-    private DatagramSocket serverSocket;
-    private long sequenceNumber;
-    private Thread retryThread;
+    /**
+     * The maximum size of a coalesced datagram.
+     * Kept below the common ethernet MTU after the IP and UDP headers to avoid fragmentation.
+     */
+    private static final int COALESCED_DATAGRAM_MAX_SIZE = 1400;
 
-    private Map<Node, Set<UDPMessage>> messagesPendingDataAck;
-    private Map<Node, Long> dataSequenceNumbers;
-    private Set<Long> missingDataSequenceNumbers;
+    private volatile DatagramSocket serverSocket;
+    private Map<Node, UDPPeerSession> peerSessions;
+    private ScheduledTask idleSessionEvictionTask;
 
     public UDPSocketNetworkHandler(ServiceHolder serviceHolder) {
         super(serviceHolder);
-        sequenceNumber = 0;
-        messagesPendingDataAck = new HashMap<>();
-        dataSequenceNumbers = new HashMap<>();
-        missingDataSequenceNumbers = new HashSet<>();
+        peerSessions = new ConcurrentHashMap<>();
     }
 
     @Override
     public String getName() {
-        return NetworkHandlerType.TCP_SOCKET.getValue();
+        return NetworkHandlerType.UDP_SOCKET.getValue();
     }
 
     @Override
     public void startListening() {
         if (!running) {
             super.startListening();
-            startRetryThread();
+            startIdleSessionEviction();
             Thread thread = new Thread(() -> {
                 while (running) {
                     int port = serviceHolder.getConfiguration().getPeerListeningPort();
@@ -65,53 +78,21 @@ public class UDPSocketNetworkHandler extends NetworkHandler {
                             DatagramPacket incomingPacket = new DatagramPacket(buffer, buffer.length);
                             serverSocket.receive(incomingPacket);
 
-                            byte[] data = incomingPacket.getData();
-                            String messageString =
-                                    new String(data, 0, incomingPacket.getLength(), Constants.DEFAULT_CHARSET);
-                            logger.info("Message received from " + incomingPacket.getAddress().getHostAddress()
-                                    + ":" + incomingPacket.getPort() + " : " + messageString);
-
-                            UDPMessage udpMessage = UDPMessage.parse(messageString);
-                            String fromIP = udpMessage.getSourceIP();
-                            int fromPort = udpMessage.getSourcePort();
-
-                            synchronized (this) {
-                                if (udpMessage.getType() == UDPMessageType.DATA) {
-                                    Node fromNode = new Node(fromIP, fromPort);
-                                    long lastSequenceNumber = dataSequenceNumbers.computeIfAbsent(fromNode, k -> -1L);
-                                    long currentSequenceNumber = udpMessage.getSequenceNumber();
-
-                                    boolean isRelevant = false;
-                                    if (currentSequenceNumber > lastSequenceNumber) {
-                                        for (long i = lastSequenceNumber + 1; i < currentSequenceNumber; i++) {
-                                            missingDataSequenceNumbers.add(i);
-                                        }
-                                        isRelevant = true;
-                                    } else if (missingDataSequenceNumbers.contains(currentSequenceNumber)) {
-                                        missingDataSequenceNumbers.remove(currentSequenceNumber);
-                                        isRelevant = true;
-                                    } else {
-                                        logger.info("Dropped repeated message " + udpMessage.toString() + " from node "
-                                                + fromIP + ";" + fromPort);
-                                    }
-
-                                    UDPMessage ackMessage = new UDPMessage();
-                                    ackMessage.setType(UDPMessageType.DATA_ACK);
-                                    ackMessage.setSourceIP(serviceHolder.getConfiguration().getIp());
-                                    ackMessage.setSourcePort(serviceHolder.getConfiguration().getPeerListeningPort());
-                                    ackMessage.setSequenceNumber(udpMessage.getSequenceNumber());
-
-                                    sendMessage(fromIP, fromPort, ackMessage);
-
-                                    if (isRelevant) {
-                                        dataSequenceNumbers.put(fromNode, currentSequenceNumber);
-                                        runTasksOnMessageReceived(fromIP, fromPort, udpMessage.getMessage());
-                                    }
-                                } else if (udpMessage.getType() == UDPMessageType.DATA_ACK) {
-                                    removeMessagePendingDataAck(
-                                            incomingPacket.getAddress().getHostAddress(),
-                                            incomingPacket.getPort(), udpMessage);
+                            try {
+                                List<UDPMessage> udpMessages = MessageCodec.decodeUDPMessages(
+                                        incomingPacket.getData(), 0, incomingPacket.getLength());
+                                for (UDPMessage udpMessage : udpMessages) {
+                                    logger.info("Message received from "
+                                            + incomingPacket.getAddress().getHostAddress() + ":"
+                                            + incomingPacket.getPort() + " : " + udpMessage.toString());
+
+                                    handleUDPMessage(new Node(incomingPacket.getAddress().getHostAddress(),
+                                            incomingPacket.getPort()), udpMessage);
                                 }
+                            } catch (IllegalArgumentException e) {
+                                logger.warn("Dropped malformed message from "
+                                        + incomingPacket.getAddress().getHostAddress() + ":"
+                                        + incomingPacket.getPort(), e);
                             }
                         }
                     } catch (IOException e) {
@@ -140,7 +121,7 @@ public class UDPSocketNetworkHandler extends NetworkHandler {
                 restartRequired = false;
             }
         } else {
-            logger.warn("The TCP network handler is not listening. Ignored request to restart.");
+            logger.warn("The UDP network handler is not listening. Ignored request to restart.");
         }
     }
 
@@ -148,8 +129,9 @@ public class UDPSocketNetworkHandler extends NetworkHandler {
     public void shutdown() {
         logger.info("Shutting down UDP network handler");
         running = false;
+        stopIdleSessionEviction();
+        stopPeerSessions();
         closeSocket();
-        closeRetryThread();
     }
 
     @Override
@@ -158,46 +140,96 @@ public class UDPSocketNetworkHandler extends NetworkHandler {
         udpMessage.setType(UDPMessageType.DATA);
         udpMessage.setSourceIP(serviceHolder.getConfiguration().getIp());
         udpMessage.setSourcePort(serviceHolder.getConfiguration().getPeerListeningPort());
-        udpMessage.setSequenceNumber(sequenceNumber++);
         udpMessage.setMessage(message);
 
-        Set<UDPMessage> udpMessages = messagesPendingDataAck.computeIfAbsent(new Node(ip, port), k -> new HashSet<>());
-        udpMessages.add(udpMessage);
-
-        sendMessage(ip, port, udpMessage);
+        Node node = new Node(ip, port);
+        boolean isQueued = false;
+        while (!isQueued) {
+            UDPPeerSession peerSession = getPeerSession(node);
+            synchronized (peerSession) {
+                // Retrying with a new session if the session had been discarded in the meantime
+                if (!peerSession.isClosed()) {
+                    peerSession.markUsed();
+                    peerSession.queueMessage(udpMessage);
+                    sendAdmittedMessages(node, peerSession);
+                    isQueued = true;
+                }
+            }
+        }
     }
 
     /**
-     * Start the thread which handles retrying.
+     * Handle a UDP message received by the listener.
+     * <p>
+     * Clears the messages acknowledged by the message, drops repeated DATA messages
+     * and schedules the acknowledgement of DATA messages.
+     * Acknowledgements are delayed so that they can be piggybacked on DATA messages sent to the same node
+     * and so that a single acknowledgement can cover multiple DATA messages.
+     * Repeated and out of order DATA messages are acknowledged immediately.
+     * The session is selected by the socket address from which the datagram was received
+     * while the listeners are informed of the source claimed in the message.
+     *
+     * @param fromNode   The socket address from which the datagram was received
+     * @param udpMessage The UDP message received
      */
-    private void startRetryThread() {
-        retryThread = new Thread(() -> {
-            while (running) {
-                try {
-                    Thread.sleep(serviceHolder.getConfiguration().getUdpNetworkHandlerRetryInterval());
-                } catch (InterruptedException ignored) {
+    protected void handleUDPMessage(Node fromNode, UDPMessage udpMessage) {
+        String fromIP = udpMessage.getSourceIP();
+        int fromPort = udpMessage.getSourcePort();
+
+        boolean isRelevant = false;
+        boolean isHandled = false;
+        while (!isHandled) {
+            UDPPeerSession peerSession = getPeerSession(fromNode);
+            synchronized (peerSession) {
+                // Retrying with a new session if the session had been discarded in the meantime
+                if (!peerSession.isClosed()) {
+                    isRelevant = handleUDPMessage(fromNode, peerSession, udpMessage);
+                    isHandled = true;
                 }
-                retryMessages();
             }
-            retryThread = null;
-        });
-        retryThread.setPriority(Thread.NORM_PRIORITY);
-        retryThread.setDaemon(true);
-        retryThread.start();
+        }
+
+        if (isRelevant) {
+            runTasksOnMessageReceived(fromIP, fromPort, udpMessage.getMessage());
+        }
     }
 
     /**
-     * Stop the thread which handles retrying.
+     * Update the session of a node with a UDP message received from the node.
+     * Should be called while holding the monitor of the session.
+     *
+     * @param fromNode    The socket address from which the datagram was received
+     * @param peerSession The session of the node
+     * @param udpMessage  The UDP message received
+     * @return True if the message is a DATA message which had not been received before
      */
-    private void closeRetryThread() {
-        if (retryThread != null) {
-            try {
-                retryThread.join();
-            } catch (InterruptedException e) {
-                logger.warn("Failed to wait for the retry thread to stop", e);
+    private boolean handleUDPMessage(Node fromNode, UDPPeerSession peerSession, UDPMessage udpMessage) {
+        boolean isRelevant = false;
+        peerSession.markUsed();
+        if (udpMessage.hasAck()) {
+            peerSession.acknowledge(udpMessage.getAckSequenceNumber(), udpMessage.getSelectiveAckBitmap(),
+                    System.currentTimeMillis());
+            sendAdmittedMessages(fromNode, peerSession);
+        }
+
+        if (udpMessage.getType() == UDPMessageType.DATA) {
+            isRelevant = peerSession.markReceived(udpMessage.getSequenceNumber());
+            if (!isRelevant) {
+                logger.info("Dropped repeated message " + udpMessage.toString() + " from node "
+                        + fromNode.getIp() + ":" + fromNode.getPort());
+            }
+
+            peerSession.setAckPending(true);
+            if (!isRelevant || peerSession.hasReceiveGap()) {
+                sendAck(fromNode, peerSession);
+            } else if (peerSession.getAckTimer() == null) {
+                peerSession.setAckTimer(serviceHolder.getTimeoutService().schedule(
+                        () -> onAckTimeout(fromNode, peerSession),
+                        serviceHolder.getConfiguration().getUdpNetworkHandlerAckDelay()
+                ));
             }
-            retryThread = null;
         }
+        return isRelevant;
     }
 
     /**
@@ -207,87 +239,316 @@ public class UDPSocketNetworkHandler extends NetworkHandler {
      * @param port       The port to which the UDP message should be sent
      * @param udpMessage The UDP message to be sent
      */
-    private void sendMessage(String ip, int port, UDPMessage udpMessage) {
-        String messageString = udpMessage.toString();
-        DatagramSocket socket = null;
-        try {
-            socket = new DatagramSocket();
-
-            DatagramPacket datagramPacket = new DatagramPacket(
-                    messageString.getBytes(Constants.DEFAULT_CHARSET),
-                    messageString.getBytes(Constants.DEFAULT_CHARSET).length,
-                    InetAddress.getByName(ip), port);
-            socket.send(datagramPacket);
-            logger.info("Message " + messageString + " sent to node " + ip + ":" + port);
-        } catch (IOException e) {
-            logger.error("Failed to send message " + messageString + " to " + ip + ":" + port, e);
-        } finally {
+    protected void sendUDPMessage(String ip, int port, UDPMessage udpMessage) {
+        byte[] messageBytes = MessageCodec.encode(udpMessage,
+                serviceHolder.getConfiguration().isNetworkHandlerBinaryCodecEnabled());
+        sendDatagram(ip, port, messageBytes, udpMessage.toString());
+    }
+
+    /**
+     * Send a datagram to the specified node.
+     *
+     * @param ip            The ip address to which the datagram should be sent
+     * @param port          The port to which the datagram should be sent
+     * @param datagram      The payload of the datagram
+     * @param messageString The string representation of the payload used in logs
+     */
+    protected void sendDatagram(String ip, int port, byte[] datagram, String messageString) {
+        DatagramSocket socket = serverSocket;
+        if (socket != null && !socket.isClosed()) {
             try {
-                Closeables.close(socket, true);
-            } catch (IOException ignored) {
+                DatagramPacket datagramPacket = new DatagramPacket(
+                        datagram, datagram.length, InetAddress.getByName(ip), port);
+                socket.send(datagramPacket);
+                logger.info("Message " + messageString + " sent to node " + ip + ":" + port);
+            } catch (IOException e) {
+                logger.error("Failed to send message " + messageString + " to " + ip + ":" + port, e);
             }
+        } else {
+            logger.warn("Dropped message " + messageString + " to " + ip + ":" + port
+                    + " since the socket is not open");
         }
     }
 
     /**
-     * Retry to send the messages not delivered.
+     * Get the reliability session of a node.
+     *
+     * @param node The node
+     * @return The session of the node
      */
-    private void retryMessages() {
-        if (running) {
-            Map<Node, Set<UDPMessage>> messagesToBeRemoved = new HashMap<>();
-            messagesPendingDataAck.entrySet().stream().parallel().forEach(entry -> {
-                Node node = entry.getKey();
-                entry.getValue().stream().parallel().forEach(udpMessage -> {
-                    if (udpMessage.getUsedRetriesCount() == -1) {
-                        udpMessage.setUsedRetriesCount(0);
-                    } else if (udpMessage.getUsedRetriesCount()
-                            < serviceHolder.getConfiguration().getUdpNetworkHandlerRetryCount()) {
-                        udpMessage.setUsedRetriesCount(udpMessage.getUsedRetriesCount() + 1);
-                        sendMessage(node.getIp(), node.getPort(), udpMessage);
-                        logger.info("Retrying to send message " + udpMessage.toString());
-                    } else {
-                        logger.info("Failed to send message " + udpMessage.toString());
-                        runTasksOnMessageSendFailed(node.getIp(), node.getPort(), udpMessage.getMessage());
-
-                        Set<UDPMessage> udpMessages = messagesToBeRemoved.computeIfAbsent(node, k -> new HashSet<>());
-                        udpMessages.add(udpMessage);
+    private UDPPeerSession getPeerSession(Node node) {
+        // Starting after the sequence numbers which could have been used by the discarded sessions of the node
+        return peerSessions.computeIfAbsent(node, k -> new UDPPeerSession(serviceHolder,
+                System.currentTimeMillis() * UDPPeerSession.MAX_WINDOW_SIZE));
+    }
+
+    /**
+     * Send the queued messages which fit in the window of a node and schedule their retransmission.
+     * Should be called while holding the monitor of the session.
+     *
+     * @param node        The node to which the messages should be sent
+     * @param peerSession The session of the node
+     */
+    private void sendAdmittedMessages(Node node, UDPPeerSession peerSession) {
+        for (UDPMessage udpMessage : peerSession.admitQueuedMessages()) {
+            transmitMessage(node, peerSession, udpMessage);
+        }
+        scheduleRetransmission(node, peerSession);
+    }
+
+    /**
+     * Send a DATA message piggybacking the acknowledgement of the messages received from the node.
+     * Should be called while holding the monitor of the session.
+     *
+     * @param node        The node to which the message should be sent
+     * @param peerSession The session of the node
+     * @param udpMessage  The DATA message to be sent
+     */
+    private void transmitMessage(Node node, UDPPeerSession peerSession, UDPMessage udpMessage) {
+        if (peerSession.hasReceivedMessages()) {
+            udpMessage.setAckSequenceNumber(peerSession.getAckSequenceNumber());
+            udpMessage.setSelectiveAckBitmap(peerSession.getSelectiveAckBitmap());
+            clearPendingAck(peerSession);
+        }
+        udpMessage.setSentTimeStamp(System.currentTimeMillis());
+        dispatchUDPMessage(node, peerSession, udpMessage);
+    }
+
+    /**
+     * Send a DATA_ACK message acknowledging the messages received from the node.
+     * Should be called while holding the monitor of the session.
+     *
+     * @param node        The node to which the acknowledgement should be sent
+     * @param peerSession The session of the node
+     */
+    private void sendAck(Node node, UDPPeerSession peerSession) {
+        UDPMessage ackMessage = new UDPMessage();
+        ackMessage.setType(UDPMessageType.DATA_ACK);
+        ackMessage.setSourceIP(serviceHolder.getConfiguration().getIp());
+        ackMessage.setSourcePort(serviceHolder.getConfiguration().getPeerListeningPort());
+        ackMessage.setAckSequenceNumber(peerSession.getAckSequenceNumber());
+        ackMessage.setSelectiveAckBitmap(peerSession.getSelectiveAckBitmap());
+        clearPendingAck(peerSession);
+
+        dispatchUDPMessage(node, peerSession, ackMessage);
+    }
+
+    /**
+     * Mark the acknowledgement of a session as sent.
+     * Should be called while holding the monitor of the session.
+     *
+     * @param peerSession The session of which the acknowledgement was sent
+     */
+    private void clearPendingAck(UDPPeerSession peerSession) {
+        peerSession.setAckPending(false);
+        if (peerSession.getAckTimer() != null) {
+            peerSession.getAckTimer().cancel();
+            peerSession.setAckTimer(null);
+        }
+    }
+
+    /**
+     * Send the delayed acknowledgement if it had not been piggybacked on a DATA message.
+     *
+     * @param node        The node to which the acknowledgement should be sent
+     * @param peerSession The session of the node
+     */
+    private void onAckTimeout(Node node, UDPPeerSession peerSession) {
+        synchronized (peerSession) {
+            peerSession.setAckTimer(null);
+            if (running && peerSession.isAckPending()) {
+                sendAck(node, peerSession);
+            }
+        }
+    }
+
+    /**
+     * Schedule the retransmission timer of a session if there are messages pending acknowledgement.
+     * The timer is cancelled when all the messages had been acknowledged.
+     * Should be called while holding the monitor of the session.
+     *
+     * @param node        The node to which the messages were sent
+     * @param peerSession The session of the node
+     */
+    private void scheduleRetransmission(Node node, UDPPeerSession peerSession) {
+        if (peerSession.hasMessagesPendingAck()) {
+            if (peerSession.getRetransmissionTimer() == null) {
+                long delay = peerSession.getNextRetransmissionTimeStamp() - System.currentTimeMillis();
+                peerSession.setRetransmissionTimer(serviceHolder.getTimeoutService().schedule(
+                        () -> retransmitMessages(node, peerSession), Math.max(delay, 0)
+                ));
+            }
+        } else if (peerSession.getRetransmissionTimer() != null) {
+            peerSession.getRetransmissionTimer().cancel();
+            peerSession.setRetransmissionTimer(null);
+        }
+    }
+
+    /**
+     * Retransmit the messages of a session which had not been acknowledged within the retransmission timeout.
+     * Messages which had used up all the retries are reported as failed.
+     *
+     * @param node        The node to which the messages were sent
+     * @param peerSession The session of the node
+     */
+    private void retransmitMessages(Node node, UDPPeerSession peerSession) {
+        List<UDPMessage> failedMessages = new ArrayList<>();
+        synchronized (peerSession) {
+            peerSession.setRetransmissionTimer(null);
+            if (running) {
+                long currentTimeStamp = System.currentTimeMillis();
+                boolean isTimedOut = false;
+                for (UDPMessage udpMessage : peerSession.getMessagesPendingAck()) {
+                    if (udpMessage.getSentTimeStamp() + peerSession.getRetransmissionTimeout() <= currentTimeStamp) {
+                        if (udpMessage.getUsedRetriesCount()
+                                < serviceHolder.getConfiguration().getUdpNetworkHandlerRetryCount()) {
+                            udpMessage.setUsedRetriesCount(udpMessage.getUsedRetriesCount() + 1);
+                            transmitMessage(node, peerSession, udpMessage);
+                            logger.info("Retrying to send message " + udpMessage.toString());
+                        } else {
+                            peerSession.removeMessagePendingAck(udpMessage);
+                            failedMessages.add(udpMessage);
+                        }
+                        isTimedOut = true;
                     }
-                });
-            });
+                }
+                if (isTimedOut) {
+                    peerSession.backOffRetransmissionTimeout();
+                }
+                sendAdmittedMessages(node, peerSession);
+            }
+        }
 
-            messagesToBeRemoved.entrySet().stream().sequential().forEach(entry -> {
-                Node node = entry.getKey();
-                entry.getValue().stream().sequential().forEach(udpMessage ->
-                    removeMessagePendingDataAck(node.getIp(), node.getPort(), udpMessage));
-            });
+        for (UDPMessage udpMessage : failedMessages) {
+            logger.info("Failed to send message " + udpMessage.toString());
+            runTasksOnMessageSendFailed(node.getIp(), node.getPort(), udpMessage.getMessage());
         }
     }
 
     /**
-     * Close the UDP socket.
+     * Send a UDP message through the coalescing stage if coalescing is enabled.
+     * <p>
+     * The first message buffered for a node starts the coalescing window at the end of which
+     * all the messages buffered for the node are sent as a single batch datagram.
+     * The buffered messages are sent earlier if adding another message would exceed the maximum datagram size.
+     * Should be called while holding the monitor of the session.
+     *
+     * @param node        The node to which the message should be sent
+     * @param peerSession The session of the node
+     * @param udpMessage  The UDP message to be sent
      */
-    private void closeSocket() {
-        try {
-            Closeables.close(serverSocket, true);
-        } catch (IOException ignored) {
+    private void dispatchUDPMessage(Node node, UDPPeerSession peerSession, UDPMessage udpMessage) {
+        if (serviceHolder.getConfiguration().isUdpNetworkHandlerCoalescingEnabled()) {
+            byte[] messageBytes = MessageCodec.encode(udpMessage,
+                    serviceHolder.getConfiguration().isNetworkHandlerBinaryCodecEnabled());
+            if (peerSession.hasCoalescedMessages()
+                    && peerSession.getCoalescedBatchSize(messageBytes) > COALESCED_DATAGRAM_MAX_SIZE) {
+                flushCoalescedMessages(node, peerSession);
+            }
+            if (peerSession.getCoalescedBatchSize(messageBytes) > COALESCED_DATAGRAM_MAX_SIZE) {
+                sendDatagram(node.getIp(), node.getPort(), messageBytes, udpMessage.toString());
+            } else {
+                peerSession.addCoalescedMessage(messageBytes);
+                logger.debug("Coalesced message " + udpMessage.toString() + " to node "
+                        + node.getIp() + ":" + node.getPort());
+                if (peerSession.getCoalescingFlush() == null) {
+                    peerSession.setCoalescingFlush(serviceHolder.getTaskScheduler().schedule(
+                            TaskSubsystem.NETWORK_HANDLER_MAINTENANCE,
+                            () -> onCoalescingWindowEnd(node, peerSession),
+                            serviceHolder.getConfiguration().getUdpNetworkHandlerCoalescingWindow()
+                    ));
+                }
+            }
+        } else {
+            sendUDPMessage(node.getIp(), node.getPort(), udpMessage);
         }
     }
 
     /**
-     * Remove messages from the messages set which need to be retried.
+     * Send the messages buffered for a node at the end of the coalescing window.
      *
-     * @param toIP       The IP to which the message needed to be sent
-     * @param toPort     The port to which the messages needed to be sent
-     * @param udpMessage The message to be sent
+     * @param node        The node to which the messages should be sent
+     * @param peerSession The session of the node
      */
-    private void removeMessagePendingDataAck(String toIP, int toPort, UDPMessage udpMessage) {
-        Node ackNode = new Node(toIP, toPort);
-        Set<UDPMessage> udpMessages = messagesPendingDataAck.get(ackNode);
-        if (udpMessages != null) {
-            udpMessages.remove(udpMessage);
-            if (udpMessages.size() == 0) {
-                messagesPendingDataAck.remove(ackNode);
+    private void onCoalescingWindowEnd(Node node, UDPPeerSession peerSession) {
+        synchronized (peerSession) {
+            peerSession.setCoalescingFlush(null);
+            flushCoalescedMessages(node, peerSession);
+        }
+    }
+
+    /**
+     * Send the messages buffered for a node as a single datagram.
+     * Should be called while holding the monitor of the session.
+     *
+     * @param node        The node to which the messages should be sent
+     * @param peerSession The session of the node
+     */
+    private void flushCoalescedMessages(Node node, UDPPeerSession peerSession) {
+        if (peerSession.getCoalescingFlush() != null) {
+            peerSession.getCoalescingFlush().cancel(false);
+            peerSession.setCoalescingFlush(null);
+        }
+        List<byte[]> coalescedMessages = peerSession.drainCoalescedMessages();
+        if (coalescedMessages.size() > 0) {
+            // A single message is sent without the batch framing
+            byte[] datagram = coalescedMessages.size() == 1
+                    ? coalescedMessages.get(0) : MessageCodec.encodeBatch(coalescedMessages);
+            sendDatagram(node.getIp(), node.getPort(), datagram,
+                    "batch of " + coalescedMessages.size() + " coalesced messages");
+        }
+    }
+
+    /**
+     * Start discarding sessions which had been idle for longer than the idle timeout.
+     */
+    protected void startIdleSessionEviction() {
+        idleSessionEvictionTask = serviceHolder.getTaskScheduler().schedulePeriodically(
+                TaskSubsystem.NETWORK_HANDLER_MAINTENANCE, () -> {
+                    int idleTimeout = serviceHolder.getConfiguration().getUdpNetworkHandlerSessionIdleTimeout();
+                    peerSessions.forEach((node, peerSession) -> {
+                        synchronized (peerSession) {
+                            if (peerSession.isIdle(idleTimeout)) {
+                                peerSession.close();
+                                peerSessions.remove(node, peerSession);
+                                logger.debug("Discarded idle session of node " + node.toString());
+                            }
+                        }
+                    });
+                },
+                () -> serviceHolder.getConfiguration().getUdpNetworkHandlerSessionIdleTimeout()
+        );
+    }
+
+    /**
+     * Stop discarding idle sessions.
+     */
+    private void stopIdleSessionEviction() {
+        if (idleSessionEvictionTask != null) {
+            serviceHolder.getTaskScheduler().cancel(idleSessionEvictionTask);
+            idleSessionEvictionTask = null;
+        }
+    }
+
+    /**
+     * Send the buffered messages and cancel the timers of all the sessions.
+     */
+    private void stopPeerSessions() {
+        peerSessions.forEach((node, peerSession) -> {
+            synchronized (peerSession) {
+                flushCoalescedMessages(node, peerSession);
+                peerSession.cancelTimers();
             }
+        });
+    }
+
+    /**
+     * Close the UDP socket.
+     */
+    protected void closeSocket() {
+        try {
+            Closeables.close(serverSocket, true);
+        } catch (IOException ignored) {
         }
     }
 }
@@ -0,0 +1,171 @@
+package org.microfuse.file.sharer.node.core.communication.network.inmemory;
+
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageConstants;
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageIndexes;
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.commons.peer.Node;
+import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A bootstrap server which replies to the messages sent through the in memory network.
+ * <p>
+ * Replies to REG, UNREG and ECHO messages in the same way as the UDP bootstrap server.
+ * A node is identified by both its ip and port. Therefore many nodes can use the same port with different ips.
+ */
+public class InMemoryBootstrapServer {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryBootstrapServer.class);
+
+    private static final int REG_OK_MAX_NODES_COUNT = 2;
+
+    private final String ip;
+    private final int port;
+    private final List<Node> nodes;
+    private final List<String> usernames;
+    private boolean running;
+
+    public InMemoryBootstrapServer(String ip, int port) {
+        this.ip = ip;
+        this.port = port;
+        nodes = new ArrayList<>();
+        usernames = new ArrayList<>();
+        running = false;
+    }
+
+    /**
+     * Start replying to the messages sent to the address of the bootstrap server.
+     *
+     * @return True if no other bootstrap server was listening on the same address
+     */
+    public synchronized boolean start() {
+        if (!running) {
+            running = InMemoryNetwork.getInstance().registerBootstrapServer(ip, port, this);
+            if (running) {
+                logger.info("In memory bootstrap server started at " + ip + ":" + port);
+            } else {
+                logger.warn("Failed to start in memory bootstrap server since another bootstrap server is listening at "
+                        + ip + ":" + port);
+            }
+        }
+        return running;
+    }
+
+    /**
+     * Shutdown the bootstrap server and forget the registered nodes.
+     */
+    public synchronized void shutdown() {
+        if (running) {
+            running = false;
+            InMemoryNetwork.getInstance().unregisterBootstrapServer(ip, port, this);
+            nodes.clear();
+            usernames.clear();
+            logger.info("In memory bootstrap server closed.");
+        }
+    }
+
+    /**
+     * Get all the nodes registered in the server.
+     *
+     * @return The nodes registered in the server
+     */
+    public synchronized List<Node> getAllNodes() {
+        return new ArrayList<>(nodes);
+    }
+
+    /**
+     * Reply to a message sent to the bootstrap server.
+     *
+     * @param message The message sent to the bootstrap server
+     * @return The reply or null if the message does not have a reply
+     */
+    synchronized Message handleMessage(Message message) {
+        logger.info("Received message " + message.toString());
+        Message reply = null;
+        if (message.getType() == MessageType.REG) {
+            reply = handleRegMessage(message);
+        } else if (message.getType() == MessageType.UNREG) {
+            reply = handleUnregMessage(message);
+        } else if (message.getType() == MessageType.ECHO) {
+            reply = new Message();
+            reply.setType(MessageType.ECHO_OK);
+            reply.setData(MessageIndexes.ECHO_OK_VALUE, MessageConstants.ECHO_OK_VALUE_SUCCESS);
+        }
+        return reply;
+    }
+
+    /**
+     * Register a node and reply with up to two random nodes which had registered earlier.
+     *
+     * @param message The REG message
+     * @return The REG_OK message
+     */
+    private Message handleRegMessage(Message message) {
+        Node node = new Node(message.getData(MessageIndexes.REG_IP),
+                Integer.parseInt(message.getData(MessageIndexes.REG_PORT)));
+        String username = message.getData(MessageIndexes.REG_USERNAME);
+
+        Message reply = new Message();
+        reply.setType(MessageType.REG_OK);
+        int nodeIndex = nodes.indexOf(node);
+        if (nodeIndex >= 0) {
+            reply.setData(MessageIndexes.REG_OK_NODES_COUNT, Objects.equals(usernames.get(nodeIndex), username)
+                    ? MessageConstants.REG_OK_NODE_COUNT_VALUE_ERROR_ALREADY_REGISTERED
+                    : MessageConstants.REG_OK_NODE_COUNT_VALUE_ERROR_ALREADY_OCCUPIED);
+        } else {
+            List<Node> replyNodes = new ArrayList<>();
+            if (nodes.size() <= REG_OK_MAX_NODES_COUNT) {
+                replyNodes.addAll(nodes);
+            } else {
+                Set<Integer> replyNodeIndexes = new HashSet<>();
+                while (replyNodeIndexes.size() < REG_OK_MAX_NODES_COUNT) {
+                    replyNodeIndexes.add(ThreadLocalRandom.current().nextInt(nodes.size()));
+                }
+                for (int replyNodeIndex : replyNodeIndexes) {
+                    replyNodes.add(nodes.get(replyNodeIndex));
+                }
+            }
+
+            reply.setData(MessageIndexes.REG_OK_NODES_COUNT, Integer.toString(replyNodes.size()));
+            for (int i = 0; i < replyNodes.size(); i++) {
+                reply.setData(MessageIndexes.REG_OK_IP_PORT_START + 2 * i, replyNodes.get(i).getIp());
+                reply.setData(MessageIndexes.REG_OK_IP_PORT_START + 2 * i + 1,
+                        Integer.toString(replyNodes.get(i).getPort()));
+            }
+
+            nodes.add(node);
+            usernames.add(username);
+        }
+        return reply;
+    }
+
+    /**
+     * Unregister a node.
+     *
+     * @param message The UNREG message
+     * @return The UNREG_OK message or null if the node was not registered
+     */
+    private Message handleUnregMessage(Message message) {
+        Node node = new Node(message.getData(MessageIndexes.UNREG_IP),
+                Integer.parseInt(message.getData(MessageIndexes.UNREG_PORT)));
+
+        Message reply = null;
+        int nodeIndex = nodes.indexOf(node);
+        if (nodeIndex >= 0) {
+            nodes.remove(nodeIndex);
+            usernames.remove(nodeIndex);
+
+            reply = new Message();
+            reply.setType(MessageType.UNREG_OK);
+            reply.setData(MessageIndexes.UNREG_OK_VALUE, MessageConstants.UNREG_OK_VALUE_SUCCESS);
+        }
+        return reply;
+    }
+}
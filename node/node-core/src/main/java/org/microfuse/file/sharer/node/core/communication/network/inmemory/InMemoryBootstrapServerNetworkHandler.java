@@ -0,0 +1,61 @@
+package org.microfuse.file.sharer.node.core.communication.network.inmemory;
+
+import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+import org.microfuse.file.sharer.node.core.communication.network.NetworkHandler;
+import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An in memory network handler used for communicating with an in memory bootstrap server.
+ * <p>
+ * The message is handed over to the bootstrap server registered in the in memory network and the reply is
+ * received before returning. The links to the bootstrap server do not have any delays or losses.
+ * Sending fails if no bootstrap server is listening at the address or if the bootstrap server does not reply.
+ */
+public class InMemoryBootstrapServerNetworkHandler extends NetworkHandler {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryBootstrapServerNetworkHandler.class);
+
+    public InMemoryBootstrapServerNetworkHandler(ServiceHolder serviceHolder) {
+        super(serviceHolder);
+    }
+
+    @Override
+    public String getName() {
+        return "In Memory Bootstrap Server Network Handler";
+    }
+
+    @Override
+    public void sendMessage(String ip, int port, Message message) {
+        InMemoryBootstrapServer bootstrapServer = InMemoryNetwork.getInstance().getBootstrapServer(ip, port);
+        Message replyMessage = null;
+        if (bootstrapServer != null) {
+            replyMessage = bootstrapServer.handleMessage(message.clone());
+            logger.info("Message " + message.toString() + " sent to node " + ip + ":" + port);
+        }
+
+        if (replyMessage != null) {
+            logger.info("Reply to message " + message.toString() + " received from node " + ip + ":" + port);
+            runTasksOnMessageReceived(ip, port, replyMessage);
+        } else {
+            logger.info("Failed to send message " + message.toString() + " to " + ip + ":" + port);
+            runTasksOnMessageSendFailed(ip, port, message);
+        }
+    }
+
+    @Override
+    public void startListening() {
+        logger.info("Ignoring request to start listening since the bootstrap server does not initiate communication");
+    }
+
+    @Override
+    public void restart() {
+        super.restart();
+        logger.info("Ignoring request to restart listening since no addresses are used by this network handler");
+    }
+
+    @Override
+    public void shutdown() {
+        logger.info("Ignoring request to shutdown since replies are received before sending returns");
+    }
+}
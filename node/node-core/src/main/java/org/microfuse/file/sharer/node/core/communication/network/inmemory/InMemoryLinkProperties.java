@@ -0,0 +1,50 @@
+package org.microfuse.file.sharer.node.core.communication.network.inmemory;
+
+/**
+ * The properties of a link in the in memory network.
+ * <p>
+ * The delay of a message is the time spent waiting for the earlier messages on the link to be transmitted,
+ * the transmission time based on the bandwidth and the latency varied randomly by up to the jitter.
+ */
+public class InMemoryLinkProperties {
+    /**
+     * Properties of a link without any delays or losses.
+     */
+    public static final InMemoryLinkProperties IDEAL = new InMemoryLinkProperties(0, 0, 0, 0);
+
+    private final long latency;
+    private final long jitter;
+    private final double lossRate;
+    private final long bandwidth;
+
+    /**
+     * Create link properties.
+     *
+     * @param latency   The latency of the link in milliseconds
+     * @param jitter    The maximum random variation of the latency in milliseconds
+     * @param lossRate  The probability of a message being lost in the link
+     * @param bandwidth The bandwidth of the link in bytes per second or zero if the bandwidth is not limited
+     */
+    public InMemoryLinkProperties(long latency, long jitter, double lossRate, long bandwidth) {
+        this.latency = latency;
+        this.jitter = jitter;
+        this.lossRate = lossRate;
+        this.bandwidth = bandwidth;
+    }
+
+    public long getLatency() {
+        return latency;
+    }
+
+    public long getJitter() {
+        return jitter;
+    }
+
+    public double getLossRate() {
+        return lossRate;
+    }
+
+    public long getBandwidth() {
+        return bandwidth;
+    }
+}
@@ -0,0 +1,227 @@
+package org.microfuse.file.sharer.node.core.communication.network.inmemory;
+
+import org.microfuse.file.sharer.node.commons.peer.Node;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The in memory network shared by all the nodes in the JVM.
+ * <p>
+ * In memory network handlers and bootstrap servers are registered in the network by the address they listen on.
+ * Each directed link between two addresses uses the default link properties unless properties had been
+ * set for the link. Messages on a link are transmitted one after the other. Therefore the messages on a link
+ * with limited bandwidth are delayed by the earlier messages on the same link.
+ */
+public class InMemoryNetwork {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryNetwork.class);
+
+    private static final InMemoryNetwork instance = new InMemoryNetwork();
+
+    private final ConcurrentMap<Node, InMemoryNetworkHandler> networkHandlers;
+    private final ConcurrentMap<Node, InMemoryBootstrapServer> bootstrapServers;
+    private final ConcurrentMap<String, InMemoryLinkProperties> linkPropertiesMap;
+    private final ConcurrentMap<String, AtomicLong> linkTransmissionEndTimeStamps;
+    private volatile InMemoryLinkProperties defaultLinkProperties;
+
+    private InMemoryNetwork() {
+        networkHandlers = new ConcurrentHashMap<>();
+        bootstrapServers = new ConcurrentHashMap<>();
+        linkPropertiesMap = new ConcurrentHashMap<>();
+        linkTransmissionEndTimeStamps = new ConcurrentHashMap<>();
+        defaultLinkProperties = InMemoryLinkProperties.IDEAL;
+    }
+
+    /**
+     * Get the in memory network of the JVM.
+     *
+     * @return The in memory network
+     */
+    public static InMemoryNetwork getInstance() {
+        return instance;
+    }
+
+    public InMemoryLinkProperties getDefaultLinkProperties() {
+        return defaultLinkProperties;
+    }
+
+    public void setDefaultLinkProperties(InMemoryLinkProperties defaultLinkProperties) {
+        this.defaultLinkProperties = defaultLinkProperties;
+    }
+
+    /**
+     * Get the properties of a link.
+     *
+     * @param fromIP   The ip of the sender
+     * @param fromPort The port of the sender
+     * @param toIP     The ip of the receiver
+     * @param toPort   The port of the receiver
+     * @return The properties set for the link or the default link properties if none had been set
+     */
+    public InMemoryLinkProperties getLinkProperties(String fromIP, int fromPort, String toIP, int toPort) {
+        InMemoryLinkProperties linkProperties = linkPropertiesMap.get(getLinkKey(fromIP, fromPort, toIP, toPort));
+        return linkProperties == null ? defaultLinkProperties : linkProperties;
+    }
+
+    /**
+     * Set the properties of a link.
+     * The link from the receiver to the sender is not changed.
+     *
+     * @param fromIP         The ip of the sender
+     * @param fromPort       The port of the sender
+     * @param toIP           The ip of the receiver
+     * @param toPort         The port of the receiver
+     * @param linkProperties The properties of the link or null to use the default link properties
+     */
+    public void setLinkProperties(String fromIP, int fromPort, String toIP, int toPort,
+                                  InMemoryLinkProperties linkProperties) {
+        String linkKey = getLinkKey(fromIP, fromPort, toIP, toPort);
+        if (linkProperties == null) {
+            linkPropertiesMap.remove(linkKey);
+        } else {
+            linkPropertiesMap.put(linkKey, linkProperties);
+        }
+    }
+
+    /**
+     * Remove all the registered network handlers and bootstrap servers and reset all the links.
+     */
+    public void clear() {
+        networkHandlers.clear();
+        bootstrapServers.clear();
+        linkPropertiesMap.clear();
+        linkTransmissionEndTimeStamps.clear();
+        defaultLinkProperties = InMemoryLinkProperties.IDEAL;
+        logger.info("Cleared the in memory network");
+    }
+
+    /**
+     * Register a network handler to receive the messages sent to an address.
+     *
+     * @param ip             The ip the network handler listens on
+     * @param port           The port the network handler listens on
+     * @param networkHandler The network handler
+     * @return True if no other network handler was listening on the address
+     */
+    boolean registerNetworkHandler(String ip, int port, InMemoryNetworkHandler networkHandler) {
+        InMemoryNetworkHandler existingNetworkHandler = networkHandlers.putIfAbsent(new Node(ip, port), networkHandler);
+        return existingNetworkHandler == null || existingNetworkHandler == networkHandler;
+    }
+
+    /**
+     * Stop a network handler from receiving the messages sent to an address.
+     *
+     * @param ip             The ip the network handler listens on
+     * @param port           The port the network handler listens on
+     * @param networkHandler The network handler
+     */
+    void unregisterNetworkHandler(String ip, int port, InMemoryNetworkHandler networkHandler) {
+        networkHandlers.remove(new Node(ip, port), networkHandler);
+    }
+
+    /**
+     * Get the network handler listening on an address.
+     *
+     * @param ip   The ip of the address
+     * @param port The port of the address
+     * @return The network handler or null if no network handler is listening on the address
+     */
+    InMemoryNetworkHandler getNetworkHandler(String ip, int port) {
+        return networkHandlers.get(new Node(ip, port));
+    }
+
+    /**
+     * Register a bootstrap server to reply to the messages sent to an address.
+     *
+     * @param ip              The ip the bootstrap server listens on
+     * @param port            The port the bootstrap server listens on
+     * @param bootstrapServer The bootstrap server
+     * @return True if no other bootstrap server was listening on the address
+     */
+    boolean registerBootstrapServer(String ip, int port, InMemoryBootstrapServer bootstrapServer) {
+        InMemoryBootstrapServer existingBootstrapServer =
+                bootstrapServers.putIfAbsent(new Node(ip, port), bootstrapServer);
+        return existingBootstrapServer == null || existingBootstrapServer == bootstrapServer;
+    }
+
+    /**
+     * Stop a bootstrap server from replying to the messages sent to an address.
+     *
+     * @param ip              The ip the bootstrap server listens on
+     * @param port            The port the bootstrap server listens on
+     * @param bootstrapServer The bootstrap server
+     */
+    void unregisterBootstrapServer(String ip, int port, InMemoryBootstrapServer bootstrapServer) {
+        bootstrapServers.remove(new Node(ip, port), bootstrapServer);
+    }
+
+    /**
+     * Get the bootstrap server listening on an address.
+     *
+     * @param ip   The ip of the address
+     * @param port The port of the address
+     * @return The bootstrap server or null if no bootstrap server is listening on the address
+     */
+    InMemoryBootstrapServer getBootstrapServer(String ip, int port) {
+        return bootstrapServers.get(new Node(ip, port));
+    }
+
+    /**
+     * Transmit a message over a link.
+     * The message occupies the link until it is transmitted even if it is lost afterwards.
+     *
+     * @param fromIP    The ip of the sender
+     * @param fromPort  The port of the sender
+     * @param toIP      The ip of the receiver
+     * @param toPort    The port of the receiver
+     * @param byteCount The size of the message in bytes
+     * @return The delay in milliseconds after which the message should be delivered or -1 if the message was lost
+     */
+    long transmit(String fromIP, int fromPort, String toIP, int toPort, int byteCount) {
+        String linkKey = getLinkKey(fromIP, fromPort, toIP, toPort);
+        InMemoryLinkProperties linkProperties = linkPropertiesMap.get(linkKey);
+        if (linkProperties == null) {
+            linkProperties = defaultLinkProperties;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long transmissionDelay = 0;
+        if (linkProperties.getBandwidth() > 0) {
+            long transmissionTime = TimeUnit.SECONDS.toNanos(byteCount) / linkProperties.getBandwidth();
+            long currentTimeStamp = System.nanoTime();
+            long transmissionEndTimeStamp = linkTransmissionEndTimeStamps
+                    .computeIfAbsent(linkKey, key -> new AtomicLong(currentTimeStamp))
+                    .accumulateAndGet(transmissionTime, (previousTransmissionEndTimeStamp, time) ->
+                            Math.max(previousTransmissionEndTimeStamp, currentTimeStamp) + time);
+            transmissionDelay = TimeUnit.NANOSECONDS.toMillis(transmissionEndTimeStamp - currentTimeStamp);
+        }
+
+        if (linkProperties.getLossRate() > 0 && random.nextDouble() < linkProperties.getLossRate()) {
+            return -1;
+        }
+
+        long latency = linkProperties.getLatency();
+        if (linkProperties.getJitter() > 0) {
+            latency += random.nextLong(-linkProperties.getJitter(), linkProperties.getJitter() + 1);
+        }
+        return transmissionDelay + Math.max(latency, 0);
+    }
+
+    /**
+     * Get the key of the directed link between two addresses.
+     *
+     * @param fromIP   The ip of the sender
+     * @param fromPort The port of the sender
+     * @param toIP     The ip of the receiver
+     * @param toPort   The port of the receiver
+     * @return The key of the link
+     */
+    private static String getLinkKey(String fromIP, int fromPort, String toIP, int toPort) {
+        return fromIP + ":" + fromPort + ">" + toIP + ":" + toPort;
+    }
+}
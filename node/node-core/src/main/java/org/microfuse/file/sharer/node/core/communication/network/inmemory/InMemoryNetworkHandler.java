@@ -0,0 +1,145 @@
+package org.microfuse.file.sharer.node.core.communication.network.inmemory;
+
+import org.microfuse.file.sharer.node.commons.Configuration;
+import org.microfuse.file.sharer.node.commons.communication.network.NetworkHandlerType;
+import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+import org.microfuse.file.sharer.node.core.communication.messaging.MessageCodec;
+import org.microfuse.file.sharer.node.core.communication.messaging.TCPMessage;
+import org.microfuse.file.sharer.node.core.communication.network.NetworkHandler;
+import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
+import org.microfuse.file.sharer.node.core.utils.TaskSubsystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An in memory network handler.
+ * <p>
+ * Delivers messages to the other in memory network handlers in the same JVM through the in memory network.
+ * Messages are encoded with the message codec when sent and decoded when delivered. Therefore the receiver
+ * never shares the message object with the sender and the size of the message is known.
+ * The delivery of a message is scheduled in the task scheduler of the receiver after the delay of the link.
+ * Therefore no threads are used per node and thousands of nodes can run in the same JVM.
+ * Sending to an address on which no node is listening fails immediately while lost messages fail silently.
+ */
+public class InMemoryNetworkHandler extends NetworkHandler {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryNetworkHandler.class);
+
+    private String listeningIP;
+    private int listeningPort;
+
+    public InMemoryNetworkHandler(ServiceHolder serviceHolder) {
+        super(serviceHolder);
+    }
+
+    @Override
+    public String getName() {
+        return NetworkHandlerType.IN_MEMORY.getValue();
+    }
+
+    @Override
+    public void startListening() {
+        if (!running) {
+            super.startListening();
+
+            listeningIP = serviceHolder.getConfiguration().getIp();
+            listeningPort = serviceHolder.getConfiguration().getPeerListeningPort();
+            if (InMemoryNetwork.getInstance().registerNetworkHandler(listeningIP, listeningPort, this)) {
+                logger.info("Started listening at " + listeningIP + ":" + listeningPort);
+            } else {
+                // Not listening so that the handler of the other node is not unregistered on shutdown
+                running = false;
+                logger.error("Failed to start listening at " + listeningIP + ":" + listeningPort
+                        + " since another node is listening at the same address");
+                listeningIP = null;
+            }
+        } else {
+            logger.warn("The in memory network handler is already listening. Ignored request to start again.");
+        }
+    }
+
+    @Override
+    public void restart() {
+        if (running) {
+            super.restart();
+            restartRequired = true;
+            try {
+                shutdown();
+                startListening();
+            } finally {
+                restartRequired = false;
+            }
+        } else {
+            logger.warn("The in memory network handler is not listening. Ignored request to restart.");
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        logger.info("Shutting down in memory network handler");
+        running = false;
+        if (listeningIP != null) {
+            InMemoryNetwork.getInstance().unregisterNetworkHandler(listeningIP, listeningPort, this);
+        }
+    }
+
+    @Override
+    public void sendMessage(String ip, int port, Message message) {
+        InMemoryNetwork inMemoryNetwork = InMemoryNetwork.getInstance();
+        InMemoryNetworkHandler receiverNetworkHandler = inMemoryNetwork.getNetworkHandler(ip, port);
+        if (receiverNetworkHandler == null) {
+            logger.info("Failed to send message " + message.toString() + " to " + ip + ":" + port
+                    + " since no node is listening at the address");
+            runTasksOnMessageSendFailed(ip, port, message);
+        } else {
+            Configuration configuration = serviceHolder.getConfiguration();
+            TCPMessage tcpMessage = new TCPMessage();
+            tcpMessage.setSourceIP(configuration.getIp());
+            tcpMessage.setSourcePort(configuration.getPeerListeningPort());
+            tcpMessage.setMessage(message);
+            byte[] messageBytes = MessageCodec.encode(tcpMessage, configuration.isNetworkHandlerBinaryCodecEnabled());
+
+            long delay = inMemoryNetwork.transmit(tcpMessage.getSourceIP(), tcpMessage.getSourcePort(), ip, port,
+                    messageBytes.length);
+            if (delay < 0) {
+                logger.info("Message " + message.toString() + " sent to node " + ip + ":" + port
+                        + " was lost in the link");
+            } else {
+                receiverNetworkHandler.scheduleDelivery(messageBytes, delay);
+                logger.info("Message " + message.toString() + " sent to node " + ip + ":" + port);
+            }
+        }
+    }
+
+    /**
+     * Schedule the delivery of a message sent to this network handler.
+     *
+     * @param messageBytes The encoded message
+     * @param delay        The delay in milliseconds after which the message should be delivered
+     */
+    void scheduleDelivery(byte[] messageBytes, long delay) {
+        serviceHolder.getTaskScheduler().schedule(TaskSubsystem.NETWORK_HANDLER_MAINTENANCE,
+                () -> deliver(messageBytes), delay);
+    }
+
+    /**
+     * Deliver a message sent to this network handler.
+     * Messages which arrive after the network handler stopped listening and malformed messages are dropped.
+     *
+     * @param messageBytes The encoded message
+     */
+    private void deliver(byte[] messageBytes) {
+        TCPMessage tcpMessage;
+        try {
+            tcpMessage = MessageCodec.decodeTCPMessage(messageBytes, 0, messageBytes.length);
+        } catch (RuntimeException e) {
+            logger.warn("Dropped malformed message of " + messageBytes.length + " bytes", e);
+            return;
+        }
+        if (running) {
+            runTasksOnMessageReceived(tcpMessage.getSourceIP(), tcpMessage.getSourcePort(), tcpMessage.getMessage());
+        } else {
+            logger.info("Dropped message " + tcpMessage.toString() + " since the in memory network handler"
+                    + " is not listening");
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.microfuse.file.sharer.node.core.communication.network.rmi;
 
 import org.microfuse.file.sharer.node.commons.Constants;
 import org.microfuse.file.sharer.node.commons.communication.network.NetworkHandlerType;
+import org.microfuse.file.sharer.node.commons.peer.Node;
 import org.microfuse.file.sharer.node.core.communication.messaging.Message;
 import org.microfuse.file.sharer.node.core.communication.network.NetworkHandler;
 import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
@@ -15,19 +16,30 @@ import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A Java RMI based network handler.
  * <p>
  * Uses Java Remte Method Invocation to communicate with other nodes.
+ * The stubs of the peer nodes are cached and looked up again only after a remote call to them fails.
+ * Messages sent concurrently to the same peer are delivered in a single remote call.
  */
 public class RMINetworkHandler extends NetworkHandler implements RMINetworkHandlerRemote {
     private static final Logger logger = LoggerFactory.getLogger(RMINetworkHandler.class);
 
+    private static final int MAX_BATCH_SIZE = 64;
+
     private Registry registry;
 
+    private final ConcurrentMap<Node, RMIPeerConnection> peerConnections;
+
     public RMINetworkHandler(ServiceHolder serviceHolder) {
         super(serviceHolder);
+        peerConnections = new ConcurrentHashMap<>();
         // Starting the RMI registry. Fails if it is already running.
         try {
             LocateRegistry.createRegistry(Constants.RMI_REGISTRY_PORT);
@@ -112,29 +124,24 @@ public class RMINetworkHandler extends NetworkHandler implements RMINetworkHandl
         } catch (NoSuchObjectException e) {
             logger.warn("Failed to un-export object", e);
         }
+
+        peerConnections.clear();
     }
 
     @Override
     public void sendMessage(String ip, int port, Message message) {
-        try {
-            // Retrieving reference to RMI registry
-            Registry receiverRegistry = LocateRegistry.getRegistry(ip, Constants.RMI_REGISTRY_PORT);
+        RMIPeerConnection connection =
+                peerConnections.computeIfAbsent(new Node(ip, port), node -> new RMIPeerConnection());
+        connection.addPendingMessage(message);
 
-            // Getting reference to the receiver's remote object
-            String remoteRmiRegistryEntry = getRMIRegistryEntry(ip, port);
-            RMINetworkHandlerRemote receiverRMINetworkHandler =
-                    (RMINetworkHandlerRemote) receiverRegistry.lookup(remoteRmiRegistryEntry);
-
-            // Sending message
-            receiverRMINetworkHandler.receiveMessage(
-                    serviceHolder.getConfiguration().getIp(),
-                    serviceHolder.getConfiguration().getPeerListeningPort(),
-                    message.toString()
-            );
-            logger.info("Message " + message.toString() + " sent to node " + ip + ":" + port);
-        } catch (RemoteException | NotBoundException e) {
-            logger.warn("Failed to send message " + message.toString() + " to node " + ip + ":" + port, e);
-            runTasksOnMessageSendFailed(ip, port, message);
+        // Sending the pending messages unless another thread is already sending to the same node
+        List<Message> messages;
+        while ((messages = connection.startSending(MAX_BATCH_SIZE)) != null) {
+            try {
+                sendMessages(ip, port, connection, messages);
+            } finally {
+                connection.finishSending();
+            }
         }
     }
 
@@ -143,6 +150,81 @@ public class RMINetworkHandler extends NetworkHandler implements RMINetworkHandl
         runTasksOnMessageReceived(ip, port, Message.parse(messageString));
     }
 
+    @Override
+    public void receiveMessages(String ip, int port, List<String> messageStrings) {
+        messageStrings.forEach(messageString -> runTasksOnMessageReceived(ip, port, Message.parse(messageString)));
+    }
+
+    /**
+     * Send a batch of messages to a node in a single remote call.
+     * <p>
+     * A failed cached stub is replaced by a newly looked up stub once before the messages are marked as failed.
+     *
+     * @param ip         The ip address to which the messages should be sent
+     * @param port       The port to which the messages should be sent
+     * @param connection The connection to the node
+     * @param messages   The messages to be sent
+     */
+    private void sendMessages(String ip, int port, RMIPeerConnection connection, List<Message> messages) {
+        List<String> messageStrings = new ArrayList<>(messages.size());
+        messages.forEach(message -> messageStrings.add(message.toString()));
+
+        boolean isSent = false;
+        boolean isLookupAllowed = true;
+        while (!isSent && isLookupAllowed) {
+            RMINetworkHandlerRemote receiverRMINetworkHandler = connection.getStub();
+            try {
+                if (receiverRMINetworkHandler == null) {
+                    isLookupAllowed = false;
+                    receiverRMINetworkHandler = lookupRMINetworkHandler(ip, port);
+                    connection.setStub(receiverRMINetworkHandler);
+                }
+
+                // Sending messages
+                if (messageStrings.size() == 1) {
+                    receiverRMINetworkHandler.receiveMessage(
+                            serviceHolder.getConfiguration().getIp(),
+                            serviceHolder.getConfiguration().getPeerListeningPort(),
+                            messageStrings.get(0)
+                    );
+                } else {
+                    receiverRMINetworkHandler.receiveMessages(
+                            serviceHolder.getConfiguration().getIp(),
+                            serviceHolder.getConfiguration().getPeerListeningPort(),
+                            messageStrings
+                    );
+                }
+                isSent = true;
+                messageStrings.forEach(messageString ->
+                        logger.info("Message " + messageString + " sent to node " + ip + ":" + port));
+            } catch (RemoteException | NotBoundException e) {
+                logger.warn("Failed to send " + messageStrings.size() + " messages to node " + ip + ":" + port, e);
+                connection.setStub(null);
+            }
+        }
+        if (!isSent) {
+            messages.forEach(message -> runTasksOnMessageSendFailed(ip, port, message));
+        }
+    }
+
+    /**
+     * Look up the RMI network handler of a node in the registry of the node.
+     *
+     * @param ip   The ip of the node
+     * @param port The port of the node
+     * @return The stub of the RMI network handler of the node
+     * @throws RemoteException   If the registry could not be reached
+     * @throws NotBoundException If the node is not bound in the registry
+     */
+    private RMINetworkHandlerRemote lookupRMINetworkHandler(String ip, int port)
+            throws RemoteException, NotBoundException {
+        // Retrieving reference to RMI registry
+        Registry receiverRegistry = LocateRegistry.getRegistry(ip, Constants.RMI_REGISTRY_PORT);
+
+        // Getting reference to the receiver's remote object
+        return (RMINetworkHandlerRemote) receiverRegistry.lookup(getRMIRegistryEntry(ip, port));
+    }
+
     /**
      * Get the RMI network handler registry entry based on ip and port.
      *
@@ -2,6 +2,7 @@ package org.microfuse.file.sharer.node.core.communication.network.rmi;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 
 /**
  * RMI remote interface for RMI network handler.
@@ -15,4 +16,13 @@ public interface RMINetworkHandlerRemote extends Remote {
      * @param messageString The message to be sent
      */
     void receiveMessage(String ip, int port, String messageString) throws RemoteException;
+
+    /**
+     * Receive a batch of messages from the same node used by RMI calls.
+     *
+     * @param ip             The ip of the sending node
+     * @param port           The port of the sending node
+     * @param messageStrings The messages to be sent in the order in which they were sent
+     */
+    void receiveMessages(String ip, int port, List<String> messageStrings) throws RemoteException;
 }
@@ -0,0 +1,73 @@
+package org.microfuse.file.sharer.node.core.communication.network.rmi;
+
+import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An outbound RMI connection to a peer node.
+ * <p>
+ * Holds the cached stub of the RMI network handler of the peer and the messages waiting to be sent to it.
+ * Only one thread sends to a peer at a time.
+ * Messages queued while a remote call to the peer is in progress are sent together in the next remote call.
+ */
+public class RMIPeerConnection {
+    private final Queue<Message> pendingMessages;
+    private final AtomicBoolean sending;
+    private volatile RMINetworkHandlerRemote stub;
+
+    public RMIPeerConnection() {
+        pendingMessages = new ConcurrentLinkedQueue<>();
+        sending = new AtomicBoolean(false);
+    }
+
+    /**
+     * Queue a message to be sent to the peer.
+     *
+     * @param message The message to be sent
+     */
+    public void addPendingMessage(Message message) {
+        pendingMessages.add(message);
+    }
+
+    /**
+     * Take the next batch of pending messages if no other thread is sending to the peer.
+     * The caller becomes the sender and should call finishSending() after sending the batch.
+     *
+     * @param maxBatchSize The maximum number of messages in the batch
+     * @return The batch of messages to be sent or null if there is nothing to send or another thread is sending
+     */
+    public List<Message> startSending(int maxBatchSize) {
+        while (!pendingMessages.isEmpty() && sending.compareAndSet(false, true)) {
+            List<Message> messages = new ArrayList<>();
+            Message message;
+            while (messages.size() < maxBatchSize && (message = pendingMessages.poll()) != null) {
+                messages.add(message);
+            }
+            if (messages.size() > 0) {
+                return messages;
+            }
+            sending.set(false);
+        }
+        return null;
+    }
+
+    /**
+     * Release the sender role taken by startSending().
+     */
+    public void finishSending() {
+        sending.set(false);
+    }
+
+    public RMINetworkHandlerRemote getStub() {
+        return stub;
+    }
+
+    public void setStub(RMINetworkHandlerRemote stub) {
+        this.stub = stub;
+    }
+}
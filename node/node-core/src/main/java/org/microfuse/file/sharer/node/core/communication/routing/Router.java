@@ -1,7 +1,9 @@
 package org.microfuse.file.sharer.node.core.communication.routing;
 
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageConstants;
 import org.microfuse.file.sharer.node.commons.communication.messaging.MessageIndexes;
 import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.commons.communication.network.NetworkHandlerType;
 import org.microfuse.file.sharer.node.commons.peer.Node;
 import org.microfuse.file.sharer.node.commons.peer.NodeState;
 import org.microfuse.file.sharer.node.commons.peer.PeerType;
@@ -9,32 +11,50 @@ import org.microfuse.file.sharer.node.core.communication.messaging.Message;
 import org.microfuse.file.sharer.node.core.communication.network.BootstrapServerNetworkHandler;
 import org.microfuse.file.sharer.node.core.communication.network.NetworkHandler;
 import org.microfuse.file.sharer.node.core.communication.network.NetworkHandlerListener;
+import org.microfuse.file.sharer.node.core.communication.routing.strategy.CacheEntry;
+import org.microfuse.file.sharer.node.core.communication.routing.strategy.QueryCache;
+import org.microfuse.file.sharer.node.core.communication.routing.strategy.QueryKey;
 import org.microfuse.file.sharer.node.core.communication.routing.strategy.RoutingStrategy;
 import org.microfuse.file.sharer.node.core.communication.routing.strategy.SuperPeerRandomWalkRoutingStrategy;
 import org.microfuse.file.sharer.node.core.communication.routing.strategy.UnstructuredRandomWalkRoutingStrategy;
 import org.microfuse.file.sharer.node.core.communication.routing.table.OrdinaryPeerRoutingTable;
 import org.microfuse.file.sharer.node.core.communication.routing.table.RoutingTable;
 import org.microfuse.file.sharer.node.core.communication.routing.table.SuperPeerRoutingTable;
+import org.microfuse.file.sharer.node.core.resource.AggregatedResource;
 import org.microfuse.file.sharer.node.core.resource.OwnedResource;
-import org.microfuse.file.sharer.node.core.tracing.Tracer;
+import org.microfuse.file.sharer.node.core.resource.index.ResourceIndex;
+import org.microfuse.file.sharer.node.core.resource.index.SuperPeerResourceIndex;
+import org.microfuse.file.sharer.node.core.tracing.TraceEvent;
+import org.microfuse.file.sharer.node.core.tracing.TraceEventType;
+import org.microfuse.file.sharer.node.core.utils.QueryResultCache;
+import org.microfuse.file.sharer.node.core.utils.ScheduledTask;
 import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
+import org.microfuse.file.sharer.node.core.utils.TaskSubsystem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.InvocationTargetException;
-import java.rmi.RemoteException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
 
 /**
  * Router class.
  * <p>
  * This governs how the messages are routed through the P2P network.
+ * <p>
+ * Super peers cache the answers to the SER messages they route to the owners of the matching resources
+ * in their aggregated resource index. A repeated SER message for the same query from another peer is answered
+ * directly with SER_OK messages on behalf of the owners until the cached answer expires.
  */
 public class Router implements NetworkHandlerListener {
     private static final Logger logger = LoggerFactory.getLogger(Router.class);
@@ -52,9 +72,11 @@ public class Router implements NetworkHandlerListener {
     private RoutingTable routingTable;
     private RoutingStrategy routingStrategy;
     private NetworkHandler networkHandler;
-    private BootstrapServerNetworkHandler bootstrapServerNetworkHandler;
-    private Thread heartBeatThread;
+    private NetworkHandler bootstrapServerNetworkHandler;
+    private ScheduledTask heartBeatTask;
     private boolean heartBeatingEnabled;
+    private QueryResultCache serOkCache;
+    private QueryCache receivedSerMessageCache;
 
     public Router(NetworkHandler networkHandler, RoutingStrategy routingStrategy, ServiceHolder serviceHolder) {
         listenersListLock = new ReentrantReadWriteLock();
@@ -74,11 +96,14 @@ public class Router implements NetworkHandlerListener {
         }
         heartBeatingEnabled = false;
         listenersList = new ArrayList<>();
+        serOkCache = new QueryResultCache(serviceHolder);
+        receivedSerMessageCache = new QueryCache(serviceHolder);
+
+        this.serviceHolder = serviceHolder;
 
-        bootstrapServerNetworkHandler = new BootstrapServerNetworkHandler(serviceHolder);
+        bootstrapServerNetworkHandler = instantiateBootstrapServerNetworkHandler();
         bootstrapServerNetworkHandler.registerListener(this);
 
-        this.serviceHolder = serviceHolder;
         this.routingStrategy = routingStrategy;
         this.networkHandler = networkHandler;
         this.networkHandler.registerListener(this);
@@ -197,6 +222,7 @@ public class Router implements NetworkHandlerListener {
         } finally {
             routingTableLock.readLock().unlock();
         }
+        serOkCache.clear();
 
         // Restarting the network handler
         networkHandlerLock.readLock().lock();
@@ -236,19 +262,10 @@ public class Router implements NetworkHandlerListener {
         try {
             if (!heartBeatingEnabled) {
                 heartBeatingEnabled = true;
-                heartBeatThread = new Thread(() -> {
-                    while (heartBeatingEnabled) {
-                        try {
-                            Thread.sleep(serviceHolder.getConfiguration().getHeartbeatInterval());
-                        } catch (InterruptedException ignored) {
-                        }
-                        heartBeat();
-                    }
-                    logger.info("Stopped Heart beating");
-                });
-                heartBeatThread.setPriority(Thread.MIN_PRIORITY);
-                heartBeatThread.setDaemon(true);
-                heartBeatThread.start();
+                heartBeatTask = serviceHolder.getTaskScheduler().schedulePeriodically(
+                        TaskSubsystem.HEART_BEAT, this::heartBeat,
+                        () -> serviceHolder.getConfiguration().getHeartbeatInterval()
+                );
                 logger.info("Started Heart beating");
             }
         } finally {
@@ -264,9 +281,11 @@ public class Router implements NetworkHandlerListener {
         try {
             if (heartBeatingEnabled) {
                 heartBeatingEnabled = false;
-                if (heartBeatThread != null) {
-                    heartBeatThread.interrupt();
+                if (heartBeatTask != null) {
+                    serviceHolder.getTaskScheduler().cancel(heartBeatTask);
+                    heartBeatTask = null;
                 }
+                logger.info("Stopped Heart beating");
             }
         } finally {
             heartBeatLock.unlock();
@@ -327,19 +346,13 @@ public class Router implements NetworkHandlerListener {
             networkHandler.sendMessage(ip, port, message);
 
             // Notifying the tracer
-            Tracer tracer = serviceHolder.getTracer();
-            if (tracer != null) {
-                try {
-                    tracer.notifyMessageSend(
-                            timeStamp,
-                            serviceHolder.getConfiguration().getIp(),
-                            serviceHolder.getConfiguration().getPeerListeningPort(),
-                            ip, port, message
-                    );
-                } catch (RemoteException e) {
-                    logger.warn("Failed to notify tracer of sending message", e);
-                }
-            }
+            serviceHolder.publishTraceEvent(new TraceEvent(
+                    TraceEventType.NOTIFY_MESSAGE_SEND,
+                    timeStamp,
+                    serviceHolder.getConfiguration().getIp(),
+                    serviceHolder.getConfiguration().getPeerListeningPort(),
+                    ip, port, message
+            ));
         } finally {
             networkHandlerLock.readLock().unlock();
         }
@@ -362,19 +375,13 @@ public class Router implements NetworkHandlerListener {
             bootstrapServerNetworkHandler.sendMessage(ip, port, message);
 
             // Notifying the tracer
-            Tracer tracer = serviceHolder.getTracer();
-            if (tracer != null) {
-                try {
-                    tracer.notifyMessageSend(
-                            timeStamp,
-                            serviceHolder.getConfiguration().getIp(),
-                            serviceHolder.getConfiguration().getPeerListeningPort(),
-                            ip, port, message
-                    );
-                } catch (RemoteException e) {
-                    logger.warn("Failed to notify tracer of sending message", e);
-                }
-            }
+            serviceHolder.publishTraceEvent(new TraceEvent(
+                    TraceEventType.NOTIFY_MESSAGE_SEND,
+                    timeStamp,
+                    serviceHolder.getConfiguration().getIp(),
+                    serviceHolder.getConfiguration().getPeerListeningPort(),
+                    ip, port, message
+            ));
         } finally {
             bootstrapServerNetworkHandlerLock.readLock().unlock();
         }
@@ -419,6 +426,7 @@ public class Router implements NetworkHandlerListener {
         } finally {
             routingTableLock.writeLock().unlock();
         }
+        serOkCache.clear();
         logger.info("Demoted router to ordinary peer router.");
     }
 
@@ -432,11 +440,23 @@ public class Router implements NetworkHandlerListener {
         try {
             this.networkHandler.shutdown();
             this.networkHandler = networkHandler;
+            this.networkHandler.registerListener(this);
             this.networkHandler.startListening();
             logger.info("Network handler changed to " + this.networkHandler.getName());
         } finally {
             networkHandlerLock.writeLock().unlock();
         }
+
+        // Changing the bootstrap server network handler to the one used along with the new network handler
+        bootstrapServerNetworkHandlerLock.writeLock().lock();
+        try {
+            bootstrapServerNetworkHandler.shutdown();
+            bootstrapServerNetworkHandler = instantiateBootstrapServerNetworkHandler();
+            bootstrapServerNetworkHandler.registerListener(this);
+            logger.info("Bootstrap server network handler changed to " + bootstrapServerNetworkHandler.getName());
+        } finally {
+            bootstrapServerNetworkHandlerLock.writeLock().unlock();
+        }
     }
 
     /**
@@ -468,19 +488,13 @@ public class Router implements NetworkHandlerListener {
             long timeStamp = System.currentTimeMillis();
 
             // Notifying the tracer
-            Tracer tracer = serviceHolder.getTracer();
-            if (tracer != null) {
-                try {
-                    tracer.notifyMessageReceived(
-                            timeStamp, fromNode.getIp(), fromNode.getPort(),
-                            serviceHolder.getConfiguration().getIp(),
-                            serviceHolder.getConfiguration().getPeerListeningPort(),
-                            message
-                    );
-                } catch (RemoteException e) {
-                    logger.warn("Failed to notify tracer of sending message", e);
-                }
-            }
+            serviceHolder.publishTraceEvent(new TraceEvent(
+                    TraceEventType.NOTIFY_MESSAGE_RECEIVED,
+                    timeStamp, fromNode.getIp(), fromNode.getPort(),
+                    serviceHolder.getConfiguration().getIp(),
+                    serviceHolder.getConfiguration().getPeerListeningPort(),
+                    message
+            ));
         } finally {
             listenersListLock.readLock().unlock();
         }
@@ -536,6 +550,24 @@ public class Router implements NetworkHandlerListener {
         return networkHandler;
     }
 
+    /**
+     * Get the cache of the SER_OK answers served by this node as a super peer.
+     *
+     * @return The SER_OK answer cache
+     */
+    public QueryResultCache getSerOkCache() {
+        return serOkCache;
+    }
+
+    /**
+     * Get the cache of the SER messages received by this node used for answering only the first copy of a query.
+     *
+     * @return The received SER message cache
+     */
+    public QueryCache getReceivedSerMessageCache() {
+        return receivedSerMessageCache;
+    }
+
     /**
      * Register a new listener.
      *
@@ -593,6 +625,109 @@ public class Router implements NetworkHandlerListener {
         }
     }
 
+    /**
+     * Instantiate the bootstrap server network handler based on the configured network handler type.
+     *
+     * @return The bootstrap server network handler
+     */
+    private NetworkHandler instantiateBootstrapServerNetworkHandler() {
+        NetworkHandlerType networkHandlerType = serviceHolder.getConfiguration().getNetworkHandlerType();
+        NetworkHandler newBootstrapServerNetworkHandler;
+        try {
+            newBootstrapServerNetworkHandler = NetworkHandler.getBootstrapServerNetworkHandlerClass(networkHandlerType)
+                    .getConstructor(ServiceHolder.class).newInstance(serviceHolder);
+        } catch (InstantiationException | IllegalAccessException | NoSuchMethodException |
+                InvocationTargetException e) {
+            logger.error("Failed to instantiate bootstrap server network handler for "
+                    + networkHandlerType.getValue() + ". Using the UDP bootstrap server network handler instead", e);
+            newBootstrapServerNetworkHandler = new BootstrapServerNetworkHandler(serviceHolder);
+        }
+        return newBootstrapServerNetworkHandler;
+    }
+
+    /**
+     * Create the SER_OK message pages for the owned resources matching a SER message.
+     * <p>
+     * The names of the resources are split into pages so that no page is longer than the configured
+     * maximum page length which is itself bounded by the maximum length of a message.
+     * A resource name which is longer than a page on its own is sent in a page of its own.
+     * The names are sorted so that the owner of the resources and a super peer answering on its behalf
+     * split the same names into the same pages.
+     *
+     * @param serMessage    The SER message which was matched
+     * @param ip            The ip of the node which owns the resources
+     * @param port          The port of the node which owns the resources
+     * @param resourceNames The names of the resources matching the SER message
+     * @return The SER_OK message pages
+     */
+    private List<Message> createSerOkMessages(Message serMessage, String ip, String port,
+                                              Collection<String> resourceNames) {
+        int maxPageLength = Math.min(serviceHolder.getConfiguration().getSerOkPageMaxLength(),
+                MessageConstants.MESSAGE_MAX_LENGTH);
+
+        // Measuring the page header with the widest possible file count, page index and page count
+        String widestCount = Integer.toString(resourceNames.size());
+        Message headerMessage = createSerOkMessage(serMessage, ip, port, widestCount, widestCount, widestCount);
+        int headerLength = headerMessage.toString().length();
+
+        // Splitting the resource names into pages
+        List<List<String>> pages = new ArrayList<>();
+        List<String> currentPage = new ArrayList<>();
+        int currentPageLength = headerLength;
+        List<String> sortedResourceNames = new ArrayList<>(resourceNames);
+        Collections.sort(sortedResourceNames);
+        for (String name : sortedResourceNames) {
+            int nameLength = name.length() + (name.contains(" ") ? 3 : 1);
+            if (currentPage.size() > 0 && currentPageLength + nameLength > maxPageLength) {
+                pages.add(currentPage);
+                currentPage = new ArrayList<>();
+                currentPageLength = headerLength;
+            }
+            currentPage.add(name);
+            currentPageLength += nameLength;
+        }
+        pages.add(currentPage);
+
+        List<Message> serOkMessages = new ArrayList<>(pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            List<String> page = pages.get(i);
+            Message serOkMessage = createSerOkMessage(serMessage, ip, port, Integer.toString(page.size()),
+                    Integer.toString(i), Integer.toString(pages.size()));
+            page.forEach(name -> serOkMessage.getData().add(name));
+            serOkMessages.add(serOkMessage);
+        }
+        return serOkMessages;
+    }
+
+    /**
+     * Create a SER_OK message page without the resource names.
+     *
+     * @param serMessage The SER message which was matched
+     * @param ip         The ip of the node which owns the resources
+     * @param port       The port of the node which owns the resources
+     * @param fileCount  The number of resource names in the page
+     * @param pageIndex  The index of the page
+     * @param pageCount  The total number of pages
+     * @return The SER_OK message page
+     */
+    private Message createSerOkMessage(Message serMessage, String ip, String port, String fileCount,
+                                       String pageIndex, String pageCount) {
+        Message serOkMessage = new Message();
+        serOkMessage.setType(MessageType.SER_OK);
+
+        List<String> serOkData = new ArrayList<>();
+        serOkData.add(MessageIndexes.SER_OK_QUERY_STRING, serMessage.getData(MessageIndexes.SER_QUERY));
+        serOkData.add(MessageIndexes.SER_OK_SEQUENCE_NUMBER, serMessage.getData(MessageIndexes.SER_SEQUENCE_NUMBER));
+        serOkData.add(MessageIndexes.SER_OK_HOP_COUNT, serMessage.getData(MessageIndexes.SER_HOP_COUNT));
+        serOkData.add(MessageIndexes.SER_OK_FILE_COUNT, fileCount);
+        serOkData.add(MessageIndexes.SER_OK_IP, ip);
+        serOkData.add(MessageIndexes.SER_OK_PORT, port);
+        serOkData.add(MessageIndexes.SER_OK_PAGE_INDEX, pageIndex);
+        serOkData.add(MessageIndexes.SER_OK_PAGE_COUNT, pageCount);
+        serOkMessage.setData(serOkData);
+        return serOkMessage;
+    }
+
     /**
      * Route a message through the P2P network.
      *
@@ -610,39 +745,33 @@ public class Router implements NetworkHandlerListener {
             if (ownedResources.size() > 0) {
                 logger.info("Resource requested by \"" + message.toString() + "\" found in owned resources");
 
-                // Preparing SER_OK message
-                Message serOkMessage = new Message();
-                serOkMessage.setType(MessageType.SER_OK);
-
-                // Preparing the SER_OK message data
-                List<String> serOkData = new ArrayList<>();
-                serOkData.add(MessageIndexes.SER_OK_QUERY_STRING, message.getData(MessageIndexes.SER_QUERY));
-                serOkData.add(MessageIndexes.SER_OK_SEQUENCE_NUMBER,
-                        message.getData(MessageIndexes.SER_SEQUENCE_NUMBER));
-                serOkData.add(MessageIndexes.SER_OK_HOP_COUNT, message.getData(MessageIndexes.SER_HOP_COUNT));
-                serOkData.add(MessageIndexes.SER_OK_FILE_COUNT, Integer.toString(ownedResources.size()));
-                serOkData.add(MessageIndexes.SER_OK_IP, serviceHolder.getConfiguration().getIp());
-                serOkData.add(MessageIndexes.SER_OK_PORT,
-                        Integer.toString(serviceHolder.getConfiguration().getPeerListeningPort()));
-
-                // Adding the list of resources to the SER_OK message
-                ownedResources.forEach(resource -> serOkData.add(resource.getName()));
-                serOkMessage.setData(serOkData);
-
-                logger.info("Sending search request success message \"" + message.toString() + "\" back to "
-                        + message.getData(MessageIndexes.SER_SOURCE_IP) + ":"
+                List<Message> serOkMessages = createSerOkMessages(message, serviceHolder.getConfiguration().getIp(),
+                        Integer.toString(serviceHolder.getConfiguration().getPeerListeningPort()),
+                        ownedResources.stream().map(OwnedResource::getName).collect(Collectors.toList()));
+                logger.info("Sending " + serOkMessages.size() + " search request success message pages for \""
+                        + message.toString() + "\" back to " + message.getData(MessageIndexes.SER_SOURCE_IP) + ":"
                         + message.getData(MessageIndexes.SER_SOURCE_PORT));
-                sendMessage(message.getData(MessageIndexes.SER_SOURCE_IP),
-                        Integer.parseInt(message.getData(MessageIndexes.SER_SOURCE_PORT)), serOkMessage);
+                serOkMessages.forEach(serOkMessage -> sendMessage(message.getData(MessageIndexes.SER_SOURCE_IP),
+                        Integer.parseInt(message.getData(MessageIndexes.SER_SOURCE_PORT)), serOkMessage));
             } else {
                 logger.info("Resource requested by \"" + message.toString() + "\" not found in owned resources");
 
+                // Answering from the SER_OK cache while still forwarding to reach the other super peer regions
+                if (serviceHolder.getPeerType() == PeerType.SUPER_PEER && isFirstSerMessageCopy(message)
+                        && sendCachedSerOkMessages(message)) {
+                    logger.info("Resource requested by \"" + message.toString()
+                            + "\" served from the SER_OK cache");
+                }
+
                 // Updating the hop count
                 Integer hopCount = Integer.parseInt(message.getData(MessageIndexes.SER_HOP_COUNT)) + 1;
                 message.setData(MessageIndexes.SER_HOP_COUNT, hopCount.toString());
                 logger.info("Increased hop count of message" + message.toString());
 
                 if (hopCount <= serviceHolder.getConfiguration().getTimeToLive()) {
+                    if (serviceHolder.getPeerType() == PeerType.SUPER_PEER) {
+                        cacheSerOkAnswer(message);
+                    }
                     forwardNode(fromNode, message);
                 } else {
                     logger.info("Dropped message " + message.toString() + " since the hop count of the message "
@@ -688,6 +817,77 @@ public class Router implements NetworkHandlerListener {
         }
     }
 
+    /**
+     * Check whether a SER message is the first copy of the query received by this node.
+     * Later copies are not answered from the SER_OK cache since the owners may already be answering the query.
+     *
+     * @param serMessage The SER message
+     * @return True if no other copy of the query had been received and the query key is valid
+     */
+    private boolean isFirstSerMessageCopy(Message serMessage) {
+        QueryKey queryKey = QueryKey.fromMessage(serMessage);
+        if (queryKey == null) {
+            return false;
+        }
+        Node sourceNode = new Node(queryKey.getSourceIP(), queryKey.getSourcePort());
+        CacheEntry cacheEntry = receivedSerMessageCache.getEntry(queryKey);
+        synchronized (cacheEntry) {
+            return cacheEntry.addForwardedNode(sourceNode);
+        }
+    }
+
+    /**
+     * Send the cached answer to a SER message as SER_OK messages on behalf of the owners of the resources.
+     * Inactive owners are left out since their pages would be accepted in place of the pages of the owner.
+     *
+     * @param serMessage The SER message to be answered
+     * @return True if an answer was cached and sent
+     */
+    private boolean sendCachedSerOkMessages(Message serMessage) {
+        List<AggregatedResource> cachedResources = serOkCache.get(serMessage.getData(MessageIndexes.SER_QUERY));
+        if (cachedResources == null) {
+            return false;
+        }
+
+        // Grouping the resource names by the owner
+        Map<Node, List<String>> nodeResourceNamesMap = new HashMap<>();
+        for (AggregatedResource resource : cachedResources) {
+            for (Node node : resource.getAllNodes()) {
+                if (node.isActive()) {
+                    nodeResourceNamesMap.computeIfAbsent(node, k -> new ArrayList<>()).add(resource.getName());
+                }
+            }
+        }
+        if (nodeResourceNamesMap.size() == 0) {
+            return false;
+        }
+
+        String sourceIP = serMessage.getData(MessageIndexes.SER_SOURCE_IP);
+        int sourcePort = Integer.parseInt(serMessage.getData(MessageIndexes.SER_SOURCE_PORT));
+        nodeResourceNamesMap.forEach((node, resourceNames) -> createSerOkMessages(serMessage, node.getIp(),
+                Integer.toString(node.getPort()), resourceNames)
+                .forEach(serOkMessage -> sendMessage(sourceIP, sourcePort, serOkMessage)));
+        return true;
+    }
+
+    /**
+     * Cache the answer to a SER message from the aggregated resource index.
+     * The cached answer only covers the region of this super peer and therefore the message is forwarded even if
+     * it was answered from the cache.
+     *
+     * @param serMessage The SER message to be answered
+     */
+    private void cacheSerOkAnswer(Message serMessage) {
+        ResourceIndex resourceIndex = serviceHolder.getResourceIndex();
+        if (resourceIndex instanceof SuperPeerResourceIndex) {
+            String queryString = serMessage.getData(MessageIndexes.SER_QUERY);
+            serOkCache.put(queryString, ((SuperPeerResourceIndex) resourceIndex).findAggregatedResources(queryString)
+                    .stream()
+                    .filter(resource -> resource.getAllNodes().stream().anyMatch(Node::isActive))
+                    .collect(Collectors.toList()));
+        }
+    }
+
     /**
      * Forward messages to nodes based on the routing strategy.
      *
@@ -10,7 +10,7 @@ import java.util.Set;
  * Routing strategy cache entry.
  */
 public class CacheEntry {
-    private long timeStamp;
+    private volatile long timeStamp;
     private Set<Node> forwardedNodes;
 
     public CacheEntry() {
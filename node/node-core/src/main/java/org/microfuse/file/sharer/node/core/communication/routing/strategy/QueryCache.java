@@ -0,0 +1,204 @@
+package org.microfuse.file.sharer.node.core.communication.routing.strategy;
+
+import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread safe routing strategy cache of the nodes to which queries had been forwarded.
+ * <p>
+ * Entries expire after the automated garbage collection interval.
+ * The keys are kept in a ring of time buckets each spanning a fraction of the interval.
+ * When time moves past a bucket only the keys in the oldest bucket are checked for expiry.
+ * If the cache grows beyond the maximum size the least recently used entries are evicted.
+ */
+public class QueryCache {
+    private static final int BUCKET_COUNT = 16;
+
+    private final ServiceHolder serviceHolder;
+    private final ConcurrentMap<QueryKey, CacheEntry> entries;
+    private final List<Queue<QueryKey>> buckets;
+    private final Lock bucketsLock;
+    private int currentBucketIndex;
+    private long currentBucketStartTimeStamp;
+
+    private final AtomicLong hitCount;
+    private final AtomicLong missCount;
+    private final AtomicLong evictionCount;
+
+    public QueryCache(ServiceHolder serviceHolder) {
+        this.serviceHolder = serviceHolder;
+        entries = new ConcurrentHashMap<>();
+        buckets = new ArrayList<>(BUCKET_COUNT);
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+        bucketsLock = new ReentrantLock();
+        currentBucketIndex = 0;
+        currentBucketStartTimeStamp = System.currentTimeMillis();
+        hitCount = new AtomicLong(0);
+        missCount = new AtomicLong(0);
+        evictionCount = new AtomicLong(0);
+    }
+
+    /**
+     * Get the cache entry of a query.
+     * A new entry is created if the query is not in the cache and the entry is marked as recently used.
+     *
+     * @param queryKey The key of the query
+     * @return The cache entry of the query
+     */
+    public CacheEntry getEntry(QueryKey queryKey) {
+        long currentTimeStamp = System.currentTimeMillis();
+        CacheEntry cacheEntry = entries.get(queryKey);
+        if (cacheEntry == null) {
+            CacheEntry newCacheEntry = new CacheEntry();
+            cacheEntry = entries.putIfAbsent(queryKey, newCacheEntry);
+            if (cacheEntry == null) {
+                cacheEntry = newCacheEntry;
+                missCount.incrementAndGet();
+            } else {
+                hitCount.incrementAndGet();
+            }
+        } else {
+            hitCount.incrementAndGet();
+        }
+        long previousTimeStamp = cacheEntry.getTimeStamp();
+        cacheEntry.setTimeStamp(currentTimeStamp);
+
+        bucketsLock.lock();
+        try {
+            expireBuckets(currentTimeStamp);
+            if (previousTimeStamp < currentBucketStartTimeStamp) {
+                buckets.get(currentBucketIndex).add(queryKey);
+            }
+            int maxSize = serviceHolder.getConfiguration().getRoutingStrategyCacheMaxSize();
+            if (entries.size() > maxSize) {
+                evictLeastRecentlyUsedEntries(maxSize);
+            }
+        } finally {
+            bucketsLock.unlock();
+        }
+        return cacheEntry;
+    }
+
+    /**
+     * Remove the expired entries from the cache.
+     */
+    public void collectGarbage() {
+        bucketsLock.lock();
+        try {
+            expireBuckets(System.currentTimeMillis());
+        } finally {
+            bucketsLock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of entries in the cache.
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the number of lookups which found an existing entry.
+     *
+     * @return The hit count
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Get the number of lookups which created a new entry.
+     *
+     * @return The miss count
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Get the number of entries removed due to expiry or the size limit.
+     *
+     * @return The eviction count
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Move the current bucket forward to the current time expiring the keys in the buckets left behind.
+     * Should be called while holding the buckets lock.
+     *
+     * @param currentTimeStamp The current time stamp
+     */
+    private void expireBuckets(long currentTimeStamp) {
+        long expiryInterval = serviceHolder.getConfiguration().getAutomatedGarbageCollectionInterval();
+        long bucketInterval = Math.max(expiryInterval / BUCKET_COUNT, 1);
+        for (int i = 0; i < BUCKET_COUNT && currentTimeStamp >= currentBucketStartTimeStamp + bucketInterval; i++) {
+            currentBucketIndex = (currentBucketIndex + 1) % BUCKET_COUNT;
+            currentBucketStartTimeStamp += bucketInterval;
+
+            // The new current bucket is the oldest bucket
+            Queue<QueryKey> bucket = buckets.get(currentBucketIndex);
+            long bucketEndTimeStamp = currentBucketStartTimeStamp - (BUCKET_COUNT - 1) * bucketInterval;
+            List<QueryKey> unexpiredQueryKeys = new ArrayList<>();
+            QueryKey queryKey;
+            while ((queryKey = bucket.poll()) != null) {
+                CacheEntry cacheEntry = entries.get(queryKey);
+                if (cacheEntry != null) {
+                    if (cacheEntry.getTimeStamp() + expiryInterval < currentTimeStamp) {
+                        if (entries.remove(queryKey, cacheEntry)) {
+                            evictionCount.incrementAndGet();
+                        }
+                    } else if (cacheEntry.getTimeStamp() < bucketEndTimeStamp) {
+                        // Not used after this bucket and therefore not in any other bucket
+                        unexpiredQueryKeys.add(queryKey);
+                    }
+                }
+            }
+            bucket.addAll(unexpiredQueryKeys);
+        }
+        if (currentTimeStamp >= currentBucketStartTimeStamp + bucketInterval) {
+            // All the buckets had been expired since the cache was not used for a long time
+            currentBucketStartTimeStamp = currentTimeStamp;
+        }
+    }
+
+    /**
+     * Evict the entries starting from the oldest bucket until the cache size is within the maximum size.
+     * Should be called while holding the buckets lock.
+     *
+     * @param maxSize The maximum size of the cache
+     */
+    private void evictLeastRecentlyUsedEntries(int maxSize) {
+        long expiryInterval = serviceHolder.getConfiguration().getAutomatedGarbageCollectionInterval();
+        long bucketInterval = Math.max(expiryInterval / BUCKET_COUNT, 1);
+        for (int i = 1; i <= BUCKET_COUNT && entries.size() > maxSize; i++) {
+            int bucketIndex = (currentBucketIndex + i) % BUCKET_COUNT;
+            long bucketEndTimeStamp = currentBucketStartTimeStamp - (BUCKET_COUNT - i - 1) * bucketInterval;
+            Queue<QueryKey> bucket = buckets.get(bucketIndex);
+            QueryKey queryKey;
+            while (entries.size() > maxSize && (queryKey = bucket.poll()) != null) {
+                // Keys of entries used after this bucket are in a newer bucket as well
+                CacheEntry cacheEntry = entries.get(queryKey);
+                if (cacheEntry != null && cacheEntry.getTimeStamp() < bucketEndTimeStamp
+                        && entries.remove(queryKey, cacheEntry)) {
+                    evictionCount.incrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.microfuse.file.sharer.node.core.communication.routing.strategy;
+
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageIndexes;
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+
+/**
+ * Routing strategy cache key.
+ * <p>
+ * Identifies a query by the node which started it and the sequence number assigned by that node.
+ * The hop count which changes as the query is routed is not a part of the key.
+ */
+public class QueryKey {
+    private static final Logger logger = LoggerFactory.getLogger(QueryKey.class);
+
+    private final MessageType type;
+    private final String sourceIP;
+    private final int sourcePort;
+    private final long sequenceNumber;
+    private final int hashCode;
+
+    public QueryKey(MessageType type, String sourceIP, int sourcePort, long sequenceNumber) {
+        this.type = type;
+        this.sourceIP = sourceIP;
+        this.sourcePort = sourcePort;
+        this.sequenceNumber = sequenceNumber;
+        hashCode = Objects.hash(type, sourceIP, sourcePort, sequenceNumber);
+    }
+
+    /**
+     * Get the query key of a message.
+     *
+     * @param message The SER or SER_SUPER_PEER message
+     * @return The query key of the message or null if the message is not a query or the key is malformed
+     */
+    public static QueryKey fromMessage(Message message) {
+        QueryKey queryKey = null;
+        try {
+            queryKey = parseQueryKey(message);
+        } catch (NumberFormatException e) {
+            logger.warn("Malformed source port or sequence number in message " + message.toString(), e);
+        }
+        return queryKey;
+    }
+
+    /**
+     * Parse the query key of a message.
+     *
+     * @param message The SER or SER_SUPER_PEER message
+     * @return The query key of the message or null if the message is not a query
+     * @throws NumberFormatException If the source port or the sequence number is not a number
+     */
+    private static QueryKey parseQueryKey(Message message) {
+        QueryKey queryKey = null;
+        if (message.getType() == MessageType.SER) {
+            queryKey = new QueryKey(MessageType.SER,
+                    message.getData(MessageIndexes.SER_SOURCE_IP),
+                    Integer.parseInt(message.getData(MessageIndexes.SER_SOURCE_PORT)),
+                    Long.parseLong(message.getData(MessageIndexes.SER_SEQUENCE_NUMBER)));
+        } else if (message.getType() == MessageType.SER_SUPER_PEER) {
+            queryKey = new QueryKey(MessageType.SER_SUPER_PEER,
+                    message.getData(MessageIndexes.SER_SUPER_PEER_SOURCE_IP),
+                    Integer.parseInt(message.getData(MessageIndexes.SER_SUPER_PEER_SOURCE_PORT)),
+                    Long.parseLong(message.getData(MessageIndexes.SER_SUPER_PEER_SEQUENCE_NUMBER)));
+        }
+        return queryKey;
+    }
+
+    public MessageType getType() {
+        return type;
+    }
+
+    public String getSourceIP() {
+        return sourceIP;
+    }
+
+    public int getSourcePort() {
+        return sourcePort;
+    }
+
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (object != null && object instanceof QueryKey) {
+            QueryKey queryKeyObject = (QueryKey) object;
+            return hashCode == queryKeyObject.hashCode
+                    && sequenceNumber == queryKeyObject.sequenceNumber
+                    && sourcePort == queryKeyObject.sourcePort
+                    && type == queryKeyObject.type
+                    && Objects.equals(sourceIP, queryKeyObject.sourceIP);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + sourceIP + ":" + sourcePort + " " + sequenceNumber;
+    }
+}
@@ -30,14 +30,14 @@ public abstract class RoutingStrategy {
 
     protected ServiceHolder serviceHolder;
 
-    private Map<Message, CacheEntry> serMessageCache;
-    private Map<Message, CacheEntry> serSuperPeerMessageCache;
+    private QueryCache serMessageCache;
+    private QueryCache serSuperPeerMessageCache;
 
     public RoutingStrategy(ServiceHolder serviceHolder) {
         this.serviceHolder = serviceHolder;
 
-        serMessageCache = new HashMap<>();
-        serSuperPeerMessageCache = new HashMap<>();
+        serMessageCache = new QueryCache(serviceHolder);
+        serSuperPeerMessageCache = new QueryCache(serviceHolder);
     }
 
     static {
@@ -86,27 +86,26 @@ public abstract class RoutingStrategy {
      * Collect the garbage cache in routing strategy.
      */
     public void collectGarbage() {
-        long currentTimeStamp = System.currentTimeMillis();
-
-        // Removing old entries from the SER message cache
-        Set<Message> serEntriesToBeRemoved = serMessageCache.entrySet().stream().parallel()
-                .filter(messageCacheEntryEntry ->
-                        messageCacheEntryEntry.getValue().getTimeStamp()
-                                + serviceHolder.getConfiguration().getAutomatedGarbageCollectionInterval()
-                                < currentTimeStamp)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toSet());
-        serEntriesToBeRemoved.forEach(message -> serMessageCache.remove(message));
-
-        // Removing old entries from the SER_SUPER_PEER message cache
-        Set<Message> serSuperPeerEntriesToBeRemoved = serSuperPeerMessageCache.entrySet().stream().parallel()
-                .filter(messageCacheEntryEntry ->
-                        messageCacheEntryEntry.getValue().getTimeStamp()
-                                + serviceHolder.getConfiguration().getAutomatedGarbageCollectionInterval()
-                                < currentTimeStamp)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toSet());
-        serSuperPeerEntriesToBeRemoved.forEach(message -> serSuperPeerMessageCache.remove(message));
+        serMessageCache.collectGarbage();
+        serSuperPeerMessageCache.collectGarbage();
+    }
+
+    /**
+     * Get the cache of the nodes to which SER messages had been forwarded.
+     *
+     * @return The SER message cache
+     */
+    public QueryCache getSerMessageCache() {
+        return serMessageCache;
+    }
+
+    /**
+     * Get the cache of the nodes to which SER_SUPER_PEER messages had been forwarded.
+     *
+     * @return The SER_SUPER_PEER message cache
+     */
+    public QueryCache getSerSuperPeerMessageCache() {
+        return serSuperPeerMessageCache;
     }
 
     /**
@@ -156,6 +155,20 @@ public abstract class RoutingStrategy {
         return forwardingNodes;
     }
 
+    /**
+     * Check whether the nodes to which a SER message is forwarded will not be able to forward it any further.
+     * <p>
+     * The resource summary of a super peer only covers its own region and not the super peers reachable through it.
+     * Therefore super peers can only be skipped based on their resource summaries at the last hop.
+     *
+     * @param message The SER message to be forwarded
+     * @return True if the forwarded message will not be routed any further
+     */
+    protected boolean isLastHop(Message message) {
+        return Integer.parseInt(message.getData(MessageIndexes.SER_HOP_COUNT))
+                >= serviceHolder.getConfiguration().getTimeToLive();
+    }
+
     /**
      * Get the assigned super peer.
      *
@@ -184,19 +197,17 @@ public abstract class RoutingStrategy {
      * @return The nodes which are not currently in the cache
      */
     protected Set<Node> filterUnCachedNodes(Message message, Node fromNode, Set<Node> forwardingNodes) {
-        message = message.clone();
-        if (message.getType() == MessageType.SER) {
-            message.removeData(MessageIndexes.SER_HOP_COUNT);
-        } else if (message.getType() == MessageType.SER_SUPER_PEER) {
-            message.removeData(MessageIndexes.SER_SUPER_PEER_HOP_COUNT);
-        }
-
         CacheEntry cacheEntry = null;
         MessageType messageType = message.getType();
-        if (messageType == MessageType.SER) {
-            cacheEntry = serMessageCache.computeIfAbsent(message, k -> new CacheEntry());
-        } else if (messageType == MessageType.SER_SUPER_PEER) {
-            cacheEntry = serSuperPeerMessageCache.computeIfAbsent(message, k -> new CacheEntry());
+        if (messageType == MessageType.SER || messageType == MessageType.SER_SUPER_PEER) {
+            QueryKey queryKey = QueryKey.fromMessage(message);
+            if (queryKey == null) {
+                logger.warn("Malformed message " + message.toString() + " not added to the cache");
+            } else if (messageType == MessageType.SER) {
+                cacheEntry = serMessageCache.getEntry(queryKey);
+            } else {
+                cacheEntry = serSuperPeerMessageCache.getEntry(queryKey);
+            }
         } else {
             logger.info("Unknown type of message"
                     + (messageType == null ? "" : " belonging to type " + messageType.getValue())
@@ -204,13 +215,12 @@ public abstract class RoutingStrategy {
         }
 
         if (cacheEntry != null) {
-            cacheEntry.setTimeStamp(System.currentTimeMillis());
+            synchronized (cacheEntry) {
+                forwardingNodes.removeAll(cacheEntry.getAllForwardedNodes());
 
-            collectGarbage();
-            forwardingNodes.removeAll(cacheEntry.getAllForwardedNodes());
-
-            cacheEntry.addAllForwardedNodes(forwardingNodes);
-            cacheEntry.addForwardedNode(fromNode);
+                cacheEntry.addAllForwardedNodes(forwardingNodes);
+                cacheEntry.addForwardedNode(fromNode);
+            }
         }
 
         return forwardingNodes;
@@ -22,6 +22,7 @@ import java.util.stream.Collectors;
  * Routing Strategy based on flooding the super peer network.
  * <p>
  * Floods received messages to all the connected nodes.
+ * At the last hop super peers whose resource summaries show that they do not have matching resources are skipped.
  */
 public class SuperPeerFloodingRoutingStrategy extends RoutingStrategy {
     private static final Logger logger = LoggerFactory.getLogger(SuperPeerFloodingRoutingStrategy.class);
@@ -41,12 +42,14 @@ public class SuperPeerFloodingRoutingStrategy extends RoutingStrategy {
         ResourceIndex resourceIndex = serviceHolder.getResourceIndex();
         Set<Node> forwardingNodes = null;
         if (routingTable instanceof SuperPeerRoutingTable && resourceIndex instanceof SuperPeerResourceIndex) {
+            SuperPeerResourceIndex superPeerResourceIndex = (SuperPeerResourceIndex) resourceIndex;
+            String query = message.getData(MessageIndexes.SER_QUERY);
+
             // Searching the aggregate index
-            Set<AggregatedResource> resources = ((SuperPeerResourceIndex) resourceIndex)
-                    .findAggregatedResources(message.getData(MessageIndexes.SER_QUERY));
+            Set<AggregatedResource> resources = superPeerResourceIndex.findAggregatedResources(query);
 
             // Picking a node with a matching resource
-            if (resources != null && resources.size() > 0) {
+            if (resources.size() > 0) {
                 forwardingNodes = new HashSet<>();
                 for (AggregatedResource resource : resources) {
                     forwardingNodes.addAll(resource.getAllNodes());
@@ -54,8 +57,12 @@ public class SuperPeerFloodingRoutingStrategy extends RoutingStrategy {
             }
 
             if (forwardingNodes == null || forwardingNodes.size() == 0) {
-                // Random walking the super-peer network
+                // Flooding the super peers which may have matching resources
                 forwardingNodes = ((SuperPeerRoutingTable) routingTable).getAllSuperPeerNetworkNodes();
+                if (isLastHop(message)) {
+                    forwardingNodes = superPeerResourceIndex.filterSuperPeersByResourceSummaries(forwardingNodes,
+                            query);
+                }
             }
         } else if (routingTable instanceof OrdinaryPeerRoutingTable) {
             forwardingNodes = getAssignedSuperPeer((OrdinaryPeerRoutingTable) routingTable);
@@ -21,6 +21,7 @@ import java.util.Set;
  * Routing Strategy based on random walking the super peer network.
  * <p>
  * Randomly selects a node from a node's neighbours to route the message to.
+ * At the last hop super peers whose resource summaries show that they do not have matching resources are skipped.
  */
 public class SuperPeerRandomWalkRoutingStrategy extends RoutingStrategy {
     private static final Logger logger = LoggerFactory.getLogger(SuperPeerRandomWalkRoutingStrategy.class);
@@ -39,9 +40,11 @@ public class SuperPeerRandomWalkRoutingStrategy extends RoutingStrategy {
         ResourceIndex resourceIndex = serviceHolder.getResourceIndex();
         Set<Node> forwardingNodes = null;
         if (routingTable instanceof SuperPeerRoutingTable && resourceIndex instanceof SuperPeerResourceIndex) {
+            SuperPeerResourceIndex superPeerResourceIndex = (SuperPeerResourceIndex) resourceIndex;
+            String query = message.getData(MessageIndexes.SER_QUERY);
+
             // Searching the aggregate index
-            Set<AggregatedResource> resources = ((SuperPeerResourceIndex) resourceIndex)
-                    .findAggregatedResources(message.getData(MessageIndexes.SER_QUERY));
+            Set<AggregatedResource> resources = superPeerResourceIndex.findAggregatedResources(query);
 
             // Picking a node with a matching resource
             AggregatedResource randomResourceMatch = resources.stream()
@@ -52,8 +55,19 @@ public class SuperPeerRandomWalkRoutingStrategy extends RoutingStrategy {
             }
 
             if (forwardingNodes == null || forwardingNodes.size() == 0) {
-                // Getting all the super peers
-                forwardingNodes = ((SuperPeerRoutingTable) routingTable).getAllSuperPeerNetworkNodes();
+                // Getting the super peers which may have matching resources
+                Set<Node> superPeerNodes = ((SuperPeerRoutingTable) routingTable).getAllSuperPeerNetworkNodes();
+                superPeerNodes.remove(fromNode);
+                forwardingNodes = superPeerNodes;
+                if (isLastHop(message)) {
+                    forwardingNodes = superPeerResourceIndex.filterSuperPeersByResourceSummaries(superPeerNodes,
+                            query);
+                    if (superPeerNodes.size() > 0 && forwardingNodes.size() == 0) {
+                        logger.info("Walking " + message.toString() + " through the unstructured network"
+                                + " since no super peer has matching resources");
+                        forwardingNodes = routingTable.getAllUnstructuredNetworkNodes();
+                    }
+                }
             }
         } else if (routingTable instanceof OrdinaryPeerRoutingTable) {
             forwardingNodes = getAssignedSuperPeer((OrdinaryPeerRoutingTable) routingTable);
@@ -0,0 +1,59 @@
+package org.microfuse.file.sharer.node.core.communication.routing.table;
+
+import org.microfuse.file.sharer.node.commons.peer.Node;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Routing table key of a node.
+ * <p>
+ * Identifies a node by its ip and port.
+ * Unlike the node the key is immutable and its hash code is computed without building the node address string.
+ */
+public class NodeKey implements Serializable {
+    private static final long serialVersionUID = 105L;
+
+    private final String ip;
+    private final int port;
+    private final int hashCode;
+
+    public NodeKey(String ip, int port) {
+        this.ip = ip;
+        this.port = port;
+        hashCode = 31 * Objects.hashCode(ip) + port;
+    }
+
+    public NodeKey(Node node) {
+        this(node.getIp(), node.getPort());
+    }
+
+    public String getIp() {
+        return ip;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (object != null && object instanceof NodeKey) {
+            NodeKey nodeKeyObject = (NodeKey) object;
+            return hashCode == nodeKeyObject.hashCode
+                    && port == nodeKeyObject.port
+                    && Objects.equals(ip, nodeKeyObject.ip);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return ip + ":" + port;
+    }
+}
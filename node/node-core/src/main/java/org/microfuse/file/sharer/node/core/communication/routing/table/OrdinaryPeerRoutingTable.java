@@ -1,12 +1,12 @@
 package org.microfuse.file.sharer.node.core.communication.routing.table;
 
 import org.microfuse.file.sharer.node.commons.peer.Node;
-import org.microfuse.file.sharer.node.core.tracing.Tracer;
+import org.microfuse.file.sharer.node.core.tracing.TraceEvent;
+import org.microfuse.file.sharer.node.core.tracing.TraceEventType;
 import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.rmi.RemoteException;
 import java.util.Objects;
 import java.util.Set;
 
@@ -118,32 +118,23 @@ public class OrdinaryPeerRoutingTable extends RoutingTable {
         }
 
         // Notifying the tracer
-        Tracer tracer = serviceHolder.getTracer();
-        if (tracer != null) {
-            if (this.assignedSuperPeer != null) {
-                try {
-                    tracer.removeAssignedOrdinaryPeerConnection(
-                            System.currentTimeMillis(),
-                            serviceHolder.getConfiguration().getIp(),
-                            serviceHolder.getConfiguration().getPeerListeningPort(),
-                            this.assignedSuperPeer.getIp(), this.assignedSuperPeer.getPort()
-                    );
-                } catch (RemoteException e) {
-                    logger.warn("Failed to add assigned super peer to the tracer", e);
-                }
-            }
-            if (node != null) {
-                try {
-                    tracer.addAssignedOrdinaryPeerConnection(
-                            System.currentTimeMillis(),
-                            serviceHolder.getConfiguration().getIp(),
-                            serviceHolder.getConfiguration().getPeerListeningPort(),
-                            node.getIp(), node.getPort()
-                    );
-                } catch (RemoteException e) {
-                    logger.warn("Failed to remove assigned super peer from the tracer", e);
-                }
-            }
+        if (this.assignedSuperPeer != null) {
+            serviceHolder.publishTraceEvent(new TraceEvent(
+                    TraceEventType.REMOVE_ASSIGNED_ORDINARY_PEER_CONNECTION,
+                    System.currentTimeMillis(),
+                    serviceHolder.getConfiguration().getIp(),
+                    serviceHolder.getConfiguration().getPeerListeningPort(),
+                    this.assignedSuperPeer.getIp(), this.assignedSuperPeer.getPort()
+            ));
+        }
+        if (node != null) {
+            serviceHolder.publishTraceEvent(new TraceEvent(
+                    TraceEventType.ADD_ASSIGNED_ORDINARY_PEER_CONNECTION,
+                    System.currentTimeMillis(),
+                    serviceHolder.getConfiguration().getIp(),
+                    serviceHolder.getConfiguration().getPeerListeningPort(),
+                    node.getIp(), node.getPort()
+            ));
         }
 
         this.assignedSuperPeer = node;
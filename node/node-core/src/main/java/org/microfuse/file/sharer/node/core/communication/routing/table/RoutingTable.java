@@ -3,13 +3,14 @@ package org.microfuse.file.sharer.node.core.communication.routing.table;
 import org.microfuse.file.sharer.node.commons.peer.Node;
 import org.microfuse.file.sharer.node.commons.peer.NodeState;
 import org.microfuse.file.sharer.node.commons.peer.PeerType;
-import org.microfuse.file.sharer.node.core.tracing.Tracer;
+import org.microfuse.file.sharer.node.core.tracing.TraceEvent;
+import org.microfuse.file.sharer.node.core.tracing.TraceEventType;
 import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
-import java.rmi.RemoteException;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -32,7 +33,7 @@ public abstract class RoutingTable implements Serializable {
 
     private static transient Map<PeerType, Class<? extends RoutingTable>> routingTableClassMap;
 
-    private Set<Node> unstructuredNetworkNodes;
+    private Map<NodeKey, Node> unstructuredNetworkNodes;
 
     private ReadWriteLock unstructuredNetworkNodesLock;
 
@@ -46,7 +47,7 @@ public abstract class RoutingTable implements Serializable {
     public RoutingTable(ServiceHolder serviceHolder) {
         this.serviceHolder = serviceHolder;
         unstructuredNetworkNodesLock = new ReentrantReadWriteLock();
-        unstructuredNetworkNodes = new HashSet<>();
+        unstructuredNetworkNodes = new HashMap<>();
     }
 
     /**
@@ -101,7 +102,12 @@ public abstract class RoutingTable implements Serializable {
      * @return The list of nodes in the routing table
      */
     public Set<Node> getAllUnstructuredNetworkNodes() {
-        return new HashSet<>(unstructuredNetworkNodes);
+        unstructuredNetworkNodesLock.readLock().lock();
+        try {
+            return new HashSet<>(unstructuredNetworkNodes.values());
+        } finally {
+            unstructuredNetworkNodesLock.readLock().unlock();
+        }
     }
 
     /**
@@ -115,10 +121,7 @@ public abstract class RoutingTable implements Serializable {
         Node requestedNode;
         unstructuredNetworkNodesLock.readLock().lock();
         try {
-            requestedNode = unstructuredNetworkNodes.stream().parallel()
-                    .filter(node -> Objects.equals(node.getIp(), ip) && node.getPort() == port)
-                    .findAny()
-                    .orElse(null);
+            requestedNode = unstructuredNetworkNodes.get(new NodeKey(ip, port));
         } finally {
             unstructuredNetworkNodesLock.readLock().unlock();
         }
@@ -178,7 +181,7 @@ public abstract class RoutingTable implements Serializable {
     public void collectGarbage() {
         unstructuredNetworkNodesLock.writeLock().lock();
         try {
-            removeInactiveNodesFromSet(unstructuredNetworkNodes);
+            removeInactiveNodes(unstructuredNetworkNodes.values());
         } finally {
             unstructuredNetworkNodesLock.writeLock().unlock();
         }
@@ -199,30 +202,22 @@ public abstract class RoutingTable implements Serializable {
                 node = existingNode;
             }
 
-            int activeUnstructuredNetworkNodesCount = unstructuredNetworkNodes.stream().parallel()
-                    .filter(Node::isActive)
-                    .collect(Collectors.toList()).size();
+            int activeUnstructuredNetworkNodesCount = countActiveNodes(unstructuredNetworkNodes.values());
             if (activeUnstructuredNetworkNodesCount < serviceHolder.getConfiguration().getMaxUnstructuredPeerCount()) {
-                isSuccessful = unstructuredNetworkNodes.add(node);
+                isSuccessful = unstructuredNetworkNodes.putIfAbsent(new NodeKey(node), node) == null;
             }
 
             if (isSuccessful) {
                 logger.info("Added node " + node.toString() + " to unstructured network.");
 
                 // Notifying the tracer
-                Tracer tracer = serviceHolder.getTracer();
-                if (tracer != null) {
-                    try {
-                        tracer.addUnstructuredNetworkConnection(
-                                System.currentTimeMillis(),
-                                serviceHolder.getConfiguration().getIp(),
-                                serviceHolder.getConfiguration().getPeerListeningPort(),
-                                node.getIp(), node.getPort()
-                        );
-                    } catch (RemoteException e) {
-                        logger.warn("Failed to add unstructured network connection to the tracer", e);
-                    }
-                }
+                serviceHolder.publishTraceEvent(new TraceEvent(
+                        TraceEventType.ADD_UNSTRUCTURED_NETWORK_CONNECTION,
+                        System.currentTimeMillis(),
+                        serviceHolder.getConfiguration().getIp(),
+                        serviceHolder.getConfiguration().getPeerListeningPort(),
+                        node.getIp(), node.getPort()
+                ));
             } else {
                 logger.info("Failed to add node " + node.toString() + " to unstructured network.");
             }
@@ -242,24 +237,18 @@ public abstract class RoutingTable implements Serializable {
         boolean isSuccessful;
         unstructuredNetworkNodesLock.writeLock().lock();
         try {
-            isSuccessful = unstructuredNetworkNodes.remove(node);
+            isSuccessful = unstructuredNetworkNodes.remove(new NodeKey(node)) != null;
             if (isSuccessful) {
                 logger.info("Removed node " + node.toString() + " from unstructured network.");
 
                 // Notifying the tracer
-                Tracer tracer = serviceHolder.getTracer();
-                if (tracer != null) {
-                    try {
-                        tracer.removeUnstructuredNetworkConnection(
-                                System.currentTimeMillis(),
-                                serviceHolder.getConfiguration().getIp(),
-                                serviceHolder.getConfiguration().getPeerListeningPort(),
-                                node.getIp(), node.getPort()
-                        );
-                    } catch (RemoteException e) {
-                        logger.warn("Failed to remove unstructured network connection from the tracer", e);
-                    }
-                }
+                serviceHolder.publishTraceEvent(new TraceEvent(
+                        TraceEventType.REMOVE_UNSTRUCTURED_NETWORK_CONNECTION,
+                        System.currentTimeMillis(),
+                        serviceHolder.getConfiguration().getIp(),
+                        serviceHolder.getConfiguration().getPeerListeningPort(),
+                        node.getIp(), node.getPort()
+                ));
             } else {
                 logger.info("Failed to remove node " + node.toString() + " from unstructured network.");
             }
@@ -270,12 +259,29 @@ public abstract class RoutingTable implements Serializable {
     }
 
     /**
-     * Remove the inactive nodes from a set of nodes.
+     * Count the active nodes in a collection of nodes.
+     * Node states are changed outside the routing table and therefore the count cannot be maintained incrementally.
+     *
+     * @param nodes The collection of nodes
+     * @return The number of active nodes
+     */
+    protected int countActiveNodes(Collection<Node> nodes) {
+        int activeNodesCount = 0;
+        for (Node node : nodes) {
+            if (node.isActive()) {
+                activeNodesCount++;
+            }
+        }
+        return activeNodesCount;
+    }
+
+    /**
+     * Remove the inactive nodes from a collection of nodes.
      *
-     * @param nodeSet The set of nodes from which the inactive nodes should be remove
+     * @param nodes The collection of nodes from which the inactive nodes should be remove
      */
-    protected void removeInactiveNodesFromSet(Set<Node> nodeSet) {
-        Set<Node> garbageNodes = nodeSet.stream().parallel()
+    protected void removeInactiveNodes(Collection<Node> nodes) {
+        Set<Node> garbageNodes = nodes.stream()
                 .filter(node -> node.getState() == NodeState.INACTIVE)
                 .collect(Collectors.toSet());
 
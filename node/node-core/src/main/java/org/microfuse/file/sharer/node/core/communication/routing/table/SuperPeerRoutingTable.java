@@ -1,18 +1,19 @@
 package org.microfuse.file.sharer.node.core.communication.routing.table;
 
 import org.microfuse.file.sharer.node.commons.peer.Node;
-import org.microfuse.file.sharer.node.core.tracing.Tracer;
+import org.microfuse.file.sharer.node.core.tracing.TraceEvent;
+import org.microfuse.file.sharer.node.core.tracing.TraceEventType;
 import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.rmi.RemoteException;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
 
 /**
  * The routing table containing the node information for super peers.
@@ -23,8 +24,8 @@ public class SuperPeerRoutingTable extends RoutingTable {
     private static final long serialVersionUID = 105L;
     private static final transient Logger logger = LoggerFactory.getLogger(SuperPeerRoutingTable.class);
 
-    private Set<Node> superPeerNetworkNodes;
-    private Set<Node> assignedOrdinaryPeerNodes;
+    private Map<NodeKey, Node> superPeerNetworkNodes;
+    private Map<NodeKey, Node> assignedOrdinaryPeerNodes;
 
     private ReadWriteLock superPeerNetworkNodesLock;
     private ReadWriteLock assignedOrdinaryPeerNodesLock;
@@ -33,8 +34,8 @@ public class SuperPeerRoutingTable extends RoutingTable {
         super(serviceHolder);
         superPeerNetworkNodesLock = new ReentrantReadWriteLock();
         assignedOrdinaryPeerNodesLock = new ReentrantReadWriteLock();
-        superPeerNetworkNodes = new HashSet<>();
-        assignedOrdinaryPeerNodes = new HashSet<>();
+        superPeerNetworkNodes = new HashMap<>();
+        assignedOrdinaryPeerNodes = new HashMap<>();
     }
 
     public SuperPeerRoutingTable(ServiceHolder serviceHolder, OrdinaryPeerRoutingTable ordinaryPeerRoutingTable) {
@@ -87,7 +88,12 @@ public class SuperPeerRoutingTable extends RoutingTable {
      * @return The list of nodes in the routing table
      */
     public Set<Node> getAllSuperPeerNetworkNodes() {
-        return new HashSet<>(superPeerNetworkNodes);
+        superPeerNetworkNodesLock.readLock().lock();
+        try {
+            return new HashSet<>(superPeerNetworkNodes.values());
+        } finally {
+            superPeerNetworkNodesLock.readLock().unlock();
+        }
     }
 
     /**
@@ -101,10 +107,7 @@ public class SuperPeerRoutingTable extends RoutingTable {
         Node requestedNode;
         superPeerNetworkNodesLock.readLock().lock();
         try {
-            requestedNode = superPeerNetworkNodes.stream().parallel()
-                    .filter(node -> Objects.equals(node.getIp(), ip) && node.getPort() == port)
-                    .findAny()
-                    .orElse(null);
+            requestedNode = superPeerNetworkNodes.get(new NodeKey(ip, port));
         } finally {
             superPeerNetworkNodesLock.readLock().unlock();
         }
@@ -153,7 +156,12 @@ public class SuperPeerRoutingTable extends RoutingTable {
      * @return The list of nodes in the routing table
      */
     public Set<Node> getAllAssignedOrdinaryNetworkNodes() {
-        return new HashSet<>(assignedOrdinaryPeerNodes);
+        assignedOrdinaryPeerNodesLock.readLock().lock();
+        try {
+            return new HashSet<>(assignedOrdinaryPeerNodes.values());
+        } finally {
+            assignedOrdinaryPeerNodesLock.readLock().unlock();
+        }
     }
 
     /**
@@ -167,10 +175,7 @@ public class SuperPeerRoutingTable extends RoutingTable {
         Node requestedNode;
         assignedOrdinaryPeerNodesLock.readLock().lock();
         try {
-            requestedNode = assignedOrdinaryPeerNodes.stream().parallel()
-                    .filter(node -> Objects.equals(node.getIp(), ip) && Objects.equals(node.getPort(), port))
-                    .findAny()
-                    .orElse(null);
+            requestedNode = assignedOrdinaryPeerNodes.get(new NodeKey(ip, port));
         } finally {
             assignedOrdinaryPeerNodesLock.readLock().unlock();
         }
@@ -229,7 +234,7 @@ public class SuperPeerRoutingTable extends RoutingTable {
         // Removing inactive super peer network nodes
         superPeerNetworkNodesLock.writeLock().lock();
         try {
-            removeInactiveNodesFromSet(superPeerNetworkNodes);
+            removeInactiveNodes(superPeerNetworkNodes.values());
         } finally {
             superPeerNetworkNodesLock.writeLock().unlock();
         }
@@ -237,7 +242,7 @@ public class SuperPeerRoutingTable extends RoutingTable {
         // Removing inactive assigned ordinary peer nodes
         assignedOrdinaryPeerNodesLock.writeLock().lock();
         try {
-            removeInactiveNodesFromSet(assignedOrdinaryPeerNodes);
+            removeInactiveNodes(assignedOrdinaryPeerNodes.values());
         } finally {
             assignedOrdinaryPeerNodesLock.writeLock().unlock();
         }
@@ -258,30 +263,22 @@ public class SuperPeerRoutingTable extends RoutingTable {
                 node = existingNode;
             }
 
-            int activeSuperPeerNetworkNodesCount = superPeerNetworkNodes.stream().parallel()
-                    .filter(Node::isActive)
-                    .collect(Collectors.toList()).size();
-            if (activeSuperPeerNetworkNodesCount < serviceHolder.getConfiguration().getMaxSuperPeerCount()){
-                isSuccessful = superPeerNetworkNodes.add(node);
+            int activeSuperPeerNetworkNodesCount = countActiveNodes(superPeerNetworkNodes.values());
+            if (activeSuperPeerNetworkNodesCount < serviceHolder.getConfiguration().getMaxSuperPeerCount()) {
+                isSuccessful = superPeerNetworkNodes.putIfAbsent(new NodeKey(node), node) == null;
             }
 
             if (isSuccessful) {
                 logger.info("Added node " + node.toString() + " to super peer network.");
 
                 // Notifying the tracer
-                Tracer tracer = serviceHolder.getTracer();
-                if (tracer != null) {
-                    try {
-                        tracer.addSuperPeerNetworkConnection(
-                                System.currentTimeMillis(),
-                                serviceHolder.getConfiguration().getIp(),
-                                serviceHolder.getConfiguration().getPeerListeningPort(),
-                                node.getIp(), node.getPort()
-                        );
-                    } catch (RemoteException e) {
-                        logger.warn("Failed to add super peer network connection to the tracer", e);
-                    }
-                }
+                serviceHolder.publishTraceEvent(new TraceEvent(
+                        TraceEventType.ADD_SUPER_PEER_NETWORK_CONNECTION,
+                        System.currentTimeMillis(),
+                        serviceHolder.getConfiguration().getIp(),
+                        serviceHolder.getConfiguration().getPeerListeningPort(),
+                        node.getIp(), node.getPort()
+                ));
             } else {
                 logger.info("Failed to add node " + node.toString() + " to super peer network.");
             }
@@ -301,24 +298,18 @@ public class SuperPeerRoutingTable extends RoutingTable {
         boolean isSuccessful;
         superPeerNetworkNodesLock.writeLock().lock();
         try {
-            isSuccessful = superPeerNetworkNodes.remove(node);
+            isSuccessful = superPeerNetworkNodes.remove(new NodeKey(node)) != null;
             if (isSuccessful) {
                 logger.info("Removed node " + node.toString() + " from super peer network.");
 
                 // Notifying the tracer
-                Tracer tracer = serviceHolder.getTracer();
-                if (tracer != null) {
-                    try {
-                        tracer.removeSuperPeerNetworkConnection(
-                                System.currentTimeMillis(),
-                                serviceHolder.getConfiguration().getIp(),
-                                serviceHolder.getConfiguration().getPeerListeningPort(),
-                                node.getIp(), node.getPort()
-                        );
-                    } catch (RemoteException e) {
-                        logger.warn("Failed to remove super peer network connection from the tracer", e);
-                    }
-                }
+                serviceHolder.publishTraceEvent(new TraceEvent(
+                        TraceEventType.REMOVE_SUPER_PEER_NETWORK_CONNECTION,
+                        System.currentTimeMillis(),
+                        serviceHolder.getConfiguration().getIp(),
+                        serviceHolder.getConfiguration().getPeerListeningPort(),
+                        node.getIp(), node.getPort()
+                ));
             } else {
                 logger.info("Failed to remove node " + node.toString() + " from super peer network.");
             }
@@ -344,31 +335,23 @@ public class SuperPeerRoutingTable extends RoutingTable {
                     node = existingNode;
                 }
 
-                int activeAssignedOrdinaryPeerNodesCount = assignedOrdinaryPeerNodes.stream().parallel()
-                        .filter(Node::isActive)
-                        .collect(Collectors.toList()).size();
+                int activeAssignedOrdinaryPeerNodesCount = countActiveNodes(assignedOrdinaryPeerNodes.values());
                 if (activeAssignedOrdinaryPeerNodesCount
                         < serviceHolder.getConfiguration().getMaxAssignedOrdinaryPeerCount()) {
-                    isSuccessful = assignedOrdinaryPeerNodes.add(node);
+                    isSuccessful = assignedOrdinaryPeerNodes.putIfAbsent(new NodeKey(node), node) == null;
                 }
 
                 if (isSuccessful) {
                     logger.info("Added node " + node.toString() + " to assigned ordinary peers.");
 
                     // Notifying the tracer
-                    Tracer tracer = serviceHolder.getTracer();
-                    if (tracer != null) {
-                        try {
-                            tracer.addAssignedOrdinaryPeerConnection(
-                                    System.currentTimeMillis(),
-                                    serviceHolder.getConfiguration().getIp(),
-                                    serviceHolder.getConfiguration().getPeerListeningPort(),
-                                    node.getIp(), node.getPort()
-                            );
-                        } catch (RemoteException e) {
-                            logger.warn("Failed to add assigned ordinary peer network connection to the tracer", e);
-                        }
-                    }
+                    serviceHolder.publishTraceEvent(new TraceEvent(
+                            TraceEventType.ADD_ASSIGNED_ORDINARY_PEER_CONNECTION,
+                            System.currentTimeMillis(),
+                            serviceHolder.getConfiguration().getIp(),
+                            serviceHolder.getConfiguration().getPeerListeningPort(),
+                            node.getIp(), node.getPort()
+                    ));
                 } else {
                     logger.info("Failed to add node " + node.toString() + " to assigned ordinary peers.");
                 }
@@ -393,24 +376,18 @@ public class SuperPeerRoutingTable extends RoutingTable {
         boolean isSuccessful;
         assignedOrdinaryPeerNodesLock.writeLock().lock();
         try {
-            isSuccessful = assignedOrdinaryPeerNodes.remove(node);
+            isSuccessful = assignedOrdinaryPeerNodes.remove(new NodeKey(node)) != null;
             if (isSuccessful) {
                 logger.info("Remove node " + node.toString() + " from assigned ordinary peers.");
 
                 // Notifying the tracer
-                Tracer tracer = serviceHolder.getTracer();
-                if (tracer != null) {
-                    try {
-                        tracer.removeAssignedOrdinaryPeerConnection(
-                                System.currentTimeMillis(),
-                                serviceHolder.getConfiguration().getIp(),
-                                serviceHolder.getConfiguration().getPeerListeningPort(),
-                                node.getIp(), node.getPort()
-                        );
-                    } catch (RemoteException e) {
-                        logger.warn("Failed to remove assigned ordinary peer network connection from the tracer", e);
-                    }
-                }
+                serviceHolder.publishTraceEvent(new TraceEvent(
+                        TraceEventType.REMOVE_ASSIGNED_ORDINARY_PEER_CONNECTION,
+                        System.currentTimeMillis(),
+                        serviceHolder.getConfiguration().getIp(),
+                        serviceHolder.getConfiguration().getPeerListeningPort(),
+                        node.getIp(), node.getPort()
+                ));
             } else {
                 logger.info("Failed to remove node " + node.toString() + " from assigned ordinary peers.");
             }
@@ -2,26 +2,29 @@ package org.microfuse.file.sharer.node.core.resource.index;
 
 import org.microfuse.file.sharer.node.commons.peer.PeerType;
 import org.microfuse.file.sharer.node.core.resource.OwnedResource;
-import org.microfuse.file.sharer.node.core.resource.Resource;
 import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.util.Collection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
 
 /**
  * Resource Index for Ordinary Peers
  *
  * Indexes resources owned by this node.
+ * Each change to the owned resources increments the version of the resource list and is kept in a bounded
+ * journal so that the changes since an earlier version can be sent instead of the whole list.
  */
 public class ResourceIndex {
     private static final Logger logger = LoggerFactory.getLogger(ResourceIndex.class);
@@ -29,9 +32,17 @@ public class ResourceIndex {
     private static Map<PeerType, Class<? extends ResourceIndex>> resourceIndexClassMap;
 
     private Set<OwnedResource> ownedResources;
+    private ResourceTokenIndex<OwnedResource> ownedResourcesTokenIndex;
 
     private final ReadWriteLock ownedResourcesLock;
 
+    private long resourceListVersion;
+    private long resourceListJournalStartVersion;
+    private Deque<ResourceListChange> resourceListJournal;
+
+    private final ReadWriteLock listenersListLock;
+    private List<ResourceIndexListener> listenersList;
+
     protected ServiceHolder serviceHolder;
 
     static {
@@ -44,12 +55,19 @@ public class ResourceIndex {
     public ResourceIndex(ServiceHolder serviceHolder) {
         ownedResourcesLock = new ReentrantReadWriteLock();
         ownedResources = new HashSet<>();
+        ownedResourcesTokenIndex = new ResourceTokenIndex<>();
+        resourceListVersion = 0;
+        resourceListJournalStartVersion = 0;
+        resourceListJournal = new ArrayDeque<>();
+        listenersListLock = new ReentrantReadWriteLock();
+        listenersList = new ArrayList<>();
         this.serviceHolder = serviceHolder;
     }
 
     public ResourceIndex(ServiceHolder serviceHolder, SuperPeerResourceIndex superPeerResourceIndex) {
         this(serviceHolder);
         superPeerResourceIndex.getAllOwnedResources().forEach(this::addOwnedResource);
+        copyResourceListState(superPeerResourceIndex);
     }
 
     /**
@@ -71,6 +89,7 @@ public class ResourceIndex {
      */
     public boolean addOwnedResource(String resourceName, File storedFile) {
         boolean isSuccessful;
+        long changedResourceListVersion = -1;
         ownedResourcesLock.writeLock().lock();
         try {
             OwnedResource existingOwnedResource = ownedResources.stream().parallel()
@@ -86,6 +105,9 @@ public class ResourceIndex {
                 OwnedResource ownedResource = new OwnedResource(resourceName);
                 ownedResource.setFile(storedFile);
                 isSuccessful = addOwnedResource(ownedResource);
+                if (isSuccessful) {
+                    changedResourceListVersion = recordResourceListChange(resourceName, true);
+                }
             }
 
             if (isSuccessful) {
@@ -96,6 +118,7 @@ public class ResourceIndex {
         } finally {
             ownedResourcesLock.writeLock().unlock();
         }
+        notifyOwnedResourcesChanged(changedResourceListVersion);
         return isSuccessful;
     }
 
@@ -107,6 +130,7 @@ public class ResourceIndex {
      */
     public boolean removeOwnedResource(String resourceName) {
         boolean isSuccessful;
+        long changedResourceListVersion = -1;
         ownedResourcesLock.writeLock().lock();
         try {
             OwnedResource existingOwnedResource = ownedResources.stream().parallel()
@@ -116,6 +140,8 @@ public class ResourceIndex {
 
             isSuccessful = ownedResources.remove(existingOwnedResource);
             if (isSuccessful) {
+                ownedResourcesTokenIndex.remove(existingOwnedResource);
+                changedResourceListVersion = recordResourceListChange(existingOwnedResource.getName(), false);
                 logger.info("Removed resource " + resourceName + " from owned resources");
             } else {
                 logger.info("Failed to remove resource " + resourceName + " from owned resources");
@@ -123,6 +149,7 @@ public class ResourceIndex {
         } finally {
             ownedResourcesLock.writeLock().unlock();
         }
+        notifyOwnedResourcesChanged(changedResourceListVersion);
         return isSuccessful;
     }
 
@@ -145,20 +172,27 @@ public class ResourceIndex {
         Set<OwnedResource> requestedResources;
         ownedResourcesLock.readLock().lock();
         try {
-            requestedResources = matchResourcesWithName(
-                    ownedResources.stream().parallel()
-                            .map(resource -> (Resource) resource)
-                            .collect(Collectors.toSet()),
-                    resourceName
-            ).stream().parallel()
-                    .map(resource -> (OwnedResource) resource)
-                    .collect(Collectors.toSet());
+            requestedResources = ownedResourcesTokenIndex.find(resourceName);
         } finally {
             ownedResourcesLock.readLock().unlock();
         }
         return requestedResources;
     }
 
+    /**
+     * Get the distinct lower case tokens in the names of the owned resources.
+     *
+     * @return The tokens in the owned resource names
+     */
+    public Set<String> getOwnedResourceTokens() {
+        ownedResourcesLock.readLock().lock();
+        try {
+            return ownedResourcesTokenIndex.getTokens();
+        } finally {
+            ownedResourcesLock.readLock().unlock();
+        }
+    }
+
     /**
      * Clear the resource index.
      */
@@ -170,51 +204,106 @@ public class ResourceIndex {
      * Clear the resources owned by this node.
      */
     public void clearOwnedResources() {
+        long changedResourceListVersion = -1;
         ownedResourcesLock.writeLock().lock();
         try {
+            for (OwnedResource ownedResource : ownedResources) {
+                changedResourceListVersion = recordResourceListChange(ownedResource.getName(), false);
+            }
             ownedResources.clear();
+            ownedResourcesTokenIndex.clear();
             logger.info("Cleared owned resources.");
         } finally {
             ownedResourcesLock.writeLock().unlock();
         }
+        notifyOwnedResourcesChanged(changedResourceListVersion);
     }
 
     /**
-     * Collect garbage in the resource index.
+     * Get the current version of the owned resources list.
+     * The version is incremented whenever an owned resource is added or removed.
+     *
+     * @return The version of the owned resources list
      */
-    public void collectGarbage() {
-        logger.info("Skipping garbage collection in owned resources");
+    public long getResourceListVersion() {
+        ownedResourcesLock.readLock().lock();
+        try {
+            return resourceListVersion;
+        } finally {
+            ownedResourcesLock.readLock().unlock();
+        }
     }
 
     /**
-     * Match the resource with a resource name.
-     * Returns the list of ownedResources that match the file name.
+     * Get the changes made to the owned resources list since a version.
      *
-     * @param resources    The list of resource to search in
-     * @param resourceName The name of the resource
-     * @return Returns true if the resource and the resource name match
-     */
-    protected Set<Resource> matchResourcesWithName(Collection<Resource> resources, String resourceName) {
-        return resources.stream().parallel()
-                .filter(resource -> {
-                    String[] resourceTokens = resource.getName().toLowerCase().split("\\s+");
-                    String[] queryNameTokens = resourceName.toLowerCase().split("\\s+");
-
-                    for (int i = 0; i < queryNameTokens.length; i++) {
-                        boolean tokenFound = false;
-                        for (int j = 0; j < resourceTokens.length; j++) {
-                            if (Objects.equals(queryNameTokens[i], resourceTokens[j])) {
-                                tokenFound = true;
-                                break;
-                            }
-                        }
-                        if (!tokenFound) {
-                            return false;
-                        }
-                    }
-                    return true;
-                })
-                .collect(Collectors.toSet());
+     * @param baseVersion The version of the list known by the receiver of the delta
+     * @return The changes since the base version or null if the journal no longer holds all of them
+     */
+    public ResourceListDelta getResourceListDelta(long baseVersion) {
+        ownedResourcesLock.readLock().lock();
+        try {
+            if (baseVersion < resourceListJournalStartVersion || baseVersion > resourceListVersion) {
+                return null;
+            }
+            Map<String, Boolean> lastChanges = new LinkedHashMap<>();
+            for (ResourceListChange resourceListChange : resourceListJournal) {
+                if (resourceListChange.version > baseVersion) {
+                    lastChanges.remove(resourceListChange.resourceName);
+                    lastChanges.put(resourceListChange.resourceName, resourceListChange.isAdded);
+                }
+            }
+            List<String> addedResourceNames = new ArrayList<>();
+            List<String> removedResourceNames = new ArrayList<>();
+            for (Map.Entry<String, Boolean> lastChange : lastChanges.entrySet()) {
+                if (lastChange.getValue()) {
+                    addedResourceNames.add(lastChange.getKey());
+                } else {
+                    removedResourceNames.add(lastChange.getKey());
+                }
+            }
+            return new ResourceListDelta(baseVersion, resourceListVersion, addedResourceNames,
+                    removedResourceNames);
+        } finally {
+            ownedResourcesLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Register a new listener.
+     *
+     * @param listener The new listener to be registered
+     * @return True if registering was successful
+     */
+    public boolean registerListener(ResourceIndexListener listener) {
+        listenersListLock.writeLock().lock();
+        try {
+            return listenersList.add(listener);
+        } finally {
+            listenersListLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Unregister an existing listener.
+     *
+     * @param listener The listener to be removed
+     * @return True if unregister was successful
+     */
+    public boolean unregisterListener(ResourceIndexListener listener) {
+        listenersListLock.writeLock().lock();
+        try {
+            return listenersList.remove(listener);
+        } finally {
+            listenersListLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Collect garbage in the resource index.
+     */
+    public void collectGarbage() {
+        logger.info("Skipping garbage collection in owned resources");
     }
 
     /**
@@ -224,6 +313,89 @@ public class ResourceIndex {
      * @return True if adding was successful
      */
     protected boolean addOwnedResource(OwnedResource ownedResource) {
-        return ownedResources.add(ownedResource);
+        boolean isSuccessful = ownedResources.add(ownedResource);
+        if (isSuccessful) {
+            ownedResourcesTokenIndex.add(ownedResource);
+        }
+        return isSuccessful;
+    }
+
+    /**
+     * Continue the resource list version and the listeners of the index this index replaces.
+     * The journal is not copied and deltas from earlier versions require sending the whole list.
+     *
+     * @param resourceIndex The index replaced by this index
+     */
+    void copyResourceListState(ResourceIndex resourceIndex) {
+        long version = resourceIndex.getResourceListVersion();
+        ownedResourcesLock.writeLock().lock();
+        try {
+            resourceListVersion = version;
+            resourceListJournalStartVersion = version;
+            resourceListJournal.clear();
+        } finally {
+            ownedResourcesLock.writeLock().unlock();
+        }
+
+        resourceIndex.listenersListLock.readLock().lock();
+        try {
+            resourceIndex.listenersList.forEach(this::registerListener);
+        } finally {
+            resourceIndex.listenersListLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Record a change to the owned resources in the journal.
+     * This should be called while holding the owned resources write lock.
+     *
+     * @param resourceName The name of the resource which was added or removed
+     * @param isAdded      True if the resource was added
+     * @return The new version of the owned resources list
+     */
+    private long recordResourceListChange(String resourceName, boolean isAdded) {
+        resourceListVersion++;
+        resourceListJournal.addLast(new ResourceListChange(resourceListVersion, resourceName, isAdded));
+        int journalSize = Math.max(serviceHolder.getConfiguration().getResourceListJournalSize(), 0);
+        while (resourceListJournal.size() > journalSize) {
+            resourceListJournalStartVersion = resourceListJournal.removeFirst().version;
+        }
+        return resourceListVersion;
+    }
+
+    /**
+     * Notify the listeners that the owned resources changed.
+     *
+     * @param changedResourceListVersion The version after the change or -1 if nothing changed
+     */
+    private void notifyOwnedResourcesChanged(long changedResourceListVersion) {
+        if (changedResourceListVersion < 0) {
+            return;
+        }
+        List<ResourceIndexListener> listeners;
+        listenersListLock.readLock().lock();
+        try {
+            listeners = new ArrayList<>(listenersList);
+        } finally {
+            listenersListLock.readLock().unlock();
+        }
+        for (ResourceIndexListener listener : listeners) {
+            listener.onOwnedResourcesChanged(changedResourceListVersion);
+        }
+    }
+
+    /**
+     * A change to the owned resources recorded in the journal.
+     */
+    private static class ResourceListChange {
+        private final long version;
+        private final String resourceName;
+        private final boolean isAdded;
+
+        ResourceListChange(long version, String resourceName, boolean isAdded) {
+            this.version = version;
+            this.resourceName = resourceName;
+            this.isAdded = isAdded;
+        }
     }
 }
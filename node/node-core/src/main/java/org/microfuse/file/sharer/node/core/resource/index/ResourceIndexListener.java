@@ -0,0 +1,13 @@
+package org.microfuse.file.sharer.node.core.resource.index;
+
+/**
+ * The base class for listeners waiting for resource index events.
+ */
+public interface ResourceIndexListener {
+    /**
+     * Invoked after the resources owned by this node were added or removed.
+     *
+     * @param resourceListVersion The version of the owned resources list after the change
+     */
+    void onOwnedResourcesChanged(long resourceListVersion);
+}
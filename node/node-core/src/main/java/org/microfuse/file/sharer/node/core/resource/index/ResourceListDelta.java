@@ -0,0 +1,62 @@
+package org.microfuse.file.sharer.node.core.resource.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The changes to the owned resources list of a node between two versions of the list.
+ * <p>
+ * Each resource name appears at most once with the last change made to it. Applying a delta is idempotent
+ * so that a delta can be applied on top of a list which already contains some of its changes.
+ */
+public class ResourceListDelta {
+    private final long baseVersion;
+    private final long version;
+    private final List<String> addedResourceNames;
+    private final List<String> removedResourceNames;
+
+    public ResourceListDelta(long baseVersion, long version, Collection<String> addedResourceNames,
+                             Collection<String> removedResourceNames) {
+        this.baseVersion = baseVersion;
+        this.version = version;
+        this.addedResourceNames = Collections.unmodifiableList(new ArrayList<>(addedResourceNames));
+        this.removedResourceNames = Collections.unmodifiableList(new ArrayList<>(removedResourceNames));
+    }
+
+    /**
+     * Get the version of the list on which the delta should be applied.
+     *
+     * @return The base version
+     */
+    public long getBaseVersion() {
+        return baseVersion;
+    }
+
+    /**
+     * Get the version of the list after applying the delta.
+     *
+     * @return The version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public List<String> getAddedResourceNames() {
+        return addedResourceNames;
+    }
+
+    public List<String> getRemovedResourceNames() {
+        return removedResourceNames;
+    }
+
+    /**
+     * Check whether the delta does not change the list.
+     *
+     * @return True if no resources were added or removed
+     */
+    public boolean isEmpty() {
+        return addedResourceNames.isEmpty() && removedResourceNames.isEmpty();
+    }
+}
@@ -0,0 +1,170 @@
+package org.microfuse.file.sharer.node.core.resource.index;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Bloom filter summary of the resource name tokens indexed by a super peer.
+ * <p>
+ * Super peers exchange summaries so that a query is only forwarded to the super peers which may have
+ * resources matching all of its tokens. A summary never reports a token added to it as missing
+ * but may report a token which was not added as present.
+ * The bits are hashed with murmur3 so that summaries built by different nodes can be compared.
+ */
+public class ResourceSummary {
+    public static final int MAX_BIT_COUNT = 32768;
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final int bitCount;
+    private final int hashFunctionCount;
+    private final BitSet bits;
+    private final long timeStamp;
+
+    public ResourceSummary(int bitCount, int hashFunctionCount) {
+        this(bitCount, hashFunctionCount, new BitSet());
+    }
+
+    private ResourceSummary(int bitCount, int hashFunctionCount, BitSet bits) {
+        this.bitCount = Math.min(Math.max(bitCount, 1), MAX_BIT_COUNT);
+        this.hashFunctionCount = Math.max(hashFunctionCount, 1);
+        this.bits = bits;
+        timeStamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Decode a summary received from another super peer.
+     *
+     * @param bitCount          The number of bits in the summary
+     * @param hashFunctionCount The number of hash functions used by the summary
+     * @param encodedBits       The Base64 encoded bits of the summary
+     * @return The decoded summary
+     * @throws IllegalArgumentException If the encoded bits are invalid
+     */
+    public static ResourceSummary decode(int bitCount, int hashFunctionCount, String encodedBits) {
+        BitSet bits = BitSet.valueOf(Base64.getDecoder().decode(encodedBits));
+        ResourceSummary resourceSummary = new ResourceSummary(bitCount, hashFunctionCount, bits);
+        if (bits.length() > resourceSummary.bitCount) {
+            throw new IllegalArgumentException("Resource summary contains more than " + resourceSummary.bitCount
+                    + " bits");
+        }
+        return resourceSummary;
+    }
+
+    /**
+     * Add a resource name token to the summary.
+     *
+     * @param token The lower case token
+     */
+    public void add(String token) {
+        long hash = HASH_FUNCTION.hashString(token, StandardCharsets.UTF_8).asLong();
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctionCount; i++) {
+            bits.set(getBitIndex(hash1, hash2, i));
+        }
+    }
+
+    /**
+     * Add resource name tokens to the summary.
+     *
+     * @param tokens The lower case tokens
+     */
+    public void addAll(Collection<String> tokens) {
+        tokens.forEach(this::add);
+    }
+
+    /**
+     * Check whether the summary may contain a resource name token.
+     *
+     * @param token The lower case token
+     * @return False if the token is definitely not in the summary
+     */
+    public boolean mightContain(String token) {
+        long hash = HASH_FUNCTION.hashString(token, StandardCharsets.UTF_8).asLong();
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctionCount; i++) {
+            if (!bits.get(getBitIndex(hash1, hash2, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check whether the summary may contain all the tokens of a query.
+     *
+     * @param resourceName The name of the resource queried
+     * @return False if a token of the query is definitely not in the summary
+     */
+    public boolean mightMatch(String resourceName) {
+        for (String token : ResourceTokenIndex.tokenize(resourceName)) {
+            if (!mightContain(token)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encode the bits of the summary to be sent in a message.
+     *
+     * @return The Base64 encoded bits
+     */
+    public String encode() {
+        return Base64.getEncoder().encodeToString(bits.toByteArray());
+    }
+
+    public int getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashFunctionCount() {
+        return hashFunctionCount;
+    }
+
+    /**
+     * Get the time at which the summary was built or received.
+     *
+     * @return The time stamp of the summary
+     */
+    public long getTimeStamp() {
+        return timeStamp;
+    }
+
+    /**
+     * Get the index of the bit set by a hash function using double hashing.
+     *
+     * @param hash1 The first hash of the token
+     * @param hash2 The second hash of the token
+     * @param i     The index of the hash function
+     * @return The index of the bit
+     */
+    private int getBitIndex(int hash1, int hash2, int i) {
+        int combinedHash = hash1 + i * hash2;
+        return (combinedHash & Integer.MAX_VALUE) % bitCount;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (object != null && object instanceof ResourceSummary) {
+            ResourceSummary resourceSummaryObject = (ResourceSummary) object;
+            return bitCount == resourceSummaryObject.bitCount
+                    && hashFunctionCount == resourceSummaryObject.hashFunctionCount
+                    && Objects.equals(bits, resourceSummaryObject.bits);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bitCount, hashFunctionCount, bits);
+    }
+}
@@ -0,0 +1,118 @@
+package org.microfuse.file.sharer.node.core.resource.index;
+
+import org.microfuse.file.sharer.node.core.resource.Resource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index of resource name tokens.
+ * <p>
+ * Maps each lower case token in the resource names to the resources which contain the token.
+ * Queries are answered by intersecting the resource sets of the query tokens starting from the smallest set.
+ * This is not thread safe and should be guarded by the lock of the resource index using it.
+ *
+ * @param <T> The type of resources indexed
+ */
+public class ResourceTokenIndex<T extends Resource> {
+    private static final String TOKEN_SEPARATOR_REGEX = "\\s+";
+
+    private Map<String, Set<T>> tokenResourcesMap;
+
+    public ResourceTokenIndex() {
+        tokenResourcesMap = new HashMap<>();
+    }
+
+    /**
+     * Add a resource to the index under each token in its name.
+     *
+     * @param resource The resource to be added
+     */
+    public void add(T resource) {
+        for (String token : tokenize(resource.getName())) {
+            tokenResourcesMap.computeIfAbsent(token, k -> new HashSet<>()).add(resource);
+        }
+    }
+
+    /**
+     * Remove a resource from the index.
+     *
+     * @param resource The resource to be removed
+     */
+    public void remove(T resource) {
+        for (String token : tokenize(resource.getName())) {
+            Set<T> resources = tokenResourcesMap.get(token);
+            if (resources != null) {
+                resources.remove(resource);
+                if (resources.size() == 0) {
+                    tokenResourcesMap.remove(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the resources whose names contain all the tokens in the query.
+     *
+     * @param resourceName The name of the resource queried
+     * @return The resources matching all the tokens in the query
+     */
+    public Set<T> find(String resourceName) {
+        List<Set<T>> tokenResourcesList = new ArrayList<>();
+        for (String token : tokenize(resourceName)) {
+            Set<T> resources = tokenResourcesMap.get(token);
+            if (resources == null) {
+                return new HashSet<>();
+            }
+            tokenResourcesList.add(resources);
+        }
+        if (tokenResourcesList.size() == 0) {
+            // A query without any tokens matches all the resources
+            Set<T> allResources = new HashSet<>();
+            tokenResourcesMap.values().forEach(allResources::addAll);
+            return allResources;
+        }
+        tokenResourcesList.sort(Comparator.comparingInt(Set::size));
+
+        Set<T> matchingResources = new HashSet<>(tokenResourcesList.get(0));
+        for (int i = 1; i < tokenResourcesList.size() && matchingResources.size() > 0; i++) {
+            matchingResources.retainAll(tokenResourcesList.get(i));
+        }
+        return matchingResources;
+    }
+
+    /**
+     * Get the distinct tokens in the names of the indexed resources.
+     *
+     * @return A copy of the set of tokens
+     */
+    public Set<String> getTokens() {
+        return new HashSet<>(tokenResourcesMap.keySet());
+    }
+
+    /**
+     * Clear the index.
+     */
+    public void clear() {
+        tokenResourcesMap.clear();
+    }
+
+    /**
+     * Split a resource name into its distinct lower case tokens.
+     *
+     * @param resourceName The resource name
+     * @return The tokens in the resource name
+     */
+    public static Set<String> tokenize(String resourceName) {
+        String[] tokens = resourceName.toLowerCase(Locale.ENGLISH).split(TOKEN_SEPARATOR_REGEX);
+        return new LinkedHashSet<>(Arrays.asList(tokens));
+    }
+}
@@ -2,15 +2,17 @@ package org.microfuse.file.sharer.node.core.resource.index;
 
 import org.microfuse.file.sharer.node.commons.peer.Node;
 import org.microfuse.file.sharer.node.core.resource.AggregatedResource;
-import org.microfuse.file.sharer.node.core.resource.Resource;
 import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
@@ -20,23 +22,38 @@ import java.util.stream.Collectors;
  *
  * Indexes resources owned by this node.
  * Indexes resources owned by the assigned ordinary peers.
+ * Holds the resource summaries received from the connected super peers.
+ * Tracks the version of the resource list last received from each assigned ordinary peer so that
+ * resource list deltas can be applied.
+ * Keeps the aggregated resources of each node so that a node can be removed without scanning the whole index.
+ * The SER_OK answers cached by the router for a node are removed whenever the resources of the node change.
  */
 public class SuperPeerResourceIndex extends ResourceIndex {
     private static final Logger logger = LoggerFactory.getLogger(SuperPeerResourceIndex.class);
 
-    private Set<AggregatedResource> aggregatedResources;
+    private Map<String, AggregatedResource> aggregatedResources;
+    private Map<Node, Set<AggregatedResource>> nodeAggregatedResources;
+    private ResourceTokenIndex<AggregatedResource> aggregatedResourcesTokenIndex;
 
     private final ReadWriteLock aggregatedResourcesLock;
 
+    private Map<Node, ResourceSummary> superPeerResourceSummaries;
+    private Map<Node, Long> resourceListVersions;
+
     public SuperPeerResourceIndex(ServiceHolder serviceHolder) {
         super(serviceHolder);
         aggregatedResourcesLock = new ReentrantReadWriteLock();
-        aggregatedResources = new HashSet<>();
+        aggregatedResources = new HashMap<>();
+        nodeAggregatedResources = new HashMap<>();
+        aggregatedResourcesTokenIndex = new ResourceTokenIndex<>();
+        superPeerResourceSummaries = new ConcurrentHashMap<>();
+        resourceListVersions = new ConcurrentHashMap<>();
     }
 
     public SuperPeerResourceIndex(ServiceHolder serviceHolder, ResourceIndex resourceIndex) {
         this(serviceHolder);
         resourceIndex.getAllOwnedResources().forEach(this::addOwnedResource);
+        copyResourceListState(resourceIndex);
     }
 
     /**
@@ -47,48 +64,54 @@ public class SuperPeerResourceIndex extends ResourceIndex {
      * @param port         The port of the node which contains the resource to be added
      */
     public void addAggregatedResource(String resourceName, String ip, int port) {
-        boolean isSuccessful;
-        AggregatedResource resourceIndexItem = getAggregatedResource(resourceName);
-        if (resourceIndexItem == null) {
-            resourceIndexItem = new AggregatedResource(resourceName);
+        addAllAggregatedResources(Collections.singletonList(resourceName), ip, port);
+    }
 
+    /**
+     * Put a new entry into the aggregated resource index.
+     *
+     * @param resourceNames The names of the resources to be added
+     * @param ip            The ip of the node which contains the resources to be added
+     * @param port          The port of the node which contains the resources to be added
+     */
+    public void addAllAggregatedResources(Collection<String> resourceNames, String ip, int port) {
+        Node node = serviceHolder.getRouter().getRoutingTable().get(ip, port);
+        if (node != null) {
             aggregatedResourcesLock.writeLock().lock();
             try {
-                isSuccessful = aggregatedResources.add(resourceIndexItem);
-                if (isSuccessful) {
-                    logger.info("Added resource " + resourceIndexItem.toString() + " to aggregated resources.");
-                } else {
-                    logger.info("Failed to add resource " + resourceIndexItem.toString()
-                            + " to aggregated resources.");
+                for (String resourceName : resourceNames) {
+                    addAggregatedResource(resourceName, node);
                 }
             } finally {
                 aggregatedResourcesLock.writeLock().unlock();
             }
-        }
-
-        Node node = serviceHolder.getRouter().getRoutingTable().get(ip, port);
-        if (node != null) {
-            aggregatedResourcesLock.readLock().lock();
-            try {
-                resourceIndexItem.addNode(node);
-            } finally {
-                aggregatedResourcesLock.readLock().unlock();
-            }
         } else {
-            logger.info("Request to add resource " + resourceName + " from unknown node "
+            logger.info("Request to add resources " + resourceNames.toString() + " from unknown node "
                     + ip + ":" + port + " ignored");
         }
     }
 
     /**
-     * Put a new entry into the aggregated resource index.
+     * Replace the aggregated resources of a node with the full resource list received from the node.
      *
-     * @param resourceNames The names of the resources to be added
-     * @param ip            The ip of the node which contains the resources to be added
-     * @param port          The port of the node which contains the resources to be added
+     * @param resourceNames The names of all the resources of the node
+     * @param ip            The ip of the node which contains the resources
+     * @param port          The port of the node which contains the resources
+     * @param version       The version of the resource list or null if the node did not send a version
      */
-    public void addAllAggregatedResources(Collection<String> resourceNames, String ip, int port) {
-        resourceNames.forEach(resourceName -> addAggregatedResource(resourceName, ip, port));
+    public void replaceAllAggregatedResources(Collection<String> resourceNames, String ip, int port, Long version) {
+        aggregatedResourcesLock.writeLock().lock();
+        try {
+            removeNodeFromAggregatedResources(ip, port);
+            addAllAggregatedResources(resourceNames, ip, port);
+            Node node = serviceHolder.getRouter().getRoutingTable().get(ip, port);
+            if (node != null && version != null) {
+                resourceListVersions.put(node, version);
+            }
+        } finally {
+            aggregatedResourcesLock.writeLock().unlock();
+        }
+        serviceHolder.getRouter().getSerOkCache().removeNode(new Node(ip, port));
     }
 
     /**
@@ -99,17 +122,12 @@ public class SuperPeerResourceIndex extends ResourceIndex {
      * @param port         The port of the node which contains the resource
      */
     public boolean removeAggregatedResource(String resourceName, String ip, int port) {
-        boolean isSuccessful = false;
-        AggregatedResource resourceIndexItem = getAggregatedResource(resourceName);
-        if (resourceIndexItem != null) {
-            Node node = serviceHolder.getRouter().getRoutingTable().get(ip, port);
-            if (node != null) {
-                isSuccessful = resourceIndexItem.removeNode(node);
-                removeEmptyAggregatedResources();
-            } else {
-                logger.info("Request to remove resource " + resourceName + " from unknown node "
-                        + ip + ":" + port + " ignored");
-            }
+        boolean isSuccessful;
+        aggregatedResourcesLock.writeLock().lock();
+        try {
+            isSuccessful = removeAggregatedResource(resourceName, new Node(ip, port));
+        } finally {
+            aggregatedResourcesLock.writeLock().unlock();
         }
         return isSuccessful;
     }
@@ -124,14 +142,7 @@ public class SuperPeerResourceIndex extends ResourceIndex {
         Set<AggregatedResource> requestedResource;
         aggregatedResourcesLock.readLock().lock();
         try {
-            requestedResource = matchResourcesWithName(
-                    aggregatedResources.stream().parallel()
-                            .map(resource -> (Resource) resource)
-                            .collect(Collectors.toSet()),
-                    resourceName
-            ).stream().parallel()
-                    .map(resource -> (AggregatedResource) resource)
-                    .collect(Collectors.toSet());
+            requestedResource = aggregatedResourcesTokenIndex.find(resourceName);
         } finally {
             aggregatedResourcesLock.readLock().unlock();
         }
@@ -144,7 +155,12 @@ public class SuperPeerResourceIndex extends ResourceIndex {
      * @return The aggregated resources in the index.
      */
     public Set<AggregatedResource> getAllAggregatedResources() {
-        return new HashSet<>(aggregatedResources);
+        aggregatedResourcesLock.readLock().lock();
+        try {
+            return new HashSet<>(aggregatedResources.values());
+        } finally {
+            aggregatedResourcesLock.readLock().unlock();
+        }
     }
 
     /**
@@ -155,90 +171,234 @@ public class SuperPeerResourceIndex extends ResourceIndex {
         aggregatedResourcesLock.writeLock().lock();
         try {
             aggregatedResources.clear();
+            nodeAggregatedResources.clear();
+            aggregatedResourcesTokenIndex.clear();
             logger.info("Cleared aggregated resources.");
         } finally {
             aggregatedResourcesLock.writeLock().unlock();
         }
+        superPeerResourceSummaries.clear();
+        resourceListVersions.clear();
+    }
+
+    /**
+     * Get the version of the resource list last received from an ordinary peer.
+     *
+     * @param node The ordinary peer
+     * @return The version or null if the resource list of the node had not been received
+     */
+    public Long getResourceListVersion(Node node) {
+        return resourceListVersions.get(node);
+    }
+
+    /**
+     * Apply the changes to the resource list of an ordinary peer.
+     * The delta is only applied if its base version is the version last received from the node.
+     *
+     * @param node              The ordinary peer which sent the delta
+     * @param resourceListDelta The changes to the resource list of the node
+     * @return True if the delta was applied
+     */
+    public boolean applyResourceListDelta(Node node, ResourceListDelta resourceListDelta) {
+        aggregatedResourcesLock.writeLock().lock();
+        try {
+            Long version = resourceListVersions.get(node);
+            if (version == null || version != resourceListDelta.getBaseVersion()) {
+                return false;
+            }
+            for (String resourceName : resourceListDelta.getRemovedResourceNames()) {
+                removeAggregatedResource(resourceName, node);
+            }
+            addAllAggregatedResources(resourceListDelta.getAddedResourceNames(), node.getIp(), node.getPort());
+            resourceListVersions.put(node, resourceListDelta.getVersion());
+        } finally {
+            aggregatedResourcesLock.writeLock().unlock();
+        }
+        serviceHolder.getRouter().getSerOkCache().removeNode(node);
+        return true;
+    }
+
+    /**
+     * Create a summary of the tokens in the names of the owned resources and the aggregated resources.
+     *
+     * @return The resource summary of this node
+     */
+    public ResourceSummary createResourceSummary() {
+        ResourceSummary resourceSummary = new ResourceSummary(
+                serviceHolder.getConfiguration().getResourceSummaryBitCount(),
+                serviceHolder.getConfiguration().getResourceSummaryHashFunctionCount()
+        );
+        resourceSummary.addAll(getOwnedResourceTokens());
+        aggregatedResourcesLock.readLock().lock();
+        try {
+            resourceSummary.addAll(aggregatedResourcesTokenIndex.getTokens());
+        } finally {
+            aggregatedResourcesLock.readLock().unlock();
+        }
+        return resourceSummary;
+    }
+
+    /**
+     * Store the resource summary received from a super peer replacing the previous summary of the super peer.
+     *
+     * @param node            The super peer which sent the summary
+     * @param resourceSummary The resource summary of the super peer
+     */
+    public void putSuperPeerResourceSummary(Node node, ResourceSummary resourceSummary) {
+        superPeerResourceSummaries.put(node, resourceSummary);
+    }
+
+    /**
+     * Get the resource summary of a super peer which had not expired.
+     *
+     * @param node The super peer
+     * @return The resource summary or null if there is no summary for the super peer
+     */
+    public ResourceSummary getSuperPeerResourceSummary(Node node) {
+        ResourceSummary resourceSummary = superPeerResourceSummaries.get(node);
+        if (resourceSummary != null && isExpired(resourceSummary, System.currentTimeMillis())) {
+            superPeerResourceSummaries.remove(node, resourceSummary);
+            resourceSummary = null;
+        }
+        return resourceSummary;
+    }
+
+    /**
+     * Filter the super peers which may have resources matching a query based on their resource summaries.
+     * Super peers without a resource summary are kept since nothing is known about their resources.
+     * A summary only covers the region of the super peer and therefore should only be used at the last hop.
+     *
+     * @param nodes        The super peers to be filtered
+     * @param resourceName The name of the resource queried
+     * @return The super peers which may have matching resources
+     */
+    public Set<Node> filterSuperPeersByResourceSummaries(Collection<Node> nodes, String resourceName) {
+        return nodes.stream()
+                .filter(node -> {
+                    ResourceSummary resourceSummary = getSuperPeerResourceSummary(node);
+                    return resourceSummary == null || resourceSummary.mightMatch(resourceName);
+                })
+                .collect(Collectors.toSet());
     }
 
     /**
      * Remove a node from the aggregated resources.
+     * The node is removed even if it had already been removed from the routing table.
      *
      * @param ip   The ip of the node to be removed from the resource index
      * @param port The port of the node to be removed from the resource index
      */
     public void removeNodeFromAggregatedResources(String ip, int port) {
-        Node node = serviceHolder.getRouter().getRoutingTable().get(ip, port);
-        if (node != null) {
-            aggregatedResourcesLock.readLock().lock();
-            try {
-                aggregatedResources.forEach(aggregatedResource -> aggregatedResource.removeNode(node));
-            } finally {
-                aggregatedResourcesLock.readLock().unlock();
+        Node node = new Node(ip, port);
+        resourceListVersions.remove(node);
+        aggregatedResourcesLock.writeLock().lock();
+        try {
+            Set<AggregatedResource> nodeResources = nodeAggregatedResources.remove(node);
+            if (nodeResources != null) {
+                for (AggregatedResource aggregatedResource : nodeResources) {
+                    aggregatedResource.removeNode(node);
+                    removeAggregatedResourceIfEmpty(aggregatedResource);
+                }
+                logger.info("Removed node " + node.toString() + " from " + nodeResources.size()
+                        + " aggregated resources.");
             }
-            removeEmptyAggregatedResources();
-        } else {
-            logger.warn("Request to remove unknown node " + ip + ":" + port + " ignored.");
+        } finally {
+            aggregatedResourcesLock.writeLock().unlock();
         }
+        serviceHolder.getRouter().getSerOkCache().removeNode(node);
     }
 
     @Override
     public void collectGarbage() {
         super.collectGarbage();
-        Set<Node> garbageNodes = aggregatedResources.stream().parallel()
-                .flatMap(aggregatedResource ->
-                        aggregatedResource.getAllNodes().stream().parallel()
-                                .filter(node -> !node.isActive())
-                ).collect(Collectors.toSet());
-
-        garbageNodes.forEach(node -> {
-            logger.info("Removed inactive node " + node.toString() + " from the routing table");
+        Set<Node> garbageNodes;
+        aggregatedResourcesLock.readLock().lock();
+        try {
+            garbageNodes = nodeAggregatedResources.keySet().stream()
+                    .filter(node -> !node.isActive())
+                    .collect(Collectors.toSet());
+        } finally {
+            aggregatedResourcesLock.readLock().unlock();
+        }
+
+        for (Node node : garbageNodes) {
+            logger.info("Removed inactive node " + node.toString() + " from the aggregated resources");
             removeNodeFromAggregatedResources(node.getIp(), node.getPort());
-        });
+        }
+
+        long currentTimeStamp = System.currentTimeMillis();
+        superPeerResourceSummaries.values()
+                .removeIf(resourceSummary -> isExpired(resourceSummary, currentTimeStamp));
     }
 
     /**
-     * Get an aggregated resource by the name.
-     * The name queried and the name of the resource returned will be equal.
+     * Add a node to an aggregated resource creating the aggregated resource if it does not exist.
+     * The aggregated resources write lock should be held by the caller.
      *
-     * @param resourceName The name of the resource that should be retrieved
-     * @return The aggregated resource
+     * @param resourceName The name of the resource
+     * @param node         The node which contains the resource
      */
-    private AggregatedResource getAggregatedResource(String resourceName) {
-        AggregatedResource requestedResource;
-        aggregatedResourcesLock.readLock().lock();
-        try {
-            requestedResource = aggregatedResources.stream().parallel()
-                    .filter(resource -> Objects.equals(resource.getName(), resourceName))
-                    .findAny()
-                    .orElse(null);
-        } finally {
-            aggregatedResourcesLock.readLock().unlock();
+    private void addAggregatedResource(String resourceName, Node node) {
+        AggregatedResource aggregatedResource = aggregatedResources.get(resourceName);
+        if (aggregatedResource == null) {
+            aggregatedResource = new AggregatedResource(resourceName);
+            aggregatedResources.put(resourceName, aggregatedResource);
+            aggregatedResourcesTokenIndex.add(aggregatedResource);
+            logger.info("Added resource " + aggregatedResource.toString() + " to aggregated resources.");
         }
-        return requestedResource;
+        aggregatedResource.addNode(node);
+        nodeAggregatedResources.computeIfAbsent(node, key -> new HashSet<>()).add(aggregatedResource);
     }
 
     /**
-     * Remove the aggregated resources which do not have any nodes.
+     * Remove a node from an aggregated resource.
+     * The aggregated resources write lock should be held by the caller.
+     *
+     * @param resourceName The name of the resource
+     * @param node         The node which contained the resource
+     * @return True if the node was removed from the resource
      */
-    private void removeEmptyAggregatedResources() {
-        aggregatedResourcesLock.writeLock().lock();
-        try {
-            Set<AggregatedResource> emptyResources = aggregatedResources.stream().parallel()
-                    .filter(aggregatedResource -> aggregatedResource.getNodeCount() == 0)
-                    .collect(Collectors.toSet());
+    private boolean removeAggregatedResource(String resourceName, Node node) {
+        AggregatedResource aggregatedResource = aggregatedResources.get(resourceName);
+        if (aggregatedResource == null) {
+            return false;
+        }
+        boolean isSuccessful = aggregatedResource.removeNode(node);
+        Set<AggregatedResource> nodeResources = nodeAggregatedResources.get(node);
+        if (nodeResources != null) {
+            nodeResources.remove(aggregatedResource);
+            if (nodeResources.isEmpty()) {
+                nodeAggregatedResources.remove(node);
+            }
+        }
+        removeAggregatedResourceIfEmpty(aggregatedResource);
+        return isSuccessful;
+    }
 
-            emptyResources.forEach(aggregatedResource -> {
-                if (aggregatedResources.remove(aggregatedResource)) {
-                    logger.info("Removed resource " + aggregatedResource.toString()
-                            + " from aggregated resources since it does not have any more nodes.");
-                } else {
-                    logger.info("Failed to remove resource " + aggregatedResource.toString()
-                            + " from aggregated resources although it does not have any more nodes.");
-                }
-            });
-        } finally {
-            aggregatedResourcesLock.writeLock().unlock();
+    /**
+     * Check whether a resource summary received from a super peer is too old to be used.
+     *
+     * @param resourceSummary  The resource summary
+     * @param currentTimeStamp The current time stamp
+     * @return True if the summary had expired
+     */
+    private boolean isExpired(ResourceSummary resourceSummary, long currentTimeStamp) {
+        return resourceSummary.getTimeStamp() + serviceHolder.getConfiguration().getResourceSummaryTimeToLive()
+                <= currentTimeStamp;
+    }
+
+    /**
+     * Remove an aggregated resource if it does not have any nodes.
+     * The aggregated resources write lock should be held by the caller.
+     *
+     * @param aggregatedResource The aggregated resource
+     */
+    private void removeAggregatedResourceIfEmpty(AggregatedResource aggregatedResource) {
+        if (aggregatedResource.getNodeCount() == 0
+                && aggregatedResources.remove(aggregatedResource.getName(), aggregatedResource)) {
+            aggregatedResourcesTokenIndex.remove(aggregatedResource);
+            logger.info("Removed resource " + aggregatedResource.toString()
+                    + " from aggregated resources since it does not have any more nodes.");
         }
     }
 }
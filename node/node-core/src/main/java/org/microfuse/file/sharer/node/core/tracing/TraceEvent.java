@@ -0,0 +1,115 @@
+package org.microfuse.file.sharer.node.core.tracing;
+
+import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+
+import java.io.Serializable;
+import java.rmi.RemoteException;
+
+/**
+ * An event to be sent to the tracer.
+ * <p>
+ * Each event corresponds to a call to one of the notification methods in the tracer.
+ * Events are queued by the trace manager and sent to the tracer in batches.
+ */
+public class TraceEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private TraceEventType type;
+    private long timeStamp;
+    private String ip1;
+    private int port1;
+    private String ip2;
+    private int port2;
+    private Message message;
+
+    public TraceEvent(TraceEventType type, long timeStamp, String ip, int port) {
+        this(type, timeStamp, ip, port, null, 0, null);
+    }
+
+    public TraceEvent(TraceEventType type, long timeStamp, String ip1, int port1, String ip2, int port2) {
+        this(type, timeStamp, ip1, port1, ip2, port2, null);
+    }
+
+    public TraceEvent(TraceEventType type, long timeStamp, String ip1, int port1, String ip2, int port2,
+                      Message message) {
+        this.type = type;
+        this.timeStamp = timeStamp;
+        this.ip1 = ip1;
+        this.port1 = port1;
+        this.ip2 = ip2;
+        this.port2 = port2;
+        // The message is copied since it can be changed while routing before the event is sent to the tracer
+        this.message = message == null ? null : message.clone();
+    }
+
+    /**
+     * Apply this event to a tracer by calling the notification method of the event type.
+     *
+     * @param tracer The tracer to which the event should be applied
+     * @throws RemoteException If calling the tracer failed
+     */
+    public void applyTo(Tracer tracer) throws RemoteException {
+        switch (type) {
+            case ADD_UNSTRUCTURED_NETWORK_CONNECTION:
+                tracer.addUnstructuredNetworkConnection(timeStamp, ip1, port1, ip2, port2);
+                break;
+            case ADD_SUPER_PEER_NETWORK_CONNECTION:
+                tracer.addSuperPeerNetworkConnection(timeStamp, ip1, port1, ip2, port2);
+                break;
+            case ADD_ASSIGNED_ORDINARY_PEER_CONNECTION:
+                tracer.addAssignedOrdinaryPeerConnection(timeStamp, ip1, port1, ip2, port2);
+                break;
+            case REMOVE_UNSTRUCTURED_NETWORK_CONNECTION:
+                tracer.removeUnstructuredNetworkConnection(timeStamp, ip1, port1, ip2, port2);
+                break;
+            case REMOVE_SUPER_PEER_NETWORK_CONNECTION:
+                tracer.removeSuperPeerNetworkConnection(timeStamp, ip1, port1, ip2, port2);
+                break;
+            case REMOVE_ASSIGNED_ORDINARY_PEER_CONNECTION:
+                tracer.removeAssignedOrdinaryPeerConnection(timeStamp, ip1, port1, ip2, port2);
+                break;
+            case PROMOTE_TO_SUPER_PEER:
+                tracer.promoteToSuperPeer(timeStamp, ip1, port1);
+                break;
+            case DEMOTE_TO_ORDINARY_PEER:
+                tracer.demoteToOrdinaryPeer(timeStamp, ip1, port1);
+                break;
+            case NOTIFY_MESSAGE_SEND:
+                tracer.notifyMessageSend(timeStamp, ip1, port1, ip2, port2, message);
+                break;
+            case NOTIFY_MESSAGE_RECEIVED:
+                tracer.notifyMessageReceived(timeStamp, ip1, port1, ip2, port2, message);
+                break;
+            default:
+                throw new IllegalStateException("Unknown trace event type " + type);
+        }
+    }
+
+    public TraceEventType getType() {
+        return type;
+    }
+
+    public long getTimeStamp() {
+        return timeStamp;
+    }
+
+    public String getIp1() {
+        return ip1;
+    }
+
+    public int getPort1() {
+        return port1;
+    }
+
+    public String getIp2() {
+        return ip2;
+    }
+
+    public int getPort2() {
+        return port2;
+    }
+
+    public Message getMessage() {
+        return message;
+    }
+}
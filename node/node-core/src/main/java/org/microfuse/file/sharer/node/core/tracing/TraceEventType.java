@@ -0,0 +1,17 @@
+package org.microfuse.file.sharer.node.core.tracing;
+
+/**
+ * Types of the events sent to the tracer in batches.
+ */
+public enum TraceEventType {
+    ADD_UNSTRUCTURED_NETWORK_CONNECTION,
+    ADD_SUPER_PEER_NETWORK_CONNECTION,
+    ADD_ASSIGNED_ORDINARY_PEER_CONNECTION,
+    REMOVE_UNSTRUCTURED_NETWORK_CONNECTION,
+    REMOVE_SUPER_PEER_NETWORK_CONNECTION,
+    REMOVE_ASSIGNED_ORDINARY_PEER_CONNECTION,
+    PROMOTE_TO_SUPER_PEER,
+    DEMOTE_TO_ORDINARY_PEER,
+    NOTIFY_MESSAGE_SEND,
+    NOTIFY_MESSAGE_RECEIVED
+}
@@ -5,6 +5,7 @@ import org.microfuse.file.sharer.node.core.communication.routing.table.RoutingTa
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 
 /**
  * Tracer interface.
@@ -134,4 +135,11 @@ public interface Tracer extends Remote {
     void notifyMessageReceived(long timeStamp, String ip, int port, String receiverIP, int receiverPort,
                                Message message)
             throws RemoteException;
+
+    /**
+     * Notify of a batch of events in the order in which they occurred.
+     *
+     * @param traceEvents The events which occurred
+     */
+    void notifyEvents(List<TraceEvent> traceEvents) throws RemoteException;
 }
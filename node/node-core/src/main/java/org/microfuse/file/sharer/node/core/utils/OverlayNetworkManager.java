@@ -14,11 +14,19 @@ import org.microfuse.file.sharer.node.core.communication.routing.table.RoutingTa
 import org.microfuse.file.sharer.node.core.communication.routing.table.SuperPeerRoutingTable;
 import org.microfuse.file.sharer.node.core.resource.OwnedResource;
 import org.microfuse.file.sharer.node.core.resource.index.ResourceIndex;
+import org.microfuse.file.sharer.node.core.resource.index.ResourceIndexListener;
+import org.microfuse.file.sharer.node.core.resource.index.ResourceListDelta;
+import org.microfuse.file.sharer.node.core.resource.index.ResourceSummary;
 import org.microfuse.file.sharer.node.core.resource.index.SuperPeerResourceIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -27,21 +35,28 @@ import java.util.stream.Collectors;
 /**
  * Overlay Network Manager.
  */
-public class OverlayNetworkManager implements RouterListener {
+public class OverlayNetworkManager implements RouterListener, ResourceIndexListener {
     private static final Logger logger = LoggerFactory.getLogger(OverlayNetworkManager.class);
 
     private ServiceHolder serviceHolder;
 
     private final Lock gossipingLock;
-    private Thread gossipingThread;
+    private ScheduledTask gossipingTask;
     private boolean gossipingEnabled;
-    private Thread serSuperPeerStartThread;
-    private Thread serSuperPeerTimeoutThread;
+    private volatile Timeout serSuperPeerStartTimeout;
+    private volatile Timeout serSuperPeerTimeout;
 
     private final Lock fullSuperPeerCacheLock;
     private Set<Node> fullSuperPeerCache;
     private long sequenceNumber;
 
+    private volatile ResourceSummary sentResourceSummary;
+
+    private final Lock resourceListSyncLock;
+    private Timeout resourceListSyncTimeout;
+    private Node resourceListSyncSuperPeer;
+    private long syncedResourceListVersion;
+
     public OverlayNetworkManager(ServiceHolder serviceHolder) {
         gossipingLock = new ReentrantLock();
         gossipingEnabled = false;
@@ -50,8 +65,11 @@ public class OverlayNetworkManager implements RouterListener {
         fullSuperPeerCache = new HashSet<>();
         sequenceNumber = 0;
 
+        resourceListSyncLock = new ReentrantLock();
+
         this.serviceHolder = serviceHolder;
         this.serviceHolder.getRouter().registerListener(this);
+        this.serviceHolder.getResourceIndex().registerListener(this);
     }
 
     @Override
@@ -103,6 +121,12 @@ public class OverlayNetworkManager implements RouterListener {
             case LIST_SUPER_PEER_CONNECTIONS_OK:
                 handleListSuperPeerConnectionsOkMessage(fromNode, message);
                 break;
+            case RESOURCE_SUMMARY:
+                handleResourceSummaryMessage(fromNode, message);
+                break;
+            case RESOURCES_DELTA:
+                handleResourcesDeltaMessage(fromNode, message);
+                break;
             default:
                 logger.info("Ignored message " + message.toString() + " of unrecognized type");
         }
@@ -120,6 +144,34 @@ public class OverlayNetworkManager implements RouterListener {
         }
     }
 
+    @Override
+    public void onOwnedResourcesChanged(long resourceListVersion) {
+        if (serviceHolder.getPeerType() == PeerType.SUPER_PEER) {
+            RoutingTable routingTable = serviceHolder.getRouter().getRoutingTable();
+            if (routingTable instanceof SuperPeerRoutingTable) {
+                sendResourceSummary((SuperPeerRoutingTable) routingTable, true);
+            }
+        } else {
+            // Waiting for a while so that a burst of changes is sent in a single delta
+            resourceListSyncLock.lock();
+            try {
+                if (resourceListSyncTimeout == null) {
+                    resourceListSyncTimeout = serviceHolder.getTimeoutService().schedule(() -> {
+                        resourceListSyncLock.lock();
+                        try {
+                            resourceListSyncTimeout = null;
+                        } finally {
+                            resourceListSyncLock.unlock();
+                        }
+                        syncResourceList();
+                    }, serviceHolder.getConfiguration().getResourceListSyncDelay());
+                }
+            } finally {
+                resourceListSyncLock.unlock();
+            }
+        }
+    }
+
     /**
      * Enable gossiping.
      */
@@ -128,19 +180,10 @@ public class OverlayNetworkManager implements RouterListener {
         try {
             if (!gossipingEnabled) {
                 gossipingEnabled = true;
-                gossipingThread = new Thread(() -> {
-                    while (gossipingEnabled) {
-                        try {
-                            Thread.sleep(serviceHolder.getConfiguration().getGossipingInterval());
-                        } catch (InterruptedException ignored) {
-                        }
-                        gossip();
-                    }
-                    logger.info("Stopped gossiping");
-                });
-                gossipingThread.setPriority(Thread.MIN_PRIORITY);
-                gossipingThread.setDaemon(true);
-                gossipingThread.start();
+                gossipingTask = serviceHolder.getTaskScheduler().schedulePeriodically(
+                        TaskSubsystem.GOSSIP, this::gossip,
+                        () -> serviceHolder.getConfiguration().getGossipingInterval()
+                );
                 logger.info("Started gossiping");
             }
         } finally {
@@ -156,9 +199,11 @@ public class OverlayNetworkManager implements RouterListener {
         try {
             if (gossipingEnabled) {
                 gossipingEnabled = false;
-                if (gossipingThread != null) {
-                    gossipingThread.interrupt();
+                if (gossipingTask != null) {
+                    serviceHolder.getTaskScheduler().cancel(gossipingTask);
+                    gossipingTask = null;
                 }
+                logger.info("Stopped gossiping");
             }
         } finally {
             gossipingLock.unlock();
@@ -207,6 +252,8 @@ public class OverlayNetworkManager implements RouterListener {
                 OrdinaryPeerRoutingTable ordinaryPeerRoutingTable = (OrdinaryPeerRoutingTable) routingTable;
                 if (ordinaryPeerRoutingTable.getAssignedSuperPeer() == null) {
                     searchForSuperPeer();
+                } else {
+                    syncResourceList();
                 }
             }
         } else {
@@ -224,6 +271,7 @@ public class OverlayNetworkManager implements RouterListener {
 
             if (routingTable instanceof SuperPeerRoutingTable) {
                 requestOwnedResourcesList((SuperPeerRoutingTable) routingTable);
+                sendResourceSummary((SuperPeerRoutingTable) routingTable, false);
             } else {
                 logger.error("Inconsistent ordinary peer routing table in super peer");
             }
@@ -312,54 +360,53 @@ public class OverlayNetworkManager implements RouterListener {
 
     /**
      * Search for a super peer in the system.
+     * The search is started after a random delay to avoid all the nodes searching at the same time.
      */
     public void searchForSuperPeer() {
-        if (serSuperPeerStartThread == null) {
-            serSuperPeerStartThread = new Thread(() -> {
-                try {
-                    Thread.sleep(ThreadLocalRandom.current().nextInt(
+        if (serSuperPeerStartTimeout == null) {
+            serSuperPeerStartTimeout = serviceHolder.getTimeoutService().schedule(
+                    this::startSearchForSuperPeer,
+                    ThreadLocalRandom.current().nextInt(
                             serviceHolder.getConfiguration().getSerSuperPeerTimeout(),
                             serviceHolder.getConfiguration().getSerSuperPeerTimeout() * 2
-                    ));
-                } catch (InterruptedException ignored) {
-                }
-                logger.info("Searching for super peer");
-                if (serSuperPeerStartThread != null) {
-                    RoutingTable routingTable = serviceHolder.getRouter().getRoutingTable();
-                    if (routingTable instanceof OrdinaryPeerRoutingTable) {
-                        OrdinaryPeerRoutingTable ordinaryPeerRoutingTable = (OrdinaryPeerRoutingTable) routingTable;
-                        if (ordinaryPeerRoutingTable.getAssignedSuperPeer() == null) {
-                            Message searchSuperPeerMessage = new Message();
-                            searchSuperPeerMessage.setType(MessageType.SER_SUPER_PEER);
-                            searchSuperPeerMessage.setData(MessageIndexes.SER_SUPER_PEER_SEQUENCE_NUMBER,
-                                    Long.toString(sequenceNumber++));
-                            searchSuperPeerMessage.setData(MessageIndexes.SER_SUPER_PEER_SOURCE_IP,
-                                    serviceHolder.getConfiguration().getIp());
-                            searchSuperPeerMessage.setData(MessageIndexes.SER_SUPER_PEER_SOURCE_PORT,
-                                    Integer.toString(serviceHolder.getConfiguration().getPeerListeningPort()));
-                            searchSuperPeerMessage.setData(MessageIndexes.SER_SUPER_PEER_HOP_COUNT,
-                                    Integer.toString(NodeConstants.INITIAL_HOP_COUNT));
-                            serviceHolder.getRouter().route(searchSuperPeerMessage);
-
-                            serSuperPeerTimeoutThread = new Thread(() -> {
-                                try {
-                                    Thread.sleep(serviceHolder.getConfiguration().getSerSuperPeerTimeout());
-                                } catch (InterruptedException ignored) {
-                                }
-                                logger.info("Search for super peer timed out");
-                                if (serSuperPeerTimeoutThread != null) {
-                                    selfPromoteSuperPeer(false);
-                                    serSuperPeerTimeoutThread = null;
-                                }
-                            });
-                            serSuperPeerTimeoutThread.start();
+                    )
+            );
+        }
+    }
+
+    /**
+     * Send the search for super peer message and wait for a reply.
+     * The current node is promoted to a super peer if no super peer replies before the timeout.
+     */
+    private void startSearchForSuperPeer() {
+        logger.info("Searching for super peer");
+        if (serSuperPeerStartTimeout != null) {
+            RoutingTable routingTable = serviceHolder.getRouter().getRoutingTable();
+            if (routingTable instanceof OrdinaryPeerRoutingTable) {
+                OrdinaryPeerRoutingTable ordinaryPeerRoutingTable = (OrdinaryPeerRoutingTable) routingTable;
+                if (ordinaryPeerRoutingTable.getAssignedSuperPeer() == null) {
+                    Message searchSuperPeerMessage = new Message();
+                    searchSuperPeerMessage.setType(MessageType.SER_SUPER_PEER);
+                    searchSuperPeerMessage.setData(MessageIndexes.SER_SUPER_PEER_SEQUENCE_NUMBER,
+                            Long.toString(sequenceNumber++));
+                    searchSuperPeerMessage.setData(MessageIndexes.SER_SUPER_PEER_SOURCE_IP,
+                            serviceHolder.getConfiguration().getIp());
+                    searchSuperPeerMessage.setData(MessageIndexes.SER_SUPER_PEER_SOURCE_PORT,
+                            Integer.toString(serviceHolder.getConfiguration().getPeerListeningPort()));
+                    searchSuperPeerMessage.setData(MessageIndexes.SER_SUPER_PEER_HOP_COUNT,
+                            Integer.toString(NodeConstants.INITIAL_HOP_COUNT));
+                    serviceHolder.getRouter().route(searchSuperPeerMessage);
+
+                    serSuperPeerTimeout = serviceHolder.getTimeoutService().schedule(() -> {
+                        logger.info("Search for super peer timed out");
+                        if (serSuperPeerTimeout != null) {
+                            selfPromoteSuperPeer(false);
+                            serSuperPeerTimeout = null;
                         }
-                    }
-                    serSuperPeerStartThread = null;
+                    }, serviceHolder.getConfiguration().getSerSuperPeerTimeout());
                 }
-            });
-            serSuperPeerStartThread.setDaemon(true);
-            serSuperPeerStartThread.start();
+            }
+            serSuperPeerStartTimeout = null;
         }
     }
 
@@ -368,17 +415,98 @@ public class OverlayNetworkManager implements RouterListener {
      */
     public void cancelSearchForSuperPeer() {
         logger.info("Cancelling search for super peer");
-        if (serSuperPeerStartThread != null) {
-            serSuperPeerStartThread.interrupt();
-            Thread thread = serSuperPeerStartThread;
-            serSuperPeerStartThread = null;
-            thread.interrupt();
+        Timeout startTimeout = serSuperPeerStartTimeout;
+        serSuperPeerStartTimeout = null;
+        if (startTimeout != null) {
+            startTimeout.cancel();
+        }
+
+        Timeout timeout = serSuperPeerTimeout;
+        serSuperPeerTimeout = null;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * Send the changes to the owned resources list to the assigned super peer.
+     * <p>
+     * The changes since the version last sent to the assigned super peer are sent as a delta.
+     * An empty delta is sent if nothing changed so that the super peer can detect lost deltas.
+     * The whole list is sent if the super peer changed or if the journal no longer holds all the changes.
+     * This will not be called by super peers.
+     */
+    public void syncResourceList() {
+        if (serviceHolder.getPeerType() != PeerType.ORDINARY_PEER) {
+            return;
+        }
+        RoutingTable routingTable = serviceHolder.getRouter().getRoutingTable();
+        if (!(routingTable instanceof OrdinaryPeerRoutingTable)) {
+            logger.error("Inconsistent super peer routing table in ordinary peer");
+            return;
+        }
+        Node superPeer = ((OrdinaryPeerRoutingTable) routingTable).getAssignedSuperPeer();
+        if (superPeer == null) {
+            return;
+        }
+
+        ResourceIndex resourceIndex = serviceHolder.getResourceIndex();
+        resourceListSyncLock.lock();
+        try {
+            ResourceListDelta resourceListDelta = null;
+            if (Objects.equals(superPeer, resourceListSyncSuperPeer)) {
+                resourceListDelta = resourceIndex.getResourceListDelta(syncedResourceListVersion);
+            }
+
+            if (resourceListDelta == null) {
+                logger.info("Sending the whole owned resources list to super peer " + superPeer.toString());
+                syncedResourceListVersion = sendOwnedResourcesList(superPeer.getIp(), superPeer.getPort());
+            } else {
+                Message resourcesDeltaMessage = new Message();
+                resourcesDeltaMessage.setType(MessageType.RESOURCES_DELTA);
+                resourcesDeltaMessage.setData(MessageIndexes.RESOURCES_DELTA_IP,
+                        serviceHolder.getConfiguration().getIp());
+                resourcesDeltaMessage.setData(MessageIndexes.RESOURCES_DELTA_PORT,
+                        Integer.toString(serviceHolder.getConfiguration().getPeerListeningPort()));
+                resourcesDeltaMessage.setData(MessageIndexes.RESOURCES_DELTA_BASE_VERSION,
+                        Long.toString(resourceListDelta.getBaseVersion()));
+                resourcesDeltaMessage.setData(MessageIndexes.RESOURCES_DELTA_VERSION,
+                        Long.toString(resourceListDelta.getVersion()));
+                resourcesDeltaMessage.setData(MessageIndexes.RESOURCES_DELTA_ADDED_COUNT,
+                        Integer.toString(resourceListDelta.getAddedResourceNames().size()));
+                resourcesDeltaMessage.setData(MessageIndexes.RESOURCES_DELTA_REMOVED_COUNT,
+                        Integer.toString(resourceListDelta.getRemovedResourceNames().size()));
+                int index = MessageIndexes.RESOURCES_DELTA_RESOURCE_START_INDEX;
+                for (String resourceName : resourceListDelta.getAddedResourceNames()) {
+                    resourcesDeltaMessage.setData(index++, resourceName);
+                }
+                for (String resourceName : resourceListDelta.getRemovedResourceNames()) {
+                    resourcesDeltaMessage.setData(index++, resourceName);
+                }
+
+                logger.info("Sending owned resources delta from version " + resourceListDelta.getBaseVersion()
+                        + " to version " + resourceListDelta.getVersion() + " to super peer " + superPeer.toString());
+                serviceHolder.getRouter().sendMessage(superPeer, resourcesDeltaMessage);
+                syncedResourceListVersion = resourceListDelta.getVersion();
+            }
+            resourceListSyncSuperPeer = superPeer;
+        } finally {
+            resourceListSyncLock.unlock();
         }
+    }
 
-        if (serSuperPeerTimeoutThread != null) {
-            Thread thread = serSuperPeerTimeoutThread;
-            serSuperPeerTimeoutThread = null;
-            thread.interrupt();
+    /**
+     * Cancel the pending owned resources list synchronization.
+     */
+    public void cancelResourceListSync() {
+        resourceListSyncLock.lock();
+        try {
+            if (resourceListSyncTimeout != null) {
+                resourceListSyncTimeout.cancel();
+                resourceListSyncTimeout = null;
+            }
+        } finally {
+            resourceListSyncLock.unlock();
         }
     }
 
@@ -706,7 +834,7 @@ public class OverlayNetworkManager implements RouterListener {
      * @param message  The message received
      */
     private void handleSerSuperPeerOkMessage(Node fromNode, Message message) {
-        if (serSuperPeerStartThread != null) {
+        if (serSuperPeerStartTimeout != null) {
             cancelSearchForSuperPeer();
             connectToSuperPeer(message.getData(MessageIndexes.SER_SUPER_PEER_OK_IP),
                     Integer.parseInt(message.getData(MessageIndexes.SER_SUPER_PEER_OK_PORT)));
@@ -875,6 +1003,7 @@ public class OverlayNetworkManager implements RouterListener {
                     if (serviceHolder.getRouter().getRoutingTable() instanceof OrdinaryPeerRoutingTable) {
                         ((OrdinaryPeerRoutingTable) serviceHolder.getRouter().getRoutingTable())
                                 .setAssignedSuperPeer(sourceIP, sourcePort);
+                        syncResourceList();
                     } else {
                         logger.warn("Inconsistent super peer routing table in ordinary peer");
                     }
@@ -900,25 +1029,25 @@ public class OverlayNetworkManager implements RouterListener {
      * @param message  The message received
      */
     private void handleListResourcesMessage(Node fromNode, Message message) {
-        Message replyMessage = new Message();
-        replyMessage.setType(MessageType.LIST_RESOURCES_OK);
-        replyMessage.setData(MessageIndexes.LIST_RESOURCES_OK_IP,
-                serviceHolder.getConfiguration().getIp());
-        replyMessage.setData(MessageIndexes.LIST_RESOURCES_OK_PORT,
-                Integer.toString(serviceHolder.getConfiguration().getPeerListeningPort()));
+        String ip = message.getData(MessageIndexes.LIST_RESOURCES_IP);
+        int port = Integer.parseInt(message.getData(MessageIndexes.LIST_RESOURCES_PORT));
 
-        List<OwnedResource> ownedResources = new ArrayList<>(serviceHolder.getResourceIndex().getAllOwnedResources());
-        replyMessage.setData(MessageIndexes.LIST_RESOURCES_OK_RESOURCE_COUNT, Integer.toString(ownedResources.size()));
-        for (int i = 0; i < ownedResources.size(); i++) {
-            replyMessage.setData(MessageIndexes.LIST_RESOURCES_OK_RESOURCE_START_INDEX + i,
-                    ownedResources.get(i).getName());
-        }
+        resourceListSyncLock.lock();
+        try {
+            long version = sendOwnedResourcesList(ip, port);
 
-        serviceHolder.getRouter().sendMessage(
-                message.getData(MessageIndexes.LIST_RESOURCES_IP),
-                Integer.parseInt(message.getData(MessageIndexes.LIST_RESOURCES_PORT)),
-                replyMessage
-        );
+            // Deltas can be sent to the assigned super peer from the version sent
+            RoutingTable routingTable = serviceHolder.getRouter().getRoutingTable();
+            if (routingTable instanceof OrdinaryPeerRoutingTable) {
+                Node superPeer = ((OrdinaryPeerRoutingTable) routingTable).getAssignedSuperPeer();
+                if (superPeer != null && Objects.equals(superPeer.getIp(), ip) && superPeer.getPort() == port) {
+                    resourceListSyncSuperPeer = superPeer;
+                    syncedResourceListVersion = version;
+                }
+            }
+        } finally {
+            resourceListSyncLock.unlock();
+        }
     }
 
     /**
@@ -947,8 +1076,12 @@ public class OverlayNetworkManager implements RouterListener {
                             resourceNames.add(message.getData(
                                     MessageIndexes.LIST_RESOURCES_OK_RESOURCE_START_INDEX + i));
                         }
-                        superPeerResourceIndex.removeNodeFromAggregatedResources(node.getIp(), node.getPort());
-                        superPeerResourceIndex.addAllAggregatedResources(resourceNames, node.getIp(), node.getPort());
+                        int versionIndex = MessageIndexes.LIST_RESOURCES_OK_RESOURCE_START_INDEX + resourceCount;
+                        Long version = versionIndex < message.getData().size()
+                                ? Long.parseLong(message.getData(versionIndex)) : null;
+                        superPeerResourceIndex.replaceAllAggregatedResources(resourceNames, node.getIp(),
+                                node.getPort(), version);
+                        sendResourceSummary(superPeerRoutingTable, true);
                     } else {
                         logger.warn("Dropped message " + message.toString()
                                 + " received from an unassigned ordinary peer");
@@ -1106,25 +1239,229 @@ public class OverlayNetworkManager implements RouterListener {
         }
     }
 
+    /**
+     * Handle RESOURCES_DELTA type messages.
+     * The whole list is requested from the ordinary peer if the delta does not follow the version last received.
+     *
+     * @param fromNode The node from which the message was received
+     * @param message  The message received
+     */
+    private void handleResourcesDeltaMessage(Node fromNode, Message message) {
+        if (serviceHolder.getPeerType() == PeerType.SUPER_PEER) {
+            RoutingTable routingTable = serviceHolder.getRouter().getRoutingTable();
+            ResourceIndex resourceIndex = serviceHolder.getResourceIndex();
+            if (routingTable instanceof SuperPeerRoutingTable && resourceIndex instanceof SuperPeerResourceIndex) {
+                SuperPeerRoutingTable superPeerRoutingTable = (SuperPeerRoutingTable) routingTable;
+                SuperPeerResourceIndex superPeerResourceIndex = (SuperPeerResourceIndex) resourceIndex;
+                Node node = superPeerRoutingTable.getAssignedOrdinaryNetworkRoutingTableNode(
+                        message.getData(MessageIndexes.RESOURCES_DELTA_IP),
+                        Integer.parseInt(message.getData(MessageIndexes.RESOURCES_DELTA_PORT))
+                );
+                ResourceListDelta resourceListDelta = node != null ? parseResourceListDelta(message) : null;
+                if (node == null) {
+                    logger.warn("Dropped message " + message.toString()
+                            + " received from an unassigned ordinary peer");
+                } else if (resourceListDelta != null) {
+                    long baseVersion = resourceListDelta.getBaseVersion();
+                    long version = resourceListDelta.getVersion();
+                    Long knownVersion = superPeerResourceIndex.getResourceListVersion(node);
+                    if (knownVersion != null && knownVersion == version) {
+                        logger.info("Resource list of node " + node.toString() + " is up to date at version "
+                                + version);
+                    } else if (superPeerResourceIndex.applyResourceListDelta(node, resourceListDelta)) {
+                        logger.info("Applied resource list delta of node " + node.toString() + " from version "
+                                + baseVersion + " to version " + version);
+                        if (!resourceListDelta.isEmpty()) {
+                            sendResourceSummary(superPeerRoutingTable, true);
+                        }
+                    } else {
+                        logger.info("Requesting the whole resource list of node " + node.toString()
+                                + " since the delta from version " + baseVersion + " does not follow version "
+                                + knownVersion);
+                        requestOwnedResourcesList(node);
+                    }
+                }
+            } else {
+                logger.error("Inconsistent ordinary peer routing table or resource index in super peer");
+            }
+        } else {
+            logger.warn(message.toString() + " Cannot be handled by ordinary peer");
+        }
+    }
+
+    /**
+     * Parse the resource list delta in a RESOURCES_DELTA message.
+     * Deltas with invalid versions or counts which do not match the resources in the message are discarded.
+     *
+     * @param message The RESOURCES_DELTA message
+     * @return The resource list delta or null if the delta is invalid
+     */
+    private ResourceListDelta parseResourceListDelta(Message message) {
+        ResourceListDelta resourceListDelta = null;
+        try {
+            long baseVersion = Long.parseLong(message.getData(MessageIndexes.RESOURCES_DELTA_BASE_VERSION));
+            long version = Long.parseLong(message.getData(MessageIndexes.RESOURCES_DELTA_VERSION));
+            int addedCount = Integer.parseInt(message.getData(MessageIndexes.RESOURCES_DELTA_ADDED_COUNT));
+            int removedCount = Integer.parseInt(message.getData(MessageIndexes.RESOURCES_DELTA_REMOVED_COUNT));
+            int startIndex = MessageIndexes.RESOURCES_DELTA_RESOURCE_START_INDEX;
+            if (addedCount >= 0 && removedCount >= 0
+                    && (long) startIndex + addedCount + removedCount <= message.getData().size()) {
+                resourceListDelta = new ResourceListDelta(baseVersion, version,
+                        message.getData().subList(startIndex, startIndex + addedCount),
+                        message.getData().subList(startIndex + addedCount, startIndex + addedCount + removedCount));
+            } else {
+                logger.warn("Dropped message " + message.toString() + " with invalid resource counts");
+            }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            logger.warn("Dropped malformed message " + message.toString(), e);
+        }
+        return resourceListDelta;
+    }
+
+    /**
+     * Handle RESOURCE_SUMMARY type messages.
+     * Summaries are only accepted from the super peers connected to this super peer.
+     *
+     * @param fromNode The node from which the message was received
+     * @param message  The message received
+     */
+    private void handleResourceSummaryMessage(Node fromNode, Message message) {
+        if (serviceHolder.getPeerType() == PeerType.SUPER_PEER) {
+            RoutingTable routingTable = serviceHolder.getRouter().getRoutingTable();
+            ResourceIndex resourceIndex = serviceHolder.getResourceIndex();
+            if (routingTable instanceof SuperPeerRoutingTable && resourceIndex instanceof SuperPeerResourceIndex) {
+                Node node = ((SuperPeerRoutingTable) routingTable).getSuperPeerNetworkRoutingTableNode(
+                        message.getData(MessageIndexes.RESOURCE_SUMMARY_IP),
+                        Integer.parseInt(message.getData(MessageIndexes.RESOURCE_SUMMARY_PORT))
+                );
+                if (node != null) {
+                    // The bits of an empty summary are an empty string which is dropped when parsing text messages
+                    String encodedBits = message.getData().size() > MessageIndexes.RESOURCE_SUMMARY_BITS
+                            ? message.getData(MessageIndexes.RESOURCE_SUMMARY_BITS) : "";
+                    try {
+                        ResourceSummary resourceSummary = ResourceSummary.decode(
+                                Integer.parseInt(message.getData(MessageIndexes.RESOURCE_SUMMARY_BIT_COUNT)),
+                                Integer.parseInt(message.getData(MessageIndexes.RESOURCE_SUMMARY_HASH_FUNCTION_COUNT)),
+                                encodedBits
+                        );
+                        ((SuperPeerResourceIndex) resourceIndex).putSuperPeerResourceSummary(node, resourceSummary);
+                    } catch (IllegalArgumentException e) {
+                        logger.warn("Dropped message " + message.toString() + " with an invalid resource summary", e);
+                    }
+                } else {
+                    logger.warn("Dropped message " + message.toString() + " received from an unconnected super peer");
+                }
+            } else {
+                logger.error("Inconsistent ordinary peer routing table or resource index in super peer");
+            }
+        } else {
+            logger.warn(message.toString() + " Cannot be handled by ordinary peer");
+        }
+    }
+
     /**
      * Request the owned resources list from the assigned ordinary peers.
+     * Only the ordinary peers of which the resource list version is not known are requested
+     * since the other ordinary peers send the changes to their lists.
      * This will not be called by ordinary peers.
      *
      * @param superPeerRoutingTable The super peer routing table used by the current node
      */
     private void requestOwnedResourcesList(SuperPeerRoutingTable superPeerRoutingTable) {
+        ResourceIndex resourceIndex = serviceHolder.getResourceIndex();
         Set<Node> nodes = superPeerRoutingTable.getAllAssignedOrdinaryNetworkNodes();
-        nodes.forEach(node -> {
-            Message listResourcesMessage = new Message();
-            listResourcesMessage.setType(MessageType.LIST_RESOURCES);
-            listResourcesMessage.setData(MessageIndexes.LIST_RESOURCES_IP,
-                    serviceHolder.getConfiguration().getIp());
-            listResourcesMessage.setData(MessageIndexes.LIST_RESOURCES_PORT,
-                    Integer.toString(serviceHolder.getConfiguration().getPeerListeningPort()));
+        nodes.stream()
+                .filter(node -> !(resourceIndex instanceof SuperPeerResourceIndex)
+                        || ((SuperPeerResourceIndex) resourceIndex).getResourceListVersion(node) == null)
+                .forEach(this::requestOwnedResourcesList);
+    }
 
-            logger.info("Requesting to list owned resource from node " + node.toString());
-            serviceHolder.getRouter().sendMessage(node, listResourcesMessage);
-        });
+    /**
+     * Request the owned resources list from an assigned ordinary peer.
+     *
+     * @param node The ordinary peer from which the list should be requested
+     */
+    private void requestOwnedResourcesList(Node node) {
+        Message listResourcesMessage = new Message();
+        listResourcesMessage.setType(MessageType.LIST_RESOURCES);
+        listResourcesMessage.setData(MessageIndexes.LIST_RESOURCES_IP,
+                serviceHolder.getConfiguration().getIp());
+        listResourcesMessage.setData(MessageIndexes.LIST_RESOURCES_PORT,
+                Integer.toString(serviceHolder.getConfiguration().getPeerListeningPort()));
+
+        logger.info("Requesting to list owned resource from node " + node.toString());
+        serviceHolder.getRouter().sendMessage(node, listResourcesMessage);
+    }
+
+    /**
+     * Send the whole owned resources list with its version.
+     * The version is read before the resources so that the list contains at least the changes up to the version.
+     *
+     * @param ip   The ip of the node to which the list should be sent
+     * @param port The port of the node to which the list should be sent
+     * @return The version of the list sent
+     */
+    private long sendOwnedResourcesList(String ip, int port) {
+        ResourceIndex resourceIndex = serviceHolder.getResourceIndex();
+        long version = resourceIndex.getResourceListVersion();
+        List<OwnedResource> ownedResources = new ArrayList<>(resourceIndex.getAllOwnedResources());
+
+        Message listResourcesOkMessage = new Message();
+        listResourcesOkMessage.setType(MessageType.LIST_RESOURCES_OK);
+        listResourcesOkMessage.setData(MessageIndexes.LIST_RESOURCES_OK_IP,
+                serviceHolder.getConfiguration().getIp());
+        listResourcesOkMessage.setData(MessageIndexes.LIST_RESOURCES_OK_PORT,
+                Integer.toString(serviceHolder.getConfiguration().getPeerListeningPort()));
+        listResourcesOkMessage.setData(MessageIndexes.LIST_RESOURCES_OK_RESOURCE_COUNT,
+                Integer.toString(ownedResources.size()));
+        for (int i = 0; i < ownedResources.size(); i++) {
+            listResourcesOkMessage.setData(MessageIndexes.LIST_RESOURCES_OK_RESOURCE_START_INDEX + i,
+                    ownedResources.get(i).getName());
+        }
+        listResourcesOkMessage.setData(
+                MessageIndexes.LIST_RESOURCES_OK_RESOURCE_START_INDEX + ownedResources.size(),
+                Long.toString(version));
+
+        serviceHolder.getRouter().sendMessage(ip, port, listResourcesOkMessage);
+        return version;
+    }
+
+    /**
+     * Send the resource summary of this node to the connected super peers.
+     * This will not be called by ordinary peers.
+     *
+     * @param superPeerRoutingTable The super peer routing table used by the current node
+     * @param onlyIfChanged         True if the summary should only be sent if it changed since it was last sent
+     */
+    private void sendResourceSummary(SuperPeerRoutingTable superPeerRoutingTable, boolean onlyIfChanged) {
+        ResourceIndex resourceIndex = serviceHolder.getResourceIndex();
+        if (resourceIndex instanceof SuperPeerResourceIndex) {
+            ResourceSummary resourceSummary = ((SuperPeerResourceIndex) resourceIndex).createResourceSummary();
+            if (onlyIfChanged && Objects.equals(resourceSummary, sentResourceSummary)) {
+                return;
+            }
+            sentResourceSummary = resourceSummary;
+
+            String encodedBits = resourceSummary.encode();
+            superPeerRoutingTable.getAllSuperPeerNetworkNodes().forEach(node -> {
+                Message resourceSummaryMessage = new Message();
+                resourceSummaryMessage.setType(MessageType.RESOURCE_SUMMARY);
+                resourceSummaryMessage.setData(MessageIndexes.RESOURCE_SUMMARY_IP,
+                        serviceHolder.getConfiguration().getIp());
+                resourceSummaryMessage.setData(MessageIndexes.RESOURCE_SUMMARY_PORT,
+                        Integer.toString(serviceHolder.getConfiguration().getPeerListeningPort()));
+                resourceSummaryMessage.setData(MessageIndexes.RESOURCE_SUMMARY_BIT_COUNT,
+                        Integer.toString(resourceSummary.getBitCount()));
+                resourceSummaryMessage.setData(MessageIndexes.RESOURCE_SUMMARY_HASH_FUNCTION_COUNT,
+                        Integer.toString(resourceSummary.getHashFunctionCount()));
+                resourceSummaryMessage.setData(MessageIndexes.RESOURCE_SUMMARY_BITS, encodedBits);
+
+                logger.info("Sending resource summary to node " + node.toString());
+                serviceHolder.getRouter().sendMessage(node, resourceSummaryMessage);
+            });
+        } else {
+            logger.error("Inconsistent ordinary peer resource index in super peer");
+        }
     }
 
     /**
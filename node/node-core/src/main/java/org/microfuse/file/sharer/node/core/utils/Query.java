@@ -0,0 +1,169 @@
+package org.microfuse.file.sharer.node.core.utils;
+
+import org.microfuse.file.sharer.node.core.resource.AggregatedResource;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A query started by this node.
+ * <p>
+ * The query is identified by the sequence number of the SER message used to search.
+ * The query runs until its deadline passes, until it has received the maximum number of results or until it is
+ * stopped. Once completed the SER_OK messages received for the query are ignored.
+ * The handle can be used to wait for the query to complete instead of waiting for the whole flood.
+ */
+public class Query {
+    private final long id;
+    private final String queryString;
+    private final long startTimeStamp;
+    private final long deadline;
+    private final int maxResults;
+    private final QueryResults results;
+    private final AtomicBoolean completed;
+    private final CountDownLatch completionLatch;
+    private volatile long completionTimeStamp;
+    private volatile Timeout timeout;
+    private volatile boolean servedFromCache;
+
+    public Query(long id, String queryString, long timeout, int maxResults) {
+        this.id = id;
+        this.queryString = queryString;
+        this.maxResults = Math.max(maxResults, 1);
+        startTimeStamp = System.currentTimeMillis();
+        deadline = startTimeStamp + timeout;
+        results = new QueryResults();
+        completed = new AtomicBoolean(false);
+        completionLatch = new CountDownLatch(1);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getQueryString() {
+        return queryString;
+    }
+
+    public long getStartTimeStamp() {
+        return startTimeStamp;
+    }
+
+    public long getDeadline() {
+        return deadline;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    /**
+     * Get the results received for the query.
+     *
+     * @return A copy of the list of results
+     */
+    public List<AggregatedResource> getResults() {
+        return results.getResources();
+    }
+
+    /**
+     * Get the number of distinct resources received for the query.
+     *
+     * @return The number of results
+     */
+    public int getResultCount() {
+        return results.getResourceCount();
+    }
+
+    /**
+     * Check whether the maximum number of results had been received.
+     *
+     * @return True if no more results are needed
+     */
+    public boolean hasEnoughResults() {
+        return results.getResourceCount() >= maxResults;
+    }
+
+    public boolean isCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * Get the time at which the query completed.
+     *
+     * @return The completion timestamp or zero if the query is still running
+     */
+    public long getCompletionTimeStamp() {
+        return completionTimeStamp;
+    }
+
+    /**
+     * Check whether the results were taken from the query result cache instead of querying the network.
+     *
+     * @return True if the query was served from the cache
+     */
+    public boolean isServedFromCache() {
+        return servedFromCache;
+    }
+
+    /**
+     * Wait until the query completes.
+     *
+     * @param waitTime The maximum time to wait in milliseconds
+     * @return True if the query completed and false if the waiting time elapsed
+     * @throws InterruptedException If the current thread is interrupted while waiting
+     */
+    public boolean awaitCompletion(long waitTime) throws InterruptedException {
+        return completionLatch.await(waitTime, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the results object into which the SER_OK messages of the query are merged.
+     *
+     * @return The query results
+     */
+    QueryResults getQueryResults() {
+        return results;
+    }
+
+    /**
+     * Set the timeout registered for the deadline of the query.
+     *
+     * @param timeout The deadline timeout
+     */
+    void setTimeout(Timeout timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Get the timeout currently registered for the query.
+     *
+     * @return The deadline timeout while running and the eviction timeout after completion
+     */
+    Timeout getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Mark the results of the query as taken from the query result cache.
+     */
+    void markServedFromCache() {
+        servedFromCache = true;
+    }
+
+    /**
+     * Mark the query as completed.
+     *
+     * @return True if the query was running and false if it had already completed
+     */
+    boolean complete() {
+        boolean isCompleted = completed.compareAndSet(false, true);
+        if (isCompleted) {
+            completionTimeStamp = System.currentTimeMillis();
+            completionLatch.countDown();
+        }
+        return isCompleted;
+    }
+}
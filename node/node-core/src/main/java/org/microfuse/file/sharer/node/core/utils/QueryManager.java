@@ -12,34 +12,41 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Query Manager.
+ * <p>
+ * Each query is identified by the sequence number of its SER message and has its own results
+ * so that SER_OK messages for different queries do not wait for each other.
+ * A query completes when its deadline passes or when it has received enough results.
+ * Completed queries are evicted after the results retention time.
+ * <p>
+ * The results of queries which run to completion are cached and a repeated query is answered from the cache
+ * without sending a SER message into the network.
  */
 public class QueryManager implements RouterListener {
     private static final Logger logger = LoggerFactory.getLogger(QueryManager.class);
 
     private ServiceHolder serviceHolder;
 
-    private final ReadWriteLock queryResultsLock;
-
-    private Map<String, List<AggregatedResource>> queryResults;
-    private long sequenceNumber;
+    private Map<Long, Query> queries;
+    private Map<String, Query> latestQueries;
+    private AtomicLong sequenceNumber;
 
     public QueryManager(ServiceHolder serviceHolder) {
         this.serviceHolder = serviceHolder;
         this.serviceHolder.getRouter().registerListener(this);
 
-        queryResultsLock = new ReentrantReadWriteLock();
-        queryResults = new HashMap<>();
-        sequenceNumber = 0;
+        queries = new ConcurrentHashMap<>();
+        latestQueries = new ConcurrentHashMap<>();
+        sequenceNumber = new AtomicLong(0);
     }
 
     @Override
@@ -59,109 +66,229 @@ public class QueryManager implements RouterListener {
 
     /**
      * Query the file sharer system for a file.
+     * The configured query timeout and maximum number of results are used.
      *
      * @param queryString The name of the file to be queried for
+     * @return The handle of the query
      */
-    public void query(String queryString) {
+    public Query query(String queryString) {
         Configuration configuration = serviceHolder.getConfiguration();
+        return query(queryString, configuration.getQueryTimeout(), configuration.getQueryMaxResults());
+    }
 
-        queryResultsLock.readLock().lock();
-        try {
-            queryResults.put(queryString, new ArrayList<>());
-        } finally {
-            queryResultsLock.readLock().unlock();
+    /**
+     * Query the file sharer system for a file.
+     * If the results of the same query are in the query result cache the query completes immediately
+     * with the cached results.
+     *
+     * @param queryString The name of the file to be queried for
+     * @param timeout     The time in milliseconds after which the query completes
+     * @param maxResults  The number of results after which the query completes
+     * @return The handle of the query
+     */
+    public Query query(String queryString, long timeout, int maxResults) {
+        Configuration configuration = serviceHolder.getConfiguration();
+
+        Query query = new Query(sequenceNumber.getAndIncrement(), queryString, timeout, maxResults);
+        queries.put(query.getId(), query);
+        Query replacedQuery = latestQueries.put(queryString, query);
+        if (replacedQuery != null) {
+            stopQuery(replacedQuery.getId());
+        }
+
+        List<AggregatedResource> cachedResources = serviceHolder.getQueryResultCache().get(queryString);
+        if (cachedResources != null) {
+            logger.info("Serving query " + query.getId() + " for " + queryString + " from the query result cache");
+            query.getQueryResults().addResources(cachedResources, query.getMaxResults());
+            query.markServedFromCache();
+            completeQuery(query, false);
+            return query;
         }
+        query.setTimeout(serviceHolder.getTimeoutService().schedule(() -> completeQuery(query), timeout));
 
         Message message = new Message();
         message.setType(MessageType.SER);
         message.setData(MessageIndexes.SER_SOURCE_IP, configuration.getIp());
         message.setData(MessageIndexes.SER_SOURCE_PORT, Integer.toString(configuration.getPeerListeningPort()));
-        message.setData(MessageIndexes.SER_SEQUENCE_NUMBER, Long.toString(sequenceNumber++));
+        message.setData(MessageIndexes.SER_SEQUENCE_NUMBER, Long.toString(query.getId()));
         message.setData(MessageIndexes.SER_HOP_COUNT, Integer.toString(NodeConstants.INITIAL_HOP_COUNT));
         message.setData(MessageIndexes.SER_QUERY, queryString);
         serviceHolder.getRouter().route(message);
+        return query;
     }
 
     /**
-     * Get the running query strings.
+     * Get a query which had not been evicted.
      *
-     * @return The set of query strings.
+     * @param id The id of the query
+     * @return The query or null if there is no such query
+     */
+    public Query getQuery(long id) {
+        return queries.get(id);
+    }
+
+    /**
+     * Complete a query before its deadline.
+     * The results received so far are kept until the query is evicted.
+     *
+     * @param id The id of the query
+     * @return True if the query was running
+     */
+    public boolean stopQuery(long id) {
+        Query query = queries.get(id);
+        return query != null && completeQuery(query, false);
+    }
+
+    /**
+     * Get the query strings of the queries which had not been evicted.
+     *
+     * @return A copy of the set of query strings
      */
     public Set<String> getRunningQueryStrings() {
-        queryResultsLock.readLock().lock();
-        try {
-            return queryResults.keySet();
-        } finally {
-            queryResultsLock.readLock().unlock();
-        }
+        return new HashSet<>(latestQueries.keySet());
     }
 
     /**
-     * Get the results for a query.
+     * Get the results for the latest query for a query string.
      *
      * @param queryString The query string which was used to search
      * @return The results for the query
      */
     public List<AggregatedResource> getQueryResults(String queryString) {
-        queryResultsLock.readLock().lock();
-        try {
-            List<AggregatedResource> aggregatedResources = queryResults.get(queryString);
-            if (aggregatedResources == null) {
-                aggregatedResources = new ArrayList<>();
-            }
-            return aggregatedResources;
-        } finally {
-            queryResultsLock.readLock().unlock();
-        }
+        Query query = latestQueries.get(queryString);
+        return query == null ? new ArrayList<>() : query.getResults();
     }
 
     /**
      * Clear the query results that had been stored.
+     * The queries which are still running are stopped.
      */
     public void clearQueryResults() {
-        queryResultsLock.writeLock().lock();
-        try {
-            queryResults.clear();
-        } finally {
-            queryResultsLock.writeLock().unlock();
+        queries.values().forEach(query -> {
+            completeQuery(query, false);
+            cancelTimeout(query);
+        });
+        queries.clear();
+        latestQueries.clear();
+    }
+
+    /**
+     * Check whether some SER_OK message pages of a query are yet to be received.
+     *
+     * @param queryString The query string which was used to search
+     * @return True if a node which responded to the query had not sent all of its pages yet
+     */
+    public boolean hasIncompleteResponses(String queryString) {
+        Query query = latestQueries.get(queryString);
+        return query != null && query.getQueryResults().hasIncompleteResponses();
+    }
+
+    /**
+     * Complete a query which ran until its deadline or until it received enough results.
+     *
+     * @param query The query to be completed
+     * @return True if the query was running
+     */
+    private boolean completeQuery(Query query) {
+        return completeQuery(query, true);
+    }
+
+    /**
+     * Complete a query and register the timeout for evicting it.
+     * Queries which are stopped early are not cached since they may not have received all the results.
+     *
+     * @param query        The query to be completed
+     * @param cacheResults True if the results of the query should be cached
+     * @return True if the query was running
+     */
+    private boolean completeQuery(Query query, boolean cacheResults) {
+        boolean isCompleted = query.complete();
+        if (isCompleted) {
+            cancelTimeout(query);
+            if (cacheResults) {
+                serviceHolder.getQueryResultCache().put(query.getQueryString(), query.getResults());
+            }
+            query.setTimeout(serviceHolder.getTimeoutService().schedule(() -> evictQuery(query),
+                    serviceHolder.getConfiguration().getQueryResultsRetentionTime()));
+            logger.info("Completed query " + query.getId() + " for " + query.getQueryString() + " with "
+                    + query.getResultCount() + " results");
+        }
+        return isCompleted;
+    }
+
+    /**
+     * Remove a completed query and its results.
+     *
+     * @param query The query to be removed
+     */
+    private void evictQuery(Query query) {
+        queries.remove(query.getId(), query);
+        latestQueries.remove(query.getQueryString(), query);
+        logger.info("Evicted query " + query.getId() + " for " + query.getQueryString());
+    }
+
+    /**
+     * Cancel the timeout currently registered for a query.
+     *
+     * @param query The query of which the timeout should be cancelled
+     */
+    private void cancelTimeout(Query query) {
+        Timeout timeout = query.getTimeout();
+        if (timeout != null) {
+            timeout.cancel();
         }
     }
 
     /**
      * Handle SER_OK type messages.
+     * <p>
+     * Each SER_OK message is one page of the response of a node.
+     * The resources in each page are merged into the results as soon as the page is received.
+     * Repeated pages, invalid pages and pages for completed queries are ignored.
      *
      * @param fromNode The node from which the message was received
      * @param message  The message received
      */
     private void handleSerOkMessages(Node fromNode, Message message) {
-        queryResultsLock.writeLock().lock();
+        String queryString;
+        long querySequenceNumber;
+        Node resourceNode;
+        int pageIndex;
+        int pageCount;
+        List<String> fileNames;
         try {
-            List<AggregatedResource> results = queryResults.get(message.getData(MessageIndexes.SER_OK_QUERY_STRING));
-
-            if (results != null) {
-                for (int i = 0; i < Integer.parseInt(message.getData(MessageIndexes.SER_OK_FILE_COUNT)); i++) {
-                    String fileName = message.getData(MessageIndexes.SER_OK_FILE_NAME_START + i);
-
-                    AggregatedResource aggregatedResource = null;
-                    for (AggregatedResource result : results) {
-                        if (Objects.equals(result.getName(), fileName)) {
-                            aggregatedResource = result;
-                        }
-                    }
-                    if (aggregatedResource == null) {
-                        aggregatedResource = new AggregatedResource(fileName);
-                        results.add(i, aggregatedResource);
-                        i--;
-                    }
-
-                    aggregatedResource.addNode(new Node(
-                            message.getData(MessageIndexes.SER_OK_IP),
-                            Integer.parseInt(message.getData(MessageIndexes.SER_OK_PORT))
-                    ));
-                }
+            queryString = message.getData(MessageIndexes.SER_OK_QUERY_STRING);
+            querySequenceNumber = Long.parseLong(message.getData(MessageIndexes.SER_OK_SEQUENCE_NUMBER));
+            resourceNode = new Node(
+                    message.getData(MessageIndexes.SER_OK_IP),
+                    Integer.parseInt(message.getData(MessageIndexes.SER_OK_PORT))
+            );
+            pageIndex = Integer.parseInt(message.getData(MessageIndexes.SER_OK_PAGE_INDEX));
+            pageCount = Integer.parseInt(message.getData(MessageIndexes.SER_OK_PAGE_COUNT));
+            int fileCount = Integer.parseInt(message.getData(MessageIndexes.SER_OK_FILE_COUNT));
+            if (fileCount < 0 || MessageIndexes.SER_OK_FILE_NAME_START + fileCount > message.getData().size()) {
+                logger.warn("Dropped " + message.toString() + " with invalid file count " + fileCount
+                        + " from " + fromNode.toString());
+                return;
             }
-        } finally {
-            queryResultsLock.writeLock().unlock();
+            fileNames = message.getData().subList(MessageIndexes.SER_OK_FILE_NAME_START,
+                    MessageIndexes.SER_OK_FILE_NAME_START + fileCount);
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            logger.warn("Dropped malformed " + message.toString() + " from " + fromNode.toString(), e);
+            return;
+        }
+
+        Query query = queries.get(querySequenceNumber);
+        if (query == null || !Objects.equals(query.getQueryString(), queryString)) {
+            logger.info("Ignored " + message.toString() + " for unknown query");
+        } else if (query.isCompleted()) {
+            logger.info("Ignored " + message.toString() + " for completed query " + query.getId());
+        } else if (!query.getQueryResults().addPage(resourceNode, pageIndex, pageCount, fileNames,
+                query.getMaxResults())) {
+            logger.info("Ignored repeated or invalid page " + pageIndex + " of the response from " + resourceNode
+                    + " for query " + queryString);
+        } else if (query.hasEnoughResults()) {
+            completeQuery(query);
         }
     }
 }
@@ -0,0 +1,227 @@
+package org.microfuse.file.sharer.node.core.utils;
+
+import org.microfuse.file.sharer.node.commons.peer.Node;
+import org.microfuse.file.sharer.node.core.resource.AggregatedResource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread safe cache of the results of recent queries.
+ * <p>
+ * Queries are matched by their distinct lower case tokens since the resource indexes match all the tokens of
+ * a query regardless of their case and order. Entries expire after the configured time to live.
+ * If the cache grows beyond the maximum size the least recently used entries are evicted.
+ * A time to live of zero disables the cache.
+ */
+public class QueryResultCache {
+    private static final String TOKEN_SEPARATOR_REGEX = "\\s+";
+
+    private final ServiceHolder serviceHolder;
+    private final Map<String, CachedResults> entries;
+    private final Lock entriesLock;
+
+    private final AtomicLong hitCount;
+    private final AtomicLong missCount;
+
+    public QueryResultCache(ServiceHolder serviceHolder) {
+        this.serviceHolder = serviceHolder;
+        entries = new LinkedHashMap<>(16, 0.75f, true);
+        entriesLock = new ReentrantLock();
+        hitCount = new AtomicLong(0);
+        missCount = new AtomicLong(0);
+    }
+
+    /**
+     * Get the cached results of a query.
+     *
+     * @param queryString The query string
+     * @return A copy of the cached results or null if the query is not cached
+     */
+    public List<AggregatedResource> get(String queryString) {
+        long currentTimeStamp = System.currentTimeMillis();
+        List<AggregatedResource> resources = null;
+        entriesLock.lock();
+        try {
+            String key = getKey(queryString);
+            CachedResults cachedResults = entries.get(key);
+            if (cachedResults != null) {
+                if (cachedResults.timeStamp + getTimeToLive() > currentTimeStamp) {
+                    resources = copy(cachedResults.resources);
+                } else {
+                    entries.remove(key);
+                }
+            }
+        } finally {
+            entriesLock.unlock();
+        }
+        if (resources == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return resources;
+    }
+
+    /**
+     * Cache the results of a query replacing any results cached before for the same query.
+     * Empty results are not cached since resources may be added to the network at any time.
+     *
+     * @param queryString The query string
+     * @param resources   The results of the query
+     */
+    public void put(String queryString, Collection<AggregatedResource> resources) {
+        if (getTimeToLive() <= 0 || resources.size() == 0) {
+            return;
+        }
+        CachedResults cachedResults = new CachedResults(System.currentTimeMillis(), copy(resources));
+        entriesLock.lock();
+        try {
+            entries.put(getKey(queryString), cachedResults);
+            int maxSize = Math.max(serviceHolder.getConfiguration().getQueryResultCacheMaxSize(), 0);
+            Iterator<CachedResults> iterator = entries.values().iterator();
+            while (entries.size() > maxSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            entriesLock.unlock();
+        }
+    }
+
+    /**
+     * Remove the expired entries from the cache.
+     */
+    public void collectGarbage() {
+        long expiryTimeStamp = System.currentTimeMillis() - getTimeToLive();
+        entriesLock.lock();
+        try {
+            entries.values().removeIf(cachedResults -> cachedResults.timeStamp <= expiryTimeStamp);
+        } finally {
+            entriesLock.unlock();
+        }
+    }
+
+    /**
+     * Remove the entries with results owned by a node since the resources of the node had changed.
+     *
+     * @param node The node which owns the resources
+     */
+    public void removeNode(Node node) {
+        entriesLock.lock();
+        try {
+            entries.values().removeIf(cachedResults -> cachedResults.resources.stream()
+                    .anyMatch(resource -> resource.getAllNodes().contains(node)));
+        } finally {
+            entriesLock.unlock();
+        }
+    }
+
+    /**
+     * Remove all the entries from the cache.
+     */
+    public void clear() {
+        entriesLock.lock();
+        try {
+            entries.clear();
+        } finally {
+            entriesLock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of entries in the cache.
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        entriesLock.lock();
+        try {
+            return entries.size();
+        } finally {
+            entriesLock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of lookups which found cached results.
+     *
+     * @return The hit count
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Get the number of lookups which did not find cached results.
+     *
+     * @return The miss count
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Get the configured time to live of the entries.
+     *
+     * @return The time to live in milliseconds
+     */
+    private long getTimeToLive() {
+        return serviceHolder.getConfiguration().getQueryResultCacheTimeToLive();
+    }
+
+    /**
+     * Get the cache key of a query which is its sorted distinct lower case tokens.
+     *
+     * @param queryString The query string
+     * @return The cache key
+     */
+    private String getKey(String queryString) {
+        String[] tokens = queryString.trim().toLowerCase(Locale.ENGLISH).split(TOKEN_SEPARATOR_REGEX);
+        TreeSet<String> sortedTokens = new TreeSet<>();
+        for (String token : tokens) {
+            if (!token.isEmpty()) {
+                sortedTokens.add(token);
+            }
+        }
+        return String.join(" ", sortedTokens);
+    }
+
+    /**
+     * Copy the resources so that the cached results are not changed by the users of the cache.
+     *
+     * @param resources The resources to be copied
+     * @return The copied resources
+     */
+    private List<AggregatedResource> copy(Collection<AggregatedResource> resources) {
+        List<AggregatedResource> copiedResources = new ArrayList<>(resources.size());
+        for (AggregatedResource resource : resources) {
+            AggregatedResource copiedResource = new AggregatedResource(resource.getName());
+            resource.getAllNodes().forEach(copiedResource::addNode);
+            copiedResources.add(copiedResource);
+        }
+        return copiedResources;
+    }
+
+    /**
+     * The results of a query and the time at which they were cached.
+     */
+    private static class CachedResults {
+        private final long timeStamp;
+        private final List<AggregatedResource> resources;
+
+        CachedResults(long timeStamp, List<AggregatedResource> resources) {
+            this.timeStamp = timeStamp;
+            this.resources = resources;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.microfuse.file.sharer.node.core.utils;
+
+import org.microfuse.file.sharer.node.commons.peer.Node;
+import org.microfuse.file.sharer.node.core.resource.AggregatedResource;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The results received for a single query.
+ * <p>
+ * The resources are indexed by name so that merging a SER_OK page does not scan the existing results.
+ * The index keeps the order in which the resources were first received which is the order used for display.
+ * Each query has its own lock so that SER_OK messages for different queries are merged concurrently.
+ */
+public class QueryResults {
+    private final ReadWriteLock lock;
+    private final Map<String, AggregatedResource> resources;
+    private final Map<Node, PagedResponse> responses;
+
+    public QueryResults() {
+        lock = new ReentrantReadWriteLock();
+        resources = new LinkedHashMap<>();
+        responses = new HashMap<>();
+    }
+
+    /**
+     * Merge a page of the response of a node into the results.
+     * Repeated pages and pages with an index outside the page count are ignored.
+     *
+     * @param node      The node which owns the resources in the page
+     * @param pageIndex The index of the page
+     * @param pageCount The total number of pages in the response of the node
+     * @param fileNames The names of the resources in the page
+     * @return True if the page was merged and false if it had been merged before or is invalid
+     */
+    public boolean addPage(Node node, int pageIndex, int pageCount, List<String> fileNames) {
+        return addPage(node, pageIndex, pageCount, fileNames, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Merge a page of the response of a node into the results without exceeding a maximum number of resources.
+     * Once the maximum is reached only the nodes of the resources already in the results are added.
+     * Repeated pages and pages with an index outside the page count are ignored.
+     *
+     * @param node             The node which owns the resources in the page
+     * @param pageIndex        The index of the page
+     * @param pageCount        The total number of pages in the response of the node
+     * @param fileNames        The names of the resources in the page
+     * @param maxResourceCount The maximum number of distinct resources to be held
+     * @return True if the page was merged and false if it had been merged before or is invalid
+     */
+    public boolean addPage(Node node, int pageIndex, int pageCount, List<String> fileNames, int maxResourceCount) {
+        if (pageCount <= 0 || pageIndex < 0 || pageIndex >= pageCount) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            PagedResponse response = responses.computeIfAbsent(node, k -> new PagedResponse(pageCount));
+            if (!response.markReceived(pageIndex)) {
+                return false;
+            }
+            for (String fileName : fileNames) {
+                AggregatedResource resource = resources.get(fileName);
+                if (resource == null && resources.size() < maxResourceCount) {
+                    resource = new AggregatedResource(fileName);
+                    resources.put(fileName, resource);
+                }
+                if (resource != null) {
+                    resource.addNode(node);
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Merge resources which had already been aggregated into the results without exceeding a maximum number of
+     * resources.
+     *
+     * @param aggregatedResources The resources to be merged
+     * @param maxResourceCount    The maximum number of distinct resources to be held
+     */
+    public void addResources(Collection<AggregatedResource> aggregatedResources, int maxResourceCount) {
+        lock.writeLock().lock();
+        try {
+            for (AggregatedResource aggregatedResource : aggregatedResources) {
+                AggregatedResource resource = resources.get(aggregatedResource.getName());
+                if (resource == null && resources.size() < maxResourceCount) {
+                    resource = new AggregatedResource(aggregatedResource.getName());
+                    resources.put(aggregatedResource.getName(), resource);
+                }
+                if (resource != null) {
+                    aggregatedResource.getAllNodes().forEach(resource::addNode);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the resources received for the query in the order in which they were first received.
+     *
+     * @return A copy of the list of resources
+     */
+    public List<AggregatedResource> getResources() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(resources.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of distinct resources received for the query.
+     *
+     * @return The number of resources
+     */
+    public int getResourceCount() {
+        lock.readLock().lock();
+        try {
+            return resources.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Check whether some SER_OK message pages of the query are yet to be received.
+     *
+     * @return True if a node which responded to the query had not sent all of its pages yet
+     */
+    public boolean hasIncompleteResponses() {
+        lock.readLock().lock();
+        try {
+            return responses.values().stream().anyMatch(response -> !response.isComplete());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The pages received from a node in response to the query.
+     */
+    private static class PagedResponse {
+        private final int pageCount;
+        private final BitSet receivedPages;
+
+        PagedResponse(int pageCount) {
+            this.pageCount = pageCount;
+            // Not sized by the page count since the page count is received from other nodes
+            receivedPages = new BitSet();
+        }
+
+        /**
+         * Mark a page as received.
+         *
+         * @param pageIndex The index of the page
+         * @return True if the page is within the page count and had not been received before
+         */
+        boolean markReceived(int pageIndex) {
+            if (pageIndex < 0 || pageIndex >= pageCount || receivedPages.get(pageIndex)) {
+                return false;
+            }
+            receivedPages.set(pageIndex);
+            return true;
+        }
+
+        boolean isComplete() {
+            return receivedPages.cardinality() >= pageCount;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.microfuse.file.sharer.node.core.utils;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * A periodic task scheduled in the task scheduler.
+ * <p>
+ * The interval is read again before each run so that configuration changes are applied without rescheduling.
+ * The next run is scheduled only after the current run completes.
+ * Therefore runs of the same task never overlap.
+ */
+public class ScheduledTask {
+    private final Runnable task;
+    private final IntSupplier intervalSupplier;
+    private final SubsystemExecutor subsystemExecutor;
+    private final ScheduledExecutorService timerExecutorService;
+    private ScheduledFuture<?> scheduledFuture;
+    private boolean cancelled;
+
+    ScheduledTask(Runnable task, IntSupplier intervalSupplier, SubsystemExecutor subsystemExecutor,
+                  ScheduledExecutorService timerExecutorService) {
+        this.task = task;
+        this.intervalSupplier = intervalSupplier;
+        this.subsystemExecutor = subsystemExecutor;
+        this.timerExecutorService = timerExecutorService;
+        cancelled = false;
+    }
+
+    /**
+     * Cancel the task.
+     * A run which had already started is allowed to complete but the task is not run again.
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+        if (scheduledFuture != null) {
+            scheduledFuture.cancel(false);
+            scheduledFuture = null;
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Schedule the next run of the task after the current interval.
+     * When the interval elapses the task is handed over to the subsystem executor.
+     */
+    synchronized void scheduleNextRun() {
+        if (!cancelled) {
+            scheduledFuture = timerExecutorService.schedule(
+                    () -> subsystemExecutor.execute(this::run),
+                    intervalSupplier.getAsInt(), TimeUnit.MILLISECONDS
+            );
+        }
+    }
+
+    /**
+     * Run the task and schedule the next run.
+     */
+    private void run() {
+        if (!isCancelled()) {
+            try {
+                task.run();
+            } finally {
+                scheduleNextRun();
+            }
+        }
+    }
+}
@@ -17,6 +17,8 @@ import org.microfuse.file.sharer.node.core.communication.routing.strategy.Routin
 import org.microfuse.file.sharer.node.core.communication.routing.strategy.UnstructuredFloodingRoutingStrategy;
 import org.microfuse.file.sharer.node.core.resource.index.ResourceIndex;
 import org.microfuse.file.sharer.node.core.resource.index.SuperPeerResourceIndex;
+import org.microfuse.file.sharer.node.core.tracing.TraceEvent;
+import org.microfuse.file.sharer.node.core.tracing.TraceEventType;
 import org.microfuse.file.sharer.node.core.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,7 +50,14 @@ public class ServiceHolder {
     private ResourceIndex resourceIndex;
     private OverlayNetworkManager overlayNetworkManager;
     private QueryManager queryManager;
+    private QueryResultCache queryResultCache;
     private TraceManager traceManager;
+    private Tracer tracer;
+    private long tracerLookupTimeStamp;
+    private long tracerLookupFailureTimeStamp;
+    private boolean tracerLookupInProgress;
+    private TaskScheduler taskScheduler;
+    private TimeoutService timeoutService;
 
     private Lock peerTypeLock;
     private Lock traceableStateLock;
@@ -57,9 +66,13 @@ public class ServiceHolder {
     private Lock resourceIndexLock;
     private Lock overlayNetworkManagerLock;
     private Lock queryManagerLock;
+    private Lock queryResultCacheLock;
     private Lock traceManagerLock;
+    private Lock tracerLock;
+    private Lock taskSchedulerLock;
+    private Lock timeoutServiceLock;
 
-    private Thread automatedGarbageCollectionThread;
+    private ScheduledTask automatedGarbageCollectionTask;
     private boolean automatedGarbageCollectionEnabled;
 
     private Lock automatedGarbageCollectionLock;
@@ -72,7 +85,12 @@ public class ServiceHolder {
         resourceIndexLock = new ReentrantLock();
         overlayNetworkManagerLock = new ReentrantLock();
         queryManagerLock = new ReentrantLock();
+        queryResultCacheLock = new ReentrantLock();
         traceManagerLock = new ReentrantLock();
+        tracerLock = new ReentrantLock();
+        tracerLookupFailureTimeStamp = -1;
+        taskSchedulerLock = new ReentrantLock();
+        timeoutServiceLock = new ReentrantLock();
 
         automatedGarbageCollectionEnabled = false;
         automatedGarbageCollectionLock = new ReentrantLock();
@@ -86,19 +104,10 @@ public class ServiceHolder {
         try {
             if (!automatedGarbageCollectionEnabled) {
                 automatedGarbageCollectionEnabled = true;
-                automatedGarbageCollectionThread = new Thread(() -> {
-                    while (automatedGarbageCollectionEnabled) {
-                        try {
-                            Thread.sleep(getConfiguration().getAutomatedGarbageCollectionInterval());
-                        } catch (InterruptedException ignored) {
-                        }
-                        collectGarbage();
-                    }
-                    logger.info("Stopped gossiping");
-                });
-                automatedGarbageCollectionThread.setPriority(Thread.MIN_PRIORITY);
-                automatedGarbageCollectionThread.setDaemon(true);
-                automatedGarbageCollectionThread.start();
+                automatedGarbageCollectionTask = getTaskScheduler().schedulePeriodically(
+                        TaskSubsystem.GARBAGE_COLLECTION, this::collectGarbage,
+                        () -> getConfiguration().getAutomatedGarbageCollectionInterval()
+                );
                 logger.info("Started automated garbage collection");
             }
         } finally {
@@ -114,9 +123,11 @@ public class ServiceHolder {
         try {
             if (automatedGarbageCollectionEnabled) {
                 automatedGarbageCollectionEnabled = false;
-                if (automatedGarbageCollectionThread != null) {
-                    automatedGarbageCollectionThread.interrupt();
+                if (automatedGarbageCollectionTask != null) {
+                    getTaskScheduler().cancel(automatedGarbageCollectionTask);
+                    automatedGarbageCollectionTask = null;
                 }
+                logger.info("Stopped automated garbage collection");
             }
         } finally {
             automatedGarbageCollectionLock.unlock();
@@ -152,10 +163,22 @@ public class ServiceHolder {
         try {
             if (router != null) {
                 router.getRoutingStrategy().collectGarbage();
+                router.getReceivedSerMessageCache().collectGarbage();
+                router.getSerOkCache().collectGarbage();
             }
         } finally {
             routerLock.unlock();
         }
+
+        logger.info("Collecting query result cache garbage");
+        queryResultCacheLock.lock();
+        try {
+            if (queryResultCache != null) {
+                queryResultCache.collectGarbage();
+            }
+        } finally {
+            queryResultCacheLock.unlock();
+        }
     }
 
     /**
@@ -188,17 +211,11 @@ public class ServiceHolder {
         logger.info("Promoted to super peer");
 
         // Notifying the tracer
-        Tracer tracer = getTracer();
-        if (tracer != null) {
-            try {
-                tracer.promoteToSuperPeer(
-                        System.currentTimeMillis(),
-                        getConfiguration().getIp(), getConfiguration().getPeerListeningPort()
-                );
-            } catch (RemoteException e) {
-                logger.warn("Failed to notify tracer of the promotion", e);
-            }
-        }
+        publishTraceEvent(new TraceEvent(
+                TraceEventType.PROMOTE_TO_SUPER_PEER,
+                System.currentTimeMillis(),
+                getConfiguration().getIp(), getConfiguration().getPeerListeningPort()
+        ));
     }
 
     /**
@@ -231,17 +248,11 @@ public class ServiceHolder {
         logger.info("Demoted to ordinary peer");
 
         // Notifying the tracer
-        Tracer tracer = getTracer();
-        if (tracer != null) {
-            try {
-                tracer.demoteToOrdinaryPeer(
-                        System.currentTimeMillis(),
-                        getConfiguration().getIp(), getConfiguration().getPeerListeningPort()
-                );
-            } catch (RemoteException e) {
-                logger.warn("Failed to notify tracer of the demotion", e);
-            }
-        }
+        publishTraceEvent(new TraceEvent(
+                TraceEventType.DEMOTE_TO_ORDINARY_PEER,
+                System.currentTimeMillis(),
+                getConfiguration().getIp(), getConfiguration().getPeerListeningPort()
+        ));
     }
 
     /**
@@ -263,6 +274,7 @@ public class ServiceHolder {
         try {
             if (overlayNetworkManager != null) {
                 overlayNetworkManager.cancelSearchForSuperPeer();
+                overlayNetworkManager.cancelResourceListSync();
             }
             overlayNetworkManager = null;
             logger.info("Cleared overlay network manager");
@@ -311,6 +323,14 @@ public class ServiceHolder {
             queryManagerLock.unlock();
         }
 
+        queryResultCacheLock.lock();
+        try {
+            queryResultCache = null;
+            logger.info("Cleared query result cache");
+        } finally {
+            queryResultCacheLock.unlock();
+        }
+
         traceManagerLock.lock();
         try {
             if (traceManager != null) {
@@ -321,6 +341,38 @@ public class ServiceHolder {
         } finally {
             traceManagerLock.unlock();
         }
+
+        resetTracer();
+
+        automatedGarbageCollectionLock.lock();
+        try {
+            automatedGarbageCollectionEnabled = false;
+            automatedGarbageCollectionTask = null;
+        } finally {
+            automatedGarbageCollectionLock.unlock();
+        }
+
+        timeoutServiceLock.lock();
+        try {
+            if (timeoutService != null) {
+                timeoutService.shutdown();
+            }
+            timeoutService = null;
+            logger.info("Cleared timeout service");
+        } finally {
+            timeoutServiceLock.unlock();
+        }
+
+        taskSchedulerLock.lock();
+        try {
+            if (taskScheduler != null) {
+                taskScheduler.shutdown();
+            }
+            taskScheduler = null;
+            logger.info("Cleared task scheduler");
+        } finally {
+            taskSchedulerLock.unlock();
+        }
     }
 
     /**
@@ -425,6 +477,63 @@ public class ServiceHolder {
         }
     }
 
+    /**
+     * Get the task scheduler singleton instance.
+     * This is not a singleton.
+     * However this is the instance used by all classes in the file sharer.
+     *
+     * @return The Task Scheduler
+     */
+    public TaskScheduler getTaskScheduler() {
+        taskSchedulerLock.lock();
+        try {
+            if (taskScheduler == null) {
+                taskScheduler = new TaskScheduler(this);
+            }
+            return taskScheduler;
+        } finally {
+            taskSchedulerLock.unlock();
+        }
+    }
+
+    /**
+     * Get the query result cache singleton instance.
+     * This is not a singleton.
+     * However this is the instance used by all classes in the file sharer.
+     *
+     * @return The Query Result Cache
+     */
+    public QueryResultCache getQueryResultCache() {
+        queryResultCacheLock.lock();
+        try {
+            if (queryResultCache == null) {
+                queryResultCache = new QueryResultCache(this);
+            }
+            return queryResultCache;
+        } finally {
+            queryResultCacheLock.unlock();
+        }
+    }
+
+    /**
+     * Get the timeout service singleton instance.
+     * This is not a singleton.
+     * However this is the instance used by all classes in the file sharer.
+     *
+     * @return The Timeout Service
+     */
+    public TimeoutService getTimeoutService() {
+        timeoutServiceLock.lock();
+        try {
+            if (timeoutService == null) {
+                timeoutService = new TimeoutService(this);
+            }
+            return timeoutService;
+        } finally {
+            timeoutServiceLock.unlock();
+        }
+    }
+
     /**
      * Return the peer type of this node.
      *
@@ -514,20 +623,60 @@ public class ServiceHolder {
     /**
      * Get a tracer reference.
      * Returns null if the tracing mode of this node is not traceable.
+     * The tracer stub is cached and looked up again only after the tracer stub refresh interval
+     * or after it had been invalidated.
+     * The lookup is done without holding the tracer lock by one thread at a time
+     * while the other threads get the cached reference.
+     * A failed lookup is not retried until the tracer lookup retry interval had passed.
      *
      * @return The tracer RMI reference
      */
     public Tracer getTracer() {
         Tracer tracer = null;
         if (getTraceableState() == TraceableState.TRACEABLE) {
+            boolean isLookupRequired;
+            long currentTimeStamp = System.currentTimeMillis();
+            tracerLock.lock();
             try {
-                Registry tracerRegistry = LocateRegistry.getRegistry(
-                        getConfiguration().getTracerIP(),
-                        Constants.RMI_REGISTRY_PORT
-                );
-                tracer = (Tracer) tracerRegistry.lookup(Constants.RMI_REGISTRY_ENTRY_TRACER);
-            } catch (NotBoundException | RemoteException e) {
-                logger.warn("Failed to get hold of the tracer stub", e);
+                isLookupRequired = !tracerLookupInProgress
+                        && (this.tracer == null || currentTimeStamp - tracerLookupTimeStamp
+                        > getConfiguration().getTracerStubRefreshInterval())
+                        && (tracerLookupFailureTimeStamp < 0 || currentTimeStamp - tracerLookupFailureTimeStamp
+                        > getConfiguration().getTracerLookupRetryInterval());
+                if (isLookupRequired) {
+                    tracerLookupInProgress = true;
+                }
+                tracer = this.tracer;
+            } finally {
+                tracerLock.unlock();
+            }
+
+            if (isLookupRequired) {
+                Tracer lookedUpTracer = null;
+                try {
+                    Registry tracerRegistry = LocateRegistry.getRegistry(
+                            getConfiguration().getTracerIP(),
+                            Constants.RMI_REGISTRY_PORT
+                    );
+                    lookedUpTracer = (Tracer) tracerRegistry.lookup(Constants.RMI_REGISTRY_ENTRY_TRACER);
+                } catch (NotBoundException | RemoteException e) {
+                    logger.warn("Failed to get hold of the tracer stub", e);
+                }
+
+                tracerLock.lock();
+                try {
+                    tracerLookupInProgress = false;
+                    this.tracer = lookedUpTracer;
+                    if (lookedUpTracer != null) {
+                        tracerLookupTimeStamp = currentTimeStamp;
+                        tracerLookupFailureTimeStamp = -1;
+                    } else {
+                        tracerLookupFailureTimeStamp = currentTimeStamp;
+                    }
+                    tracer = lookedUpTracer;
+                } finally {
+                    tracerLock.unlock();
+                }
             }
         } else {
             logger.info("Ignored request to get tracer reference since this is not a traceable node");
@@ -535,6 +684,59 @@ public class ServiceHolder {
         return tracer;
     }
 
+    /**
+     * Queue an event to be sent to the tracer.
+     * Ignored if the tracing mode of this node is not traceable.
+     *
+     * @param traceEvent The event to be sent to the tracer
+     */
+    public void publishTraceEvent(TraceEvent traceEvent) {
+        if (getTraceableState() == TraceableState.TRACEABLE) {
+            getTraceManager().publishEvent(traceEvent);
+        }
+    }
+
+    /**
+     * Get the number of trace events which were not delivered to the tracer.
+     *
+     * @return The number of dropped trace events
+     */
+    public long getDroppedTraceEventCount() {
+        traceManagerLock.lock();
+        try {
+            return traceManager == null ? 0 : traceManager.getDroppedEventCount();
+        } finally {
+            traceManagerLock.unlock();
+        }
+    }
+
+    /**
+     * Discard the cached tracer reference.
+     * Should be called when a call to the tracer fails so that the tracer stub is looked up again.
+     */
+    public void invalidateTracer() {
+        tracerLock.lock();
+        try {
+            tracer = null;
+        } finally {
+            tracerLock.unlock();
+        }
+    }
+
+    /**
+     * Discard the cached tracer reference and the last failed lookup.
+     * The tracer stub is looked up again without waiting for the tracer lookup retry interval.
+     */
+    private void resetTracer() {
+        tracerLock.lock();
+        try {
+            tracer = null;
+            tracerLookupFailureTimeStamp = -1;
+        } finally {
+            tracerLock.unlock();
+        }
+    }
+
     /**
      * Change the tracing mode of this node.
      *
@@ -543,6 +745,7 @@ public class ServiceHolder {
     public void changeTraceableState(TraceableState traceableState) {
         if (getTraceableState() != traceableState) {
             this.traceableState = traceableState;
+            resetTracer();
 
             // Register in the tracer
             Tracer tracer = getTracer();
@@ -561,6 +764,7 @@ public class ServiceHolder {
                     );
                 } catch (RemoteException e) {
                     logger.warn("Failed to register node in tracer", e);
+                    invalidateTracer();
                 }
             } else {
                 traceManagerLock.lock();
@@ -0,0 +1,200 @@
+package org.microfuse.file.sharer.node.core.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor of the tasks of a single subsystem of a node.
+ * <p>
+ * Tasks are queued in the subsystem queue and run by workers borrowed from the shared worker executor.
+ * At most the maximum concurrency number of workers run the tasks of the subsystem at the same time.
+ * Therefore a busy subsystem cannot take over the shared workers and idle subsystems do not hold any threads.
+ */
+public class SubsystemExecutor implements Executor {
+    private static final Logger logger = LoggerFactory.getLogger(SubsystemExecutor.class);
+
+    private final TaskSubsystem subsystem;
+    private final Executor workerExecutor;
+    private final Queue<Runnable> taskQueue;
+    private final AtomicInteger activeWorkerCount;
+    private volatile int maxConcurrency;
+    private volatile boolean shutdown;
+
+    private final AtomicLong submittedTaskCount;
+    private final AtomicLong completedTaskCount;
+    private final AtomicLong failedTaskCount;
+    private final AtomicLong rejectedTaskCount;
+
+    public SubsystemExecutor(TaskSubsystem subsystem, Executor workerExecutor, int maxConcurrency) {
+        this.subsystem = subsystem;
+        this.workerExecutor = workerExecutor;
+        this.maxConcurrency = Math.max(maxConcurrency, 1);
+        taskQueue = new ConcurrentLinkedQueue<>();
+        activeWorkerCount = new AtomicInteger(0);
+        shutdown = false;
+        submittedTaskCount = new AtomicLong(0);
+        completedTaskCount = new AtomicLong(0);
+        failedTaskCount = new AtomicLong(0);
+        rejectedTaskCount = new AtomicLong(0);
+    }
+
+    /**
+     * Queue a task to be run by the subsystem.
+     * The task is dropped and counted as rejected if the executor had been shutdown.
+     *
+     * @param task The task to be run
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (shutdown) {
+            rejectedTaskCount.incrementAndGet();
+            logger.debug("Ignored task submitted to the " + subsystem.getValue() + " executor after shutdown");
+        } else {
+            submittedTaskCount.incrementAndGet();
+            taskQueue.add(task);
+            startWorkers();
+        }
+    }
+
+    /**
+     * Stop accepting new tasks and discard the queued tasks.
+     * Tasks which are already running are allowed to complete.
+     */
+    public void shutdown() {
+        shutdown = true;
+        Runnable task;
+        while ((task = taskQueue.poll()) != null) {
+            rejectedTaskCount.incrementAndGet();
+            logger.debug("Discarded task " + task + " queued in the " + subsystem.getValue() + " executor");
+        }
+    }
+
+    /**
+     * Change the maximum number of tasks of the subsystem which can run at the same time.
+     *
+     * @param maxConcurrency The new maximum concurrency
+     */
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = Math.max(maxConcurrency, 1);
+        startWorkers();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public TaskSubsystem getSubsystem() {
+        return subsystem;
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Get the number of tasks waiting in the subsystem queue.
+     *
+     * @return The number of queued tasks
+     */
+    public int getQueuedTaskCount() {
+        return taskQueue.size();
+    }
+
+    /**
+     * Get the number of workers currently running the tasks of the subsystem.
+     *
+     * @return The number of active workers
+     */
+    public int getActiveWorkerCount() {
+        return activeWorkerCount.get();
+    }
+
+    /**
+     * Get the number of tasks accepted by the executor.
+     *
+     * @return The number of submitted tasks
+     */
+    public long getSubmittedTaskCount() {
+        return submittedTaskCount.get();
+    }
+
+    /**
+     * Get the number of tasks which completed without throwing an exception.
+     *
+     * @return The number of completed tasks
+     */
+    public long getCompletedTaskCount() {
+        return completedTaskCount.get();
+    }
+
+    /**
+     * Get the number of tasks which threw an exception.
+     *
+     * @return The number of failed tasks
+     */
+    public long getFailedTaskCount() {
+        return failedTaskCount.get();
+    }
+
+    /**
+     * Get the number of tasks which were not run since the executor had been shutdown.
+     *
+     * @return The number of rejected tasks
+     */
+    public long getRejectedTaskCount() {
+        return rejectedTaskCount.get();
+    }
+
+    /**
+     * Start workers until the maximum concurrency is reached or there are enough workers for the queued tasks.
+     */
+    private void startWorkers() {
+        while (!taskQueue.isEmpty()) {
+            int currentWorkerCount = activeWorkerCount.get();
+            if (currentWorkerCount >= maxConcurrency) {
+                break;
+            }
+            if (activeWorkerCount.compareAndSet(currentWorkerCount, currentWorkerCount + 1)) {
+                try {
+                    workerExecutor.execute(this::runQueuedTasks);
+                } catch (RejectedExecutionException e) {
+                    activeWorkerCount.decrementAndGet();
+                    logger.warn("Failed to start worker for the " + subsystem.getValue() + " executor", e);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Run the queued tasks until the queue is empty.
+     * The worker is released before checking the queue again
+     * to avoid leaving a task behind which was queued while the worker was stopping.
+     */
+    private void runQueuedTasks() {
+        try {
+            Runnable task;
+            while (!shutdown && activeWorkerCount.get() <= maxConcurrency && (task = taskQueue.poll()) != null) {
+                try {
+                    task.run();
+                    completedTaskCount.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failedTaskCount.incrementAndGet();
+                    logger.error("Task in the " + subsystem.getValue() + " executor failed", e);
+                }
+            }
+        } finally {
+            activeWorkerCount.decrementAndGet();
+        }
+        if (!shutdown) {
+            startWorkers();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.microfuse.file.sharer.node.core.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Task Scheduler of a node.
+ * <p>
+ * All the background tasks of a node such as listener dispatching, heart beating, gossiping and
+ * garbage collection are run by the task scheduler instead of dedicated threads.
+ * Each subsystem has its own queue and metrics.
+ * The workers and the timer are shared by all the nodes in the JVM.
+ * Therefore a large number of nodes can run in the same JVM without a large number of threads.
+ * If enabled and supported by the JVM the tasks are run in virtual threads instead of pooled platform threads.
+ */
+public class TaskScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(TaskScheduler.class);
+
+    private static final String VIRTUAL_THREAD_EXECUTOR_FACTORY_METHOD = "newVirtualThreadPerTaskExecutor";
+    private static final long WORKER_KEEP_ALIVE_TIME = 60000;
+
+    private static ThreadPoolExecutor sharedWorkerExecutorService;
+    private static ExecutorService sharedVirtualThreadExecutorService;
+    private static boolean virtualThreadsUnsupported;
+    private static ScheduledExecutorService sharedTimerExecutorService;
+
+    private final Map<TaskSubsystem, SubsystemExecutor> subsystemExecutors;
+    private final Set<ScheduledTask> scheduledTasks;
+    private volatile boolean shutdown;
+
+    public TaskScheduler(ServiceHolder serviceHolder) {
+        ExecutorService workerExecutorService = null;
+        if (serviceHolder.getConfiguration().isTaskSchedulerVirtualThreadsEnabled()) {
+            workerExecutorService = getSharedVirtualThreadExecutorService();
+        }
+        if (workerExecutorService == null) {
+            workerExecutorService = getSharedWorkerExecutorService(
+                    serviceHolder.getConfiguration().getTaskSchedulerWorkerThreadCount());
+        }
+
+        subsystemExecutors = new EnumMap<>(TaskSubsystem.class);
+        for (TaskSubsystem subsystem : TaskSubsystem.values()) {
+            int maxConcurrency = 1;
+            if (subsystem == TaskSubsystem.NETWORK_HANDLER_LISTENER) {
+                maxConcurrency = serviceHolder.getConfiguration().getNetworkHandlerThreadCount();
+            }
+            subsystemExecutors.put(subsystem, new SubsystemExecutor(subsystem, workerExecutorService, maxConcurrency));
+        }
+        scheduledTasks = ConcurrentHashMap.newKeySet();
+        shutdown = false;
+    }
+
+    /**
+     * Get the executor of a subsystem.
+     *
+     * @param subsystem The subsystem
+     * @return The executor of the subsystem
+     */
+    public SubsystemExecutor getExecutor(TaskSubsystem subsystem) {
+        return subsystemExecutors.get(subsystem);
+    }
+
+    /**
+     * Queue a task to be run by a subsystem.
+     *
+     * @param subsystem The subsystem which runs the task
+     * @param task      The task to be run
+     */
+    public void execute(TaskSubsystem subsystem, Runnable task) {
+        getExecutor(subsystem).execute(task);
+    }
+
+    /**
+     * Schedule a task to be run once by a subsystem after a delay.
+     * Unlike the timeout service the delay is not rounded up to ticks.
+     * Therefore this is meant for short delays which need to be precise.
+     *
+     * @param subsystem The subsystem which runs the task
+     * @param task      The task to be run
+     * @param delay     The delay in milliseconds
+     * @return The future which can be used to cancel the task before it is run
+     */
+    public ScheduledFuture<?> schedule(TaskSubsystem subsystem, Runnable task, long delay) {
+        return getSharedTimerExecutorService().schedule(() -> execute(subsystem, task), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedule a task to be run repeatedly by a subsystem.
+     * The task is first run after one interval and then with one interval between the end of a run
+     * and the start of the next run.
+     *
+     * @param subsystem        The subsystem which runs the task
+     * @param task             The task to be run
+     * @param intervalSupplier The supplier of the interval in milliseconds
+     * @return The scheduled task which can be used to cancel the task
+     */
+    public ScheduledTask schedulePeriodically(TaskSubsystem subsystem, Runnable task, IntSupplier intervalSupplier) {
+        ScheduledTask scheduledTask = new ScheduledTask(task, intervalSupplier, getExecutor(subsystem),
+                getSharedTimerExecutorService());
+        scheduledTasks.add(scheduledTask);
+        if (shutdown) {
+            scheduledTask.cancel();
+        } else {
+            scheduledTask.scheduleNextRun();
+        }
+        return scheduledTask;
+    }
+
+    /**
+     * Cancel a scheduled task.
+     *
+     * @param scheduledTask The task to be cancelled
+     */
+    public void cancel(ScheduledTask scheduledTask) {
+        if (scheduledTask != null) {
+            scheduledTask.cancel();
+            scheduledTasks.remove(scheduledTask);
+        }
+    }
+
+    /**
+     * Cancel all the scheduled tasks and stop accepting new tasks.
+     * The shared workers are not stopped since they are used by the other nodes in the JVM.
+     */
+    public void shutdown() {
+        shutdown = true;
+        scheduledTasks.forEach(ScheduledTask::cancel);
+        scheduledTasks.clear();
+        subsystemExecutors.values().forEach(SubsystemExecutor::shutdown);
+        logger.info("Shutdown task scheduler");
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Get the number of scheduled tasks which had not been cancelled.
+     *
+     * @return The number of scheduled tasks
+     */
+    public int getScheduledTaskCount() {
+        return scheduledTasks.size();
+    }
+
+    /**
+     * Get the worker executor service shared by all the nodes in the JVM.
+     * Workers are created on demand up to the worker thread count and are stopped after being idle for a while.
+     * Tasks submitted while all the workers are busy wait in the queue of the executor service.
+     * The pool is grown if a node requires more workers than the nodes created before it.
+     *
+     * @param workerThreadCount The maximum number of worker threads required by the node
+     * @return The shared worker executor service
+     */
+    private static synchronized ExecutorService getSharedWorkerExecutorService(int workerThreadCount) {
+        int maxPoolSize = Math.max(workerThreadCount, 1);
+        if (sharedWorkerExecutorService == null) {
+            ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(maxPoolSize, maxPoolSize,
+                    WORKER_KEEP_ALIVE_TIME, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    new DaemonThreadFactory("worker"));
+            threadPoolExecutor.allowCoreThreadTimeOut(true);
+            sharedWorkerExecutorService = threadPoolExecutor;
+        } else if (maxPoolSize > sharedWorkerExecutorService.getMaximumPoolSize()) {
+            sharedWorkerExecutorService.setMaximumPoolSize(maxPoolSize);
+            sharedWorkerExecutorService.setCorePoolSize(maxPoolSize);
+        }
+        return sharedWorkerExecutorService;
+    }
+
+    /**
+     * Get the virtual thread per task executor service shared by all the nodes in the JVM.
+     * The executor service is created using reflection since virtual threads are not available in all JVMs.
+     *
+     * @return The shared virtual thread executor service or null if virtual threads are not supported
+     */
+    private static synchronized ExecutorService getSharedVirtualThreadExecutorService() {
+        if (sharedVirtualThreadExecutorService == null && !virtualThreadsUnsupported) {
+            try {
+                sharedVirtualThreadExecutorService = (ExecutorService) Executors.class
+                        .getMethod(VIRTUAL_THREAD_EXECUTOR_FACTORY_METHOD).invoke(null);
+                logger.info("Using virtual threads for running tasks");
+            } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+                virtualThreadsUnsupported = true;
+                logger.warn("Virtual threads are not supported by the JVM. Using pooled threads instead.", e);
+            }
+        }
+        return sharedVirtualThreadExecutorService;
+    }
+
+    /**
+     * Get the timer executor service shared by all the nodes in the JVM.
+     * The timer only hands over the tasks to the subsystem executors and does not run them.
+     *
+     * @return The shared timer executor service
+     */
+    private static synchronized ScheduledExecutorService getSharedTimerExecutorService() {
+        if (sharedTimerExecutorService == null) {
+            ScheduledThreadPoolExecutor scheduledThreadPoolExecutor =
+                    new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("timer"));
+            scheduledThreadPoolExecutor.setRemoveOnCancelPolicy(true);
+            sharedTimerExecutorService = scheduledThreadPoolExecutor;
+        }
+        return sharedTimerExecutorService;
+    }
+
+    /**
+     * Thread factory which creates named daemon threads.
+     * Daemon threads are used since the shared threads should not prevent the JVM from exiting.
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger threadCount;
+
+        DaemonThreadFactory(String name) {
+            this.name = name;
+            threadCount = new AtomicInteger(0);
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "file-sharer-" + name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
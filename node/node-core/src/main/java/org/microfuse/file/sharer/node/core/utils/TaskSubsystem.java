@@ -0,0 +1,34 @@
+package org.microfuse.file.sharer.node.core.utils;
+
+/**
+ * The subsystems of a node which run tasks in the task scheduler.
+ * <p>
+ * Each subsystem has its own queue and metrics in the task scheduler.
+ */
+public enum TaskSubsystem {
+    NETWORK_HANDLER_LISTENER("Network Handler Listener"),
+    NETWORK_HANDLER_MAINTENANCE("Network Handler Maintenance"),
+    HEART_BEAT("Heart Beat"),
+    GOSSIP("Gossip"),
+    GARBAGE_COLLECTION("Garbage Collection"),
+    TRACING("Tracing"),
+    TIMEOUT("Timeout");
+
+    /**
+     * Contains the value to be displayed.
+     */
+    private String value;
+
+    TaskSubsystem(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Get the value to be displayed.
+     *
+     * @return The value to be displayed
+     */
+    public String getValue() {
+        return value;
+    }
+}
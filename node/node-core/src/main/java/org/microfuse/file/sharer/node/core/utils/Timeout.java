@@ -0,0 +1,78 @@
+package org.microfuse.file.sharer.node.core.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A timeout registered in the timeout service.
+ * <p>
+ * The handle can be used to cancel the timeout before it expires.
+ */
+public class Timeout {
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_CANCELLED = 1;
+    private static final int STATE_EXPIRED = 2;
+
+    private final TimeoutService timeoutService;
+    private final Runnable task;
+    private final long deadline;
+    private final AtomicInteger state;
+    private long remainingRounds;
+
+    Timeout(TimeoutService timeoutService, Runnable task, long deadline) {
+        this.timeoutService = timeoutService;
+        this.task = task;
+        this.deadline = deadline;
+        state = new AtomicInteger(STATE_PENDING);
+    }
+
+    /**
+     * Cancel the timeout.
+     * The task is not run if the timeout is cancelled before it expires.
+     *
+     * @return True if the timeout was cancelled and false if it had already expired or had been cancelled
+     */
+    public boolean cancel() {
+        boolean isCancelled = state.compareAndSet(STATE_PENDING, STATE_CANCELLED);
+        if (isCancelled) {
+            timeoutService.onTimeoutRemoved();
+        }
+        return isCancelled;
+    }
+
+    public boolean isCancelled() {
+        return state.get() == STATE_CANCELLED;
+    }
+
+    public boolean isExpired() {
+        return state.get() == STATE_EXPIRED;
+    }
+
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Mark the timeout as expired.
+     *
+     * @return True if the timeout had been pending and its task should be run
+     */
+    boolean expire() {
+        boolean isExpired = state.compareAndSet(STATE_PENDING, STATE_EXPIRED);
+        if (isExpired) {
+            timeoutService.onTimeoutRemoved();
+        }
+        return isExpired;
+    }
+
+    Runnable getTask() {
+        return task;
+    }
+
+    long getRemainingRounds() {
+        return remainingRounds;
+    }
+
+    void setRemainingRounds(long remainingRounds) {
+        this.remainingRounds = remainingRounds;
+    }
+}
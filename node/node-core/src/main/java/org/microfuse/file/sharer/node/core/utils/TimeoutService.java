@@ -0,0 +1,225 @@
+package org.microfuse.file.sharer.node.core.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Timeout Service.
+ * <p>
+ * All the request reply timeouts of a node are registered in this hashed timing wheel.
+ * Registering and cancelling a timeout only updates a queue and a state and therefore takes constant time.
+ * The wheel is moved forward by a timeout task in the task scheduler once every tick.
+ * Each tick the new timeouts are placed in the bucket of the tick in which they expire
+ * and the timeouts in the bucket of the current tick which have no remaining rounds are expired.
+ * The tasks of the expired timeouts are run in the task scheduler.
+ * The wheel only ticks while there are pending timeouts.
+ */
+public class TimeoutService {
+    private static final Logger logger = LoggerFactory.getLogger(TimeoutService.class);
+
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final ServiceHolder serviceHolder;
+    private final List<Queue<Timeout>> buckets;
+    private final Queue<Timeout> newTimeouts;
+    private final AtomicInteger pendingTimeoutCount;
+    private final Lock wheelLock;
+    private volatile ScheduledTask tickingTask;
+    private volatile boolean shutdown;
+    private long startTimeStamp;
+    private long tickDuration;
+    private long tickCount;
+
+    public TimeoutService(ServiceHolder serviceHolder) {
+        this.serviceHolder = serviceHolder;
+        buckets = new ArrayList<>(WHEEL_SIZE);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+        newTimeouts = new ConcurrentLinkedQueue<>();
+        pendingTimeoutCount = new AtomicInteger(0);
+        wheelLock = new ReentrantLock();
+        shutdown = false;
+    }
+
+    /**
+     * Register a timeout.
+     *
+     * @param task  The task to be run when the timeout expires
+     * @param delay The delay in milliseconds after which the timeout expires
+     * @return The timeout which can be used to cancel it
+     */
+    public Timeout schedule(Runnable task, long delay) {
+        Timeout timeout = new Timeout(this, task, System.currentTimeMillis() + delay);
+        pendingTimeoutCount.incrementAndGet();
+        if (shutdown) {
+            timeout.cancel();
+            logger.debug("Ignored timeout registered after shutdown");
+        } else {
+            newTimeouts.add(timeout);
+            if (tickingTask == null) {
+                startTicking();
+            }
+        }
+        return timeout;
+    }
+
+    /**
+     * Cancel all the pending timeouts and stop ticking.
+     */
+    public void shutdown() {
+        shutdown = true;
+        wheelLock.lock();
+        try {
+            stopTicking();
+            Timeout timeout;
+            while ((timeout = newTimeouts.poll()) != null) {
+                timeout.cancel();
+            }
+            for (Queue<Timeout> bucket : buckets) {
+                while ((timeout = bucket.poll()) != null) {
+                    timeout.cancel();
+                }
+            }
+        } finally {
+            wheelLock.unlock();
+        }
+        logger.info("Shutdown timeout service");
+    }
+
+    /**
+     * Get the number of timeouts which had neither expired nor been cancelled.
+     *
+     * @return The number of pending timeouts
+     */
+    public int getPendingTimeoutCount() {
+        return pendingTimeoutCount.get();
+    }
+
+    /**
+     * Check whether the wheel is ticking.
+     *
+     * @return True if the wheel is ticking
+     */
+    public boolean isTicking() {
+        return tickingTask != null;
+    }
+
+    /**
+     * Called when a timeout expires or is cancelled.
+     */
+    void onTimeoutRemoved() {
+        pendingTimeoutCount.decrementAndGet();
+    }
+
+    /**
+     * Start ticking if the wheel is not already ticking.
+     * Since the wheel is empty when it is not ticking it is reset to start from the current time.
+     */
+    private void startTicking() {
+        wheelLock.lock();
+        try {
+            if (tickingTask == null && !shutdown) {
+                buckets.forEach(Queue::clear);
+                startTimeStamp = System.currentTimeMillis();
+                tickDuration = Math.max(serviceHolder.getConfiguration().getTimeoutServiceTickDuration(), 1);
+                tickCount = 0;
+                int tickInterval = (int) tickDuration;
+                tickingTask = serviceHolder.getTaskScheduler().schedulePeriodically(
+                        TaskSubsystem.TIMEOUT, this::tick, () -> tickInterval
+                );
+            }
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    /**
+     * Stop ticking.
+     * Should be called while holding the wheel lock.
+     */
+    private void stopTicking() {
+        if (tickingTask != null) {
+            serviceHolder.getTaskScheduler().cancel(tickingTask);
+            tickingTask = null;
+        }
+    }
+
+    /**
+     * Move the wheel forward to the current time.
+     * The wheel stops ticking when there are no pending timeouts left.
+     */
+    private void tick() {
+        wheelLock.lock();
+        try {
+            long currentTimeStamp = System.currentTimeMillis();
+            while (startTimeStamp + (tickCount + 1) * tickDuration <= currentTimeStamp) {
+                transferNewTimeouts();
+                expireTimeouts(buckets.get((int) (tickCount & WHEEL_MASK)));
+                tickCount++;
+            }
+            if (pendingTimeoutCount.get() == 0) {
+                stopTicking();
+
+                // A timeout registered while stopping would otherwise be left without a ticking wheel
+                if (pendingTimeoutCount.get() > 0) {
+                    startTicking();
+                }
+            }
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    /**
+     * Place the newly registered timeouts in the buckets of the ticks in which they expire.
+     * Should be called while holding the wheel lock.
+     */
+    private void transferNewTimeouts() {
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            if (!timeout.isCancelled()) {
+                long expiryTick = (timeout.getDeadline() - startTimeStamp) / tickDuration;
+                timeout.setRemainingRounds((expiryTick - tickCount) / WHEEL_SIZE);
+
+                // Timeouts which should have already expired are expired in the current tick
+                long bucketTick = Math.max(expiryTick, tickCount);
+                buckets.get((int) (bucketTick & WHEEL_MASK)).add(timeout);
+            }
+        }
+    }
+
+    /**
+     * Expire the timeouts in a bucket which do not have any remaining rounds.
+     * Cancelled timeouts are removed from the bucket.
+     * Should be called while holding the wheel lock.
+     *
+     * @param bucket The bucket of the current tick
+     */
+    private void expireTimeouts(Queue<Timeout> bucket) {
+        int bucketSize = bucket.size();
+        for (int i = 0; i < bucketSize; i++) {
+            Timeout timeout = bucket.poll();
+            if (timeout != null && !timeout.isCancelled()) {
+                if (timeout.getRemainingRounds() <= 0) {
+                    if (timeout.expire()) {
+                        serviceHolder.getTaskScheduler().execute(TaskSubsystem.TIMEOUT, timeout.getTask());
+                    }
+                } else {
+                    timeout.setRemainingRounds(timeout.getRemainingRounds() - 1);
+                    bucket.add(timeout);
+                }
+            }
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package org.microfuse.file.sharer.node.core.utils;
 
 import org.microfuse.file.sharer.node.commons.Constants;
+import org.microfuse.file.sharer.node.core.tracing.TraceEvent;
 import org.microfuse.file.sharer.node.core.tracing.Traceable;
+import org.microfuse.file.sharer.node.core.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,9 +14,20 @@ import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Trace Manager.
+ * <p>
+ * Events to be sent to the tracer are queued and sent in batches by a tracing task in the task scheduler.
+ * At most one tracing task is queued or running at a time which keeps the events in order.
+ * Therefore a slow tracer does not slow down the node.
+ * If the tracer falls behind and the queue is full new events are dropped and counted.
  */
 public class TraceManager implements Traceable {
     private static final Logger logger = LoggerFactory.getLogger(TraceManager.class);
@@ -23,8 +36,17 @@ public class TraceManager implements Traceable {
 
     private Registry registry;
 
+    private final BlockingQueue<TraceEvent> eventQueue;
+    private final AtomicLong droppedEventCount;
+    private final AtomicBoolean eventDispatchScheduled;
+    private volatile boolean eventDispatchingEnabled;
+
     public TraceManager(ServiceHolder serviceHolder) {
         this.serviceHolder = serviceHolder;
+        eventQueue = new ArrayBlockingQueue<>(serviceHolder.getConfiguration().getTracerEventQueueSize());
+        droppedEventCount = new AtomicLong(0);
+        eventDispatchScheduled = new AtomicBoolean(false);
+        eventDispatchingEnabled = false;
 
         // Starting the RMI registry. Fails if it is already running.
         try {
@@ -65,6 +87,8 @@ public class TraceManager implements Traceable {
             logger.warn("Failed to startInThread listening at port " + port, e);
         }
         logger.info("Started listening at port " + port);
+
+        startEventDispatching();
     }
 
     /**
@@ -72,6 +96,7 @@ public class TraceManager implements Traceable {
      */
     public void shutdown() {
         logger.info("Shutting down trace manager");
+        stopEventDispatching();
 
         // Removing this object from the RMI registry
         try {
@@ -93,6 +118,96 @@ public class TraceManager implements Traceable {
         }
     }
 
+    /**
+     * Queue an event to be sent to the tracer.
+     * The event is dropped if the queue is full.
+     *
+     * @param traceEvent The event to be sent to the tracer
+     */
+    public void publishEvent(TraceEvent traceEvent) {
+        if (eventQueue.offer(traceEvent)) {
+            scheduleEventDispatch();
+        } else {
+            droppedEventCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Get the number of events which were not delivered to the tracer.
+     * This includes the events dropped due to a full queue and the events in batches which failed to be sent.
+     *
+     * @return The number of dropped events
+     */
+    public long getDroppedEventCount() {
+        return droppedEventCount.get();
+    }
+
+    /**
+     * Start sending the queued events to the tracer in batches.
+     */
+    private void startEventDispatching() {
+        eventDispatchingEnabled = true;
+        scheduleEventDispatch();
+    }
+
+    /**
+     * Stop sending the queued events to the tracer.
+     */
+    private void stopEventDispatching() {
+        eventDispatchingEnabled = false;
+    }
+
+    /**
+     * Queue a tracing task to send the queued events unless one is already queued or running.
+     */
+    private void scheduleEventDispatch() {
+        if (eventDispatchingEnabled && !eventQueue.isEmpty() && eventDispatchScheduled.compareAndSet(false, true)) {
+            serviceHolder.getTaskScheduler().execute(TaskSubsystem.TRACING, this::dispatchEvents);
+        }
+    }
+
+    /**
+     * Send the queued events to the tracer in batches until the queue is empty.
+     */
+    private void dispatchEvents() {
+        try {
+            int batchSize = serviceHolder.getConfiguration().getTracerEventBatchSize();
+            while (eventDispatchingEnabled && !eventQueue.isEmpty()) {
+                List<TraceEvent> traceEvents = new ArrayList<>();
+                eventQueue.drainTo(traceEvents, batchSize);
+                if (traceEvents.size() > 0) {
+                    sendEvents(traceEvents);
+                }
+            }
+        } finally {
+            eventDispatchScheduled.set(false);
+        }
+        // Events published after the queue was found to be empty are dispatched by a new task
+        scheduleEventDispatch();
+    }
+
+    /**
+     * Send a batch of events to the tracer.
+     *
+     * @param traceEvents The events to be sent
+     */
+    private void sendEvents(List<TraceEvent> traceEvents) {
+        Tracer tracer = serviceHolder.getTracer();
+        boolean isSent = false;
+        if (tracer != null) {
+            try {
+                tracer.notifyEvents(traceEvents);
+                isSent = true;
+            } catch (RemoteException e) {
+                logger.warn("Failed to send " + traceEvents.size() + " events to the tracer", e);
+                serviceHolder.invalidateTracer();
+            }
+        }
+        if (!isSent) {
+            droppedEventCount.addAndGet(traceEvents.size());
+        }
+    }
+
     /**
      * Get the Trace Manager registry entry based on ip and port.
      *
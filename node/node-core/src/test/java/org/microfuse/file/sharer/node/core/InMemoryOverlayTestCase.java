@@ -0,0 +1,93 @@
+package org.microfuse.file.sharer.node.core;
+
+import org.microfuse.file.sharer.node.commons.Constants;
+import org.microfuse.file.sharer.node.commons.communication.network.NetworkHandlerType;
+import org.microfuse.file.sharer.node.core.communication.network.inmemory.InMemoryBootstrapServer;
+import org.microfuse.file.sharer.node.core.communication.network.inmemory.InMemoryLinkProperties;
+import org.microfuse.file.sharer.node.core.communication.network.inmemory.InMemoryNetwork;
+import org.microfuse.file.sharer.node.core.resource.AggregatedResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * Test Case for running an overlay of many nodes in the in memory network.
+ */
+public class InMemoryOverlayTestCase extends BaseTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryOverlayTestCase.class);
+
+    private int delay;
+    private InMemoryBootstrapServer bootstrapServer;
+    private FileSharer[] fileSharers;
+
+    @BeforeMethod
+    public void initializeMethod() {
+        logger.info("Initializing In Memory Overlay Test");
+
+        delay = 1000;
+        InMemoryNetwork.getInstance().setDefaultLinkProperties(new InMemoryLinkProperties(5, 2, 0, 0));
+
+        fileSharers = new FileSharer[100];
+        for (int i = 0; i < fileSharers.length; i++) {
+            fileSharers[i] = new FileSharer();
+            fileSharers[i].getServiceHolder().getConfiguration().setIp("10.0." + (i / 250) + "." + (i % 250 + 1));
+            fileSharers[i].getServiceHolder().getConfiguration().setPeerListeningPort(6000);
+            fileSharers[i].getServiceHolder().getConfiguration().setNetworkHandlerType(NetworkHandlerType.IN_MEMORY);
+            fileSharers[i].getServiceHolder().getResourceIndex().addOwnedResource("Resource " + i, null);
+            if (i > 0) {
+                fileSharers[i].getServiceHolder().getResourceIndex().addOwnedResource("Cars", null);
+            }
+        }
+
+        bootstrapServer = new InMemoryBootstrapServer(
+                fileSharers[0].getServiceHolder().getConfiguration().getBootstrapServerIP(),
+                fileSharers[0].getServiceHolder().getConfiguration().getBootstrapServerPort());
+        Assert.assertTrue(bootstrapServer.start());
+
+        for (FileSharer fileSharer : fileSharers) {
+            fileSharer.start();
+        }
+        waitFor(delay * 5);
+    }
+
+    @AfterMethod
+    public void cleanUp() {
+        logger.info("Cleaning Up In Memory Overlay Test");
+
+        for (FileSharer fileSharer : fileSharers) {
+            fileSharer.shutdown();
+        }
+        waitFor(delay + Constants.TASK_INTERVAL + Constants.THREAD_DISABLE_TIMEOUT);
+
+        bootstrapServer.shutdown();
+        InMemoryNetwork.getInstance().clear();
+    }
+
+    @Test(priority = 1)
+    public void testRegistration() {
+        logger.info("Running In Memory Overlay Test 01 - Registration");
+
+        Assert.assertEquals(bootstrapServer.getAllNodes().size(), fileSharers.length);
+        for (FileSharer fileSharer : fileSharers) {
+            Assert.assertTrue(fileSharer.getServiceHolder().getRouter().getRoutingTable().getAll().size() > 0);
+        }
+    }
+
+    @Test(priority = 2)
+    public void testQuery() {
+        logger.info("Running In Memory Overlay Test 02 - Query");
+
+        fileSharers[0].getServiceHolder().getQueryManager().query("Cars");
+        waitFor(delay * 2);
+
+        List<AggregatedResource> queryResults =
+                fileSharers[0].getServiceHolder().getQueryManager().getQueryResults("Cars");
+        Assert.assertEquals(queryResults.size(), 1);
+        Assert.assertTrue(queryResults.get(0).getNodeCount() > 0);
+    }
+}
@@ -0,0 +1,208 @@
+package org.microfuse.file.sharer.node.core.communication.messaging;
+
+import org.microfuse.file.sharer.node.commons.Constants;
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.commons.communication.messaging.UDPMessageType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.testng.collections.Lists;
+
+import java.util.List;
+
+/**
+ * Test Case for org.microfuse.file.sharer.node.core.communication.messaging.MessageCodec class.
+ */
+public class MessageCodecTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(MessageCodecTestCase.class);
+
+    private TCPMessage tcpMessage;
+    private UDPMessage udpMessage;
+
+    @BeforeMethod
+    public void initializeMethod() {
+        logger.info("Initializing Message Codec Test");
+
+        Message message = new Message();
+        message.setType(MessageType.SER);
+        message.setData(Lists.newArrayList("129.82.62.142", "5070", "0", "Lord of the Rings", "0"));
+
+        tcpMessage = new TCPMessage();
+        tcpMessage.setSourceIP("129.82.62.142");
+        tcpMessage.setSourcePort(5070);
+        tcpMessage.setMessage(message);
+
+        udpMessage = new UDPMessage();
+        udpMessage.setType(UDPMessageType.DATA);
+        udpMessage.setSourceIP("129.82.62.142");
+        udpMessage.setSourcePort(5070);
+        udpMessage.setSequenceNumber(300);
+        udpMessage.setMessage(message.clone());
+    }
+
+    @Test(priority = 1)
+    public void testBinaryTCPMessage() {
+        logger.info("Running Message Codec Test 01 - Binary TCP message");
+
+        byte[] bytes = MessageCodec.encode(tcpMessage, true);
+        TCPMessage decodedTCPMessage = MessageCodec.decodeTCPMessage(bytes, 0, bytes.length);
+
+        Assert.assertTrue(MessageCodec.isBinary(bytes, 0, bytes.length));
+        Assert.assertTrue(bytes.length < tcpMessage.toString().length());
+        Assert.assertEquals(decodedTCPMessage, tcpMessage);
+        Assert.assertEquals(decodedTCPMessage.getMessage(), tcpMessage.getMessage());
+    }
+
+    @Test(priority = 2)
+    public void testTextTCPMessage() {
+        logger.info("Running Message Codec Test 02 - Text TCP message");
+
+        byte[] bytes = MessageCodec.encode(tcpMessage, false);
+        TCPMessage decodedTCPMessage = MessageCodec.decodeTCPMessage(bytes, 0, bytes.length);
+
+        Assert.assertFalse(MessageCodec.isBinary(bytes, 0, bytes.length));
+        Assert.assertEquals(new String(bytes, Constants.DEFAULT_CHARSET), tcpMessage.toString());
+        Assert.assertEquals(decodedTCPMessage, tcpMessage);
+    }
+
+    @Test(priority = 3)
+    public void testBinaryUDPMessage() {
+        logger.info("Running Message Codec Test 03 - Binary UDP message");
+
+        byte[] bytes = MessageCodec.encode(udpMessage, true);
+        UDPMessage decodedUDPMessage = MessageCodec.decodeUDPMessage(bytes, 0, bytes.length);
+
+        Assert.assertTrue(bytes.length < udpMessage.toString().length());
+        Assert.assertEquals(decodedUDPMessage, udpMessage);
+        Assert.assertEquals(decodedUDPMessage.getMessage(), udpMessage.getMessage());
+    }
+
+    @Test(priority = 4)
+    public void testBinaryUDPMessageWithoutMessage() {
+        logger.info("Running Message Codec Test 04 - Binary UDP message without message");
+
+        udpMessage.setType(UDPMessageType.DATA_ACK);
+        udpMessage.setMessage(null);
+        byte[] bytes = MessageCodec.encode(udpMessage, true);
+        UDPMessage decodedUDPMessage = MessageCodec.decodeUDPMessage(bytes, 0, bytes.length);
+
+        Assert.assertEquals(decodedUDPMessage, udpMessage);
+        Assert.assertNull(decodedUDPMessage.getMessage());
+    }
+
+    @Test(priority = 5)
+    public void testTextUDPMessage() {
+        logger.info("Running Message Codec Test 05 - Text UDP message");
+
+        byte[] bytes = MessageCodec.encode(udpMessage, false);
+        UDPMessage decodedUDPMessage = MessageCodec.decodeUDPMessage(bytes, 0, bytes.length);
+
+        Assert.assertEquals(new String(bytes, Constants.DEFAULT_CHARSET), udpMessage.toString());
+        Assert.assertEquals(decodedUDPMessage, udpMessage);
+        Assert.assertEquals(decodedUDPMessage.getMessage(), udpMessage.getMessage());
+    }
+
+    @Test(priority = 6, expectedExceptions = IllegalArgumentException.class)
+    public void testMalformedBinaryMessage() {
+        logger.info("Running Message Codec Test 06 - Malformed binary message");
+
+        byte[] bytes = MessageCodec.encode(tcpMessage, true);
+        MessageCodec.decodeTCPMessage(bytes, 0, bytes.length / 2);
+    }
+
+    @Test(priority = 7)
+    public void testBinaryUDPMessageWithAck() {
+        logger.info("Running Message Codec Test 07 - Binary UDP message with acknowledgement");
+
+        udpMessage.setAckSequenceNumber(45);
+        udpMessage.setSelectiveAckBitmap(0x8000000000000005L);
+        byte[] bytes = MessageCodec.encode(udpMessage, true);
+        UDPMessage decodedUDPMessage = MessageCodec.decodeUDPMessage(bytes, 0, bytes.length);
+
+        Assert.assertEquals(decodedUDPMessage, udpMessage);
+        Assert.assertEquals(decodedUDPMessage.getAckSequenceNumber(), 45);
+        Assert.assertEquals(decodedUDPMessage.getSelectiveAckBitmap(), 0x8000000000000005L);
+        Assert.assertEquals(decodedUDPMessage.getMessage(), udpMessage.getMessage());
+    }
+
+    @Test(priority = 8)
+    public void testTextUDPMessageWithAck() {
+        logger.info("Running Message Codec Test 08 - Text UDP message with acknowledgement");
+
+        udpMessage.setType(UDPMessageType.DATA_ACK);
+        udpMessage.setSequenceNumber(-1);
+        udpMessage.setMessage(null);
+        udpMessage.setAckSequenceNumber(45);
+        udpMessage.setSelectiveAckBitmap(0x8000000000000005L);
+        byte[] bytes = MessageCodec.encode(udpMessage, false);
+        UDPMessage decodedUDPMessage = MessageCodec.decodeUDPMessage(bytes, 0, bytes.length);
+
+        Assert.assertEquals(new String(bytes, Constants.DEFAULT_CHARSET), udpMessage.toString());
+        Assert.assertEquals(decodedUDPMessage, udpMessage);
+        Assert.assertEquals(decodedUDPMessage.getAckSequenceNumber(), 45);
+        Assert.assertEquals(decodedUDPMessage.getSelectiveAckBitmap(), 0x8000000000000005L);
+        Assert.assertNull(decodedUDPMessage.getMessage());
+    }
+
+    @Test(priority = 9)
+    public void testUDPMessageBatch() {
+        logger.info("Running Message Codec Test 09 - UDP message batch");
+
+        UDPMessage ackMessage = new UDPMessage();
+        ackMessage.setType(UDPMessageType.DATA_ACK);
+        ackMessage.setSourceIP("129.82.62.142");
+        ackMessage.setSourcePort(5070);
+        ackMessage.setAckSequenceNumber(12);
+        byte[] bytes = MessageCodec.encodeBatch(Lists.newArrayList(
+                MessageCodec.encode(udpMessage, true), MessageCodec.encode(ackMessage, false)));
+        List<UDPMessage> decodedUDPMessages = MessageCodec.decodeUDPMessages(bytes, 0, bytes.length);
+
+        Assert.assertEquals(bytes.length, MessageCodec.getBatchSize(Lists.newArrayList(
+                MessageCodec.encode(udpMessage, true), MessageCodec.encode(ackMessage, false))));
+        Assert.assertEquals(decodedUDPMessages.size(), 2);
+        Assert.assertEquals(decodedUDPMessages.get(0), udpMessage);
+        Assert.assertEquals(decodedUDPMessages.get(0).getMessage(), udpMessage.getMessage());
+        Assert.assertEquals(decodedUDPMessages.get(1), ackMessage);
+        Assert.assertEquals(decodedUDPMessages.get(1).getAckSequenceNumber(), 12);
+    }
+
+    @Test(priority = 10)
+    public void testSingleUDPMessageDecodedAsBatch() {
+        logger.info("Running Message Codec Test 10 - Single UDP message decoded as batch");
+
+        byte[] bytes = MessageCodec.encode(udpMessage, false);
+        List<UDPMessage> decodedUDPMessages = MessageCodec.decodeUDPMessages(bytes, 0, bytes.length);
+
+        Assert.assertEquals(decodedUDPMessages.size(), 1);
+        Assert.assertEquals(decodedUDPMessages.get(0), udpMessage);
+    }
+
+    @Test(priority = 11, expectedExceptions = IllegalArgumentException.class)
+    public void testMalformedUDPMessageBatch() {
+        logger.info("Running Message Codec Test 11 - Malformed UDP message batch");
+
+        byte[] bytes = MessageCodec.encodeBatch(Lists.newArrayList(
+                MessageCodec.encode(udpMessage, true), MessageCodec.encode(udpMessage, true)));
+        MessageCodec.decodeUDPMessages(bytes, 0, bytes.length - 5);
+    }
+
+    @Test(priority = 12, expectedExceptions = IllegalArgumentException.class)
+    public void testBinaryMessageWithInvalidDataCount() {
+        logger.info("Running Message Codec Test 12 - Binary message with invalid data count");
+
+        // Replacing the data count which follows the marker, source, port, presence and type with a huge varint
+        byte[] bytes = MessageCodec.encode(tcpMessage, true);
+        int dataCountIndex = 1 + 1 + tcpMessage.getSourceIP().length() + 2 + 1 + 1;
+        byte[] dataCountBytes = new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        byte[] malformedBytes = new byte[bytes.length - 1 + dataCountBytes.length];
+        System.arraycopy(bytes, 0, malformedBytes, 0, dataCountIndex);
+        System.arraycopy(dataCountBytes, 0, malformedBytes, dataCountIndex, dataCountBytes.length);
+        System.arraycopy(bytes, dataCountIndex + 1, malformedBytes, dataCountIndex + dataCountBytes.length,
+                bytes.length - dataCountIndex - 1);
+        Assert.assertEquals(bytes[dataCountIndex], 5);
+
+        MessageCodec.decodeTCPMessage(malformedBytes, 0, malformedBytes.length);
+    }
+}
@@ -52,7 +52,7 @@ public class MessageTestCase {
     public void testHashCode() {
         logger.info("Running Node Test 03 - Hash code");
 
-        Assert.assertEquals(message.hashCode(), message.toString().hashCode());
+        Assert.assertEquals(message.hashCode(), messageCopy.hashCode());
     }
 
     @Test(priority = 3)
@@ -0,0 +1,233 @@
+package org.microfuse.file.sharer.node.core.communication.network;
+
+import org.microfuse.file.sharer.node.commons.Configuration;
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageConstants;
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageIndexes;
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.commons.communication.network.NetworkHandlerType;
+import org.microfuse.file.sharer.node.core.BaseTestCase;
+import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+import org.microfuse.file.sharer.node.core.communication.network.inmemory.InMemoryBootstrapServer;
+import org.microfuse.file.sharer.node.core.communication.network.inmemory.InMemoryBootstrapServerNetworkHandler;
+import org.microfuse.file.sharer.node.core.communication.network.inmemory.InMemoryNetwork;
+import org.microfuse.file.sharer.node.core.communication.network.inmemory.InMemoryNetworkHandler;
+import org.microfuse.file.sharer.node.core.communication.routing.Router;
+import org.microfuse.file.sharer.node.core.communication.routing.strategy.RoutingStrategy;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test Case for
+ * org.microfuse.file.sharer.node.core.communication.network.inmemory.InMemoryBootstrapServerNetworkHandler class.
+ */
+public class InMemoryBootstrapServerNetworkHandlerTestCase extends BaseTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryBootstrapServerNetworkHandlerTestCase.class);
+
+    private InMemoryBootstrapServerNetworkHandler bootstrapServerNetworkHandler;
+    private NetworkHandlerListener bootstrapServerNetworkHandlerListener;
+    private InMemoryBootstrapServer bootstrapServer;
+    private String bootstrapServerIP;
+    private int bootstrapServerPort;
+    private int delay;
+
+    @BeforeMethod
+    public void initializeMethod() {
+        logger.info("Initializing In Memory Bootstrap Server Network Handler Test");
+
+        delay = 100;
+        Configuration configuration = serviceHolder.getConfiguration();
+        configuration.setNetworkHandlerType(NetworkHandlerType.IN_MEMORY);
+        bootstrapServerIP = configuration.getBootstrapServerIP();
+        bootstrapServerPort = configuration.getBootstrapServerPort();
+
+        bootstrapServer = new InMemoryBootstrapServer(bootstrapServerIP, bootstrapServerPort);
+        Assert.assertTrue(bootstrapServer.start());
+
+        bootstrapServerNetworkHandler = new InMemoryBootstrapServerNetworkHandler(serviceHolder);
+        bootstrapServerNetworkHandlerListener = Mockito.mock(NetworkHandlerListener.class);
+        bootstrapServerNetworkHandler.registerListener(bootstrapServerNetworkHandlerListener);
+        bootstrapServerNetworkHandler.startListening();
+    }
+
+    @AfterMethod
+    public void cleanUp() {
+        logger.info("Cleaning Up In Memory Bootstrap Server Network Handler Test");
+
+        bootstrapServerNetworkHandler.shutdown();
+        bootstrapServer.shutdown();
+        InMemoryNetwork.getInstance().clear();
+    }
+
+    @Test(priority = 1)
+    public void testName() {
+        logger.info("Running In Memory Bootstrap Server Network Handler Test 01 - Get name");
+
+        Assert.assertNotNull(bootstrapServerNetworkHandler.getName());
+    }
+
+    @Test(priority = 2)
+    public void testEcho() {
+        logger.info("Running In Memory Bootstrap Server Network Handler Test 02 - Echo to bootstrap server");
+
+        Message echoMessage = new Message();
+        echoMessage.setType(MessageType.ECHO);
+
+        Message echoOkMessage = new Message();
+        echoOkMessage.setType(MessageType.ECHO_OK);
+        echoOkMessage.setData(MessageIndexes.ECHO_OK_VALUE, MessageConstants.ECHO_OK_VALUE_SUCCESS);
+
+        NetworkHandler networkHandler = new InMemoryNetworkHandler(serviceHolder);
+        RoutingStrategy routingStrategy = Mockito.mock(RoutingStrategy.class);
+        Router router = Mockito.spy(new Router(networkHandler, routingStrategy, serviceHolder));
+
+        Object routerInternalState = Whitebox.getInternalState(router, "bootstrapServerNetworkHandler");
+        Assert.assertTrue(routerInternalState instanceof InMemoryBootstrapServerNetworkHandler);
+        InMemoryBootstrapServerNetworkHandler routerBootstrapServerNetworkHandler =
+                (InMemoryBootstrapServerNetworkHandler) routerInternalState;
+        routerBootstrapServerNetworkHandler.clearListeners();
+        routerBootstrapServerNetworkHandler.registerListener(router);
+
+        router.sendMessageToBootstrapServer(echoMessage);
+        waitFor(delay);
+
+        Mockito.verify(router, Mockito.times(1))
+                .onMessageReceived(bootstrapServerIP, bootstrapServerPort, echoOkMessage);
+
+        router.shutdown();
+    }
+
+    @Test(priority = 3)
+    public void testRegister() {
+        logger.info("Running In Memory Bootstrap Server Network Handler Test 03 - Register in bootstrap server");
+
+        for (int i = 0; i < 4; i++) {
+            bootstrapServerNetworkHandler.sendMessage(bootstrapServerIP, bootstrapServerPort,
+                    createRegMessage("192.168.1." + i, 6000, "user" + i));
+        }
+        waitFor(delay);
+
+        Message regOkMessage1 = new Message();
+        regOkMessage1.setType(MessageType.REG_OK);
+        regOkMessage1.setData(MessageIndexes.REG_OK_NODES_COUNT, "0");
+        Mockito.verify(bootstrapServerNetworkHandlerListener, Mockito.times(1))
+                .onMessageReceived(bootstrapServerIP, bootstrapServerPort, regOkMessage1);
+
+        Message regOkMessage2 = new Message();
+        regOkMessage2.setType(MessageType.REG_OK);
+        regOkMessage2.setData(MessageIndexes.REG_OK_NODES_COUNT, "1");
+        regOkMessage2.setData(MessageIndexes.REG_OK_IP_PORT_START, "192.168.1.0");
+        regOkMessage2.setData(MessageIndexes.REG_OK_IP_PORT_START + 1, "6000");
+        Mockito.verify(bootstrapServerNetworkHandlerListener, Mockito.times(1))
+                .onMessageReceived(bootstrapServerIP, bootstrapServerPort, regOkMessage2);
+        Assert.assertEquals(bootstrapServer.getAllNodes().size(), 4);
+
+        Message regMessage = createRegMessage("192.168.1.4", 6000, "user4");
+        bootstrapServerNetworkHandler.sendMessage(bootstrapServerIP, bootstrapServerPort, regMessage);
+        waitFor(delay);
+        ArgumentCaptor<Message> messageArgumentCaptor = ArgumentCaptor.forClass(Message.class);
+        Mockito.verify(bootstrapServerNetworkHandlerListener, Mockito.times(5)).onMessageReceived(
+                Mockito.eq(bootstrapServerIP), Mockito.eq(bootstrapServerPort), messageArgumentCaptor.capture());
+        Message regOkMessage5 = messageArgumentCaptor.getValue();
+        Assert.assertEquals(regOkMessage5.getType(), MessageType.REG_OK);
+        Assert.assertEquals(regOkMessage5.getData(MessageIndexes.REG_OK_NODES_COUNT), "2");
+        Assert.assertNotEquals(regOkMessage5.getData(MessageIndexes.REG_OK_IP_PORT_START),
+                regOkMessage5.getData(MessageIndexes.REG_OK_IP_PORT_START + 2));
+        Assert.assertNotEquals(regOkMessage5.getData(MessageIndexes.REG_OK_IP_PORT_START), "192.168.1.4");
+        Assert.assertNotEquals(regOkMessage5.getData(MessageIndexes.REG_OK_IP_PORT_START + 2), "192.168.1.4");
+    }
+
+    @Test(priority = 4)
+    public void testRegisterTwice() {
+        logger.info("Running In Memory Bootstrap Server Network Handler Test 04 - Register twice in bootstrap server");
+
+        bootstrapServerNetworkHandler.sendMessage(bootstrapServerIP, bootstrapServerPort,
+                createRegMessage("192.168.1.1", 6000, "user1"));
+        bootstrapServerNetworkHandler.sendMessage(bootstrapServerIP, bootstrapServerPort,
+                createRegMessage("192.168.1.1", 6000, "user1"));
+        bootstrapServerNetworkHandler.sendMessage(bootstrapServerIP, bootstrapServerPort,
+                createRegMessage("192.168.1.1", 6000, "user2"));
+        waitFor(delay);
+
+        Message alreadyRegisteredMessage = new Message();
+        alreadyRegisteredMessage.setType(MessageType.REG_OK);
+        alreadyRegisteredMessage.setData(MessageIndexes.REG_OK_NODES_COUNT,
+                MessageConstants.REG_OK_NODE_COUNT_VALUE_ERROR_ALREADY_REGISTERED);
+        Mockito.verify(bootstrapServerNetworkHandlerListener, Mockito.times(1))
+                .onMessageReceived(bootstrapServerIP, bootstrapServerPort, alreadyRegisteredMessage);
+
+        Message alreadyOccupiedMessage = new Message();
+        alreadyOccupiedMessage.setType(MessageType.REG_OK);
+        alreadyOccupiedMessage.setData(MessageIndexes.REG_OK_NODES_COUNT,
+                MessageConstants.REG_OK_NODE_COUNT_VALUE_ERROR_ALREADY_OCCUPIED);
+        Mockito.verify(bootstrapServerNetworkHandlerListener, Mockito.times(1))
+                .onMessageReceived(bootstrapServerIP, bootstrapServerPort, alreadyOccupiedMessage);
+        Assert.assertEquals(bootstrapServer.getAllNodes().size(), 1);
+    }
+
+    @Test(priority = 5)
+    public void testUnregister() {
+        logger.info("Running In Memory Bootstrap Server Network Handler Test 05 - Unregister from bootstrap server");
+
+        bootstrapServerNetworkHandler.sendMessage(bootstrapServerIP, bootstrapServerPort,
+                createRegMessage("192.168.1.1", 6000, "user1"));
+
+        Message unregMessage = new Message();
+        unregMessage.setType(MessageType.UNREG);
+        unregMessage.setData(MessageIndexes.UNREG_IP, "192.168.1.1");
+        unregMessage.setData(MessageIndexes.UNREG_PORT, "6000");
+        unregMessage.setData(MessageIndexes.UNREG_USERNAME, "user1");
+        bootstrapServerNetworkHandler.sendMessage(bootstrapServerIP, bootstrapServerPort, unregMessage);
+        waitFor(delay);
+
+        Message unregOkMessage = new Message();
+        unregOkMessage.setType(MessageType.UNREG_OK);
+        unregOkMessage.setData(MessageIndexes.UNREG_OK_VALUE, MessageConstants.UNREG_OK_VALUE_SUCCESS);
+        Mockito.verify(bootstrapServerNetworkHandlerListener, Mockito.times(1))
+                .onMessageReceived(bootstrapServerIP, bootstrapServerPort, unregOkMessage);
+        Assert.assertEquals(bootstrapServer.getAllNodes().size(), 0);
+
+        bootstrapServerNetworkHandler.sendMessage(bootstrapServerIP, bootstrapServerPort, unregMessage);
+        waitFor(delay);
+        Mockito.verify(bootstrapServerNetworkHandlerListener, Mockito.times(1))
+                .onMessageSendFailed(bootstrapServerIP, bootstrapServerPort, unregMessage);
+    }
+
+    @Test(priority = 6)
+    public void testBootstrapServerNotRunning() {
+        logger.info("Running In Memory Bootstrap Server Network Handler Test 06 - Bootstrap server not running");
+
+        bootstrapServer.shutdown();
+
+        Message echoMessage = new Message();
+        echoMessage.setType(MessageType.ECHO);
+        bootstrapServerNetworkHandler.sendMessage(bootstrapServerIP, bootstrapServerPort, echoMessage);
+        waitFor(delay);
+
+        Mockito.verify(bootstrapServerNetworkHandlerListener, Mockito.times(1))
+                .onMessageSendFailed(bootstrapServerIP, bootstrapServerPort, echoMessage);
+    }
+
+    /**
+     * Create a REG message.
+     *
+     * @param ip       The ip of the node
+     * @param port     The port of the node
+     * @param username The username of the node
+     * @return The REG message
+     */
+    private Message createRegMessage(String ip, int port, String username) {
+        Message regMessage = new Message();
+        regMessage.setType(MessageType.REG);
+        regMessage.setData(MessageIndexes.REG_IP, ip);
+        regMessage.setData(MessageIndexes.REG_PORT, Integer.toString(port));
+        regMessage.setData(MessageIndexes.REG_USERNAME, username);
+        return regMessage;
+    }
+}
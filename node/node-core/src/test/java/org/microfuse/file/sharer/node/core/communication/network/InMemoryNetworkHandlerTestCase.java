@@ -0,0 +1,256 @@
+package org.microfuse.file.sharer.node.core.communication.network;
+
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.commons.peer.NodeConstants;
+import org.microfuse.file.sharer.node.core.BaseTestCase;
+import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+import org.microfuse.file.sharer.node.core.communication.messaging.MessageCodec;
+import org.microfuse.file.sharer.node.core.communication.messaging.TCPMessage;
+import org.microfuse.file.sharer.node.core.communication.network.inmemory.InMemoryLinkProperties;
+import org.microfuse.file.sharer.node.core.communication.network.inmemory.InMemoryNetwork;
+import org.microfuse.file.sharer.node.core.communication.network.inmemory.InMemoryNetworkHandler;
+import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
+import org.microfuse.file.sharer.node.core.utils.TaskSubsystem;
+import org.mockito.Mockito;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+
+/**
+ * Test Case for org.microfuse.file.sharer.node.core.communication.network.inmemory.InMemoryNetworkHandler class.
+ */
+public class InMemoryNetworkHandlerTestCase extends BaseTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryNetworkHandlerTestCase.class);
+
+    private ServiceHolder serviceHolder2;
+    private InMemoryNetworkHandler inMemoryNetworkHandler1;
+    private InMemoryNetworkHandler inMemoryNetworkHandler2;
+    private NetworkHandlerListener inMemoryNetworkHandler1Listener;
+    private NetworkHandlerListener inMemoryNetworkHandler2Listener;
+    private String localhostIP;
+    private int peerListeningPort1;
+    private int peerListeningPort2;
+    private Message message1;
+    private Message message2;
+    private int delay;
+
+    @BeforeMethod
+    public void initializeMethod() {
+        logger.info("Initializing In Memory Network Handler Test");
+
+        delay = 100;
+        localhostIP = "127.0.0.1";
+        peerListeningPort1 = 24675;
+        peerListeningPort2 = 25134;
+
+        serviceHolder.getConfiguration().setIp(localhostIP);
+        serviceHolder.getConfiguration().setPeerListeningPort(peerListeningPort1);
+        inMemoryNetworkHandler1 = new InMemoryNetworkHandler(serviceHolder);
+        inMemoryNetworkHandler1Listener = Mockito.mock(NetworkHandlerListener.class);
+        inMemoryNetworkHandler1.registerListener(inMemoryNetworkHandler1Listener);
+        inMemoryNetworkHandler1.startListening();
+
+        serviceHolder2 = new ServiceHolder();
+        serviceHolder2.getConfiguration().setIp(localhostIP);
+        serviceHolder2.getConfiguration().setPeerListeningPort(peerListeningPort2);
+        inMemoryNetworkHandler2 = new InMemoryNetworkHandler(serviceHolder2);
+        inMemoryNetworkHandler2Listener = Mockito.mock(NetworkHandlerListener.class);
+        inMemoryNetworkHandler2.registerListener(inMemoryNetworkHandler2Listener);
+        inMemoryNetworkHandler2.startListening();
+
+        message1 = Message.parse("0049 " + MessageType.SER.getValue() + " 127.0.0.1 "
+                + peerListeningPort1 + " \"Lord of the Rings\" "
+                + Integer.toString(NodeConstants.DEFAULT_TIME_TO_LIVE - 1));
+        message2 = Message.parse("0049 " + MessageType.SER.getValue() + " 127.0.0.1 "
+                + peerListeningPort1 + " Cars "
+                + Integer.toString(NodeConstants.DEFAULT_TIME_TO_LIVE - 1));
+    }
+
+    @AfterMethod
+    public void cleanUp() {
+        logger.info("Cleaning Up In Memory Network Handler Test");
+
+        inMemoryNetworkHandler1.shutdown();
+        inMemoryNetworkHandler2.shutdown();
+        serviceHolder2.clear();
+        InMemoryNetwork.getInstance().clear();
+    }
+
+    @Test(priority = 1)
+    public void testName() {
+        logger.info("Running In Memory Network Handler Test 01 - Get name");
+
+        Assert.assertNotNull(inMemoryNetworkHandler1.getName());
+    }
+
+    @Test(priority = 2)
+    public void testCommunication() {
+        logger.info("Running In Memory Network Handler Test 02 - Communication");
+
+        inMemoryNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message1);
+        inMemoryNetworkHandler2.sendMessage(localhostIP, peerListeningPort1, message2);
+        waitFor(delay);
+
+        Mockito.verify(inMemoryNetworkHandler2Listener, Mockito.times(1))
+                .onMessageReceived(localhostIP, peerListeningPort1, message1);
+        Mockito.verify(inMemoryNetworkHandler1Listener, Mockito.times(1))
+                .onMessageReceived(localhostIP, peerListeningPort2, message2);
+    }
+
+    @Test(priority = 3)
+    public void testSendToUnknownAddress() {
+        logger.info("Running In Memory Network Handler Test 03 - Send to unknown address");
+
+        inMemoryNetworkHandler1.sendMessage("192.168.1.1", peerListeningPort2, message1);
+        waitFor(delay);
+
+        Mockito.verify(inMemoryNetworkHandler2Listener, Mockito.times(0))
+                .onMessageReceived(Mockito.anyString(), Mockito.anyInt(), Mockito.any(Message.class));
+        Mockito.verify(inMemoryNetworkHandler1Listener, Mockito.times(1))
+                .onMessageSendFailed("192.168.1.1", peerListeningPort2, message1);
+    }
+
+    @Test(priority = 4)
+    public void testShutdown() {
+        logger.info("Running In Memory Network Handler Test 04 - Shutdown");
+
+        inMemoryNetworkHandler2.shutdown();
+        inMemoryNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message1);
+        waitFor(delay);
+
+        Mockito.verify(inMemoryNetworkHandler2Listener, Mockito.times(0))
+                .onMessageReceived(Mockito.anyString(), Mockito.anyInt(), Mockito.any(Message.class));
+        Mockito.verify(inMemoryNetworkHandler1Listener, Mockito.times(1))
+                .onMessageSendFailed(localhostIP, peerListeningPort2, message1);
+    }
+
+    @Test(priority = 5)
+    public void testRestart() {
+        logger.info("Running In Memory Network Handler Test 05 - Restart");
+
+        int newPeerListeningPort2 = 25135;
+        serviceHolder2.getConfiguration().setPeerListeningPort(newPeerListeningPort2);
+        inMemoryNetworkHandler2.restart();
+
+        inMemoryNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message1);
+        inMemoryNetworkHandler1.sendMessage(localhostIP, newPeerListeningPort2, message2);
+        waitFor(delay);
+
+        Mockito.verify(inMemoryNetworkHandler1Listener, Mockito.times(1))
+                .onMessageSendFailed(localhostIP, peerListeningPort2, message1);
+        Mockito.verify(inMemoryNetworkHandler2Listener, Mockito.times(1))
+                .onMessageReceived(localhostIP, peerListeningPort1, message2);
+    }
+
+    @Test(priority = 6)
+    public void testLatency() {
+        logger.info("Running In Memory Network Handler Test 06 - Latency");
+
+        InMemoryNetwork.getInstance().setLinkProperties(localhostIP, peerListeningPort1,
+                localhostIP, peerListeningPort2, new InMemoryLinkProperties(delay * 5, 0, 0, 0));
+
+        inMemoryNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message1);
+        inMemoryNetworkHandler2.sendMessage(localhostIP, peerListeningPort1, message2);
+        waitFor(delay);
+
+        Mockito.verify(inMemoryNetworkHandler2Listener, Mockito.times(0))
+                .onMessageReceived(Mockito.anyString(), Mockito.anyInt(), Mockito.any(Message.class));
+        Mockito.verify(inMemoryNetworkHandler1Listener, Mockito.times(1))
+                .onMessageReceived(localhostIP, peerListeningPort2, message2);
+
+        waitFor(delay * 6);
+
+        Mockito.verify(inMemoryNetworkHandler2Listener, Mockito.times(1))
+                .onMessageReceived(localhostIP, peerListeningPort1, message1);
+    }
+
+    @Test(priority = 7)
+    public void testLoss() {
+        logger.info("Running In Memory Network Handler Test 07 - Loss");
+
+        InMemoryNetwork.getInstance().setDefaultLinkProperties(new InMemoryLinkProperties(0, 0, 1, 0));
+
+        inMemoryNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message1);
+        waitFor(delay);
+
+        Mockito.verify(inMemoryNetworkHandler2Listener, Mockito.times(0))
+                .onMessageReceived(Mockito.anyString(), Mockito.anyInt(), Mockito.any(Message.class));
+        Mockito.verify(inMemoryNetworkHandler1Listener, Mockito.times(0))
+                .onMessageSendFailed(Mockito.anyString(), Mockito.anyInt(), Mockito.any(Message.class));
+    }
+
+    @Test(priority = 8)
+    public void testBandwidth() {
+        logger.info("Running In Memory Network Handler Test 08 - Bandwidth");
+
+        // Each message takes ten times the delay to be transmitted over the link
+        TCPMessage tcpMessage = new TCPMessage();
+        tcpMessage.setSourceIP(localhostIP);
+        tcpMessage.setSourcePort(peerListeningPort1);
+        tcpMessage.setMessage(message1);
+        int messageSize = MessageCodec.encode(tcpMessage,
+                serviceHolder.getConfiguration().isNetworkHandlerBinaryCodecEnabled()).length;
+        long bandwidth = messageSize * 1000L / (delay * 10);
+        InMemoryNetwork.getInstance().setLinkProperties(localhostIP, peerListeningPort1,
+                localhostIP, peerListeningPort2, new InMemoryLinkProperties(0, 0, 0, bandwidth));
+
+        inMemoryNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message1);
+        inMemoryNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message1);
+        waitFor(delay * 15);
+
+        Mockito.verify(inMemoryNetworkHandler2Listener, Mockito.times(1))
+                .onMessageReceived(localhostIP, peerListeningPort1, message1);
+
+        waitFor(delay * 10);
+
+        Mockito.verify(inMemoryNetworkHandler2Listener, Mockito.times(2))
+                .onMessageReceived(localhostIP, peerListeningPort1, message1);
+    }
+
+    @Test(priority = 9)
+    public void testListeningAtUsedAddress() {
+        logger.info("Running In Memory Network Handler Test 09 - Listening at used address");
+
+        ServiceHolder serviceHolder3 = new ServiceHolder();
+        serviceHolder3.getConfiguration().setIp(localhostIP);
+        serviceHolder3.getConfiguration().setPeerListeningPort(peerListeningPort2);
+        InMemoryNetworkHandler inMemoryNetworkHandler3 = new InMemoryNetworkHandler(serviceHolder3);
+        try {
+            inMemoryNetworkHandler3.startListening();
+
+            Assert.assertFalse((Boolean) Whitebox.getInternalState(inMemoryNetworkHandler3, "running"));
+
+            inMemoryNetworkHandler3.shutdown();
+            inMemoryNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message1);
+            waitFor(delay);
+
+            Mockito.verify(inMemoryNetworkHandler2Listener, Mockito.times(1))
+                    .onMessageReceived(localhostIP, peerListeningPort1, message1);
+        } finally {
+            serviceHolder3.clear();
+        }
+    }
+
+    @Test(priority = 10)
+    public void testMalformedMessageDelivery() throws Exception {
+        logger.info("Running In Memory Network Handler Test 10 - Malformed message delivery");
+
+        Method scheduleDeliveryMethod = InMemoryNetworkHandler.class
+                .getDeclaredMethod("scheduleDelivery", byte[].class, long.class);
+        scheduleDeliveryMethod.setAccessible(true);
+        scheduleDeliveryMethod.invoke(inMemoryNetworkHandler2, new byte[]{MessageCodec.BINARY_MARKER, 10}, 0);
+        inMemoryNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message1);
+        waitFor(delay);
+
+        Mockito.verify(inMemoryNetworkHandler2Listener, Mockito.times(1))
+                .onMessageReceived(localhostIP, peerListeningPort1, message1);
+        Assert.assertEquals(serviceHolder2.getTaskScheduler().getExecutor(TaskSubsystem.NETWORK_HANDLER_MAINTENANCE)
+                .getFailedTaskCount(), 0);
+    }
+}
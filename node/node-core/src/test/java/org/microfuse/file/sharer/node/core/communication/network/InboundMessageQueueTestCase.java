@@ -0,0 +1,144 @@
+package org.microfuse.file.sharer.node.core.communication.network;
+
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.commons.communication.network.InboundQueueOverflowPolicy;
+import org.microfuse.file.sharer.node.core.BaseTestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test Case for org.microfuse.file.sharer.node.core.communication.network.InboundMessageQueue class.
+ */
+public class InboundMessageQueueTestCase extends BaseTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(InboundMessageQueueTestCase.class);
+
+    private List<Runnable> deliveryTasks;
+    private List<String> deliveredMessages;
+
+    @BeforeMethod
+    public void initializeMethod() {
+        logger.info("Initializing Inbound Message Queue Test");
+
+        deliveryTasks = new ArrayList<>();
+        deliveredMessages = new ArrayList<>();
+    }
+
+    @Test(priority = 1)
+    public void testControlMessagesDeliveredFirst() {
+        logger.info("Running Inbound Message Queue Test 01 - Control messages delivered first");
+
+        InboundMessageQueue inboundMessageQueue =
+                new InboundMessageQueue(deliveryTasks::add, 10, InboundQueueOverflowPolicy.DROP_OLDEST);
+        offer(inboundMessageQueue, MessageType.SER, "SER1");
+        offer(inboundMessageQueue, MessageType.SER_OK, "SEROK1");
+        offer(inboundMessageQueue, MessageType.HEARTBEAT, "HEARTBEAT1");
+        offer(inboundMessageQueue, MessageType.JOIN, "JOIN1");
+        deliveryTasks.forEach(Runnable::run);
+
+        Assert.assertEquals(deliveredMessages.size(), 4);
+        Assert.assertEquals(deliveredMessages.get(0), "HEARTBEAT1");
+        Assert.assertEquals(deliveredMessages.get(1), "JOIN1");
+        Assert.assertEquals(deliveredMessages.get(2), "SER1");
+        Assert.assertEquals(deliveredMessages.get(3), "SEROK1");
+        Assert.assertEquals(inboundMessageQueue.getControlMessageCount(), 2);
+        Assert.assertEquals(inboundMessageQueue.getQueryMessageCount(), 2);
+        Assert.assertEquals(inboundMessageQueue.getDroppedQueryMessageCount(), 0);
+    }
+
+    @Test(priority = 2)
+    public void testDropOldest() {
+        logger.info("Running Inbound Message Queue Test 02 - Drop oldest");
+
+        InboundMessageQueue inboundMessageQueue =
+                new InboundMessageQueue(deliveryTasks::add, 2, InboundQueueOverflowPolicy.DROP_OLDEST);
+        Assert.assertTrue(offer(inboundMessageQueue, MessageType.SER, "SER1"));
+        Assert.assertTrue(offer(inboundMessageQueue, MessageType.SER, "SER2"));
+        Assert.assertTrue(offer(inboundMessageQueue, MessageType.SER_SUPER_PEER, "SERSUPERPEER3"));
+        Assert.assertTrue(offer(inboundMessageQueue, MessageType.LEAVE, "LEAVE1"));
+
+        Assert.assertEquals(deliveryTasks.size(), 3);
+        Assert.assertEquals(inboundMessageQueue.getQueuedQueryMessageCount(), 2);
+        Assert.assertEquals(inboundMessageQueue.getQueuedControlMessageCount(), 1);
+        deliveryTasks.forEach(Runnable::run);
+
+        Assert.assertEquals(deliveredMessages.size(), 3);
+        Assert.assertEquals(deliveredMessages.get(0), "LEAVE1");
+        Assert.assertEquals(deliveredMessages.get(1), "SER2");
+        Assert.assertEquals(deliveredMessages.get(2), "SERSUPERPEER3");
+        Assert.assertEquals(inboundMessageQueue.getQueryMessageCount(), 3);
+        Assert.assertEquals(inboundMessageQueue.getDroppedQueryMessageCount(), 1);
+    }
+
+    @Test(priority = 3)
+    public void testDropNewest() {
+        logger.info("Running Inbound Message Queue Test 03 - Drop newest");
+
+        InboundMessageQueue inboundMessageQueue =
+                new InboundMessageQueue(deliveryTasks::add, 2, InboundQueueOverflowPolicy.DROP_NEWEST);
+        Assert.assertTrue(offer(inboundMessageQueue, MessageType.SER, "SER1"));
+        Assert.assertTrue(offer(inboundMessageQueue, MessageType.SER, "SER2"));
+        Assert.assertFalse(offer(inboundMessageQueue, MessageType.SER_OK, "SEROK3"));
+        Assert.assertTrue(offer(inboundMessageQueue, MessageType.LIST_RESOURCES, "LIST1"));
+
+        Assert.assertEquals(deliveryTasks.size(), 3);
+        deliveryTasks.forEach(Runnable::run);
+
+        Assert.assertEquals(deliveredMessages.size(), 3);
+        Assert.assertEquals(deliveredMessages.get(0), "LIST1");
+        Assert.assertEquals(deliveredMessages.get(1), "SER1");
+        Assert.assertEquals(deliveredMessages.get(2), "SER2");
+        Assert.assertEquals(inboundMessageQueue.getDroppedQueryMessageCount(), 1);
+    }
+
+    @Test(priority = 4)
+    public void testControlMessagesNotDropped() {
+        logger.info("Running Inbound Message Queue Test 04 - Control messages not dropped");
+
+        InboundMessageQueue inboundMessageQueue =
+                new InboundMessageQueue(deliveryTasks::add, 1, InboundQueueOverflowPolicy.DROP_NEWEST);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(offer(inboundMessageQueue, MessageType.HEARTBEAT, "HEARTBEAT" + i));
+        }
+        deliveryTasks.forEach(Runnable::run);
+
+        Assert.assertEquals(deliveredMessages.size(), 5);
+        Assert.assertEquals(inboundMessageQueue.getDroppedQueryMessageCount(), 0);
+    }
+
+    @Test(priority = 5)
+    public void testUpdate() {
+        logger.info("Running Inbound Message Queue Test 05 - Update");
+
+        InboundMessageQueue inboundMessageQueue =
+                new InboundMessageQueue(deliveryTasks::add, 1, InboundQueueOverflowPolicy.DROP_NEWEST);
+        Assert.assertTrue(offer(inboundMessageQueue, MessageType.SER, "SER1"));
+        Assert.assertFalse(offer(inboundMessageQueue, MessageType.SER, "SER2"));
+        inboundMessageQueue.update(2, InboundQueueOverflowPolicy.DROP_OLDEST);
+        Assert.assertTrue(offer(inboundMessageQueue, MessageType.SER, "SER3"));
+        Assert.assertTrue(offer(inboundMessageQueue, MessageType.SER, "SER4"));
+        deliveryTasks.forEach(Runnable::run);
+
+        Assert.assertEquals(deliveredMessages.size(), 2);
+        Assert.assertEquals(deliveredMessages.get(0), "SER3");
+        Assert.assertEquals(deliveredMessages.get(1), "SER4");
+        Assert.assertEquals(inboundMessageQueue.getDroppedQueryMessageCount(), 2);
+    }
+
+    /**
+     * Offer a message which records its name when delivered.
+     *
+     * @param inboundMessageQueue The inbound message queue
+     * @param messageType         The type of the message
+     * @param name                The name recorded when the message is delivered
+     * @return True if the message was queued
+     */
+    private boolean offer(InboundMessageQueue inboundMessageQueue, MessageType messageType, String name) {
+        return inboundMessageQueue.offer(messageType, () -> deliveredMessages.add(name));
+    }
+}
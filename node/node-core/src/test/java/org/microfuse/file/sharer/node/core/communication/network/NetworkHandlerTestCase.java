@@ -1,6 +1,10 @@
 package org.microfuse.file.sharer.node.core.communication.network;
 
+import org.microfuse.file.sharer.node.commons.communication.network.InboundQueueOverflowPolicy;
 import org.microfuse.file.sharer.node.core.BaseTestCase;
+import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+import org.microfuse.file.sharer.node.core.utils.SubsystemExecutor;
+import org.microfuse.file.sharer.node.core.utils.TaskSubsystem;
 import org.mockito.Mockito;
 import org.mockito.internal.util.reflection.Whitebox;
 import org.slf4j.Logger;
@@ -10,8 +14,6 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
@@ -21,7 +23,6 @@ public class NetworkHandlerTestCase extends BaseTestCase {
     private static final Logger logger = LoggerFactory.getLogger(NetworkHandlerTestCase.class);
 
     private NetworkHandler networkHandler;
-    private ExecutorService listenerHandlerExecutorService;
 
     @BeforeMethod
     public void initializeMethod() {
@@ -30,14 +31,12 @@ public class NetworkHandlerTestCase extends BaseTestCase {
         // Mocking network handler
         networkHandler = Mockito.mock(NetworkHandler.class, Mockito.CALLS_REAL_METHODS);
         Whitebox.setInternalState(networkHandler, "serviceHolder", serviceHolder);
-
-        listenerHandlerExecutorService =
-                Executors.newFixedThreadPool(serviceHolder.getConfiguration().getNetworkHandlerThreadCount());
-        Whitebox.setInternalState(networkHandler, "listenerHandlerExecutorService",
-                listenerHandlerExecutorService);
         Whitebox.setInternalState(networkHandler, "listenersListLock", new ReentrantReadWriteLock());
-        Whitebox.setInternalState(networkHandler, "listenerHandlerExecutorServiceLock", new ReentrantReadWriteLock());
         Whitebox.setInternalState(networkHandler, "listenersList", new ArrayList());
+        Whitebox.setInternalState(networkHandler, "inboundMessageQueue", new InboundMessageQueue(
+                serviceHolder.getTaskScheduler().getExecutor(TaskSubsystem.NETWORK_HANDLER_LISTENER),
+                serviceHolder.getConfiguration().getNetworkHandlerQueryQueueCapacity(),
+                serviceHolder.getConfiguration().getNetworkHandlerQueryQueueOverflowPolicy()));
         Whitebox.setInternalState(networkHandler, "restartRequired", false);
         Whitebox.setInternalState(networkHandler, "running", false);
     }
@@ -58,6 +57,10 @@ public class NetworkHandlerTestCase extends BaseTestCase {
     public void testRestart() {
         logger.info("Running Network Handler Test 02 - Restart");
 
+        serviceHolder.getConfiguration().setNetworkHandlerThreadCount(7);
+        serviceHolder.getConfiguration().setNetworkHandlerQueryQueueCapacity(13);
+        serviceHolder.getConfiguration().setNetworkHandlerQueryQueueOverflowPolicy(
+                InboundQueueOverflowPolicy.DROP_NEWEST);
         networkHandler.restart();
 
         Object internalStateRestartRequired = Whitebox.getInternalState(networkHandler, "restartRequired");
@@ -65,10 +68,47 @@ public class NetworkHandlerTestCase extends BaseTestCase {
         Assert.assertTrue(internalStateRestartRequired instanceof Boolean);
         Assert.assertFalse((Boolean) internalStateRestartRequired);
 
-        Object internalStateExecutorService = Whitebox.getInternalState(networkHandler, "restartRequired");
-        Assert.assertNotNull(internalStateExecutorService);
-        waitFor(2000);
-        Assert.assertTrue(listenerHandlerExecutorService.isShutdown());
-        Assert.assertFalse(listenerHandlerExecutorService == internalStateExecutorService);
+        SubsystemExecutor listenerHandlerExecutor =
+                serviceHolder.getTaskScheduler().getExecutor(TaskSubsystem.NETWORK_HANDLER_LISTENER);
+        Assert.assertFalse(listenerHandlerExecutor.isShutdown());
+        Assert.assertEquals(listenerHandlerExecutor.getMaxConcurrency(), 7);
+        Assert.assertEquals(networkHandler.getInboundMessageQueue().getQueryLaneCapacity(), 13);
+        Assert.assertEquals(networkHandler.getInboundMessageQueue().getOverflowPolicy(),
+                InboundQueueOverflowPolicy.DROP_NEWEST);
+    }
+
+    @Test(priority = 3)
+    public void testRunTasksOnMessageReceived() {
+        logger.info("Running Network Handler Test 03 - Run tasks on message received");
+
+        NetworkHandlerListener listener = Mockito.mock(NetworkHandlerListener.class);
+        networkHandler.registerListener(listener);
+        Message heartbeatMessage = Message.parse("0030 HEARTBEAT 127.0.0.1 4532");
+        networkHandler.runTasksOnMessageReceived("127.0.0.1", 4532, heartbeatMessage);
+        waitFor(1000);
+
+        Mockito.verify(listener, Mockito.times(1)).onMessageReceived("127.0.0.1", 4532, heartbeatMessage);
+        Assert.assertEquals(networkHandler.getInboundMessageQueue().getControlMessageCount(), 1);
+        Assert.assertEquals(networkHandler.getInboundMessageQueue().getQueryMessageCount(), 0);
+    }
+
+    @Test(priority = 4)
+    public void testRunTasksOnMessageReceivedWithFailingListener() {
+        logger.info("Running Network Handler Test 04 - Run tasks on message received with failing listener");
+
+        NetworkHandlerListener failingListener = Mockito.mock(NetworkHandlerListener.class);
+        NetworkHandlerListener listener = Mockito.mock(NetworkHandlerListener.class);
+        Message heartbeatMessage = Message.parse("0030 HEARTBEAT 127.0.0.1 4532");
+        Mockito.doThrow(new IllegalStateException("Listener failure")).when(failingListener)
+                .onMessageReceived("127.0.0.1", 4532, heartbeatMessage);
+        networkHandler.registerListener(failingListener);
+        networkHandler.registerListener(listener);
+        networkHandler.runTasksOnMessageReceived("127.0.0.1", 4532, heartbeatMessage);
+        waitFor(1000);
+
+        Mockito.verify(failingListener, Mockito.times(1)).onMessageReceived("127.0.0.1", 4532, heartbeatMessage);
+        Mockito.verify(listener, Mockito.times(1)).onMessageReceived("127.0.0.1", 4532, heartbeatMessage);
+        Assert.assertEquals(serviceHolder.getTaskScheduler().getExecutor(TaskSubsystem.NETWORK_HANDLER_LISTENER)
+                .getFailedTaskCount(), 0);
     }
 }
@@ -1,12 +1,15 @@
 package org.microfuse.file.sharer.node.core.communication.network;
 
 import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.commons.peer.Node;
 import org.microfuse.file.sharer.node.commons.peer.NodeConstants;
 import org.microfuse.file.sharer.node.core.BaseTestCase;
 import org.microfuse.file.sharer.node.core.communication.messaging.Message;
 import org.microfuse.file.sharer.node.core.communication.network.rmi.RMINetworkHandler;
+import org.microfuse.file.sharer.node.core.communication.network.rmi.RMIPeerConnection;
 import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
 import org.mockito.Mockito;
+import org.mockito.internal.util.reflection.Whitebox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.Assert;
@@ -14,6 +17,13 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Test Case for org.microfuse.file.sharer.node.core.communication.network.RMINetworkHandler class.
  */
@@ -157,4 +167,49 @@ public class RMINetworkHandlerTestCase extends BaseTestCase {
         Mockito.verify(rmiSocketNetworkHandler1Listener, Mockito.times(1))
                 .onMessageSendFailed(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message3));
     }
+
+    @Test(priority = 6)
+    public void testStubCaching() {
+        logger.info("Running RMI Network Handler Test 06 - Stub caching");
+
+        rmiSocketNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message1);
+        rmiSocketNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message2);
+        waitFor(delay);
+
+        Object internalState = Whitebox.getInternalState(rmiSocketNetworkHandler1, "peerConnections");
+        Assert.assertTrue(internalState instanceof Map<?, ?>);
+        Map<?, ?> peerConnections = (Map<?, ?>) internalState;
+        Assert.assertEquals(peerConnections.size(), 1);
+        RMIPeerConnection peerConnection = (RMIPeerConnection) peerConnections.get(
+                new Node(localhostIP, peerListeningPort2));
+        Assert.assertNotNull(peerConnection);
+        Assert.assertNotNull(peerConnection.getStub());
+        Mockito.verify(rmiSocketNetworkHandler2Listener, Mockito.times(1))
+                .onMessageReceived(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message1));
+        Mockito.verify(rmiSocketNetworkHandler2Listener, Mockito.times(1))
+                .onMessageReceived(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message2));
+    }
+
+    @Test(priority = 7)
+    public void testConcurrentCommunication() throws Exception {
+        logger.info("Running RMI Network Handler Test 07 - Concurrent communication");
+
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            messages.add(Message.parse("0049 " + MessageType.SER.getValue() + " 127.0.0.1 "
+                    + peerListeningPort1 + " \"Iron Man " + i + "\" "
+                    + Integer.toString(NodeConstants.DEFAULT_TIME_TO_LIVE - 1)));
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        messages.forEach(message -> executorService.execute(() ->
+                rmiSocketNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message)));
+        executorService.shutdown();
+        Assert.assertTrue(executorService.awaitTermination(delay, TimeUnit.MILLISECONDS));
+        waitFor(delay);
+
+        messages.forEach(message -> Mockito.verify(rmiSocketNetworkHandler2Listener, Mockito.times(1))
+                .onMessageReceived(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message)));
+        Mockito.verify(rmiSocketNetworkHandler1Listener, Mockito.times(0))
+                .onMessageSendFailed(Mockito.anyString(), Mockito.anyInt(), Mockito.any(Message.class));
+    }
 }
@@ -1,6 +1,7 @@
 package org.microfuse.file.sharer.node.core.communication.network;
 
 import org.microfuse.file.sharer.node.commons.Configuration;
+import org.microfuse.file.sharer.node.commons.Constants;
 import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
 import org.microfuse.file.sharer.node.commons.peer.NodeConstants;
 import org.microfuse.file.sharer.node.core.BaseTestCase;
@@ -13,6 +14,11 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+
 /**
  * Test Case for org.microfuse.file.sharer.node.core.communication.network.TCPSocketNetworkHandler class.
  */
@@ -156,4 +162,39 @@ public class TCPSocketNetworkHandlerTestCase extends BaseTestCase {
         Mockito.verify(tcpSocketNetworkHandler1Listener, Mockito.times(1))
                 .onMessageSendFailed(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message3));
     }
+
+    @Test(priority = 6)
+    public void testCommunicationWithStalledSender() throws IOException {
+        logger.info("Running TCP Network Handler Test 06 - Communication with stalled sender");
+
+        try (
+                Socket stalledSocket = new Socket(localhostIP, peerListeningPort2);
+                PrintWriter out = new PrintWriter(new OutputStreamWriter(stalledSocket.getOutputStream(),
+                        Constants.DEFAULT_CHARSET), true)
+        ) {
+            out.write(localhostIP + " " + peerListeningPort1 + " ");
+            out.flush();
+
+            tcpSocketNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message1);
+            waitFor(delay);
+
+            Mockito.verify(tcpSocketNetworkHandler2Listener, Mockito.times(1))
+                    .onMessageReceived(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message1));
+        }
+    }
+
+    @Test(priority = 7)
+    public void testBinaryCodecCommunication() {
+        logger.info("Running TCP Network Handler Test 07 - Binary codec communication");
+
+        serviceHolder.getConfiguration().setNetworkHandlerBinaryCodecEnabled(true);
+        tcpSocketNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message1);
+        tcpSocketNetworkHandler2.sendMessage(localhostIP, peerListeningPort1, message2);
+        waitFor(delay);
+
+        Mockito.verify(tcpSocketNetworkHandler2Listener, Mockito.times(1))
+                .onMessageReceived(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message1));
+        Mockito.verify(tcpSocketNetworkHandler1Listener, Mockito.times(1))
+                .onMessageReceived(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message2));
+    }
 }
@@ -0,0 +1,163 @@
+package org.microfuse.file.sharer.node.core.communication.network;
+
+import org.microfuse.file.sharer.node.commons.Configuration;
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.commons.peer.NodeConstants;
+import org.microfuse.file.sharer.node.core.BaseTestCase;
+import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test Case for org.microfuse.file.sharer.node.core.communication.network.UDPChannelNetworkHandler class.
+ */
+public class UDPChannelNetworkHandlerTestCase extends BaseTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(UDPChannelNetworkHandlerTestCase.class);
+
+    private UDPChannelNetworkHandler udpChannelNetworkHandler1;
+    private UDPChannelNetworkHandler udpChannelNetworkHandler2;
+    private NetworkHandlerListener udpChannelNetworkHandler1Listener;
+    private NetworkHandlerListener udpChannelNetworkHandler2Listener;
+    private String localhostIP;
+    private int peerListeningPort1;
+    private int peerListeningPort2;
+    private Message message1;
+    private Message message2;
+    private Message message3;
+    private Message message4;
+    private int delay;
+
+    @BeforeMethod
+    public void initializeMethod() {
+        logger.info("Initializing UDP Channel Network Handler Test");
+
+        delay = 1000;
+        localhostIP = "127.0.0.1";
+        peerListeningPort1 = 24685;
+        peerListeningPort2 = 25144;
+        Configuration configuration = serviceHolder.getConfiguration();
+
+        configuration.setUdpNetworkHandlerRetryCount(3);
+        configuration.setUdpNetworkHandlerRetryInterval(delay);
+        configuration.setUdpNetworkHandlerMaxRetransmissionTimeout(delay);
+
+        configuration.setPeerListeningPort(peerListeningPort1);
+        udpChannelNetworkHandler1 = Mockito.spy(new UDPChannelNetworkHandler(serviceHolder));
+        udpChannelNetworkHandler1Listener = Mockito.mock(NetworkHandlerListener.class);
+        udpChannelNetworkHandler1.registerListener(udpChannelNetworkHandler1Listener);
+        udpChannelNetworkHandler1.startListening();
+        waitFor(delay);
+
+        configuration.setPeerListeningPort(peerListeningPort2);
+        udpChannelNetworkHandler2 = Mockito.spy(new UDPChannelNetworkHandler(serviceHolder));
+        udpChannelNetworkHandler2Listener = Mockito.mock(NetworkHandlerListener.class);
+        udpChannelNetworkHandler2.registerListener(udpChannelNetworkHandler2Listener);
+        udpChannelNetworkHandler2.startListening();
+        waitFor(delay);
+
+        message1 = Message.parse("0049 " + MessageType.SER.getValue() + " 127.0.0.1 "
+                + peerListeningPort1 + " \"Lord of the Rings\" "
+                + Integer.toString(NodeConstants.DEFAULT_TIME_TO_LIVE - 1));
+        message2 = Message.parse("0049 " + MessageType.SER.getValue() + " 127.0.0.1 "
+                + peerListeningPort1 + " Cars "
+                + Integer.toString(NodeConstants.DEFAULT_TIME_TO_LIVE - 1));
+        message3 = Message.parse("0049 " + MessageType.SER.getValue() + " 127.0.0.1 "
+                + peerListeningPort1 + " \"Iron Man\" "
+                + Integer.toString(NodeConstants.DEFAULT_TIME_TO_LIVE - 1));
+        message4 = Message.parse("0049 " + MessageType.SER.getValue() + " 127.0.0.1 "
+                + peerListeningPort1 + " \"Iron Man 2\" "
+                + Integer.toString(NodeConstants.DEFAULT_TIME_TO_LIVE - 1));
+    }
+
+    @AfterMethod
+    public void cleanUp() {
+        logger.info("Cleaning Up UDP Channel Network Handler Test");
+
+        udpChannelNetworkHandler1.shutdown();
+        udpChannelNetworkHandler2.shutdown();
+        waitFor(delay);
+    }
+
+    @Test(priority = 1)
+    public void testName() {
+        logger.info("Running UDP Channel Network Handler Test 01 - Get name");
+
+        Assert.assertNotNull(udpChannelNetworkHandler1.getName());
+    }
+
+    @Test(priority = 2)
+    public void testCommunication() {
+        logger.info("Running UDP Channel Network Handler Test 02 - Communication");
+
+        udpChannelNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message1);
+        waitFor(delay * 6);
+
+        Mockito.verify(udpChannelNetworkHandler2Listener, Mockito.times(1))
+                .onMessageReceived(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message1));
+    }
+
+    @Test(priority = 3)
+    public void testRepeatedCommunication() {
+        logger.info("Running UDP Channel Network Handler Test 03 - Repeated communication");
+
+        udpChannelNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message1);
+        udpChannelNetworkHandler2.sendMessage(localhostIP, peerListeningPort1, message3);
+        udpChannelNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message2);
+        udpChannelNetworkHandler2.sendMessage(localhostIP, peerListeningPort1, message4);
+        waitFor(delay * 6);
+
+        Mockito.verify(udpChannelNetworkHandler2Listener, Mockito.times(1))
+                .onMessageReceived(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message1));
+        Mockito.verify(udpChannelNetworkHandler2Listener, Mockito.times(1))
+                .onMessageReceived(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message2));
+        Mockito.verify(udpChannelNetworkHandler1Listener, Mockito.times(1))
+                .onMessageReceived(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message3));
+        Mockito.verify(udpChannelNetworkHandler1Listener, Mockito.times(1))
+                .onMessageReceived(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message4));
+    }
+
+    @Test(priority = 4)
+    public void testShutdown() {
+        logger.info("Running UDP Channel Network Handler Test 04 - Shutdown");
+
+        udpChannelNetworkHandler2.shutdown();
+        waitFor(delay);
+        udpChannelNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message1);
+        waitFor(delay * 6);
+
+        Mockito.verify(udpChannelNetworkHandler2Listener, Mockito.times(0))
+                .onMessageReceived(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message1));
+        Mockito.verify(udpChannelNetworkHandler1Listener, Mockito.times(1))
+                .onMessageSendFailed(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message1));
+    }
+
+    @Test(priority = 5)
+    public void testRestart() {
+        logger.info("Running UDP Channel Network Handler Test 05 - Restart");
+
+        udpChannelNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message1);
+        waitFor(delay * 6);
+
+        Mockito.verify(udpChannelNetworkHandler2Listener, Mockito.times(1))
+                .onMessageReceived(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message1));
+
+        serviceHolder.getConfiguration().setPeerListeningPort(8766);
+        udpChannelNetworkHandler2.restart();
+        waitFor(delay);
+        udpChannelNetworkHandler1.sendMessage(localhostIP, 8766, message2);
+        udpChannelNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message3);
+        waitFor(delay * 6);
+
+        Mockito.verify(udpChannelNetworkHandler2Listener, Mockito.times(1))
+                .onMessageReceived(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message2));
+        Mockito.verify(udpChannelNetworkHandler2Listener, Mockito.times(0))
+                .onMessageReceived(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message3));
+        Mockito.verify(udpChannelNetworkHandler1Listener, Mockito.times(1))
+                .onMessageSendFailed(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message3));
+    }
+}
@@ -0,0 +1,220 @@
+package org.microfuse.file.sharer.node.core.communication.network;
+
+import org.microfuse.file.sharer.node.commons.communication.messaging.UDPMessageType;
+import org.microfuse.file.sharer.node.core.BaseTestCase;
+import org.microfuse.file.sharer.node.core.communication.messaging.UDPMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * Test Case for org.microfuse.file.sharer.node.core.communication.network.UDPPeerSession class.
+ */
+public class UDPPeerSessionTestCase extends BaseTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(UDPPeerSessionTestCase.class);
+
+    private UDPPeerSession peerSession;
+
+    @BeforeMethod
+    public void initializeMethod() {
+        logger.info("Initializing UDP Peer Session Test");
+
+        serviceHolder.getConfiguration().setUdpNetworkHandlerWindowSize(4);
+        serviceHolder.getConfiguration().setUdpNetworkHandlerRetryInterval(1000);
+        serviceHolder.getConfiguration().setUdpNetworkHandlerMaxRetransmissionTimeout(3000);
+        peerSession = new UDPPeerSession(serviceHolder);
+    }
+
+    @AfterMethod
+    public void cleanUp() {
+        logger.info("Cleaning Up UDP Peer Session Test");
+
+        peerSession.cancelTimers();
+    }
+
+    @Test(priority = 1)
+    public void testWindow() {
+        logger.info("Running UDP Peer Session Test 01 - Window");
+
+        for (int i = 0; i < 6; i++) {
+            peerSession.queueMessage(createDataMessage());
+        }
+        List<UDPMessage> admittedMessages = peerSession.admitQueuedMessages();
+
+        Assert.assertEquals(admittedMessages.size(), 4);
+        for (int i = 0; i < admittedMessages.size(); i++) {
+            Assert.assertEquals(admittedMessages.get(i).getSequenceNumber(), i);
+        }
+        Assert.assertEquals(peerSession.admitQueuedMessages().size(), 0);
+
+        peerSession.acknowledge(1, 0, System.currentTimeMillis());
+        admittedMessages = peerSession.admitQueuedMessages();
+
+        Assert.assertEquals(admittedMessages.size(), 1);
+        Assert.assertEquals(admittedMessages.get(0).getSequenceNumber(), 4);
+        Assert.assertEquals(peerSession.getMessagesPendingAck().size(), 4);
+    }
+
+    @Test(priority = 2)
+    public void testSelectiveAck() {
+        logger.info("Running UDP Peer Session Test 02 - Selective acknowledgement");
+
+        for (int i = 0; i < 4; i++) {
+            peerSession.queueMessage(createDataMessage());
+        }
+        peerSession.admitQueuedMessages();
+
+        // Messages 0 and 2 are received while 1 and 3 are missing
+        peerSession.acknowledge(1, 0b1, System.currentTimeMillis());
+        List<UDPMessage> messagesPendingAck = peerSession.getMessagesPendingAck();
+
+        Assert.assertEquals(messagesPendingAck.size(), 2);
+        Assert.assertEquals(messagesPendingAck.get(0).getSequenceNumber(), 1);
+        Assert.assertEquals(messagesPendingAck.get(1).getSequenceNumber(), 3);
+
+        peerSession.acknowledge(4, 0, System.currentTimeMillis());
+
+        Assert.assertFalse(peerSession.hasMessagesPendingAck());
+        Assert.assertEquals(peerSession.getNextRetransmissionTimeStamp(), -1);
+    }
+
+    @Test(priority = 3)
+    public void testMarkReceived() {
+        logger.info("Running UDP Peer Session Test 03 - Mark received");
+
+        Assert.assertFalse(peerSession.hasReceivedMessages());
+        Assert.assertTrue(peerSession.markReceived(0));
+        Assert.assertTrue(peerSession.markReceived(2));
+        Assert.assertTrue(peerSession.markReceived(4));
+        Assert.assertFalse(peerSession.markReceived(2));
+        Assert.assertFalse(peerSession.markReceived(0));
+
+        Assert.assertTrue(peerSession.hasReceivedMessages());
+        Assert.assertTrue(peerSession.hasReceiveGap());
+        Assert.assertEquals(peerSession.getAckSequenceNumber(), 1);
+        Assert.assertEquals(peerSession.getSelectiveAckBitmap(), 0b101);
+
+        Assert.assertTrue(peerSession.markReceived(1));
+
+        Assert.assertEquals(peerSession.getAckSequenceNumber(), 3);
+        Assert.assertEquals(peerSession.getSelectiveAckBitmap(), 0b1);
+
+        Assert.assertTrue(peerSession.markReceived(3));
+
+        Assert.assertFalse(peerSession.hasReceiveGap());
+        Assert.assertEquals(peerSession.getAckSequenceNumber(), 5);
+        Assert.assertEquals(peerSession.getSelectiveAckBitmap(), 0);
+    }
+
+    @Test(priority = 4)
+    public void testMarkReceivedBeyondWindow() {
+        logger.info("Running UDP Peer Session Test 04 - Mark received beyond window");
+
+        Assert.assertTrue(peerSession.markReceived(2));
+        Assert.assertTrue(peerSession.markReceived(UDPPeerSession.MAX_WINDOW_SIZE + 1));
+
+        // Message 0 was given up by the sender and message 1 is still expected
+        Assert.assertEquals(peerSession.getAckSequenceNumber(), 1);
+        Assert.assertEquals(peerSession.getSelectiveAckBitmap(), 1L | (1L << (UDPPeerSession.MAX_WINDOW_SIZE - 1)));
+        Assert.assertFalse(peerSession.markReceived(0));
+
+        Assert.assertTrue(peerSession.markReceived(UDPPeerSession.MAX_WINDOW_SIZE + 3));
+
+        Assert.assertEquals(peerSession.getAckSequenceNumber(), 3);
+        Assert.assertEquals(peerSession.getSelectiveAckBitmap(), (1L << (UDPPeerSession.MAX_WINDOW_SIZE - 3))
+                | (1L << (UDPPeerSession.MAX_WINDOW_SIZE - 1)));
+    }
+
+    @Test(priority = 5)
+    public void testRetransmissionTimeout() {
+        logger.info("Running UDP Peer Session Test 05 - Retransmission timeout");
+
+        Assert.assertEquals(peerSession.getRetransmissionTimeout(), 1000);
+
+        peerSession.queueMessage(createDataMessage());
+        UDPMessage udpMessage = peerSession.admitQueuedMessages().get(0);
+        udpMessage.setSentTimeStamp(10000);
+        peerSession.acknowledge(1, 0, 10200);
+
+        // The first sample sets the variance to half the round trip time
+        Assert.assertEquals(peerSession.getRetransmissionTimeout(), 600);
+
+        peerSession.queueMessage(createDataMessage());
+        udpMessage = peerSession.admitQueuedMessages().get(0);
+        udpMessage.setSentTimeStamp(20000);
+        udpMessage.setUsedRetriesCount(1);
+        peerSession.acknowledge(2, 0, 25000);
+
+        // Acknowledgements of retried messages are not sampled
+        Assert.assertEquals(peerSession.getRetransmissionTimeout(), 600);
+
+        peerSession.backOffRetransmissionTimeout();
+        Assert.assertEquals(peerSession.getRetransmissionTimeout(), 1200);
+        peerSession.backOffRetransmissionTimeout();
+        peerSession.backOffRetransmissionTimeout();
+        Assert.assertEquals(peerSession.getRetransmissionTimeout(), 3000);
+    }
+
+    @Test(priority = 6)
+    public void testInitialSequenceNumber() {
+        logger.info("Running UDP Peer Session Test 06 - Initial sequence number");
+
+        long initialSequenceNumber = 100 * UDPPeerSession.MAX_WINDOW_SIZE;
+        UDPPeerSession newPeerSession = new UDPPeerSession(serviceHolder, initialSequenceNumber);
+        newPeerSession.queueMessage(createDataMessage());
+
+        Assert.assertEquals(newPeerSession.admitQueuedMessages().get(0).getSequenceNumber(), initialSequenceNumber);
+
+        // The first message of the peer was delayed and the second message was received first
+        Assert.assertTrue(newPeerSession.markReceived(initialSequenceNumber + 1));
+
+        Assert.assertEquals(newPeerSession.getAckSequenceNumber(), initialSequenceNumber);
+        Assert.assertEquals(newPeerSession.getSelectiveAckBitmap(), 0b1);
+
+        Assert.assertTrue(newPeerSession.markReceived(initialSequenceNumber));
+
+        Assert.assertEquals(newPeerSession.getAckSequenceNumber(), initialSequenceNumber + 2);
+        Assert.assertFalse(newPeerSession.hasReceiveGap());
+        newPeerSession.cancelTimers();
+    }
+
+    @Test(priority = 7)
+    public void testIdle() {
+        logger.info("Running UDP Peer Session Test 07 - Idle");
+
+        Assert.assertFalse(peerSession.isIdle(1000));
+        Assert.assertTrue(peerSession.isIdle(-1));
+
+        peerSession.queueMessage(createDataMessage());
+        peerSession.admitQueuedMessages();
+
+        Assert.assertFalse(peerSession.isIdle(-1));
+
+        peerSession.acknowledge(1, 0, System.currentTimeMillis());
+
+        Assert.assertTrue(peerSession.isIdle(-1));
+        Assert.assertFalse(peerSession.isClosed());
+
+        peerSession.close();
+
+        Assert.assertTrue(peerSession.isClosed());
+    }
+
+    /**
+     * Create a DATA message to be queued.
+     *
+     * @return The DATA message
+     */
+    private UDPMessage createDataMessage() {
+        UDPMessage udpMessage = new UDPMessage();
+        udpMessage.setType(UDPMessageType.DATA);
+        udpMessage.setSourceIP("127.0.0.1");
+        udpMessage.setSourcePort(24675);
+        return udpMessage;
+    }
+}
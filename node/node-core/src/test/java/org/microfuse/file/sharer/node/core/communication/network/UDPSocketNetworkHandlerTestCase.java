@@ -2,10 +2,15 @@ package org.microfuse.file.sharer.node.core.communication.network;
 
 import org.microfuse.file.sharer.node.commons.Configuration;
 import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.commons.communication.messaging.UDPMessageType;
 import org.microfuse.file.sharer.node.commons.peer.NodeConstants;
 import org.microfuse.file.sharer.node.core.BaseTestCase;
 import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+import org.microfuse.file.sharer.node.core.communication.messaging.MessageCodec;
+import org.microfuse.file.sharer.node.core.communication.messaging.UDPMessage;
+import org.microfuse.file.sharer.node.core.utils.ServiceHolder;
 import org.mockito.Mockito;
+import org.mockito.internal.util.reflection.Whitebox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.Assert;
@@ -13,6 +18,11 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.util.Map;
+
 /**
  * Test Case for org.microfuse.file.sharer.node.core.communication.network.UDPSocketNetworkHandler class.
  */
@@ -44,6 +54,7 @@ public class UDPSocketNetworkHandlerTestCase extends BaseTestCase {
 
         configuration.setUdpNetworkHandlerRetryCount(3);
         configuration.setUdpNetworkHandlerRetryInterval(delay);
+        configuration.setUdpNetworkHandlerMaxRetransmissionTimeout(delay);
 
         configuration.setPeerListeningPort(peerListeningPort1);
         udpSocketNetworkHandler1 = Mockito.spy(new UDPSocketNetworkHandler(serviceHolder));
@@ -159,4 +170,155 @@ public class UDPSocketNetworkHandlerTestCase extends BaseTestCase {
         Mockito.verify(udpSocketNetworkHandler1Listener, Mockito.times(1))
                 .onMessageSendFailed(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message3));
     }
+
+    @Test(priority = 6)
+    public void testBinaryCodecCommunication() {
+        logger.info("Running UDP Network Handler Test 06 - Binary codec communication");
+
+        serviceHolder.getConfiguration().setNetworkHandlerBinaryCodecEnabled(true);
+        udpSocketNetworkHandler1.sendMessage(localhostIP, peerListeningPort2, message1);
+        waitFor(delay * 6);
+
+        Mockito.verify(udpSocketNetworkHandler2Listener, Mockito.times(1))
+                .onMessageReceived(Mockito.eq(localhostIP), Mockito.anyInt(), Mockito.eq(message1));
+    }
+
+    @Test(priority = 7)
+    public void testAcknowledgement() {
+        logger.info("Running UDP Network Handler Test 07 - Acknowledgement");
+
+        ServiceHolder serviceHolder1 = createServiceHolder(26431);
+        UDPSocketNetworkHandler udpSocketNetworkHandler3 = new UDPSocketNetworkHandler(serviceHolder1);
+        NetworkHandlerListener udpSocketNetworkHandler3Listener = Mockito.mock(NetworkHandlerListener.class);
+        udpSocketNetworkHandler3.registerListener(udpSocketNetworkHandler3Listener);
+        udpSocketNetworkHandler3.startListening();
+
+        ServiceHolder serviceHolder2 = createServiceHolder(26432);
+        UDPSocketNetworkHandler udpSocketNetworkHandler4 = new UDPSocketNetworkHandler(serviceHolder2);
+        NetworkHandlerListener udpSocketNetworkHandler4Listener = Mockito.mock(NetworkHandlerListener.class);
+        udpSocketNetworkHandler4.registerListener(udpSocketNetworkHandler4Listener);
+        udpSocketNetworkHandler4.startListening();
+        waitFor(delay);
+
+        try {
+            udpSocketNetworkHandler3.sendMessage(localhostIP, 26432, message1);
+            udpSocketNetworkHandler3.sendMessage(localhostIP, 26432, message2);
+            udpSocketNetworkHandler4.sendMessage(localhostIP, 26431, message3);
+            udpSocketNetworkHandler3.sendMessage(localhostIP, 26432, message4);
+            waitFor(delay * 6);
+
+            Mockito.verify(udpSocketNetworkHandler4Listener, Mockito.times(1))
+                    .onMessageReceived(Mockito.eq(localhostIP), Mockito.eq(26431), Mockito.eq(message1));
+            Mockito.verify(udpSocketNetworkHandler4Listener, Mockito.times(1))
+                    .onMessageReceived(Mockito.eq(localhostIP), Mockito.eq(26431), Mockito.eq(message2));
+            Mockito.verify(udpSocketNetworkHandler4Listener, Mockito.times(1))
+                    .onMessageReceived(Mockito.eq(localhostIP), Mockito.eq(26431), Mockito.eq(message4));
+            Mockito.verify(udpSocketNetworkHandler3Listener, Mockito.times(1))
+                    .onMessageReceived(Mockito.eq(localhostIP), Mockito.eq(26432), Mockito.eq(message3));
+            Mockito.verify(udpSocketNetworkHandler3Listener, Mockito.times(0))
+                    .onMessageSendFailed(Mockito.anyString(), Mockito.anyInt(), Mockito.any(Message.class));
+            Mockito.verify(udpSocketNetworkHandler4Listener, Mockito.times(0))
+                    .onMessageSendFailed(Mockito.anyString(), Mockito.anyInt(), Mockito.any(Message.class));
+        } finally {
+            udpSocketNetworkHandler3.shutdown();
+            udpSocketNetworkHandler4.shutdown();
+            serviceHolder1.clear();
+            serviceHolder2.clear();
+        }
+    }
+
+    @Test(priority = 8)
+    public void testCoalescing() {
+        logger.info("Running UDP Network Handler Test 08 - Coalescing");
+
+        ServiceHolder serviceHolder1 = createServiceHolder(26433);
+        serviceHolder1.getConfiguration().setUdpNetworkHandlerCoalescingEnabled(true);
+        serviceHolder1.getConfiguration().setUdpNetworkHandlerCoalescingWindow(200);
+        UDPSocketNetworkHandler udpSocketNetworkHandler3 =
+                Mockito.spy(new UDPSocketNetworkHandler(serviceHolder1));
+        udpSocketNetworkHandler3.registerListener(Mockito.mock(NetworkHandlerListener.class));
+        udpSocketNetworkHandler3.startListening();
+
+        ServiceHolder serviceHolder2 = createServiceHolder(26434);
+        UDPSocketNetworkHandler udpSocketNetworkHandler4 = new UDPSocketNetworkHandler(serviceHolder2);
+        NetworkHandlerListener udpSocketNetworkHandler4Listener = Mockito.mock(NetworkHandlerListener.class);
+        udpSocketNetworkHandler4.registerListener(udpSocketNetworkHandler4Listener);
+        udpSocketNetworkHandler4.startListening();
+        waitFor(delay);
+
+        try {
+            udpSocketNetworkHandler3.sendMessage(localhostIP, 26434, message1);
+            udpSocketNetworkHandler3.sendMessage(localhostIP, 26434, message2);
+            udpSocketNetworkHandler3.sendMessage(localhostIP, 26434, message3);
+            waitFor(delay * 3);
+
+            Mockito.verify(udpSocketNetworkHandler3, Mockito.times(1)).sendDatagram(Mockito.eq(localhostIP),
+                    Mockito.eq(26434), Mockito.any(byte[].class), Mockito.anyString());
+            Mockito.verify(udpSocketNetworkHandler4Listener, Mockito.times(1))
+                    .onMessageReceived(Mockito.eq(localhostIP), Mockito.eq(26433), Mockito.eq(message1));
+            Mockito.verify(udpSocketNetworkHandler4Listener, Mockito.times(1))
+                    .onMessageReceived(Mockito.eq(localhostIP), Mockito.eq(26433), Mockito.eq(message2));
+            Mockito.verify(udpSocketNetworkHandler4Listener, Mockito.times(1))
+                    .onMessageReceived(Mockito.eq(localhostIP), Mockito.eq(26433), Mockito.eq(message3));
+        } finally {
+            udpSocketNetworkHandler3.shutdown();
+            udpSocketNetworkHandler4.shutdown();
+            serviceHolder1.clear();
+            serviceHolder2.clear();
+        }
+    }
+
+    @Test(priority = 9)
+    public void testSessionsKeyedBySocketAddress() throws Exception {
+        logger.info("Running UDP Network Handler Test 09 - Sessions keyed by socket address");
+
+        ServiceHolder serviceHolder1 = createServiceHolder(26435);
+        serviceHolder1.getConfiguration().setUdpNetworkHandlerSessionIdleTimeout(delay);
+        UDPSocketNetworkHandler udpSocketNetworkHandler3 = new UDPSocketNetworkHandler(serviceHolder1);
+        NetworkHandlerListener udpSocketNetworkHandler3Listener = Mockito.mock(NetworkHandlerListener.class);
+        udpSocketNetworkHandler3.registerListener(udpSocketNetworkHandler3Listener);
+        udpSocketNetworkHandler3.startListening();
+        waitFor(delay);
+
+        try (DatagramSocket socket = new DatagramSocket()) {
+            for (int i = 0; i < 3; i++) {
+                UDPMessage udpMessage = new UDPMessage();
+                udpMessage.setType(UDPMessageType.DATA);
+                udpMessage.setSourceIP(localhostIP);
+                udpMessage.setSourcePort(27000 + i);
+                udpMessage.setSequenceNumber(i);
+                udpMessage.setMessage(message1);
+                byte[] datagram = MessageCodec.encode(udpMessage, false);
+                socket.send(new DatagramPacket(datagram, datagram.length, InetAddress.getByName(localhostIP), 26435));
+            }
+            waitFor(delay / 2);
+
+            Map<?, ?> peerSessions = (Map<?, ?>) Whitebox.getInternalState(udpSocketNetworkHandler3, "peerSessions");
+            Assert.assertEquals(peerSessions.size(), 1);
+            Mockito.verify(udpSocketNetworkHandler3Listener, Mockito.times(1))
+                    .onMessageReceived(Mockito.eq(localhostIP), Mockito.eq(27000), Mockito.eq(message1));
+
+            waitFor(delay * 3);
+            Assert.assertEquals(peerSessions.size(), 0);
+        } finally {
+            udpSocketNetworkHandler3.shutdown();
+            serviceHolder1.clear();
+        }
+    }
+
+    /**
+     * Create a service holder with its own configuration for a network handler.
+     *
+     * @param peerListeningPort The port at which the network handler should listen
+     * @return The service holder
+     */
+    private ServiceHolder createServiceHolder(int peerListeningPort) {
+        ServiceHolder newServiceHolder = new ServiceHolder();
+        Configuration configuration = newServiceHolder.getConfiguration();
+        configuration.setPeerListeningPort(peerListeningPort);
+        configuration.setUdpNetworkHandlerRetryCount(3);
+        configuration.setUdpNetworkHandlerRetryInterval(delay);
+        configuration.setUdpNetworkHandlerMaxRetransmissionTimeout(delay);
+        return newServiceHolder;
+    }
 }
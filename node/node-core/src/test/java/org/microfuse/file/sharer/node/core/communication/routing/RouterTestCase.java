@@ -12,6 +12,8 @@ import org.microfuse.file.sharer.node.core.communication.network.NetworkHandler;
 import org.microfuse.file.sharer.node.core.communication.routing.strategy.RoutingStrategy;
 import org.microfuse.file.sharer.node.core.communication.routing.table.RoutingTable;
 import org.microfuse.file.sharer.node.core.communication.routing.table.SuperPeerRoutingTable;
+import org.microfuse.file.sharer.node.core.resource.index.SuperPeerResourceIndex;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.internal.util.reflection.Whitebox;
 import org.slf4j.Logger;
@@ -23,6 +25,7 @@ import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -158,11 +161,12 @@ public class RouterTestCase extends BaseTestCase {
 
         router.onMessageReceived(fromNode.getIp(), fromNode.getPort(), serMessage);
 
-        Message message = Message.parse("0047 " + MessageType.SER_OK.getValue()
+        Message message = Message.parse("0051 " + MessageType.SER_OK.getValue()
                 + " \"" + serMessage.getData(MessageIndexes.SER_QUERY) + "\""
                 + " 0 19 1"
                 + " " + serviceHolder.getConfiguration().getIp()
                 + " " + Integer.toString(serviceHolder.getConfiguration().getPeerListeningPort())
+                + " 0 1"
                 + " \"" + ownedResourceName + "\"");
 
         Mockito.verify(networkHandler, Mockito.times(1))
@@ -520,6 +524,138 @@ public class RouterTestCase extends BaseTestCase {
         router.disableHeartBeat();
         waitFor(1200);
 
-        Mockito.verify(networkHandler, Mockito.times(2)).sendMessage(node.getIp(), node.getPort(), message);
+        Mockito.verify(networkHandler, Mockito.times(1)).sendMessage(node.getIp(), node.getPort(), message);
+    }
+
+    @Test(priority = 3)
+    public void testOnSerMessageReceivedWithManyResourcesInOwnedResources() {
+        logger.info("Running Router Test 24 - On " + MessageType.SER.getValue()
+                + " message received with many resources in owned resources");
+
+        serviceHolder.getConfiguration().setSerOkPageMaxLength(200);
+        String ownedResourceName = serMessage.getData(MessageIndexes.SER_QUERY);
+        for (int i = 0; i < 40; i++) {
+            serviceHolder.getResourceIndex().addOwnedResource(ownedResourceName + " Part " + i, null);
+        }
+
+        router.onMessageReceived(fromNode.getIp(), fromNode.getPort(), serMessage);
+
+        ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        Mockito.verify(networkHandler, Mockito.atLeast(2))
+                .sendMessage(Mockito.eq(sourceNode.getIp()), Mockito.eq(sourceNode.getPort()), messageCaptor.capture());
+        List<Message> serOkMessages = messageCaptor.getAllValues();
+        Set<String> receivedResourceNames = new HashSet<>();
+        for (int i = 0; i < serOkMessages.size(); i++) {
+            Message serOkMessage = serOkMessages.get(i);
+            Assert.assertEquals(serOkMessage.getType(), MessageType.SER_OK);
+            Assert.assertTrue(serOkMessage.toString().length() <= 200);
+            Assert.assertEquals(serOkMessage.getData(MessageIndexes.SER_OK_PAGE_INDEX), Integer.toString(i));
+            Assert.assertEquals(serOkMessage.getData(MessageIndexes.SER_OK_PAGE_COUNT),
+                    Integer.toString(serOkMessages.size()));
+
+            int fileCount = Integer.parseInt(serOkMessage.getData(MessageIndexes.SER_OK_FILE_COUNT));
+            Assert.assertEquals(serOkMessage.getData().size(), MessageIndexes.SER_OK_FILE_NAME_START + fileCount);
+            receivedResourceNames.addAll(serOkMessage.getData().subList(MessageIndexes.SER_OK_FILE_NAME_START,
+                    MessageIndexes.SER_OK_FILE_NAME_START + fileCount));
+        }
+        Assert.assertEquals(receivedResourceNames.size(), 40);
+    }
+
+    @Test(priority = 3)
+    public void testOnRepeatedSerMessageReceivedToSuperPeer() {
+        logger.info("Running Router Test 25 - On repeated " + MessageType.SER.getValue()
+                + " message received to super peer");
+
+        serviceHolder.promoteToSuperPeer();
+        String resourceName = serMessage.getData(MessageIndexes.SER_QUERY);
+        serviceHolder.getRouter().getRoutingTable().addUnstructuredNetworkRoutingTableEntry("192.168.1.5", 7453);
+        ((SuperPeerResourceIndex) serviceHolder.getResourceIndex())
+                .addAggregatedResource(resourceName, "192.168.1.5", 7453);
+
+        Set<Node> nodes = new HashSet<>();
+        Node node = new Node("192.168.1.5", 7453);
+        nodes.add(node);
+        Mockito.when(routingStrategy.getForwardingNodes(Mockito.eq(spyRoutingTable), Mockito.eq(fromNode),
+                Mockito.any(Message.class))).thenReturn(nodes);
+        Mockito.when(spyRoutingTable.getUnstructuredNetworkRoutingTableNode(fromNode.getIp(), fromNode.getPort()))
+                .thenReturn(fromNode);
+
+        router.onMessageReceived(fromNode.getIp(), fromNode.getPort(), serMessage);
+        Mockito.verify(networkHandler, Mockito.times(1))
+                .sendMessage(Mockito.eq(node.getIp()), Mockito.eq(node.getPort()), Mockito.any(Message.class));
+        Assert.assertEquals(router.getSerOkCache().size(), 1);
+
+        Message repeatedSerMessage = Message.parse("0049 " + MessageType.SER.getValue() + " 192.168.1.4 5643 0 "
+                + Integer.toString(NodeConstants.DEFAULT_TIME_TO_LIVE - 1) + " \"rings of the lord\"");
+        router.onMessageReceived(fromNode.getIp(), fromNode.getPort(), repeatedSerMessage);
+
+        Message message = Message.parse("0051 " + MessageType.SER_OK.getValue()
+                + " \"rings of the lord\" 0 19 1 192.168.1.5 7453 0 1 \"" + resourceName + "\"");
+        Mockito.verify(networkHandler, Mockito.times(1)).sendMessage("192.168.1.4", 5643, message);
+        Mockito.verify(networkHandler, Mockito.times(2))
+                .sendMessage(Mockito.eq(node.getIp()), Mockito.eq(node.getPort()), Mockito.any(Message.class));
+    }
+
+    @Test(priority = 3)
+    public void testOnSerMessageCopyReceivedToSuperPeer() {
+        logger.info("Running Router Test 26 - On copy of " + MessageType.SER.getValue()
+                + " message received to super peer");
+
+        serviceHolder.promoteToSuperPeer();
+        String resourceName = serMessage.getData(MessageIndexes.SER_QUERY);
+        serviceHolder.getRouter().getRoutingTable().addUnstructuredNetworkRoutingTableEntry("192.168.1.5", 7453);
+        ((SuperPeerResourceIndex) serviceHolder.getResourceIndex())
+                .addAggregatedResource(resourceName, "192.168.1.5", 7453);
+
+        Set<Node> nodes = new HashSet<>();
+        Node node = new Node("192.168.1.5", 7453);
+        nodes.add(node);
+        Mockito.when(routingStrategy.getForwardingNodes(Mockito.eq(spyRoutingTable), Mockito.eq(fromNode),
+                Mockito.any(Message.class))).thenReturn(nodes);
+        Mockito.when(spyRoutingTable.getUnstructuredNetworkRoutingTableNode(fromNode.getIp(), fromNode.getPort()))
+                .thenReturn(fromNode);
+
+        Message serMessageCopy = serMessage.clone();
+        router.onMessageReceived(fromNode.getIp(), fromNode.getPort(), serMessage);
+        Assert.assertEquals(router.getSerOkCache().size(), 1);
+
+        router.onMessageReceived(fromNode.getIp(), fromNode.getPort(), serMessageCopy);
+        Mockito.verify(networkHandler, Mockito.times(0)).sendMessage(Mockito.eq(sourceNode.getIp()),
+                Mockito.eq(sourceNode.getPort()), Mockito.any(Message.class));
+        Mockito.verify(networkHandler, Mockito.times(2))
+                .sendMessage(Mockito.eq(node.getIp()), Mockito.eq(node.getPort()), Mockito.any(Message.class));
+    }
+
+    @Test(priority = 3)
+    public void testOnSerMessageReceivedToSuperPeerWithInactiveCachedOwner() {
+        logger.info("Running Router Test 27 - On " + MessageType.SER.getValue()
+                + " message received to super peer with inactive cached owner");
+
+        serviceHolder.promoteToSuperPeer();
+        String resourceName = serMessage.getData(MessageIndexes.SER_QUERY);
+        serviceHolder.getRouter().getRoutingTable().addUnstructuredNetworkRoutingTableEntry("192.168.1.5", 7453);
+        ((SuperPeerResourceIndex) serviceHolder.getResourceIndex())
+                .addAggregatedResource(resourceName, "192.168.1.5", 7453);
+
+        Set<Node> nodes = new HashSet<>();
+        Node node = new Node("192.168.1.5", 7453);
+        nodes.add(node);
+        Mockito.when(routingStrategy.getForwardingNodes(Mockito.eq(spyRoutingTable), Mockito.eq(fromNode),
+                Mockito.any(Message.class))).thenReturn(nodes);
+        Mockito.when(spyRoutingTable.getUnstructuredNetworkRoutingTableNode(fromNode.getIp(), fromNode.getPort()))
+                .thenReturn(fromNode);
+
+        router.onMessageReceived(fromNode.getIp(), fromNode.getPort(), serMessage);
+        Assert.assertEquals(router.getSerOkCache().size(), 1);
+
+        serviceHolder.getRouter().getRoutingTable().get("192.168.1.5", 7453).setState(NodeState.INACTIVE);
+        Message otherSerMessage = Message.parse("0049 " + MessageType.SER.getValue() + " 192.168.1.4 5643 0 "
+                + Integer.toString(NodeConstants.DEFAULT_TIME_TO_LIVE - 1) + " \"rings of the lord\"");
+        router.onMessageReceived(fromNode.getIp(), fromNode.getPort(), otherSerMessage);
+
+        Mockito.verify(networkHandler, Mockito.times(0))
+                .sendMessage(Mockito.eq("192.168.1.4"), Mockito.eq(5643), Mockito.any(Message.class));
+        Mockito.verify(networkHandler, Mockito.times(2))
+                .sendMessage(Mockito.eq(node.getIp()), Mockito.eq(node.getPort()), Mockito.any(Message.class));
     }
 }
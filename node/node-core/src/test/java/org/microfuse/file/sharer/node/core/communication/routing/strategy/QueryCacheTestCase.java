@@ -0,0 +1,114 @@
+package org.microfuse.file.sharer.node.core.communication.routing.strategy;
+
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.commons.peer.Node;
+import org.microfuse.file.sharer.node.core.BaseTestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test Case for org.microfuse.file.sharer.node.core.communication.routing.strategy.QueryCache class.
+ */
+public class QueryCacheTestCase extends BaseTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(QueryCacheTestCase.class);
+
+    private QueryCache queryCache;
+    private QueryKey queryKey1;
+    private QueryKey queryKey2;
+
+    @BeforeMethod
+    public void initializeMethod() {
+        logger.info("Initializing Query Cache Test");
+
+        queryCache = new QueryCache(serviceHolder);
+        queryKey1 = new QueryKey(MessageType.SER, "192.168.1.1", 4067, 1);
+        queryKey2 = new QueryKey(MessageType.SER, "192.168.1.1", 4067, 2);
+    }
+
+    @Test(priority = 1)
+    public void testGetEntry() {
+        logger.info("Running Query Cache Test 01 - Get entry");
+
+        CacheEntry cacheEntry = queryCache.getEntry(queryKey1);
+        cacheEntry.addForwardedNode(new Node("192.168.1.2", 4067));
+
+        Assert.assertSame(queryCache.getEntry(new QueryKey(MessageType.SER, "192.168.1.1", 4067, 1)), cacheEntry);
+        Assert.assertNotSame(queryCache.getEntry(queryKey2), cacheEntry);
+        Assert.assertEquals(queryCache.size(), 2);
+        Assert.assertEquals(queryCache.getHitCount(), 1);
+        Assert.assertEquals(queryCache.getMissCount(), 2);
+        Assert.assertEquals(queryCache.getEvictionCount(), 0);
+    }
+
+    @Test(priority = 2)
+    public void testExpiry() throws Exception {
+        logger.info("Running Query Cache Test 02 - Expiry");
+
+        serviceHolder.getConfiguration().setAutomatedGarbageCollectionInterval(160);
+        queryCache.getEntry(queryKey1);
+        queryCache.collectGarbage();
+        Assert.assertEquals(queryCache.size(), 1);
+
+        Thread.sleep(400);
+        queryCache.getEntry(queryKey2);
+
+        Assert.assertEquals(queryCache.size(), 1);
+        Assert.assertEquals(queryCache.getEvictionCount(), 1);
+        Assert.assertEquals(queryCache.getMissCount(), 2);
+    }
+
+    @Test(priority = 3)
+    public void testExpiryOfRecentlyUsedEntry() throws Exception {
+        logger.info("Running Query Cache Test 03 - Expiry of recently used entry");
+
+        serviceHolder.getConfiguration().setAutomatedGarbageCollectionInterval(400);
+        queryCache.getEntry(queryKey1);
+        queryCache.getEntry(queryKey2);
+        Thread.sleep(250);
+        queryCache.getEntry(queryKey1);
+        Thread.sleep(250);
+        queryCache.collectGarbage();
+
+        Assert.assertEquals(queryCache.size(), 1);
+        Assert.assertEquals(queryCache.getHitCount(), 1);
+        Assert.assertEquals(queryCache.getEvictionCount(), 1);
+    }
+
+    @Test(priority = 4)
+    public void testSizeLimit() throws Exception {
+        logger.info("Running Query Cache Test 04 - Size limit");
+
+        serviceHolder.getConfiguration().setRoutingStrategyCacheMaxSize(5);
+        serviceHolder.getConfiguration().setAutomatedGarbageCollectionInterval(1600);
+        for (int i = 0; i < 5; i++) {
+            queryCache.getEntry(new QueryKey(MessageType.SER, "192.168.1.1", 4067, i));
+        }
+        Thread.sleep(200);
+        CacheEntry cacheEntry = queryCache.getEntry(new QueryKey(MessageType.SER, "192.168.1.1", 4067, 5));
+
+        Assert.assertEquals(queryCache.size(), 5);
+        Assert.assertEquals(queryCache.getEvictionCount(), 1);
+        Assert.assertSame(queryCache.getEntry(new QueryKey(MessageType.SER, "192.168.1.1", 4067, 5)), cacheEntry);
+    }
+
+    @Test(priority = 5)
+    public void testExpiryOfEntriesUsedLateInBucket() throws Exception {
+        logger.info("Running Query Cache Test 05 - Expiry of entries used late in bucket");
+
+        serviceHolder.getConfiguration().setAutomatedGarbageCollectionInterval(160);
+        for (int i = 0; i < 40; i++) {
+            queryCache.getEntry(new QueryKey(MessageType.SER, "192.168.1.1", 4067, i));
+            Thread.sleep(5);
+        }
+        for (int i = 0; i < 20; i++) {
+            Thread.sleep(20);
+            queryCache.collectGarbage();
+        }
+
+        Assert.assertEquals(queryCache.size(), 0);
+        Assert.assertEquals(queryCache.getEvictionCount(), 40);
+    }
+}
@@ -0,0 +1,84 @@
+package org.microfuse.file.sharer.node.core.communication.routing.strategy;
+
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test Case for org.microfuse.file.sharer.node.core.communication.routing.strategy.QueryKey class.
+ */
+public class QueryKeyTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(QueryKeyTestCase.class);
+
+    private Message serMessage;
+    private Message serSuperPeerMessage;
+
+    @BeforeMethod
+    public void initializeMethod() {
+        logger.info("Initializing Query Key Test");
+
+        serMessage = Message.parse("0051 SER 129.82.62.142 5070 12 3 \"Lord of the Rings\"");
+        serSuperPeerMessage = Message.parse("0046 SERSUPERPEER 12 129.82.62.142 5070 3");
+    }
+
+    @Test(priority = 1)
+    public void testFromSerMessage() {
+        logger.info("Running Query Key Test 01 - From SER message");
+
+        QueryKey queryKey = QueryKey.fromMessage(serMessage);
+
+        Assert.assertNotNull(queryKey);
+        Assert.assertEquals(queryKey.getType(), MessageType.SER);
+        Assert.assertEquals(queryKey.getSourceIP(), "129.82.62.142");
+        Assert.assertEquals(queryKey.getSourcePort(), 5070);
+        Assert.assertEquals(queryKey.getSequenceNumber(), 12);
+    }
+
+    @Test(priority = 2)
+    public void testFromSerSuperPeerMessage() {
+        logger.info("Running Query Key Test 02 - From SER_SUPER_PEER message");
+
+        QueryKey queryKey = QueryKey.fromMessage(serSuperPeerMessage);
+
+        Assert.assertNotNull(queryKey);
+        Assert.assertEquals(queryKey.getType(), MessageType.SER_SUPER_PEER);
+        Assert.assertEquals(queryKey.getSourceIP(), "129.82.62.142");
+        Assert.assertEquals(queryKey.getSourcePort(), 5070);
+        Assert.assertEquals(queryKey.getSequenceNumber(), 12);
+    }
+
+    @Test(priority = 3)
+    public void testFromOtherMessage() {
+        logger.info("Running Query Key Test 03 - From other message");
+
+        Assert.assertNull(QueryKey.fromMessage(Message.parse("0027 JOIN 129.82.62.142 5070")));
+    }
+
+    @Test(priority = 4)
+    public void testEqualsIgnoringHopCount() {
+        logger.info("Running Query Key Test 04 - Equals ignoring hop count");
+
+        Message forwardedSerMessage = serMessage.clone();
+        forwardedSerMessage.setData(3, "4");
+
+        Assert.assertEquals(QueryKey.fromMessage(forwardedSerMessage), QueryKey.fromMessage(serMessage));
+        Assert.assertEquals(QueryKey.fromMessage(forwardedSerMessage).hashCode(),
+                QueryKey.fromMessage(serMessage).hashCode());
+        Assert.assertNotEquals(QueryKey.fromMessage(serSuperPeerMessage), QueryKey.fromMessage(serMessage));
+    }
+
+    @Test(priority = 5)
+    public void testFromMalformedMessage() {
+        logger.info("Running Query Key Test 05 - From malformed message");
+
+        Assert.assertNull(QueryKey.fromMessage(
+                Message.parse("0051 SER 129.82.62.142 port 12 3 \"Lord of the Rings\"")));
+        Assert.assertNull(QueryKey.fromMessage(
+                Message.parse("0051 SER 129.82.62.142 5070 twelve 3 \"Lord of the Rings\"")));
+        Assert.assertNull(QueryKey.fromMessage(Message.parse("0046 SERSUPERPEER 12 129.82.62.142 port 3")));
+    }
+}
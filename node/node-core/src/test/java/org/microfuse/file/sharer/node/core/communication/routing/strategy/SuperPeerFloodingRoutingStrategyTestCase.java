@@ -1,5 +1,6 @@
 package org.microfuse.file.sharer.node.core.communication.routing.strategy;
 
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageIndexes;
 import org.microfuse.file.sharer.node.commons.peer.Node;
 import org.microfuse.file.sharer.node.commons.peer.NodeState;
 import org.microfuse.file.sharer.node.core.BaseTestCase;
@@ -8,6 +9,7 @@ import org.microfuse.file.sharer.node.core.communication.routing.table.OrdinaryP
 import org.microfuse.file.sharer.node.core.communication.routing.table.RoutingTable;
 import org.microfuse.file.sharer.node.core.communication.routing.table.SuperPeerRoutingTable;
 import org.microfuse.file.sharer.node.core.resource.index.ResourceIndex;
+import org.microfuse.file.sharer.node.core.resource.index.ResourceSummary;
 import org.microfuse.file.sharer.node.core.resource.index.SuperPeerResourceIndex;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
@@ -16,6 +18,7 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -322,4 +325,77 @@ public class SuperPeerFloodingRoutingStrategyTestCase extends BaseTestCase {
         Assert.assertEquals(forwardingNodes.size(), 1);
         Assert.assertTrue(forwardingNodes.contains(node5));
     }
+
+    @Test(priority = 4)
+    public void testGetForwardingNodesInSuperPeerWithResourceSummaries() {
+        logger.info("Running Super Peer Flooding Routing Strategy Test 14 - Get forwarding nodes in super peer " +
+                "with resource summaries");
+
+        serviceHolder.promoteToSuperPeer();
+        ResourceIndex resourceIndex = serviceHolder.getResourceIndex();
+        resourceIndex.clear();
+
+        Assert.assertTrue(resourceIndex instanceof SuperPeerResourceIndex);
+        SuperPeerResourceIndex superPeerResourceIndex = (SuperPeerResourceIndex) resourceIndex;
+
+        ResourceSummary matchingResourceSummary = new ResourceSummary(1024, 3);
+        matchingResourceSummary.addAll(Arrays.asList("lord", "of", "the", "rings"));
+        superPeerResourceIndex.putSuperPeerResourceSummary(node4, new ResourceSummary(1024, 3));
+        superPeerResourceIndex.putSuperPeerResourceSummary(node5, matchingResourceSummary);
+
+        message.setData(MessageIndexes.SER_HOP_COUNT,
+                Integer.toString(serviceHolder.getConfiguration().getTimeToLive()));
+        Set<Node> forwardingNodes = superPeerFloodingRoutingStrategy.getForwardingNodes(superPeerRoutingTable,
+                fromNode, message);
+
+        Assert.assertEquals(forwardingNodes.size(), 1);
+        Assert.assertTrue(forwardingNodes.contains(node5));
+    }
+
+    @Test(priority = 4)
+    public void testGetForwardingNodesInSuperPeerWithNoMatchingResourceSummaries() {
+        logger.info("Running Super Peer Flooding Routing Strategy Test 15 - Get forwarding nodes in super peer " +
+                "with no matching resource summaries");
+
+        serviceHolder.promoteToSuperPeer();
+        ResourceIndex resourceIndex = serviceHolder.getResourceIndex();
+        resourceIndex.clear();
+
+        Assert.assertTrue(resourceIndex instanceof SuperPeerResourceIndex);
+        SuperPeerResourceIndex superPeerResourceIndex = (SuperPeerResourceIndex) resourceIndex;
+
+        superPeerResourceIndex.putSuperPeerResourceSummary(node4, new ResourceSummary(1024, 3));
+        superPeerResourceIndex.putSuperPeerResourceSummary(node5, new ResourceSummary(1024, 3));
+
+        message.setData(MessageIndexes.SER_HOP_COUNT,
+                Integer.toString(serviceHolder.getConfiguration().getTimeToLive()));
+        Set<Node> forwardingNodes = superPeerFloodingRoutingStrategy.getForwardingNodes(superPeerRoutingTable,
+                fromNode, message);
+
+        Assert.assertEquals(forwardingNodes.size(), 5);
+        Assert.assertFalse(forwardingNodes.contains(fromNode));
+    }
+
+    @Test(priority = 4)
+    public void testGetForwardingNodesInSuperPeerWithResourceSummariesBeforeLastHop() {
+        logger.info("Running Super Peer Flooding Routing Strategy Test 16 - Get forwarding nodes in super peer " +
+                "with resource summaries before the last hop");
+
+        serviceHolder.promoteToSuperPeer();
+        ResourceIndex resourceIndex = serviceHolder.getResourceIndex();
+        resourceIndex.clear();
+
+        Assert.assertTrue(resourceIndex instanceof SuperPeerResourceIndex);
+        SuperPeerResourceIndex superPeerResourceIndex = (SuperPeerResourceIndex) resourceIndex;
+
+        superPeerResourceIndex.putSuperPeerResourceSummary(node4, new ResourceSummary(1024, 3));
+        superPeerResourceIndex.putSuperPeerResourceSummary(node5, new ResourceSummary(1024, 3));
+
+        Set<Node> forwardingNodes = superPeerFloodingRoutingStrategy.getForwardingNodes(superPeerRoutingTable,
+                fromNode, message);
+
+        Assert.assertEquals(forwardingNodes.size(), 2);
+        Assert.assertTrue(forwardingNodes.contains(node4));
+        Assert.assertTrue(forwardingNodes.contains(node5));
+    }
 }
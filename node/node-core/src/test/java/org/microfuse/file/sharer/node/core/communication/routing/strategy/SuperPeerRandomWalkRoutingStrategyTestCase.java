@@ -1,5 +1,6 @@
 package org.microfuse.file.sharer.node.core.communication.routing.strategy;
 
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageIndexes;
 import org.microfuse.file.sharer.node.commons.peer.Node;
 import org.microfuse.file.sharer.node.commons.peer.NodeState;
 import org.microfuse.file.sharer.node.core.BaseTestCase;
@@ -7,6 +8,7 @@ import org.microfuse.file.sharer.node.core.communication.messaging.Message;
 import org.microfuse.file.sharer.node.core.communication.routing.table.OrdinaryPeerRoutingTable;
 import org.microfuse.file.sharer.node.core.communication.routing.table.SuperPeerRoutingTable;
 import org.microfuse.file.sharer.node.core.resource.index.ResourceIndex;
+import org.microfuse.file.sharer.node.core.resource.index.ResourceSummary;
 import org.microfuse.file.sharer.node.core.resource.index.SuperPeerResourceIndex;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
@@ -15,6 +17,7 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -312,4 +315,76 @@ public class SuperPeerRandomWalkRoutingStrategyTestCase extends BaseTestCase {
         Assert.assertEquals(forwardingNodes.size(), 1);
         Assert.assertTrue(forwardingNodes.contains(node5));
     }
+
+    @Test(priority = 4)
+    public void testGetForwardingNodesInSuperPeerWithResourceSummaries() {
+        logger.info("Running Super Peer Random Walk Routing Strategy Test 14 - Get forwarding nodes in super peer " +
+                "with resource summaries");
+
+        serviceHolder.promoteToSuperPeer();
+        ResourceIndex resourceIndex = serviceHolder.getResourceIndex();
+        resourceIndex.clear();
+
+        Assert.assertTrue(resourceIndex instanceof SuperPeerResourceIndex);
+        SuperPeerResourceIndex superPeerResourceIndex = (SuperPeerResourceIndex) resourceIndex;
+
+        ResourceSummary matchingResourceSummary = new ResourceSummary(1024, 3);
+        matchingResourceSummary.addAll(Arrays.asList("lord", "of", "the", "rings"));
+        superPeerResourceIndex.putSuperPeerResourceSummary(node4, new ResourceSummary(1024, 3));
+        superPeerResourceIndex.putSuperPeerResourceSummary(node5, matchingResourceSummary);
+
+        message.setData(MessageIndexes.SER_HOP_COUNT,
+                Integer.toString(serviceHolder.getConfiguration().getTimeToLive()));
+        Set<Node> forwardingNodes = superPeerRandomWalkRoutingStrategy.getForwardingNodes(superPeerRoutingTable,
+                fromSuperPeerNode, message);
+
+        Assert.assertEquals(forwardingNodes.size(), 1);
+        Assert.assertTrue(forwardingNodes.contains(node5));
+    }
+
+    @Test(priority = 4)
+    public void testGetForwardingNodesInSuperPeerWithNoMatchingResourceSummaries() {
+        logger.info("Running Super Peer Random Walk Routing Strategy Test 15 - Get forwarding nodes in super peer " +
+                "with no matching resource summaries");
+
+        serviceHolder.promoteToSuperPeer();
+        ResourceIndex resourceIndex = serviceHolder.getResourceIndex();
+        resourceIndex.clear();
+
+        Assert.assertTrue(resourceIndex instanceof SuperPeerResourceIndex);
+        SuperPeerResourceIndex superPeerResourceIndex = (SuperPeerResourceIndex) resourceIndex;
+
+        superPeerResourceIndex.putSuperPeerResourceSummary(node4, new ResourceSummary(1024, 3));
+        superPeerResourceIndex.putSuperPeerResourceSummary(node5, new ResourceSummary(1024, 3));
+
+        message.setData(MessageIndexes.SER_HOP_COUNT,
+                Integer.toString(serviceHolder.getConfiguration().getTimeToLive()));
+        Set<Node> forwardingNodes = superPeerRandomWalkRoutingStrategy.getForwardingNodes(superPeerRoutingTable,
+                fromSuperPeerNode, message);
+
+        Assert.assertEquals(forwardingNodes.size(), 1);
+        Assert.assertFalse(forwardingNodes.contains(fromSuperPeerNode));
+    }
+
+    @Test(priority = 4)
+    public void testGetForwardingNodesInSuperPeerWithResourceSummariesBeforeLastHop() {
+        logger.info("Running Super Peer Random Walk Routing Strategy Test 16 - Get forwarding nodes in super peer " +
+                "with resource summaries before the last hop");
+
+        serviceHolder.promoteToSuperPeer();
+        ResourceIndex resourceIndex = serviceHolder.getResourceIndex();
+        resourceIndex.clear();
+
+        Assert.assertTrue(resourceIndex instanceof SuperPeerResourceIndex);
+        SuperPeerResourceIndex superPeerResourceIndex = (SuperPeerResourceIndex) resourceIndex;
+
+        superPeerResourceIndex.putSuperPeerResourceSummary(node4, new ResourceSummary(1024, 3));
+        superPeerResourceIndex.putSuperPeerResourceSummary(node5, new ResourceSummary(1024, 3));
+
+        Set<Node> forwardingNodes = superPeerRandomWalkRoutingStrategy.getForwardingNodes(superPeerRoutingTable,
+                fromSuperPeerNode, message);
+
+        Assert.assertEquals(forwardingNodes.size(), 1);
+        Assert.assertTrue(forwardingNodes.contains(node4) || forwardingNodes.contains(node5));
+    }
 }
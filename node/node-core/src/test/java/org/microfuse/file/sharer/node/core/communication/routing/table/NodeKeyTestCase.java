@@ -0,0 +1,33 @@
+package org.microfuse.file.sharer.node.core.communication.routing.table;
+
+import org.microfuse.file.sharer.node.commons.peer.Node;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Test Case for org.microfuse.file.sharer.node.core.communication.routing.table.NodeKey class.
+ */
+public class NodeKeyTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(NodeKeyTestCase.class);
+
+    @Test(priority = 1)
+    public void testEquals() {
+        logger.info("Running Node Key Test 01 - Equals");
+
+        NodeKey nodeKey = new NodeKey(new Node("192.168.1.1", 4067));
+
+        Assert.assertEquals(new NodeKey("192.168.1.1", 4067), nodeKey);
+        Assert.assertEquals(new NodeKey("192.168.1.1", 4067).hashCode(), nodeKey.hashCode());
+        Assert.assertNotEquals(new NodeKey("192.168.1.1", 4068), nodeKey);
+        Assert.assertNotEquals(new NodeKey("192.168.1.2", 4067), nodeKey);
+    }
+
+    @Test(priority = 2)
+    public void testToString() {
+        logger.info("Running Node Key Test 02 - To string");
+
+        Assert.assertEquals(new NodeKey("192.168.1.1", 4067).toString(), "192.168.1.1:4067");
+    }
+}
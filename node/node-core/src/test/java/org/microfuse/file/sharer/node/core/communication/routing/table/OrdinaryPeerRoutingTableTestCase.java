@@ -10,6 +10,8 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -89,8 +91,8 @@ public class OrdinaryPeerRoutingTableTestCase extends BaseTestCase {
         Object internalStateUnstructuredNetwork =
                 Whitebox.getInternalState(ordinaryPeerRoutingTable, "unstructuredNetworkNodes");
         Assert.assertNotNull(internalStateUnstructuredNetwork);
-        Assert.assertTrue(internalStateUnstructuredNetwork instanceof Set<?>);
-        Set<?> unstructuredNetwork = (Set<?>) internalStateUnstructuredNetwork;
+        Assert.assertTrue(internalStateUnstructuredNetwork instanceof Map<?, ?>);
+        Collection<?> unstructuredNetwork = ((Map<?, ?>) internalStateUnstructuredNetwork).values();
         Assert.assertFalse(unstructuredNetwork.contains(node1));
     }
 
@@ -104,8 +106,8 @@ public class OrdinaryPeerRoutingTableTestCase extends BaseTestCase {
         Object internalStateUnstructuredNetwork =
                 Whitebox.getInternalState(ordinaryPeerRoutingTable, "unstructuredNetworkNodes");
         Assert.assertNotNull(internalStateUnstructuredNetwork);
-        Assert.assertTrue(internalStateUnstructuredNetwork instanceof Set<?>);
-        Set<?> unstructuredNetwork = (Set<?>) internalStateUnstructuredNetwork;
+        Assert.assertTrue(internalStateUnstructuredNetwork instanceof Map<?, ?>);
+        Collection<?> unstructuredNetwork = ((Map<?, ?>) internalStateUnstructuredNetwork).values();
         Assert.assertFalse(unstructuredNetwork.contains(assignedSuperPeer));
 
         Object internalStateAssignedSuperPeer =
@@ -170,8 +172,8 @@ public class OrdinaryPeerRoutingTableTestCase extends BaseTestCase {
         Object internalStateUnstructuredNetworkNodes =
                 Whitebox.getInternalState(ordinaryPeerRoutingTable, "unstructuredNetworkNodes");
         Assert.assertNotNull(internalStateUnstructuredNetworkNodes);
-        Assert.assertTrue(internalStateUnstructuredNetworkNodes instanceof Set<?>);
-        Set<?> unstructuredNetworkNodes = (Set<?>) internalStateUnstructuredNetworkNodes;
+        Assert.assertTrue(internalStateUnstructuredNetworkNodes instanceof Map<?, ?>);
+        Collection<?> unstructuredNetworkNodes = ((Map<?, ?>) internalStateUnstructuredNetworkNodes).values();
         Assert.assertEquals(unstructuredNetworkNodes.size(), 0);
 
         Object internalStateAssignedSuperPeer =
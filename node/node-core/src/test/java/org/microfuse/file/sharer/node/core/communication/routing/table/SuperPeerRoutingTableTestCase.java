@@ -10,6 +10,8 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -140,22 +142,22 @@ public class SuperPeerRoutingTableTestCase extends BaseTestCase {
         Object internalStateUnstructuredNetwork =
                 Whitebox.getInternalState(superPeerRoutingTable, "unstructuredNetworkNodes");
         Assert.assertNotNull(internalStateUnstructuredNetwork);
-        Assert.assertTrue(internalStateUnstructuredNetwork instanceof Set<?>);
-        Set<?> unstructuredNetwork = (Set<?>) internalStateUnstructuredNetwork;
+        Assert.assertTrue(internalStateUnstructuredNetwork instanceof Map<?, ?>);
+        Collection<?> unstructuredNetwork = ((Map<?, ?>) internalStateUnstructuredNetwork).values();
         Assert.assertFalse(unstructuredNetwork.contains(superPeerNode1));
 
         Object internalStateSuperPeerNetwork =
                 Whitebox.getInternalState(superPeerRoutingTable, "superPeerNetworkNodes");
         Assert.assertNotNull(internalStateSuperPeerNetwork);
-        Assert.assertTrue(internalStateSuperPeerNetwork instanceof Set<?>);
-        Set<?> superPeerNetwork = (Set<?>) internalStateSuperPeerNetwork;
+        Assert.assertTrue(internalStateSuperPeerNetwork instanceof Map<?, ?>);
+        Collection<?> superPeerNetwork = ((Map<?, ?>) internalStateSuperPeerNetwork).values();
         Assert.assertFalse(superPeerNetwork.contains(superPeerNode1));
 
         Object internalStateAssignedOrdinaryPeerNodes =
                 Whitebox.getInternalState(superPeerRoutingTable, "assignedOrdinaryPeerNodes");
         Assert.assertNotNull(internalStateAssignedOrdinaryPeerNodes);
-        Assert.assertTrue(internalStateAssignedOrdinaryPeerNodes instanceof Set<?>);
-        Set<?> assignedOrdinaryPeerNodes = (Set<?>) internalStateAssignedOrdinaryPeerNodes;
+        Assert.assertTrue(internalStateAssignedOrdinaryPeerNodes instanceof Map<?, ?>);
+        Collection<?> assignedOrdinaryPeerNodes = ((Map<?, ?>) internalStateAssignedOrdinaryPeerNodes).values();
         Assert.assertFalse(assignedOrdinaryPeerNodes.contains(superPeerNode1));
     }
 
@@ -169,15 +171,15 @@ public class SuperPeerRoutingTableTestCase extends BaseTestCase {
         Object internalStateUnstructuredNetwork =
                 Whitebox.getInternalState(superPeerRoutingTable, "unstructuredNetworkNodes");
         Assert.assertNotNull(internalStateUnstructuredNetwork);
-        Assert.assertTrue(internalStateUnstructuredNetwork instanceof Set<?>);
-        Set<?> unstructuredNetwork = (Set<?>) internalStateUnstructuredNetwork;
+        Assert.assertTrue(internalStateUnstructuredNetwork instanceof Map<?, ?>);
+        Collection<?> unstructuredNetwork = ((Map<?, ?>) internalStateUnstructuredNetwork).values();
         Assert.assertFalse(unstructuredNetwork.contains(ordinaryPeerNode1));
 
         Object internalStateAssignedOrdinaryPeerNodes =
                 Whitebox.getInternalState(superPeerRoutingTable, "assignedOrdinaryPeerNodes");
         Assert.assertNotNull(internalStateAssignedOrdinaryPeerNodes);
-        Assert.assertTrue(internalStateAssignedOrdinaryPeerNodes instanceof Set<?>);
-        Set<?> assignedOrdinaryPeerNodes = (Set<?>) internalStateAssignedOrdinaryPeerNodes;
+        Assert.assertTrue(internalStateAssignedOrdinaryPeerNodes instanceof Map<?, ?>);
+        Collection<?> assignedOrdinaryPeerNodes = ((Map<?, ?>) internalStateAssignedOrdinaryPeerNodes).values();
         Assert.assertFalse(assignedOrdinaryPeerNodes.contains(ordinaryPeerNode1));
     }
 
@@ -255,16 +257,16 @@ public class SuperPeerRoutingTableTestCase extends BaseTestCase {
         Object internalStateSuperPeerNetworkNodes =
                 Whitebox.getInternalState(superPeerRoutingTable, "superPeerNetworkNodes");
         Assert.assertNotNull(internalStateSuperPeerNetworkNodes);
-        Assert.assertTrue(internalStateSuperPeerNetworkNodes instanceof Set<?>);
-        Set<?> superPeerNetworkNodes = (Set<?>) internalStateSuperPeerNetworkNodes;
+        Assert.assertTrue(internalStateSuperPeerNetworkNodes instanceof Map<?, ?>);
+        Collection<?> superPeerNetworkNodes = ((Map<?, ?>) internalStateSuperPeerNetworkNodes).values();
         Assert.assertEquals(superPeerNetworkNodes.size(), 0);
 
 
         Object internalStateAssignedOrdinaryPeerNodes =
                 Whitebox.getInternalState(superPeerRoutingTable, "assignedOrdinaryPeerNodes");
         Assert.assertNotNull(internalStateAssignedOrdinaryPeerNodes);
-        Assert.assertTrue(internalStateAssignedOrdinaryPeerNodes instanceof Set<?>);
-        Set<?> assignedOrdinaryPeerNodes = (Set<?>) internalStateSuperPeerNetworkNodes;
+        Assert.assertTrue(internalStateAssignedOrdinaryPeerNodes instanceof Map<?, ?>);
+        Collection<?> assignedOrdinaryPeerNodes = ((Map<?, ?>) internalStateSuperPeerNetworkNodes).values();
         Assert.assertEquals(assignedOrdinaryPeerNodes.size(), 0);
     }
 
@@ -10,6 +10,10 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -132,4 +136,99 @@ public class ResourceIndexTestCase extends BaseTestCase {
         Object internalState = Whitebox.getInternalState(resourceIndex, "ownedResources");
         Assert.assertFalse(resources == internalState);
     }
+
+    @Test(priority = 1)
+    public void testResourceListVersion() {
+        logger.info("Running Resource Index Test 07 - Resource list version");
+
+        Assert.assertEquals(resourceIndex.getResourceListVersion(), 0);
+        resourceIndex.addOwnedResource("Spider Man", null);
+        Assert.assertEquals(resourceIndex.getResourceListVersion(), 1);
+        resourceIndex.addOwnedResource("Cars", null);
+        Assert.assertEquals(resourceIndex.getResourceListVersion(), 1);
+        resourceIndex.removeOwnedResource("Cars");
+        Assert.assertEquals(resourceIndex.getResourceListVersion(), 2);
+        resourceIndex.removeOwnedResource("Thor");
+        Assert.assertEquals(resourceIndex.getResourceListVersion(), 2);
+    }
+
+    @Test(priority = 2)
+    public void testResourceListDelta() {
+        logger.info("Running Resource Index Test 08 - Resource list delta");
+
+        resourceIndex.addOwnedResource("Spider Man", null);
+        resourceIndex.removeOwnedResource("Cars");
+        resourceIndex.addOwnedResource("Cars", null);
+        resourceIndex.removeOwnedResource("Spider Man");
+        resourceIndex.addOwnedResource("Thor", null);
+
+        ResourceListDelta resourceListDelta = resourceIndex.getResourceListDelta(0);
+        Assert.assertNotNull(resourceListDelta);
+        Assert.assertEquals(resourceListDelta.getBaseVersion(), 0);
+        Assert.assertEquals(resourceListDelta.getVersion(), 5);
+        Assert.assertEquals(resourceListDelta.getAddedResourceNames(), Arrays.asList("Cars", "Thor"));
+        Assert.assertEquals(resourceListDelta.getRemovedResourceNames(), Collections.singletonList("Spider Man"));
+
+        resourceListDelta = resourceIndex.getResourceListDelta(3);
+        Assert.assertNotNull(resourceListDelta);
+        Assert.assertEquals(resourceListDelta.getAddedResourceNames(), Collections.singletonList("Thor"));
+        Assert.assertEquals(resourceListDelta.getRemovedResourceNames(), Collections.singletonList("Spider Man"));
+
+        resourceListDelta = resourceIndex.getResourceListDelta(5);
+        Assert.assertNotNull(resourceListDelta);
+        Assert.assertTrue(resourceListDelta.isEmpty());
+
+        Assert.assertNull(resourceIndex.getResourceListDelta(6));
+    }
+
+    @Test(priority = 3)
+    public void testResourceListJournalOverflow() {
+        logger.info("Running Resource Index Test 09 - Resource list journal overflow");
+
+        serviceHolder.getConfiguration().setResourceListJournalSize(2);
+        resourceIndex.addOwnedResource("Spider Man", null);
+        resourceIndex.addOwnedResource("Thor", null);
+        resourceIndex.addOwnedResource("Hulk", null);
+
+        Assert.assertNull(resourceIndex.getResourceListDelta(0));
+        ResourceListDelta resourceListDelta = resourceIndex.getResourceListDelta(1);
+        Assert.assertNotNull(resourceListDelta);
+        Assert.assertEquals(resourceListDelta.getAddedResourceNames(), Arrays.asList("Thor", "Hulk"));
+    }
+
+    @Test(priority = 3)
+    public void testListenersNotified() {
+        logger.info("Running Resource Index Test 10 - Listeners notified");
+
+        List<Long> versions = new ArrayList<>();
+        resourceIndex.registerListener(versions::add);
+        resourceIndex.addOwnedResource("Spider Man", null);
+        resourceIndex.addOwnedResource("Spider Man", null);
+        resourceIndex.removeOwnedResource("Thor");
+        resourceIndex.clearOwnedResources();
+
+        Assert.assertEquals(versions, Arrays.asList(1L, 6L));
+        ResourceListDelta resourceListDelta = resourceIndex.getResourceListDelta(1);
+        Assert.assertNotNull(resourceListDelta);
+        Assert.assertEquals(resourceListDelta.getRemovedResourceNames().size(), 5);
+    }
+
+    @Test(priority = 4)
+    public void testResourceListStateCopied() {
+        logger.info("Running Resource Index Test 11 - Resource list state copied");
+
+        List<Long> versions = new ArrayList<>();
+        resourceIndex.registerListener(versions::add);
+        resourceIndex.addOwnedResource("Spider Man", null);
+
+        SuperPeerResourceIndex superPeerResourceIndex = new SuperPeerResourceIndex(serviceHolder, resourceIndex);
+        Assert.assertEquals(superPeerResourceIndex.getResourceListVersion(), 1);
+        Assert.assertNull(superPeerResourceIndex.getResourceListDelta(0));
+
+        superPeerResourceIndex.addOwnedResource("Thor", null);
+        Assert.assertEquals(versions, Arrays.asList(1L, 2L));
+        ResourceListDelta resourceListDelta = superPeerResourceIndex.getResourceListDelta(1);
+        Assert.assertNotNull(resourceListDelta);
+        Assert.assertEquals(resourceListDelta.getAddedResourceNames(), Collections.singletonList("Thor"));
+    }
 }
@@ -0,0 +1,91 @@
+package org.microfuse.file.sharer.node.core.resource.index;
+
+import org.microfuse.file.sharer.node.core.BaseTestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+/**
+ * Test Case for org.microfuse.file.sharer.node.core.resource.index.ResourceSummary class.
+ */
+public class ResourceSummaryTestCase extends BaseTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceSummaryTestCase.class);
+
+    private ResourceSummary resourceSummary;
+
+    @BeforeMethod
+    public void initializeMethod() {
+        logger.info("Initializing Resource Summary Test");
+
+        resourceSummary = new ResourceSummary(1024, 3);
+        resourceSummary.addAll(Arrays.asList("lord", "of", "the", "rings"));
+        resourceSummary.add("cars");
+    }
+
+    @Test(priority = 1)
+    public void testMightContain() {
+        logger.info("Running Resource Summary Test 01 - Might contain");
+
+        Assert.assertTrue(resourceSummary.mightContain("lord"));
+        Assert.assertTrue(resourceSummary.mightContain("rings"));
+        Assert.assertTrue(resourceSummary.mightContain("cars"));
+        Assert.assertFalse(new ResourceSummary(1024, 3).mightContain("lord"));
+    }
+
+    @Test(priority = 1)
+    public void testMightMatch() {
+        logger.info("Running Resource Summary Test 02 - Might match");
+
+        Assert.assertTrue(resourceSummary.mightMatch("Lord of the Rings"));
+        Assert.assertTrue(resourceSummary.mightMatch("rings  LORD"));
+        Assert.assertTrue(resourceSummary.mightMatch("Cars"));
+        Assert.assertFalse(new ResourceSummary(1024, 3).mightMatch("Lord of the Rings"));
+    }
+
+    @Test(priority = 2)
+    public void testNoFalseNegatives() {
+        logger.info("Running Resource Summary Test 03 - No false negatives");
+
+        ResourceSummary largeResourceSummary = new ResourceSummary(256, 3);
+        for (int i = 0; i < 1000; i++) {
+            largeResourceSummary.add("token" + i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(largeResourceSummary.mightContain("token" + i));
+        }
+    }
+
+    @Test(priority = 2)
+    public void testEncodeAndDecode() {
+        logger.info("Running Resource Summary Test 04 - Encode and decode");
+
+        ResourceSummary decodedResourceSummary = ResourceSummary.decode(resourceSummary.getBitCount(),
+                resourceSummary.getHashFunctionCount(), resourceSummary.encode());
+
+        Assert.assertEquals(decodedResourceSummary, resourceSummary);
+        Assert.assertTrue(decodedResourceSummary.mightMatch("Lord of the Rings"));
+        Assert.assertTrue(decodedResourceSummary.mightMatch("Cars"));
+    }
+
+    @Test(priority = 2)
+    public void testDecodeEmpty() {
+        logger.info("Running Resource Summary Test 05 - Decode empty");
+
+        ResourceSummary emptyResourceSummary = new ResourceSummary(1024, 3);
+        ResourceSummary decodedResourceSummary = ResourceSummary.decode(1024, 3, emptyResourceSummary.encode());
+
+        Assert.assertEquals(decodedResourceSummary, emptyResourceSummary);
+        Assert.assertFalse(decodedResourceSummary.mightMatch("Cars"));
+    }
+
+    @Test(priority = 3, expectedExceptions = IllegalArgumentException.class)
+    public void testDecodeTooManyBits() {
+        logger.info("Running Resource Summary Test 06 - Decode too many bits");
+
+        ResourceSummary.decode(8, 3, resourceSummary.encode());
+    }
+}
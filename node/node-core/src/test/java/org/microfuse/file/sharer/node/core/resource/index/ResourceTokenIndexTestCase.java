@@ -0,0 +1,100 @@
+package org.microfuse.file.sharer.node.core.resource.index;
+
+import org.microfuse.file.sharer.node.core.BaseTestCase;
+import org.microfuse.file.sharer.node.core.resource.OwnedResource;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Test Case for org.microfuse.file.sharer.node.core.resource.index.ResourceTokenIndex class.
+ * <p>
+ * Cannot mock classes since hashCode() and equals() methods are used in tests.
+ */
+public class ResourceTokenIndexTestCase extends BaseTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceTokenIndexTestCase.class);
+
+    private OwnedResource ownedResource1;
+    private OwnedResource ownedResource2;
+    private OwnedResource ownedResource3;
+    private OwnedResource ownedResource4;
+    private ResourceTokenIndex<OwnedResource> resourceTokenIndex;
+
+    @BeforeMethod
+    public void initializeMethod() {
+        logger.info("Initializing Resource Token Index Test");
+
+        resourceTokenIndex = new ResourceTokenIndex<>();
+
+        ownedResource1 = new OwnedResource("Lord of the Rings");
+        resourceTokenIndex.add(ownedResource1);
+
+        ownedResource2 = new OwnedResource("Cars");
+        resourceTokenIndex.add(ownedResource2);
+
+        ownedResource3 = new OwnedResource("Iron Man");
+        resourceTokenIndex.add(ownedResource3);
+
+        ownedResource4 = new OwnedResource("Iron Man 2");
+        resourceTokenIndex.add(ownedResource4);
+    }
+
+    @Test(priority = 1)
+    public void testFind() {
+        logger.info("Running Resource Token Index Test 01 - Find");
+
+        Set<OwnedResource> ironManResources = resourceTokenIndex.find("man IRON");
+
+        Assert.assertEquals(ironManResources.size(), 2);
+        Assert.assertTrue(ironManResources.contains(ownedResource3));
+        Assert.assertTrue(ironManResources.contains(ownedResource4));
+    }
+
+    @Test(priority = 2)
+    public void testFindWithUnknownToken() {
+        logger.info("Running Resource Token Index Test 02 - Find with unknown token");
+
+        Set<OwnedResource> resources = resourceTokenIndex.find("Iron Man 3");
+
+        Assert.assertEquals(resources.size(), 0);
+    }
+
+    @Test(priority = 3)
+    public void testFindWithPartialToken() {
+        logger.info("Running Resource Token Index Test 03 - Find with partial token");
+
+        Set<OwnedResource> resources = resourceTokenIndex.find("Ca");
+
+        Assert.assertEquals(resources.size(), 0);
+    }
+
+    @Test(priority = 4)
+    public void testRemove() {
+        logger.info("Running Resource Token Index Test 04 - Remove");
+
+        resourceTokenIndex.remove(ownedResource4);
+        Set<OwnedResource> ironManResources = resourceTokenIndex.find("Iron Man");
+
+        Assert.assertEquals(ironManResources.size(), 1);
+        Assert.assertTrue(ironManResources.contains(ownedResource3));
+        Object internalState = Whitebox.getInternalState(resourceTokenIndex, "tokenResourcesMap");
+        Assert.assertTrue(internalState instanceof Map<?, ?>);
+        Assert.assertFalse(((Map<?, ?>) internalState).containsKey("2"));
+    }
+
+    @Test(priority = 5)
+    public void testClear() {
+        logger.info("Running Resource Token Index Test 05 - Clear");
+
+        resourceTokenIndex.clear();
+
+        Assert.assertEquals(resourceTokenIndex.find("Iron Man").size(), 0);
+        Assert.assertEquals(resourceTokenIndex.find("Cars").size(), 0);
+    }
+}
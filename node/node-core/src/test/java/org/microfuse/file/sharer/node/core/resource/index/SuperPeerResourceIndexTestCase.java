@@ -5,6 +5,7 @@ import org.microfuse.file.sharer.node.commons.peer.NodeState;
 import org.microfuse.file.sharer.node.core.BaseTestCase;
 import org.microfuse.file.sharer.node.core.communication.routing.table.RoutingTable;
 import org.microfuse.file.sharer.node.core.resource.AggregatedResource;
+import org.microfuse.file.sharer.node.core.utils.QueryResultCache;
 import org.mockito.internal.util.reflection.Whitebox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,6 +13,9 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -88,10 +92,11 @@ public class SuperPeerResourceIndexTestCase extends BaseTestCase {
         superPeerResourceIndex.addAggregatedResource(newAggreResourceResourceName, newNode.getIp(), newNode.getPort());
 
         Object ownedResourcesInternalState = Whitebox.getInternalState(superPeerResourceIndex, "aggregatedResources");
-        Assert.assertTrue(ownedResourcesInternalState instanceof Set<?>);
-        Set<?> resourceIndexOwnedResources = (Set<?>) ownedResourcesInternalState;
+        Assert.assertTrue(ownedResourcesInternalState instanceof Map<?, ?>);
+        Map<?, ?> resourceIndexOwnedResources = (Map<?, ?>) ownedResourcesInternalState;
         Assert.assertEquals(resourceIndexOwnedResources.size(), 5);
-        Assert.assertTrue(resourceIndexOwnedResources.contains(new AggregatedResource(newAggreResourceResourceName)));
+        Assert.assertTrue(resourceIndexOwnedResources.values()
+                .contains(new AggregatedResource(newAggreResourceResourceName)));
     }
 
     @Test(priority = 2)
@@ -173,4 +178,151 @@ public class SuperPeerResourceIndexTestCase extends BaseTestCase {
 
         Assert.assertEquals(superPeerResourceIndex.findAggregatedResources(resourceName1).size(), 0);
     }
+
+    @Test(priority = 1)
+    public void testCreateResourceSummary() {
+        logger.info("Running Super Peer Resource Index Test 07 - Create resource summary");
+
+        superPeerResourceIndex.addOwnedResource("Wonder Woman", null);
+        ResourceSummary resourceSummary = superPeerResourceIndex.createResourceSummary();
+
+        Assert.assertEquals(resourceSummary.getBitCount(),
+                serviceHolder.getConfiguration().getResourceSummaryBitCount());
+        Assert.assertTrue(resourceSummary.mightMatch(resourceName1));
+        Assert.assertTrue(resourceSummary.mightMatch(resourceName2));
+        Assert.assertTrue(resourceSummary.mightMatch(resourceName4));
+        Assert.assertTrue(resourceSummary.mightMatch("Wonder Woman"));
+    }
+
+    @Test(priority = 2)
+    public void testFilterSuperPeersByResourceSummaries() {
+        logger.info("Running Super Peer Resource Index Test 08 - Filter super peers by resource summaries");
+
+        Node node7 = new Node("192.168.1.7", 6007);
+        ResourceSummary resourceSummary = new ResourceSummary(1024, 3);
+        resourceSummary.addAll(Arrays.asList("iron", "man"));
+        superPeerResourceIndex.putSuperPeerResourceSummary(node1, resourceSummary);
+        superPeerResourceIndex.putSuperPeerResourceSummary(node2, new ResourceSummary(1024, 3));
+
+        Set<Node> nodes = superPeerResourceIndex.filterSuperPeersByResourceSummaries(
+                Arrays.asList(node1, node2, node7), resourceName3);
+
+        Assert.assertEquals(nodes.size(), 2);
+        Assert.assertTrue(nodes.contains(node1));
+        Assert.assertTrue(nodes.contains(node7));
+        Assert.assertEquals(superPeerResourceIndex.filterSuperPeersByResourceSummaries(
+                Arrays.asList(node1, node2), resourceName1).size(), 0);
+    }
+
+    @Test(priority = 4)
+    public void testResourceSummaryExpiry() {
+        logger.info("Running Super Peer Resource Index Test 09 - Resource summary expiry");
+
+        serviceHolder.getConfiguration().setResourceSummaryTimeToLive(500);
+        superPeerResourceIndex.putSuperPeerResourceSummary(node1, new ResourceSummary(1024, 3));
+        Assert.assertNotNull(superPeerResourceIndex.getSuperPeerResourceSummary(node1));
+
+        waitFor(1000);
+        Assert.assertNull(superPeerResourceIndex.getSuperPeerResourceSummary(node1));
+        Assert.assertEquals(superPeerResourceIndex.filterSuperPeersByResourceSummaries(
+                Arrays.asList(node1, node2), resourceName1).size(), 2);
+    }
+
+    @Test(priority = 2)
+    public void testApplyResourceListDelta() {
+        logger.info("Running Super Peer Resource Index Test 10 - Apply resource list delta");
+
+        ResourceListDelta resourceListDelta = new ResourceListDelta(3, 5,
+                Collections.singletonList("Wonder Woman"), Collections.singletonList(resourceName1));
+        Assert.assertNull(superPeerResourceIndex.getResourceListVersion(node1));
+        Assert.assertFalse(superPeerResourceIndex.applyResourceListDelta(node1, resourceListDelta));
+
+        superPeerResourceIndex.replaceAllAggregatedResources(Arrays.asList(resourceName1, resourceName3),
+                node1.getIp(), node1.getPort(), 2L);
+        Assert.assertEquals(superPeerResourceIndex.getResourceListVersion(node1), Long.valueOf(2));
+        Assert.assertFalse(superPeerResourceIndex.applyResourceListDelta(node1, resourceListDelta));
+
+        superPeerResourceIndex.replaceAllAggregatedResources(Arrays.asList(resourceName1, resourceName3),
+                node1.getIp(), node1.getPort(), 3L);
+        Assert.assertTrue(superPeerResourceIndex.applyResourceListDelta(node1, resourceListDelta));
+        Assert.assertEquals(superPeerResourceIndex.getResourceListVersion(node1), Long.valueOf(5));
+
+        Set<AggregatedResource> lordOfTheRingsResources = superPeerResourceIndex.findAggregatedResources(resourceName1);
+        Assert.assertEquals(lordOfTheRingsResources.size(), 1);
+        Assert.assertFalse(lordOfTheRingsResources.iterator().next().getAllNodes().contains(node1));
+        Set<AggregatedResource> wonderWomanResources = superPeerResourceIndex.findAggregatedResources("Wonder Woman");
+        Assert.assertEquals(wonderWomanResources.size(), 1);
+        Assert.assertTrue(wonderWomanResources.iterator().next().getAllNodes().contains(node1));
+    }
+
+    @Test(priority = 2)
+    public void testReplaceAllAggregatedResources() {
+        logger.info("Running Super Peer Resource Index Test 11 - Replace all aggregated resources");
+
+        superPeerResourceIndex.replaceAllAggregatedResources(Collections.singletonList("Wonder Woman"),
+                node1.getIp(), node1.getPort(), 7L);
+
+        Assert.assertEquals(superPeerResourceIndex.getResourceListVersion(node1), Long.valueOf(7));
+        Assert.assertEquals(superPeerResourceIndex.findAggregatedResources(resourceName1).iterator().next()
+                .getNodeCount(), 1);
+        Assert.assertEquals(superPeerResourceIndex.findAggregatedResources(resourceName3).iterator().next()
+                .getNodeCount(), 1);
+        Assert.assertEquals(superPeerResourceIndex.findAggregatedResources("Wonder Woman").size(), 1);
+
+        superPeerResourceIndex.removeNodeFromAggregatedResources(node1.getIp(), node1.getPort());
+        Assert.assertNull(superPeerResourceIndex.getResourceListVersion(node1));
+        Assert.assertEquals(superPeerResourceIndex.findAggregatedResources("Wonder Woman").size(), 0);
+    }
+
+    @Test(priority = 3)
+    public void testRemoveNodeFromAggregatedResources() {
+        logger.info("Running Super Peer Resource Index Test 12 - Remove node from aggregated resources");
+
+        routingTable.removeFromAll(node1.getIp(), node1.getPort());
+        superPeerResourceIndex.removeNodeFromAggregatedResources(node1.getIp(), node1.getPort());
+
+        Set<AggregatedResource> lordOfTheRingsResources = superPeerResourceIndex.findAggregatedResources(resourceName1);
+        Assert.assertEquals(lordOfTheRingsResources.size(), 1);
+        Assert.assertEquals(lordOfTheRingsResources.iterator().next().getNodeCount(), 1);
+        Assert.assertFalse(lordOfTheRingsResources.iterator().next().getAllNodes().contains(node1));
+
+        superPeerResourceIndex.removeAggregatedResource(resourceName4, node2.getIp(), node2.getPort());
+        superPeerResourceIndex.removeNodeFromAggregatedResources(node2.getIp(), node2.getPort());
+        Assert.assertEquals(superPeerResourceIndex.findAggregatedResources(resourceName1).size(), 0);
+        Assert.assertEquals(superPeerResourceIndex.findAggregatedResources(resourceName4).iterator().next()
+                .getNodeCount(), 2);
+
+        Object nodeResourcesInternalState =
+                Whitebox.getInternalState(superPeerResourceIndex, "nodeAggregatedResources");
+        Assert.assertTrue(nodeResourcesInternalState instanceof Map<?, ?>);
+        Map<?, ?> nodeAggregatedResources = (Map<?, ?>) nodeResourcesInternalState;
+        Assert.assertEquals(nodeAggregatedResources.size(), 4);
+        Assert.assertFalse(nodeAggregatedResources.containsKey(node1));
+        Assert.assertFalse(nodeAggregatedResources.containsKey(node2));
+    }
+
+    @Test(priority = 3)
+    public void testRemoveCachedSerOkAnswers() {
+        logger.info("Running Super Peer Resource Index Test 13 - Remove cached SER_OK answers");
+
+        QueryResultCache serOkCache = serviceHolder.getRouter().getSerOkCache();
+        serOkCache.put(resourceName1, superPeerResourceIndex.findAggregatedResources(resourceName1));
+        serOkCache.put(resourceName2, superPeerResourceIndex.findAggregatedResources(resourceName2));
+        serOkCache.put(resourceName3, superPeerResourceIndex.findAggregatedResources(resourceName3));
+        Assert.assertEquals(serOkCache.size(), 3);
+
+        superPeerResourceIndex.replaceAllAggregatedResources(Arrays.asList(resourceName1, resourceName3),
+                node1.getIp(), node1.getPort(), 3L);
+        Assert.assertEquals(serOkCache.size(), 1);
+        Assert.assertNotNull(serOkCache.get(resourceName2));
+
+        serOkCache.put(resourceName1, superPeerResourceIndex.findAggregatedResources(resourceName1));
+        superPeerResourceIndex.applyResourceListDelta(node1, new ResourceListDelta(3, 4,
+                Collections.singletonList("Wonder Woman"), Collections.emptyList()));
+        Assert.assertEquals(serOkCache.size(), 1);
+        Assert.assertNull(serOkCache.get(resourceName1));
+
+        superPeerResourceIndex.removeNodeFromAggregatedResources("192.168.1.4", 6004);
+        Assert.assertEquals(serOkCache.size(), 0);
+    }
 }
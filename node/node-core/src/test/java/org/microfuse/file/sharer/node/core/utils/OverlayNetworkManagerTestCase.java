@@ -1,9 +1,19 @@
 package org.microfuse.file.sharer.node.core.utils;
 
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageIndexes;
+import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.commons.peer.Node;
 import org.microfuse.file.sharer.node.core.BaseTestCase;
+import org.microfuse.file.sharer.node.core.communication.messaging.Message;
 import org.microfuse.file.sharer.node.core.communication.network.UDPSocketNetworkHandler;
 import org.microfuse.file.sharer.node.core.communication.routing.Router;
 import org.microfuse.file.sharer.node.core.communication.routing.strategy.UnstructuredFloodingRoutingStrategy;
+import org.microfuse.file.sharer.node.core.communication.routing.table.OrdinaryPeerRoutingTable;
+import org.microfuse.file.sharer.node.core.communication.routing.table.RoutingTable;
+import org.microfuse.file.sharer.node.core.communication.routing.table.SuperPeerRoutingTable;
+import org.microfuse.file.sharer.node.core.resource.index.ResourceSummary;
+import org.microfuse.file.sharer.node.core.resource.index.SuperPeerResourceIndex;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.internal.util.reflection.Whitebox;
 import org.slf4j.Logger;
@@ -13,6 +23,8 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -58,4 +70,171 @@ public class OverlayNetworkManagerTestCase extends BaseTestCase {
         Assert.assertEquals(listenersList.size(), 1);
         Assert.assertTrue(listenersList.get(0) == overlayNetworkManager);
     }
+
+    @Test(priority = 2)
+    public void testHandleResourceSummary() {
+        logger.info("Running Overlay Network Manager Test 02 - Handle resource summary");
+
+        serviceHolder.promoteToSuperPeer();
+        RoutingTable routingTable = serviceHolder.getRouter().getRoutingTable();
+        Assert.assertTrue(routingTable instanceof SuperPeerRoutingTable);
+        ((SuperPeerRoutingTable) routingTable).addSuperPeerNetworkRoutingTableEntry("192.168.1.1", 6001);
+        Node superPeerNode = new Node("192.168.1.1", 6001);
+        Node unknownNode = new Node("192.168.1.2", 6002);
+
+        ResourceSummary resourceSummary = new ResourceSummary(1024, 3);
+        resourceSummary.addAll(Arrays.asList("lord", "of", "the", "rings"));
+        overlayNetworkManager.onMessageReceived(superPeerNode,
+                createResourceSummaryMessage(superPeerNode, resourceSummary));
+        overlayNetworkManager.onMessageReceived(unknownNode,
+                createResourceSummaryMessage(unknownNode, resourceSummary));
+
+        SuperPeerResourceIndex superPeerResourceIndex = (SuperPeerResourceIndex) serviceHolder.getResourceIndex();
+        Assert.assertEquals(superPeerResourceIndex.getSuperPeerResourceSummary(superPeerNode), resourceSummary);
+        Assert.assertNull(superPeerResourceIndex.getSuperPeerResourceSummary(unknownNode));
+    }
+
+    @Test(priority = 2)
+    public void testHandleEmptyResourceSummary() {
+        logger.info("Running Overlay Network Manager Test 03 - Handle empty resource summary");
+
+        serviceHolder.promoteToSuperPeer();
+        RoutingTable routingTable = serviceHolder.getRouter().getRoutingTable();
+        Assert.assertTrue(routingTable instanceof SuperPeerRoutingTable);
+        ((SuperPeerRoutingTable) routingTable).addSuperPeerNetworkRoutingTableEntry("192.168.1.1", 6001);
+        Node superPeerNode = new Node("192.168.1.1", 6001);
+
+        Message message = Message.parse(
+                createResourceSummaryMessage(superPeerNode, new ResourceSummary(1024, 3)).toString());
+        overlayNetworkManager.onMessageReceived(superPeerNode, message);
+
+        SuperPeerResourceIndex superPeerResourceIndex = (SuperPeerResourceIndex) serviceHolder.getResourceIndex();
+        ResourceSummary resourceSummary = superPeerResourceIndex.getSuperPeerResourceSummary(superPeerNode);
+        Assert.assertNotNull(resourceSummary);
+        Assert.assertFalse(resourceSummary.mightMatch("Lord of the Rings"));
+    }
+
+    @Test(priority = 3)
+    public void testSyncResourceList() {
+        logger.info("Running Overlay Network Manager Test 04 - Sync resource list");
+
+        serviceHolder.getConfiguration().setResourceListSyncDelay(60000);
+        RoutingTable routingTable = serviceHolder.getRouter().getRoutingTable();
+        Assert.assertTrue(routingTable instanceof OrdinaryPeerRoutingTable);
+        routingTable.addUnstructuredNetworkRoutingTableEntry("192.168.1.1", 6001);
+        ((OrdinaryPeerRoutingTable) routingTable).setAssignedSuperPeer("192.168.1.1", 6001);
+        serviceHolder.getResourceIndex().addOwnedResource("Lord of the Rings", null);
+
+        overlayNetworkManager.syncResourceList();
+        serviceHolder.getResourceIndex().addOwnedResource("Cars", null);
+        overlayNetworkManager.syncResourceList();
+        overlayNetworkManager.syncResourceList();
+
+        ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        Mockito.verify(router, Mockito.times(3))
+                .sendMessage(Mockito.eq("192.168.1.1"), Mockito.eq(6001), messageCaptor.capture());
+        List<Message> messages = messageCaptor.getAllValues();
+
+        Message listResourcesOkMessage = messages.get(0);
+        Assert.assertEquals(listResourcesOkMessage.getType(), MessageType.LIST_RESOURCES_OK);
+        Assert.assertEquals(listResourcesOkMessage.getData(MessageIndexes.LIST_RESOURCES_OK_RESOURCE_COUNT), "1");
+        Assert.assertEquals(listResourcesOkMessage.getData(MessageIndexes.LIST_RESOURCES_OK_RESOURCE_START_INDEX),
+                "Lord of the Rings");
+        Assert.assertEquals(listResourcesOkMessage.getData(MessageIndexes.LIST_RESOURCES_OK_RESOURCE_START_INDEX + 1),
+                "1");
+
+        Message resourcesDeltaMessage = messages.get(1);
+        Assert.assertEquals(resourcesDeltaMessage.getType(), MessageType.RESOURCES_DELTA);
+        Assert.assertEquals(resourcesDeltaMessage.getData(MessageIndexes.RESOURCES_DELTA_BASE_VERSION), "1");
+        Assert.assertEquals(resourcesDeltaMessage.getData(MessageIndexes.RESOURCES_DELTA_VERSION), "2");
+        Assert.assertEquals(resourcesDeltaMessage.getData(MessageIndexes.RESOURCES_DELTA_ADDED_COUNT), "1");
+        Assert.assertEquals(resourcesDeltaMessage.getData(MessageIndexes.RESOURCES_DELTA_REMOVED_COUNT), "0");
+        Assert.assertEquals(resourcesDeltaMessage.getData(MessageIndexes.RESOURCES_DELTA_RESOURCE_START_INDEX),
+                "Cars");
+
+        Message emptyResourcesDeltaMessage = messages.get(2);
+        Assert.assertEquals(emptyResourcesDeltaMessage.getType(), MessageType.RESOURCES_DELTA);
+        Assert.assertEquals(emptyResourcesDeltaMessage.getData(MessageIndexes.RESOURCES_DELTA_BASE_VERSION), "2");
+        Assert.assertEquals(emptyResourcesDeltaMessage.getData(MessageIndexes.RESOURCES_DELTA_VERSION), "2");
+    }
+
+    @Test(priority = 3)
+    public void testHandleResourcesDelta() {
+        logger.info("Running Overlay Network Manager Test 05 - Handle resources delta");
+
+        serviceHolder.promoteToSuperPeer();
+        RoutingTable routingTable = serviceHolder.getRouter().getRoutingTable();
+        Assert.assertTrue(routingTable instanceof SuperPeerRoutingTable);
+        ((SuperPeerRoutingTable) routingTable).addAssignedOrdinaryNetworkRoutingTableEntry("192.168.1.1", 6001);
+        Node ordinaryPeerNode = new Node("192.168.1.1", 6001);
+
+        SuperPeerResourceIndex superPeerResourceIndex = (SuperPeerResourceIndex) serviceHolder.getResourceIndex();
+        superPeerResourceIndex.replaceAllAggregatedResources(Collections.singletonList("Lord of the Rings"),
+                ordinaryPeerNode.getIp(), ordinaryPeerNode.getPort(), 2L);
+
+        overlayNetworkManager.onMessageReceived(ordinaryPeerNode, Message.parse(
+                "0063 RESOURCESDELTA 192.168.1.1 6001 2 3 1 1 Cars \"Lord of the Rings\""));
+        Assert.assertEquals(superPeerResourceIndex.getResourceListVersion(ordinaryPeerNode), Long.valueOf(3));
+        Assert.assertEquals(superPeerResourceIndex.findAggregatedResources("Lord of the Rings").size(), 0);
+        Assert.assertEquals(superPeerResourceIndex.findAggregatedResources("Cars").size(), 1);
+
+        overlayNetworkManager.onMessageReceived(ordinaryPeerNode, Message.parse(
+                "0036 RESOURCESDELTA 192.168.1.1 6001 5 6 1 0 Thor"));
+        Assert.assertEquals(superPeerResourceIndex.getResourceListVersion(ordinaryPeerNode), Long.valueOf(3));
+        Assert.assertEquals(superPeerResourceIndex.findAggregatedResources("Thor").size(), 0);
+
+        ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        Mockito.verify(router, Mockito.times(1))
+                .sendMessage(Mockito.eq("192.168.1.1"), Mockito.eq(6001), messageCaptor.capture());
+        Assert.assertEquals(messageCaptor.getValue().getType(), MessageType.LIST_RESOURCES);
+    }
+
+    @Test(priority = 4)
+    public void testHandleInvalidResourcesDelta() {
+        logger.info("Running Overlay Network Manager Test 06 - Handle invalid resources delta");
+
+        serviceHolder.promoteToSuperPeer();
+        RoutingTable routingTable = serviceHolder.getRouter().getRoutingTable();
+        Assert.assertTrue(routingTable instanceof SuperPeerRoutingTable);
+        ((SuperPeerRoutingTable) routingTable).addAssignedOrdinaryNetworkRoutingTableEntry("192.168.1.1", 6001);
+        Node ordinaryPeerNode = new Node("192.168.1.1", 6001);
+
+        SuperPeerResourceIndex superPeerResourceIndex = (SuperPeerResourceIndex) serviceHolder.getResourceIndex();
+        superPeerResourceIndex.replaceAllAggregatedResources(Collections.singletonList("Lord of the Rings"),
+                ordinaryPeerNode.getIp(), ordinaryPeerNode.getPort(), 2L);
+
+        overlayNetworkManager.onMessageReceived(ordinaryPeerNode, Message.parse(
+                "0063 RESOURCESDELTA 192.168.1.1 6001 2 3 2 1 Cars \"Lord of the Rings\""));
+        overlayNetworkManager.onMessageReceived(ordinaryPeerNode, Message.parse(
+                "0063 RESOURCESDELTA 192.168.1.1 6001 2 3 -1 1 Cars \"Lord of the Rings\""));
+        overlayNetworkManager.onMessageReceived(ordinaryPeerNode, Message.parse(
+                "0063 RESOURCESDELTA 192.168.1.1 6001 2 3 1 one Cars \"Lord of the Rings\""));
+        overlayNetworkManager.onMessageReceived(ordinaryPeerNode, Message.parse(
+                "0063 RESOURCESDELTA 192.168.1.1 6001 2 three 1 1 Cars \"Lord of the Rings\""));
+
+        Assert.assertEquals(superPeerResourceIndex.getResourceListVersion(ordinaryPeerNode), Long.valueOf(2));
+        Assert.assertEquals(superPeerResourceIndex.findAggregatedResources("Lord of the Rings").size(), 1);
+        Assert.assertEquals(superPeerResourceIndex.findAggregatedResources("Cars").size(), 0);
+        Mockito.verify(router, Mockito.times(0))
+                .sendMessage(Mockito.anyString(), Mockito.anyInt(), Mockito.any(Message.class));
+    }
+
+    /**
+     * Create a RESOURCE_SUMMARY message sent by a super peer.
+     *
+     * @param node            The super peer which sends the summary
+     * @param resourceSummary The summary to be sent
+     * @return The RESOURCE_SUMMARY message
+     */
+    private Message createResourceSummaryMessage(Node node, ResourceSummary resourceSummary) {
+        Message message = new Message();
+        message.setType(MessageType.RESOURCE_SUMMARY);
+        message.setData(MessageIndexes.RESOURCE_SUMMARY_IP, node.getIp());
+        message.setData(MessageIndexes.RESOURCE_SUMMARY_PORT, Integer.toString(node.getPort()));
+        message.setData(MessageIndexes.RESOURCE_SUMMARY_BIT_COUNT, Integer.toString(resourceSummary.getBitCount()));
+        message.setData(MessageIndexes.RESOURCE_SUMMARY_HASH_FUNCTION_COUNT,
+                Integer.toString(resourceSummary.getHashFunctionCount()));
+        message.setData(MessageIndexes.RESOURCE_SUMMARY_BITS, resourceSummary.encode());
+        return message;
+    }
 }
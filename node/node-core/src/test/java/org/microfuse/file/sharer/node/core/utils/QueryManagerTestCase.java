@@ -3,12 +3,14 @@ package org.microfuse.file.sharer.node.core.utils;
 import org.microfuse.file.sharer.node.commons.Configuration;
 import org.microfuse.file.sharer.node.commons.communication.messaging.MessageIndexes;
 import org.microfuse.file.sharer.node.commons.communication.messaging.MessageType;
+import org.microfuse.file.sharer.node.commons.peer.Node;
 import org.microfuse.file.sharer.node.commons.peer.NodeConstants;
 import org.microfuse.file.sharer.node.core.BaseTestCase;
 import org.microfuse.file.sharer.node.core.communication.messaging.Message;
 import org.microfuse.file.sharer.node.core.communication.network.UDPSocketNetworkHandler;
 import org.microfuse.file.sharer.node.core.communication.routing.Router;
 import org.microfuse.file.sharer.node.core.communication.routing.strategy.UnstructuredFloodingRoutingStrategy;
+import org.microfuse.file.sharer.node.core.resource.AggregatedResource;
 import org.mockito.Mockito;
 import org.mockito.internal.util.reflection.Whitebox;
 import org.slf4j.Logger;
@@ -81,4 +83,152 @@ public class QueryManagerTestCase extends BaseTestCase {
 
         Mockito.verify(router, Mockito.times(1)).route(usedMessage);
     }
+
+    @Test(priority = 3)
+    public void testPagedSerOkMessages() {
+        logger.info("Running Query Manager Test 03 - Paged " + MessageType.SER_OK.getValue() + " messages");
+
+        queryManager.query("Cars");
+        Node fromNode = new Node("192.168.1.2", 4532);
+
+        queryManager.onMessageReceived(fromNode, Message.parse("0050 " + MessageType.SER_OK.getValue()
+                + " Cars 0 2 2 192.168.1.2 4532 0 2 \"Cars 1\" \"Cars 2\""));
+        Assert.assertEquals(queryManager.getQueryResults("Cars").size(), 2);
+        Assert.assertTrue(queryManager.hasIncompleteResponses("Cars"));
+
+        queryManager.onMessageReceived(fromNode, Message.parse("0050 " + MessageType.SER_OK.getValue()
+                + " Cars 0 2 2 192.168.1.2 4532 0 2 \"Cars 1\" \"Cars 2\""));
+        Assert.assertEquals(queryManager.getQueryResults("Cars").size(), 2);
+        Assert.assertTrue(queryManager.hasIncompleteResponses("Cars"));
+
+        queryManager.onMessageReceived(fromNode, Message.parse("0050 " + MessageType.SER_OK.getValue()
+                + " Cars 0 2 2 192.168.1.2 4532 1 2 \"Cars 2\" \"Cars 3\""));
+        List<AggregatedResource> results = queryManager.getQueryResults("Cars");
+        Assert.assertEquals(results.size(), 3);
+        Assert.assertEquals(results.get(0).getName(), "Cars 1");
+        Assert.assertEquals(results.get(1).getName(), "Cars 2");
+        Assert.assertEquals(results.get(2).getName(), "Cars 3");
+        Assert.assertEquals(results.get(1).getNodeCount(), 1);
+        Assert.assertFalse(queryManager.hasIncompleteResponses("Cars"));
+    }
+
+    @Test(priority = 4)
+    public void testQueryIds() {
+        logger.info("Running Query Manager Test 04 - Query IDs");
+
+        Query query1 = queryManager.query("Cars");
+        Query query2 = queryManager.query("Lord of the Rings");
+        Query query3 = queryManager.query("Cars");
+
+        Assert.assertEquals(query1.getId(), 0);
+        Assert.assertEquals(query2.getId(), 1);
+        Assert.assertEquals(query3.getId(), 2);
+        Assert.assertTrue(query1.isCompleted());
+        Assert.assertFalse(query2.isCompleted());
+        Assert.assertFalse(query3.isCompleted());
+        Assert.assertTrue(queryManager.getQuery(0) == query1);
+        Assert.assertEquals(queryManager.getRunningQueryStrings().size(), 2);
+
+        Node fromNode = new Node("192.168.1.2", 4532);
+        queryManager.onMessageReceived(fromNode, Message.parse("0050 " + MessageType.SER_OK.getValue()
+                + " Cars 0 2 2 192.168.1.2 4532 0 1 \"Cars 1\" \"Cars 2\""));
+        Assert.assertEquals(query1.getResultCount(), 0);
+        Assert.assertEquals(queryManager.getQueryResults("Cars").size(), 0);
+
+        queryManager.onMessageReceived(fromNode, Message.parse("0050 " + MessageType.SER_OK.getValue()
+                + " Cars 2 2 2 192.168.1.2 4532 0 1 \"Cars 1\" \"Cars 2\""));
+        Assert.assertEquals(query3.getResultCount(), 2);
+        Assert.assertEquals(queryManager.getQueryResults("Cars").size(), 2);
+    }
+
+    @Test(priority = 5)
+    public void testQueryDeadline() throws Exception {
+        logger.info("Running Query Manager Test 05 - Query deadline");
+
+        Query query = queryManager.query("Cars", 500, 10);
+        Assert.assertFalse(query.isCompleted());
+        Assert.assertTrue(query.awaitCompletion(5000));
+        Assert.assertTrue(query.getCompletionTimeStamp() >= query.getStartTimeStamp());
+
+        Node fromNode = new Node("192.168.1.2", 4532);
+        queryManager.onMessageReceived(fromNode, Message.parse("0050 " + MessageType.SER_OK.getValue()
+                + " Cars 0 2 2 192.168.1.2 4532 0 1 \"Cars 1\" \"Cars 2\""));
+        Assert.assertEquals(query.getResultCount(), 0);
+    }
+
+    @Test(priority = 6)
+    public void testQueryMaxResults() {
+        logger.info("Running Query Manager Test 06 - Query max results");
+
+        Query query = queryManager.query("Cars", 60000, 3);
+        Node fromNode = new Node("192.168.1.2", 4532);
+
+        queryManager.onMessageReceived(fromNode, Message.parse("0050 " + MessageType.SER_OK.getValue()
+                + " Cars 0 2 2 192.168.1.2 4532 0 2 \"Cars 1\" \"Cars 2\""));
+        Assert.assertFalse(query.isCompleted());
+
+        queryManager.onMessageReceived(fromNode, Message.parse("0050 " + MessageType.SER_OK.getValue()
+                + " Cars 0 2 2 192.168.1.2 4532 1 2 \"Cars 3\" \"Cars 4\""));
+        Assert.assertTrue(query.isCompleted());
+        Assert.assertEquals(query.getResultCount(), 3);
+        Assert.assertEquals(queryManager.getQueryResults("Cars").size(), 3);
+    }
+
+    @Test(priority = 7)
+    public void testQueryEviction() {
+        logger.info("Running Query Manager Test 07 - Query eviction");
+
+        serviceHolder.getConfiguration().setQueryResultsRetentionTime(500);
+        Query query = queryManager.query("Cars");
+        Assert.assertTrue(queryManager.stopQuery(query.getId()));
+        Assert.assertFalse(queryManager.stopQuery(query.getId()));
+        Assert.assertTrue(queryManager.getQuery(query.getId()) == query);
+
+        waitFor(2000);
+        Assert.assertNull(queryManager.getQuery(query.getId()));
+        Assert.assertEquals(queryManager.getRunningQueryStrings().size(), 0);
+    }
+
+    @Test(priority = 8)
+    public void testQueryServedFromCache() {
+        logger.info("Running Query Manager Test 08 - Query served from cache");
+
+        Query query1 = queryManager.query("Lord of the Rings", 60000, 1);
+        queryManager.onMessageReceived(new Node("192.168.1.2", 4532), Message.parse("0050 "
+                + MessageType.SER_OK.getValue() + " \"Lord of the Rings\" 0 2 1 192.168.1.2 4532 0 1 "
+                + "\"Lord of the Rings\""));
+        Assert.assertTrue(query1.isCompleted());
+        Assert.assertFalse(query1.isServedFromCache());
+
+        Query query2 = queryManager.query("rings the of lord");
+        Assert.assertTrue(query2.isCompleted());
+        Assert.assertTrue(query2.isServedFromCache());
+        List<AggregatedResource> results = query2.getResults();
+        Assert.assertEquals(results.size(), 1);
+        Assert.assertEquals(results.get(0).getName(), "Lord of the Rings");
+        Assert.assertTrue(results.get(0).getAllNodes().contains(new Node("192.168.1.2", 4532)));
+        Mockito.verify(router, Mockito.times(1)).route(Mockito.any(Message.class));
+    }
+
+    @Test(priority = 9)
+    public void testMalformedSerOkMessages() {
+        logger.info("Running Query Manager Test 09 - Malformed " + MessageType.SER_OK.getValue() + " messages");
+
+        queryManager.query("Cars");
+        Node fromNode = new Node("192.168.1.2", 4532);
+
+        queryManager.onMessageReceived(fromNode, Message.parse("0050 " + MessageType.SER_OK.getValue()
+                + " Cars 0 2 3 192.168.1.2 4532 0 1 \"Cars 1\" \"Cars 2\""));
+        queryManager.onMessageReceived(fromNode, Message.parse("0050 " + MessageType.SER_OK.getValue()
+                + " Cars 0 2 -1 192.168.1.2 4532 0 1 \"Cars 1\" \"Cars 2\""));
+        queryManager.onMessageReceived(fromNode, Message.parse("0050 " + MessageType.SER_OK.getValue()
+                + " Cars 0 2 two 192.168.1.2 4532 0 1 \"Cars 1\" \"Cars 2\""));
+        queryManager.onMessageReceived(fromNode, Message.parse("0050 " + MessageType.SER_OK.getValue()
+                + " Cars first 2 2 192.168.1.2 4532 0 2 \"Cars 1\" \"Cars 2\""));
+        Assert.assertEquals(queryManager.getQueryResults("Cars").size(), 0);
+
+        queryManager.onMessageReceived(fromNode, Message.parse("0050 " + MessageType.SER_OK.getValue()
+                + " Cars 0 2 2 192.168.1.2 4532 0 2 \"Cars 1\" \"Cars 2\""));
+        Assert.assertEquals(queryManager.getQueryResults("Cars").size(), 2);
+    }
 }
@@ -0,0 +1,129 @@
+package org.microfuse.file.sharer.node.core.utils;
+
+import org.microfuse.file.sharer.node.commons.peer.Node;
+import org.microfuse.file.sharer.node.core.BaseTestCase;
+import org.microfuse.file.sharer.node.core.resource.AggregatedResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test Case for org.microfuse.file.sharer.node.core.utils.QueryResultCache class.
+ */
+public class QueryResultCacheTestCase extends BaseTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(QueryResultCacheTestCase.class);
+
+    private QueryResultCache queryResultCache;
+    private List<AggregatedResource> resources;
+
+    @BeforeMethod
+    public void initializeMethod() {
+        logger.info("Initializing Query Result Cache Test");
+
+        queryResultCache = new QueryResultCache(serviceHolder);
+
+        AggregatedResource resource = new AggregatedResource("Lord of the Rings");
+        resource.addNode(new Node("192.168.1.2", 4532));
+        resource.addNode(new Node("192.168.1.3", 6534));
+        resources = new ArrayList<>();
+        resources.add(resource);
+    }
+
+    @Test(priority = 1)
+    public void testPutAndGet() {
+        logger.info("Running Query Result Cache Test 01 - Put and get");
+
+        queryResultCache.put("Lord of the Rings", resources);
+        List<AggregatedResource> cachedResources = queryResultCache.get("Lord of the Rings");
+
+        Assert.assertNotNull(cachedResources);
+        Assert.assertEquals(cachedResources.size(), 1);
+        Assert.assertEquals(cachedResources.get(0).getName(), "Lord of the Rings");
+        Assert.assertEquals(cachedResources.get(0).getNodeCount(), 2);
+        Assert.assertNull(queryResultCache.get("Lord"));
+        Assert.assertEquals(queryResultCache.getHitCount(), 1);
+        Assert.assertEquals(queryResultCache.getMissCount(), 1);
+    }
+
+    @Test(priority = 2)
+    public void testQueryTokens() {
+        logger.info("Running Query Result Cache Test 02 - Query tokens");
+
+        queryResultCache.put("Lord of the Rings", resources);
+
+        Assert.assertNotNull(queryResultCache.get("lord OF the  rings"));
+        Assert.assertNotNull(queryResultCache.get("Rings of the Lord"));
+        Assert.assertNotNull(queryResultCache.get("Lord Lord of the Rings"));
+        Assert.assertNull(queryResultCache.get("Lord of Rings"));
+    }
+
+    @Test(priority = 3)
+    public void testCachedResultsCopied() {
+        logger.info("Running Query Result Cache Test 03 - Cached results copied");
+
+        queryResultCache.put("Lord of the Rings", resources);
+        resources.get(0).addNode(new Node("192.168.1.4", 5643));
+        queryResultCache.get("Lord of the Rings").get(0).addNode(new Node("192.168.1.5", 7453));
+
+        Assert.assertEquals(queryResultCache.get("Lord of the Rings").get(0).getNodeCount(), 2);
+    }
+
+    @Test(priority = 4)
+    public void testEmptyResultsNotCached() {
+        logger.info("Running Query Result Cache Test 04 - Empty results not cached");
+
+        queryResultCache.put("Lord of the Rings", Collections.emptyList());
+
+        Assert.assertEquals(queryResultCache.size(), 0);
+        Assert.assertNull(queryResultCache.get("Lord of the Rings"));
+    }
+
+    @Test(priority = 5)
+    public void testExpiry() {
+        logger.info("Running Query Result Cache Test 05 - Expiry");
+
+        serviceHolder.getConfiguration().setQueryResultCacheTimeToLive(500);
+        queryResultCache.put("Lord of the Rings", resources);
+        queryResultCache.put("Rings", resources);
+        Assert.assertNotNull(queryResultCache.get("Lord of the Rings"));
+
+        waitFor(1000);
+        Assert.assertNull(queryResultCache.get("Lord of the Rings"));
+        Assert.assertEquals(queryResultCache.size(), 1);
+        queryResultCache.collectGarbage();
+        Assert.assertEquals(queryResultCache.size(), 0);
+    }
+
+    @Test(priority = 6)
+    public void testLeastRecentlyUsedEviction() {
+        logger.info("Running Query Result Cache Test 06 - Least recently used eviction");
+
+        serviceHolder.getConfiguration().setQueryResultCacheMaxSize(2);
+        queryResultCache.put("Lord", resources);
+        queryResultCache.put("Rings", resources);
+        Assert.assertNotNull(queryResultCache.get("Lord"));
+        queryResultCache.put("Lord of the Rings", resources);
+
+        Assert.assertEquals(queryResultCache.size(), 2);
+        Assert.assertNotNull(queryResultCache.get("Lord"));
+        Assert.assertNull(queryResultCache.get("Rings"));
+        Assert.assertNotNull(queryResultCache.get("Lord of the Rings"));
+    }
+
+    @Test(priority = 7)
+    public void testDisabled() {
+        logger.info("Running Query Result Cache Test 07 - Disabled");
+
+        serviceHolder.getConfiguration().setQueryResultCacheTimeToLive(0);
+        queryResultCache.put("Lord of the Rings", resources);
+
+        Assert.assertEquals(queryResultCache.size(), 0);
+        Assert.assertNull(queryResultCache.get("Lord of the Rings"));
+    }
+}
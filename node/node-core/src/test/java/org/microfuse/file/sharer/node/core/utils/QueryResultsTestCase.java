@@ -0,0 +1,113 @@
+package org.microfuse.file.sharer.node.core.utils;
+
+import org.microfuse.file.sharer.node.commons.peer.Node;
+import org.microfuse.file.sharer.node.core.BaseTestCase;
+import org.microfuse.file.sharer.node.core.resource.AggregatedResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test Case for org.microfuse.file.sharer.node.core.utils.QueryResults class.
+ */
+public class QueryResultsTestCase extends BaseTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(QueryResultsTestCase.class);
+
+    private QueryResults queryResults;
+
+    @BeforeMethod
+    public void initializeMethod() {
+        logger.info("Initializing Query Results Test");
+
+        queryResults = new QueryResults();
+    }
+
+    @Test(priority = 1)
+    public void testAddPage() {
+        logger.info("Running Query Results Test 01 - Add page");
+
+        Node node1 = new Node("192.168.1.2", 4532);
+        Node node2 = new Node("192.168.1.3", 6534);
+        Assert.assertTrue(queryResults.addPage(node1, 0, 1, Arrays.asList("Cars 2", "Cars 1")));
+        Assert.assertTrue(queryResults.addPage(node2, 0, 1, Arrays.asList("Cars 3", "Cars 1")));
+
+        List<AggregatedResource> resources = queryResults.getResources();
+        Assert.assertEquals(resources.size(), 3);
+        Assert.assertEquals(queryResults.getResourceCount(), 3);
+        Assert.assertEquals(resources.get(0).getName(), "Cars 2");
+        Assert.assertEquals(resources.get(1).getName(), "Cars 1");
+        Assert.assertEquals(resources.get(2).getName(), "Cars 3");
+        Assert.assertEquals(resources.get(0).getNodeCount(), 1);
+        Assert.assertEquals(resources.get(1).getNodeCount(), 2);
+        Assert.assertTrue(resources.get(1).getAllNodes().contains(node1));
+        Assert.assertTrue(resources.get(1).getAllNodes().contains(node2));
+        Assert.assertFalse(queryResults.hasIncompleteResponses());
+    }
+
+    @Test(priority = 2)
+    public void testAddRepeatedPage() {
+        logger.info("Running Query Results Test 02 - Add repeated page");
+
+        Node node = new Node("192.168.1.2", 4532);
+        Assert.assertTrue(queryResults.addPage(node, 0, 3, Arrays.asList("Cars 1", "Cars 2")));
+        Assert.assertFalse(queryResults.addPage(node, 0, 3, Arrays.asList("Cars 1", "Cars 2")));
+        Assert.assertTrue(queryResults.addPage(node, 2, 3, Arrays.asList("Cars 5", "Cars 6")));
+        Assert.assertTrue(queryResults.hasIncompleteResponses());
+
+        Assert.assertTrue(queryResults.addPage(node, 1, 3, Arrays.asList("Cars 3", "Cars 4")));
+        Assert.assertFalse(queryResults.hasIncompleteResponses());
+        Assert.assertEquals(queryResults.getResourceCount(), 6);
+    }
+
+    @Test(priority = 2)
+    public void testAddInvalidPage() {
+        logger.info("Running Query Results Test 03 - Add invalid page");
+
+        Node node = new Node("192.168.1.2", 4532);
+        Assert.assertFalse(queryResults.addPage(node, 0, -1, Arrays.asList("Cars 1", "Cars 2")));
+        Assert.assertFalse(queryResults.addPage(node, 0, 0, Arrays.asList("Cars 1", "Cars 2")));
+        Assert.assertFalse(queryResults.addPage(node, -1, 2, Arrays.asList("Cars 1", "Cars 2")));
+        Assert.assertFalse(queryResults.addPage(node, 2, 2, Arrays.asList("Cars 1", "Cars 2")));
+        Assert.assertFalse(queryResults.addPage(node, Integer.MAX_VALUE - 1, 2, Arrays.asList("Cars 1", "Cars 2")));
+        Assert.assertFalse(queryResults.hasIncompleteResponses());
+        Assert.assertEquals(queryResults.getResourceCount(), 0);
+
+        Assert.assertTrue(queryResults.addPage(node, 0, 2, Arrays.asList("Cars 1", "Cars 2")));
+        Assert.assertFalse(queryResults.addPage(node, 2, 3, Arrays.asList("Cars 5", "Cars 6")));
+        Assert.assertTrue(queryResults.hasIncompleteResponses());
+        Assert.assertEquals(queryResults.getResourceCount(), 2);
+    }
+
+    @Test(priority = 3)
+    public void testConcurrentAddPage() throws Exception {
+        logger.info("Running Query Results Test 04 - Concurrent add page");
+
+        List<String> fileNames = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            fileNames.add("Cars " + i);
+        }
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Node node = new Node("192.168.1." + i, 4532);
+            threads.add(new Thread(() -> queryResults.addPage(node, 0, 1, fileNames)));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<AggregatedResource> resources = queryResults.getResources();
+        Assert.assertEquals(resources.size(), 100);
+        for (AggregatedResource resource : resources) {
+            Assert.assertEquals(resource.getNodeCount(), 10);
+        }
+    }
+}
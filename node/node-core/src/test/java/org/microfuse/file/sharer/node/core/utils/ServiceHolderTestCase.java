@@ -6,6 +6,7 @@ import org.microfuse.file.sharer.node.commons.Constants;
 import org.microfuse.file.sharer.node.commons.communication.network.NetworkHandlerType;
 import org.microfuse.file.sharer.node.commons.communication.routing.strategy.RoutingStrategyType;
 import org.microfuse.file.sharer.node.commons.peer.NodeConstants;
+import org.microfuse.file.sharer.node.commons.tracing.TraceableState;
 import org.microfuse.file.sharer.node.core.BaseTestCase;
 import org.microfuse.file.sharer.node.core.communication.network.NetworkHandler;
 import org.microfuse.file.sharer.node.core.communication.network.UDPSocketNetworkHandler;
@@ -266,4 +267,29 @@ public class ServiceHolderTestCase extends BaseTestCase {
         Assert.assertFalse(initialRoutingStrategy == finalRoutingStrategy);
         Assert.assertTrue(finalRoutingStrategy instanceof UnstructuredRandomWalkRoutingStrategy);
     }
+
+    @Test(priority = 10)
+    public void testTracerLookupRetryInterval() {
+        logger.info("Running Service Holder Test 12 - Tracer lookup retry interval");
+
+        serviceHolder.getConfiguration().setTracerIP("127.0.0.1");
+        serviceHolder.getConfiguration().setTracerLookupRetryInterval(60000);
+        serviceHolder.changeTraceableState(TraceableState.TRACEABLE);
+        Assert.assertNull(serviceHolder.getTracer());
+
+        long failureTimeStamp = (Long) Whitebox.getInternalState(serviceHolder, "tracerLookupFailureTimeStamp");
+        Assert.assertTrue(failureTimeStamp > 0);
+
+        waitFor(100);
+        Assert.assertNull(serviceHolder.getTracer());
+        Assert.assertEquals(Whitebox.getInternalState(serviceHolder, "tracerLookupFailureTimeStamp"),
+                failureTimeStamp);
+
+        serviceHolder.getConfiguration().setTracerLookupRetryInterval(0);
+        waitFor(100);
+        Assert.assertNull(serviceHolder.getTracer());
+        Assert.assertTrue((Long) Whitebox.getInternalState(serviceHolder, "tracerLookupFailureTimeStamp")
+                > failureTimeStamp);
+        Assert.assertFalse((Boolean) Whitebox.getInternalState(serviceHolder, "tracerLookupInProgress"));
+    }
 }
@@ -0,0 +1,171 @@
+package org.microfuse.file.sharer.node.core.utils;
+
+import org.microfuse.file.sharer.node.core.BaseTestCase;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test Case for org.microfuse.file.sharer.node.core.utils.TaskScheduler class.
+ */
+public class TaskSchedulerTestCase extends BaseTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(TaskSchedulerTestCase.class);
+
+    private TaskScheduler taskScheduler;
+
+    @BeforeMethod
+    public void initializeMethod() {
+        logger.info("Initializing Task Scheduler Test");
+
+        serviceHolder.getConfiguration().setNetworkHandlerThreadCount(2);
+        taskScheduler = new TaskScheduler(serviceHolder);
+    }
+
+    @AfterMethod
+    public void cleanUp() {
+        logger.info("Cleaning Up Task Scheduler Test");
+
+        taskScheduler.shutdown();
+    }
+
+    @Test(priority = 1)
+    public void testExecute() throws Exception {
+        logger.info("Running Task Scheduler Test 01 - Execute");
+
+        CountDownLatch countDownLatch = new CountDownLatch(3);
+        taskScheduler.execute(TaskSubsystem.GOSSIP, countDownLatch::countDown);
+        taskScheduler.execute(TaskSubsystem.GOSSIP, () -> {
+            throw new IllegalStateException("Test failure");
+        });
+        taskScheduler.execute(TaskSubsystem.GOSSIP, countDownLatch::countDown);
+        taskScheduler.execute(TaskSubsystem.HEART_BEAT, countDownLatch::countDown);
+
+        Assert.assertTrue(countDownLatch.await(1000, TimeUnit.MILLISECONDS));
+        waitFor(100);
+        SubsystemExecutor gossipExecutor = taskScheduler.getExecutor(TaskSubsystem.GOSSIP);
+        Assert.assertEquals(gossipExecutor.getSubmittedTaskCount(), 3);
+        Assert.assertEquals(gossipExecutor.getCompletedTaskCount(), 2);
+        Assert.assertEquals(gossipExecutor.getFailedTaskCount(), 1);
+        Assert.assertEquals(gossipExecutor.getQueuedTaskCount(), 0);
+        Assert.assertEquals(taskScheduler.getExecutor(TaskSubsystem.HEART_BEAT).getCompletedTaskCount(), 1);
+    }
+
+    @Test(priority = 2)
+    public void testMaxConcurrency() throws Exception {
+        logger.info("Running Task Scheduler Test 02 - Max concurrency");
+
+        SubsystemExecutor listenerExecutor = taskScheduler.getExecutor(TaskSubsystem.NETWORK_HANDLER_LISTENER);
+        Assert.assertEquals(listenerExecutor.getMaxConcurrency(), 2);
+
+        CountDownLatch releaseLatch = new CountDownLatch(1);
+        CountDownLatch completedLatch = new CountDownLatch(5);
+        AtomicInteger runningTaskCount = new AtomicInteger(0);
+        AtomicInteger maxRunningTaskCount = new AtomicInteger(0);
+        for (int i = 0; i < 5; i++) {
+            listenerExecutor.execute(() -> {
+                maxRunningTaskCount.accumulateAndGet(runningTaskCount.incrementAndGet(), Math::max);
+                try {
+                    releaseLatch.await(1000, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ignored) {
+                }
+                runningTaskCount.decrementAndGet();
+                completedLatch.countDown();
+            });
+        }
+        waitFor(200);
+
+        Assert.assertEquals(listenerExecutor.getActiveWorkerCount(), 2);
+        Assert.assertEquals(listenerExecutor.getQueuedTaskCount(), 3);
+
+        releaseLatch.countDown();
+        Assert.assertTrue(completedLatch.await(1000, TimeUnit.MILLISECONDS));
+        waitFor(100);
+        Assert.assertEquals(maxRunningTaskCount.get(), 2);
+        Assert.assertEquals(listenerExecutor.getCompletedTaskCount(), 5);
+    }
+
+    @Test(priority = 3)
+    public void testSchedulePeriodically() {
+        logger.info("Running Task Scheduler Test 03 - Schedule periodically");
+
+        AtomicInteger runCount = new AtomicInteger(0);
+        ScheduledTask scheduledTask = taskScheduler.schedulePeriodically(
+                TaskSubsystem.GARBAGE_COLLECTION, runCount::incrementAndGet, () -> 100);
+        Assert.assertEquals(taskScheduler.getScheduledTaskCount(), 1);
+        waitFor(350);
+        taskScheduler.cancel(scheduledTask);
+        int cancelledRunCount = runCount.get();
+        waitFor(300);
+
+        Assert.assertTrue(cancelledRunCount >= 2 && cancelledRunCount <= 3);
+        Assert.assertEquals(runCount.get(), cancelledRunCount);
+        Assert.assertTrue(scheduledTask.isCancelled());
+        Assert.assertEquals(taskScheduler.getScheduledTaskCount(), 0);
+    }
+
+    @Test(priority = 4)
+    public void testShutdown() {
+        logger.info("Running Task Scheduler Test 04 - Shutdown");
+
+        AtomicInteger runCount = new AtomicInteger(0);
+        ScheduledTask scheduledTask = taskScheduler.schedulePeriodically(
+                TaskSubsystem.HEART_BEAT, runCount::incrementAndGet, () -> 100);
+        taskScheduler.shutdown();
+        taskScheduler.execute(TaskSubsystem.HEART_BEAT, runCount::incrementAndGet);
+        waitFor(300);
+
+        Assert.assertTrue(taskScheduler.isShutdown());
+        Assert.assertTrue(scheduledTask.isCancelled());
+        Assert.assertEquals(runCount.get(), 0);
+        Assert.assertEquals(taskScheduler.getExecutor(TaskSubsystem.HEART_BEAT).getRejectedTaskCount(), 1);
+    }
+
+    @Test(priority = 5)
+    public void testSchedule() throws Exception {
+        logger.info("Running Task Scheduler Test 05 - Schedule");
+
+        CountDownLatch countDownLatch = new CountDownLatch(1);
+        AtomicInteger runCount = new AtomicInteger(0);
+        taskScheduler.schedule(TaskSubsystem.NETWORK_HANDLER_MAINTENANCE, () -> {
+            runCount.incrementAndGet();
+            countDownLatch.countDown();
+        }, 50);
+        ScheduledFuture<?> cancelledFuture = taskScheduler.schedule(
+                TaskSubsystem.NETWORK_HANDLER_MAINTENANCE, runCount::incrementAndGet, 50);
+        cancelledFuture.cancel(false);
+
+        Assert.assertEquals(runCount.get(), 0);
+        Assert.assertTrue(countDownLatch.await(1000, TimeUnit.MILLISECONDS));
+        waitFor(100);
+        Assert.assertEquals(runCount.get(), 1);
+        Assert.assertEquals(taskScheduler.getExecutor(TaskSubsystem.NETWORK_HANDLER_MAINTENANCE)
+                .getCompletedTaskCount(), 1);
+    }
+
+    @Test(priority = 6)
+    public void testBoundedWorkers() {
+        logger.info("Running Task Scheduler Test 06 - Bounded workers");
+
+        Object workerExecutorService = Whitebox.getInternalState(taskScheduler, "sharedWorkerExecutorService");
+        Assert.assertTrue(workerExecutorService instanceof ThreadPoolExecutor);
+        int maxPoolSize = ((ThreadPoolExecutor) workerExecutorService).getMaximumPoolSize();
+        Assert.assertTrue(maxPoolSize >= serviceHolder.getConfiguration().getTaskSchedulerWorkerThreadCount());
+        Assert.assertTrue(maxPoolSize < Integer.MAX_VALUE);
+
+        serviceHolder.getConfiguration().setTaskSchedulerWorkerThreadCount(maxPoolSize + 1);
+        TaskScheduler newTaskScheduler = new TaskScheduler(serviceHolder);
+
+        Assert.assertEquals(((ThreadPoolExecutor) workerExecutorService).getMaximumPoolSize(), maxPoolSize + 1);
+        newTaskScheduler.shutdown();
+    }
+}
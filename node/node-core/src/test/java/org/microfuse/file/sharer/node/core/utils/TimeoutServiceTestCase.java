@@ -0,0 +1,122 @@
+package org.microfuse.file.sharer.node.core.utils;
+
+import org.microfuse.file.sharer.node.core.BaseTestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test Case for org.microfuse.file.sharer.node.core.utils.TimeoutService class.
+ */
+public class TimeoutServiceTestCase extends BaseTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(TimeoutServiceTestCase.class);
+
+    private TimeoutService timeoutService;
+
+    @BeforeMethod
+    public void initializeMethod() {
+        logger.info("Initializing Timeout Service Test");
+
+        serviceHolder.getConfiguration().setTimeoutServiceTickDuration(10);
+        timeoutService = new TimeoutService(serviceHolder);
+    }
+
+    @AfterMethod
+    public void cleanUp() {
+        logger.info("Cleaning Up Timeout Service Test");
+
+        timeoutService.shutdown();
+    }
+
+    @Test(priority = 1)
+    public void testExpiry() {
+        logger.info("Running Timeout Service Test 01 - Expiry");
+
+        AtomicInteger expiredCount = new AtomicInteger(0);
+        Timeout timeout = timeoutService.schedule(expiredCount::incrementAndGet, 300);
+        Assert.assertTrue(timeoutService.isTicking());
+        Assert.assertEquals(timeoutService.getPendingTimeoutCount(), 1);
+
+        waitFor(150);
+        Assert.assertEquals(expiredCount.get(), 0);
+        Assert.assertFalse(timeout.isExpired());
+
+        waitFor(350);
+        Assert.assertEquals(expiredCount.get(), 1);
+        Assert.assertTrue(timeout.isExpired());
+        Assert.assertFalse(timeout.cancel());
+        Assert.assertEquals(timeoutService.getPendingTimeoutCount(), 0);
+        Assert.assertFalse(timeoutService.isTicking());
+    }
+
+    @Test(priority = 2)
+    public void testCancel() {
+        logger.info("Running Timeout Service Test 02 - Cancel");
+
+        AtomicInteger expiredCount = new AtomicInteger(0);
+        Timeout timeout1 = timeoutService.schedule(expiredCount::incrementAndGet, 200);
+        Timeout timeout2 = timeoutService.schedule(expiredCount::incrementAndGet, 200);
+        Assert.assertTrue(timeout1.cancel());
+        Assert.assertFalse(timeout1.cancel());
+
+        waitFor(400);
+        Assert.assertEquals(expiredCount.get(), 1);
+        Assert.assertTrue(timeout1.isCancelled());
+        Assert.assertTrue(timeout2.isExpired());
+        Assert.assertEquals(timeoutService.getPendingTimeoutCount(), 0);
+    }
+
+    @Test(priority = 3)
+    public void testExpiryAfterMultipleRounds() {
+        logger.info("Running Timeout Service Test 03 - Expiry after multiple rounds");
+
+        serviceHolder.getConfiguration().setTimeoutServiceTickDuration(1);
+        AtomicInteger expiredCount = new AtomicInteger(0);
+        Timeout timeout = timeoutService.schedule(expiredCount::incrementAndGet, 1200);
+
+        waitFor(800);
+        Assert.assertEquals(expiredCount.get(), 0);
+        Assert.assertFalse(timeout.isExpired());
+
+        waitFor(800);
+        Assert.assertEquals(expiredCount.get(), 1);
+        Assert.assertTrue(timeout.isExpired());
+    }
+
+    @Test(priority = 4)
+    public void testRestartTicking() {
+        logger.info("Running Timeout Service Test 04 - Restart ticking");
+
+        AtomicInteger expiredCount = new AtomicInteger(0);
+        timeoutService.schedule(expiredCount::incrementAndGet, 50);
+        waitFor(200);
+        Assert.assertFalse(timeoutService.isTicking());
+
+        timeoutService.schedule(expiredCount::incrementAndGet, 50);
+        Assert.assertTrue(timeoutService.isTicking());
+        waitFor(200);
+        Assert.assertEquals(expiredCount.get(), 2);
+    }
+
+    @Test(priority = 5)
+    public void testShutdown() {
+        logger.info("Running Timeout Service Test 05 - Shutdown");
+
+        AtomicInteger expiredCount = new AtomicInteger(0);
+        Timeout timeout1 = timeoutService.schedule(expiredCount::incrementAndGet, 100);
+        timeoutService.shutdown();
+        Timeout timeout2 = timeoutService.schedule(expiredCount::incrementAndGet, 100);
+
+        waitFor(300);
+        Assert.assertEquals(expiredCount.get(), 0);
+        Assert.assertTrue(timeout1.isCancelled());
+        Assert.assertTrue(timeout2.isCancelled());
+        Assert.assertEquals(timeoutService.getPendingTimeoutCount(), 0);
+        Assert.assertFalse(timeoutService.isTicking());
+    }
+}
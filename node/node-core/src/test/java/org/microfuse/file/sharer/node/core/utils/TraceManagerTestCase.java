@@ -0,0 +1,121 @@
+package org.microfuse.file.sharer.node.core.utils;
+
+import org.microfuse.file.sharer.node.core.BaseTestCase;
+import org.microfuse.file.sharer.node.core.communication.messaging.Message;
+import org.microfuse.file.sharer.node.core.tracing.TraceEvent;
+import org.microfuse.file.sharer.node.core.tracing.TraceEventType;
+import org.microfuse.file.sharer.node.core.tracing.Tracer;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test Case for org.microfuse.file.sharer.node.core.utils.TraceManager class.
+ */
+public class TraceManagerTestCase extends BaseTestCase {
+    private static final Logger logger = LoggerFactory.getLogger(TraceManagerTestCase.class);
+
+    private ServiceHolder spyServiceHolder;
+    private Tracer tracer;
+    private TraceManager traceManager;
+
+    @BeforeMethod
+    public void initializeMethod() {
+        logger.info("Initializing Trace Manager Test");
+
+        serviceHolder.getConfiguration().setTracerEventQueueSize(3);
+        spyServiceHolder = Mockito.spy(serviceHolder);
+        tracer = Mockito.mock(Tracer.class);
+        Mockito.doReturn(tracer).when(spyServiceHolder).getTracer();
+        traceManager = new TraceManager(spyServiceHolder);
+    }
+
+    @AfterMethod
+    public void cleanUp() {
+        logger.info("Cleaning Up Trace Manager Test");
+
+        traceManager.shutdown();
+    }
+
+    @Test(priority = 1)
+    public void testDropEventsWhenQueueIsFull() {
+        logger.info("Running Trace Manager Test 01 - Drop events when queue is full");
+
+        for (int i = 0; i < 5; i++) {
+            traceManager.publishEvent(createMessageSendEvent(i));
+        }
+
+        Assert.assertEquals(traceManager.getDroppedEventCount(), 2);
+    }
+
+    @Test(priority = 2)
+    @SuppressWarnings("unchecked")
+    public void testSendEventsInBatches() throws Exception {
+        logger.info("Running Trace Manager Test 02 - Send events in batches");
+
+        for (int i = 0; i < 3; i++) {
+            traceManager.publishEvent(createMessageSendEvent(i));
+        }
+        traceManager.start();
+
+        ArgumentCaptor<List> argumentCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(tracer, Mockito.timeout(1000).times(1)).notifyEvents(argumentCaptor.capture());
+        List<TraceEvent> traceEvents = new ArrayList<TraceEvent>(argumentCaptor.getValue());
+        Assert.assertEquals(traceEvents.size(), 3);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(traceEvents.get(i).getTimeStamp(), i);
+        }
+        Assert.assertEquals(traceManager.getDroppedEventCount(), 0);
+    }
+
+    @Test(priority = 3)
+    public void testSendEventsFailure() throws Exception {
+        logger.info("Running Trace Manager Test 03 - Send events failure");
+
+        Mockito.doThrow(new RemoteException()).when(tracer).notifyEvents(Mockito.anyListOf(TraceEvent.class));
+        traceManager.publishEvent(createMessageSendEvent(0));
+        traceManager.publishEvent(createMessageSendEvent(1));
+        traceManager.start();
+
+        Mockito.verify(spyServiceHolder, Mockito.timeout(1000).times(1)).invalidateTracer();
+        Assert.assertEquals(traceManager.getDroppedEventCount(), 2);
+    }
+
+    @Test(priority = 4)
+    @SuppressWarnings("unchecked")
+    public void testSendEventsWithMessageAsPublished() throws Exception {
+        logger.info("Running Trace Manager Test 04 - Send events with message as published");
+
+        Message message = Message.parse("0027 JOIN 192.168.1.1 4067");
+        traceManager.publishEvent(new TraceEvent(TraceEventType.NOTIFY_MESSAGE_SEND, 0, "192.168.1.1", 4067,
+                "192.168.1.2", 4067, message));
+        message.setData(1, "4068");
+        traceManager.start();
+
+        ArgumentCaptor<List> argumentCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(tracer, Mockito.timeout(1000).times(1)).notifyEvents(argumentCaptor.capture());
+        List<TraceEvent> traceEvents = new ArrayList<TraceEvent>(argumentCaptor.getValue());
+        Assert.assertEquals(traceEvents.size(), 1);
+        Assert.assertEquals(traceEvents.get(0).getMessage(), Message.parse("0027 JOIN 192.168.1.1 4067"));
+    }
+
+    /**
+     * Create a message send trace event.
+     *
+     * @param timeStamp The time stamp of the event
+     * @return The trace event
+     */
+    private TraceEvent createMessageSendEvent(long timeStamp) {
+        return new TraceEvent(TraceEventType.NOTIFY_MESSAGE_SEND, timeStamp, "192.168.1.1", 4067,
+                "192.168.1.2", 4067, Message.parse("0027 JOIN 192.168.1.1 4067"));
+    }
+}
@@ -33,7 +33,8 @@ export enum NetworkHandlerType {
   WEB_SERVICES = <any>'WEB_SERVICES',
   RMI = <any>'RMI',
   TCP_SOCKET = <any>'TCP_SOCKET',
-  UDP_SOCKET = <any>'UDP_SOCKET'
+  UDP_SOCKET = <any>'UDP_SOCKET',
+  UDP_CHANNEL = <any>'UDP_CHANNEL'
 }
 
 export enum RoutingStrategyType {